@@ -135,14 +135,15 @@ public class ResultPlotController {
 			// Get the data of chart
 			ObservableList<XYChart.Series<Number, Number>> chartSeries = this.resultsPlot.getData();
 			// if chart not have a series to the current repeat number of the algorithm so create one.
-			if (chartSeries.size() <= repeatNumber){
+			// The runs can be executed at the same time, so the series of previous runs can be missing.
+			while (chartSeries.size() <= repeatNumber){
 				XYChart.Series<Number, Number> newSerie = new XYChart.Series<>();
 				chartSeries.addAll(newSerie);
 			}
 			XYChart.Data<Number, Number> data = new XYChart.Data<>(generationNumber, solution.getObjective(0));
 
-			// add the point to the last added series.
-			chartSeries.get(chartSeries.size()-1).getData().add(data);
+			// add the point to the series of the repeat number.
+			chartSeries.get((int) repeatNumber).getData().add(data);
 
 			// The data has to be resize after add this to the ScatterChart, because the scatterchart
 			// Resize node size
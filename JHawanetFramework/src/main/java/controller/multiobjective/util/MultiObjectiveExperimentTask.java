@@ -10,6 +10,7 @@ import javafx.concurrent.Task;
 import model.metaheuristic.experiment.Experiment;
 import model.metaheuristic.experiment.component.GenerateReferenceParetoFrontInRAM;
 import model.metaheuristic.experiment.util.ExperimentAlgorithm;
+import model.metaheuristic.experiment.util.ExperimentRunExecutor;
 import model.metaheuristic.experiment.util.ObservableStringBuffer;
 import model.metaheuristic.solution.Solution;
 import org.jetbrains.annotations.NotNull;
@@ -22,6 +23,7 @@ import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class MultiObjectiveExperimentTask extends Task<List<? extends Solution<?>>> {
@@ -63,7 +65,8 @@ public class MultiObjectiveExperimentTask extends Task<List<? extends Solution<?
     }
 
     /**
-     * Execute the algorithm in experiment.
+     * Execute the algorithm in experiment. If the number of concurrent runs of the experiment is greater than 1
+     * several algorithms are executed at the same time (see {@link ExperimentRunExecutor}).
      *
      * @return the solution list or a empty list if the task is cancel.
      * @throws Exception if there is a error while execute.
@@ -74,52 +77,43 @@ public class MultiObjectiveExperimentTask extends Task<List<? extends Solution<?
         prepareOutputDirectory();
 
         taskLog.println("ExecuteAlgorithms.");
+        int numberOfAlgorithms = experiment.getAlgorithmList().size();
         // Progress of the count of algorithm finished
-        int progress = 0;
-        updateProgress(progress, experiment.getAlgorithmList().size());
-        for (ExperimentAlgorithm<?> algorithm : experiment.getAlgorithmList()) {
-            algorithm.setLogBuffer(taskLog);
-
-            // break the for loop if the task is cancelled
-            if (this.isCancelled()) {
-                break;
+        AtomicInteger progress = new AtomicInteger(0);
+        updateProgress(progress.get(), numberOfAlgorithms);
+
+        ExperimentRunExecutor executor = new ExperimentRunExecutor(experiment.getNumberOfConcurrentRuns());
+        executor.run(experiment.getAlgorithmList(), this::isCancelled, new ExperimentRunExecutor.Listener() {
+            @Override
+            public void onStart(@NotNull ExperimentAlgorithm<?> algorithm) {
+                algorithm.setLogBuffer(taskLog);
+                // the runs executed at the same time create the same output directory
+                synchronized (experiment) {
+                    algorithm.prepareToRun(experiment);
+                }
             }
 
-            // execute the algorithm
-            algorithm.prepareToRun(this.experiment);
-            int numberOfGenerations = 0;
-
-            // Run the algorithm
-            while (algorithm.algorithmHasANextStep()) {
-
-                // run only a iteration of the current algorithm
-                algorithm.runASingleStepOfAlgorithm();
-
-                // update the message of progress of the current algorithm
-                updateMessage("Progress of current algorithm:\n" + algorithm.getAlgorithm().getStatusOfExecution());
-
-                // break the while loop if the task is cancelled
-                if (this.isCancelled()) {
-                    break;
-                }
-                numberOfGenerations++;
+            @Override
+            public void onStep(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) {
+                // update the message of progress of the current algorithms
+                updateMessage(executor.getStatusOfExecution());
             }
 
-            // Gets the final result of the repetition of the algorithm.
-            if (!this.isCancelled()) {
+            @Override
+            public void onFinish(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) throws IOException {
+                // Gets the final result of the repetition of the algorithm.
                 List<? extends Solution<?>> solutions = algorithm.getResult();
                 // add an attribute to solution. It attribute is used in result window to show in which generation the solution was obtained.
                 for (Solution<?> solution : solutions) {
                     generationAttribute.setAttribute(solution, numberOfGenerations + 1);
                 }
                 algorithm.saveSolutionList();
-                progress++;
                 if (returnPartialResult) {
                     updateValue(solutions);
                 }
-                updateProgress(progress, experiment.getAlgorithmList().size());
+                updateProgress(progress.incrementAndGet(), numberOfAlgorithms);
             }
-        }
+        });
 
         // close the resources of the problems.
         experiment.getProblem().closeResources();
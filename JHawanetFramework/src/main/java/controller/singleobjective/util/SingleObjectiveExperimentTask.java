@@ -8,12 +8,17 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.concurrent.Task;
 import model.metaheuristic.experiment.Experiment;
 import model.metaheuristic.experiment.util.ExperimentAlgorithm;
+import model.metaheuristic.experiment.util.ExperimentRunExecutor;
 import model.metaheuristic.solution.Solution;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -54,51 +59,49 @@ public class SingleObjectiveExperimentTask extends Task<List<SingleObjectiveExpe
         this.returnPartialResult = returnPartialResult;
     }
 
+    /**
+     * Execute the algorithms of the experiment. If the number of concurrent runs of the experiment is greater than
+     * 1 several algorithms are executed at the same time (see {@link ExperimentRunExecutor}).
+     *
+     * @return the result of each algorithm or null if the task is cancelled.
+     * @throws Exception if there is a error while execute.
+     */
     @Override
     protected List<Result> call() throws Exception {
 
         Generation<Solution<?>> generationAttribute = new Generation<>();
+        int numberOfAlgorithms = experiment.getAlgorithmList().size();
         // count of algorithm executed
-        int progress = 0;
-        updateProgress(progress, experiment.getAlgorithmList().size());
-        // A list to save the final result of the algorithm.
-        List<Result> finalResultList = new ArrayList<>(experiment.getAlgorithmList().size());
-
-        for (ExperimentAlgorithm<?> algorithm : experiment.getAlgorithmList()) {
-
-            // break the for loop if the task is cancelled
-            if (this.isCancelled()) {
-                break;
+        AtomicInteger progress = new AtomicInteger(0);
+        updateProgress(progress.get(), numberOfAlgorithms);
+        // the final result of each algorithm. The algorithms can finish in other order.
+        Map<ExperimentAlgorithm<?>, Result> finalResults = Collections.synchronizedMap(new IdentityHashMap<>());
+
+        ExperimentRunExecutor executor = new ExperimentRunExecutor(experiment.getNumberOfConcurrentRuns());
+        executor.run(experiment.getAlgorithmList(), this::isCancelled, new ExperimentRunExecutor.Listener() {
+            @Override
+            public void onStart(@NotNull ExperimentAlgorithm<?> algorithm) {
             }
-            int numberOfGenerations = 0;
-            // Run the algorithms
-            while (algorithm.algorithmHasANextStep()) {
-
-                // run only a iteration of the current algorithm
-                algorithm.runASingleStepOfAlgorithm();
-                // update the message of progress of the current algorithm
-                updateMessage("Progress of current algorithm:\n" + algorithm.getAlgorithm().getStatusOfExecution());
-
-                // break the while loop if the task is cancelled
-                if (this.isCancelled()) {
-                    break;
-                }
-                if (this.returnPartialResult) {
-                    updateCustomValue(new Result(algorithm.getResult().get(0), numberOfGenerations, progress));// <-- notify result here to algorithm level
+
+            @Override
+            public void onStep(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) {
+                // update the message of progress of the current algorithms
+                updateMessage(executor.getStatusOfExecution());
+                if (returnPartialResult) {
+                    updateCustomValue(new Result(algorithm.getResult().get(0), numberOfGenerations, algorithm.getRunId()));// <-- notify result here to algorithm level
                 }
-                numberOfGenerations++;
             }
-            // Gets the final result of the repetition of the algorithm.
-            if (!this.isCancelled()) {
+
+            @Override
+            public void onFinish(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) {
                 // add an attribute to solution. It attribute is used in result window to show in which generation the solution was obtained.
                 Solution<?> solution = algorithm.getResult().get(0);
 
-                generationAttribute.setAttribute(solution, numberOfGenerations+1);
-                finalResultList.add(new Result(solution, numberOfGenerations+1, progress));
-                progress++;
-                updateProgress(progress, experiment.getAlgorithmList().size());
+                generationAttribute.setAttribute(solution, numberOfGenerations + 1);
+                finalResults.put(algorithm, new Result(solution, numberOfGenerations + 1, algorithm.getRunId()));
+                updateProgress(progress.incrementAndGet(), numberOfAlgorithms);
             }
-        }
+        });
 
         // close resources (as epanet library)
         experiment.getProblem().closeResources();
@@ -106,6 +109,14 @@ public class SingleObjectiveExperimentTask extends Task<List<SingleObjectiveExpe
         if (this.isCancelled()) {
             return null;
         }
+        // A list to save the final result of the algorithm in the order of the runs.
+        List<Result> finalResultList = new ArrayList<>(numberOfAlgorithms);
+        for (ExperimentAlgorithm<?> algorithm : experiment.getAlgorithmList()) {
+            Result result = finalResults.get(algorithm);
+            if (result != null) {
+                finalResultList.add(result);
+            }
+        }
         return finalResultList;
     }
 
@@ -3,7 +3,7 @@ package controller.util.solutionattribute;
 import controller.multiobjective.util.MultiObjectiveExperimentTask;
 import controller.singleobjective.util.SingleObjectiveExperimentTask;
 import model.metaheuristic.solution.Solution;
-import model.metaheuristic.util.solutionattribute.SolutionAttribute;
+import model.metaheuristic.util.solutionattribute.IntegerSolutionAttribute;
 
 /**
  * This attribute is used to save the number of generation realized by the algorithm when it finish his execution.
@@ -15,5 +15,5 @@ import model.metaheuristic.util.solutionattribute.SolutionAttribute;
  *
  * @param <S> the type of solution.
  */
-public class Generation<S extends Solution<?>> extends SolutionAttribute<S, Integer> {
+public class Generation<S extends Solution<?>> extends IntegerSolutionAttribute<S> {
 }
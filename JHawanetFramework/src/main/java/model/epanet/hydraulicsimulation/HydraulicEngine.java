@@ -0,0 +1,283 @@
+package model.epanet.hydraulicsimulation;
+
+import epanet.core.EpanetException;
+import epanet.core.LinkParameters;
+import epanet.core.LinkTypes;
+import epanet.core.NodeParameters;
+import epanet.core.NodeTypes;
+import epanet.core.TimeParameterCodes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Engine that realize the hydraulic simulation of a network. It let change the simulator used by the problems
+ * (the library of epanet, a solver written in java or a instrumented engine to test) without change the problems.
+ * <p>
+ * The life cycle of a engine is the same that the hydraulic functions of the toolkit of epanet:
+ * <pre>
+ *     engine.open(inpPath, rptPath);
+ *     // change the parameters of links
+ *     engine.init();
+ *     do {
+ *         long time = engine.run();
+ *         // read the values of nodes and links
+ *         step = engine.next();
+ *     } while (step > 0);
+ *     // init can be called again to realize other simulation
+ *     engine.close();
+ * </pre>
+ * The indexes of nodes and links start in 0 (in epanet they start in 1). The parameters are the same used by
+ * the toolkit of epanet and the values are in the units of the network.
+ * <p>
+ * A engine isn't thread safe. If the engine share a global state with other instances (as the library of epanet)
+ * the simulations have to be synchronized with {@link #getSimulationLock()}.
+ */
+public interface HydraulicEngine extends AutoCloseable {
+
+    /**
+     * Open the network of a inp file.
+     *
+     * @param inpPath the path to inp file
+     * @param rptPath the path to report file. It isn't used by the engines that don't write a report.
+     * @throws EpanetException if there is a error reading the network.
+     */
+    void open(@NotNull String inpPath, @NotNull String rptPath) throws EpanetException;
+
+    /**
+     * Initialize a new simulation. The time is set to 0 and the tanks and links return to its initial state.
+     * The values changed with {@link #setLinkValue(int, LinkParameters, double)} are kept.
+     *
+     * @throws EpanetException if there is a error in the engine.
+     */
+    void init() throws EpanetException;
+
+    /**
+     * Solve the hydraulic of the network in the current time.
+     *
+     * @return the current time in seconds.
+     * @throws EpanetException if the hydraulic can't be solved.
+     */
+    long run() throws EpanetException;
+
+    /**
+     * Advance to the next hydraulic step.
+     *
+     * @return the duration of the step in seconds or 0 if the simulation finished.
+     * @throws EpanetException if there is a error in the engine.
+     */
+    long next() throws EpanetException;
+
+    /**
+     * Close the network and release the resources of engine.
+     *
+     * @throws EpanetException if there is a error closing the engine.
+     */
+    @Override
+    void close() throws EpanetException;
+
+    /**
+     * Get the object used to synchronize the simulations. The engines that share a global state return the same
+     * object for all instances. The others return the own engine.
+     *
+     * @return the lock.
+     */
+    default @NotNull Object getSimulationLock() {
+        return this;
+    }
+
+    /**
+     * Get the number of values needed to save the state of a simulation with {@link #saveState(double[])}. The
+     * engines that can't save its state return 0.
+     *
+     * @return the size of the state or 0 if the state can't be saved.
+     */
+    default int getStateSize() {
+        return 0;
+    }
+
+    /**
+     * Save the state of the current simulation: the time, the level of tanks, the status of links and the other
+     * values that the engine needs to continue the simulation. It has to be called after {@link #next()} and
+     * before {@link #run()}. The simulation continued after {@link #restoreState(double[])} gives the same results
+     * that the simulation where the state was saved while the parameters of the network aren't changed (as the
+     * diameters).
+     *
+     * @param state the array where the state is saved. Its length has to be {@link #getStateSize()}.
+     * @throws EpanetException               if there is a error in the engine.
+     * @throws IllegalArgumentException      if the length of state isn't valid.
+     * @throws IllegalStateException         if the engine isn't in the middle of a simulation.
+     * @throws UnsupportedOperationException if the engine can't save its state.
+     */
+    default void saveState(double @NotNull [] state) throws EpanetException {
+        throw new UnsupportedOperationException("The engine can't save the state of a simulation");
+    }
+
+    /**
+     * Continue a simulation from a state saved with {@link #saveState(double[])}. It is used in place of
+     * {@link #init()}, so the next call has to be {@link #run()}.
+     *
+     * @param state the state.
+     * @throws EpanetException               if there is a error in the engine.
+     * @throws IllegalArgumentException      if the length of state isn't valid.
+     * @throws UnsupportedOperationException if the engine can't save its state.
+     */
+    default void restoreState(double @NotNull [] state) throws EpanetException {
+        throw new UnsupportedOperationException("The engine can't restore the state of a simulation");
+    }
+
+    /**
+     * Get the number of nodes.
+     *
+     * @return the number of nodes.
+     */
+    int getNodeCount();
+
+    /**
+     * Get the number of links.
+     *
+     * @return the number of links.
+     */
+    int getLinkCount();
+
+    /**
+     * Get the id of a node.
+     *
+     * @param index the index of node.
+     * @return the id.
+     */
+    @NotNull String getNodeId(int index);
+
+    /**
+     * Get the id of a link.
+     *
+     * @param index the index of link.
+     * @return the id.
+     */
+    @NotNull String getLinkId(int index);
+
+    /**
+     * Get the type of a node.
+     *
+     * @param index the index of node.
+     * @return the type.
+     */
+    @NotNull NodeTypes getNodeType(int index);
+
+    /**
+     * Get the type of a link.
+     *
+     * @param index the index of link.
+     * @return the type.
+     */
+    @NotNull LinkTypes getLinkType(int index);
+
+    /**
+     * Get a time parameter of the network.
+     *
+     * @param code the parameter.
+     * @return the value in seconds.
+     * @throws EpanetException if there is a error in the engine.
+     * @throws IllegalArgumentException if the engine doesn't support the parameter.
+     */
+    long getTimeParameter(@NotNull TimeParameterCodes code) throws EpanetException;
+
+    /**
+     * Get a value of a node.
+     *
+     * @param index     the index of node.
+     * @param parameter the parameter.
+     * @return the value.
+     * @throws EpanetException          if there is a error in the engine.
+     * @throws IllegalArgumentException if the engine doesn't support the parameter.
+     */
+    double getNodeValue(int index, @NotNull NodeParameters parameter) throws EpanetException;
+
+    /**
+     * Get a value of a link.
+     *
+     * @param index     the index of link.
+     * @param parameter the parameter.
+     * @return the value.
+     * @throws EpanetException          if there is a error in the engine.
+     * @throws IllegalArgumentException if the engine doesn't support the parameter.
+     */
+    double getLinkValue(int index, @NotNull LinkParameters parameter) throws EpanetException;
+
+    /**
+     * Set a value of a link. The status of links is 1 to open and 0 to close.
+     *
+     * @param index     the index of link.
+     * @param parameter the parameter.
+     * @param value     the new value.
+     * @throws EpanetException          if there is a error in the engine or the value isn't valid.
+     * @throws IllegalArgumentException if the engine doesn't support the parameter.
+     */
+    void setLinkValue(int index, @NotNull LinkParameters parameter, double value) throws EpanetException;
+
+    /**
+     * Get a value of several nodes.
+     *
+     * @param indexes   the indexes of nodes.
+     * @param parameter the parameter.
+     * @param values    the array where the values are saved. It has to have the same length that indexes.
+     * @throws EpanetException          if there is a error in the engine.
+     * @throws IllegalArgumentException if the engine doesn't support the parameter or the arrays haven't the
+     *                                  same length.
+     */
+    default void getNodeValues(int @NotNull [] indexes, @NotNull NodeParameters parameter, double @NotNull [] values)
+            throws EpanetException {
+        checkLength(indexes, values);
+        for (int i = 0; i < indexes.length; i++) {
+            values[i] = getNodeValue(indexes[i], parameter);
+        }
+    }
+
+    /**
+     * Get a value of several links.
+     *
+     * @param indexes   the indexes of links.
+     * @param parameter the parameter.
+     * @param values    the array where the values are saved. It has to have the same length that indexes.
+     * @throws EpanetException          if there is a error in the engine.
+     * @throws IllegalArgumentException if the engine doesn't support the parameter or the arrays haven't the
+     *                                  same length.
+     */
+    default void getLinkValues(int @NotNull [] indexes, @NotNull LinkParameters parameter, double @NotNull [] values)
+            throws EpanetException {
+        checkLength(indexes, values);
+        for (int i = 0; i < indexes.length; i++) {
+            values[i] = getLinkValue(indexes[i], parameter);
+        }
+    }
+
+    /**
+     * Set a value of several links.
+     *
+     * @param indexes   the indexes of links.
+     * @param parameter the parameter.
+     * @param values    the new values. It has to have the same length that indexes.
+     * @throws EpanetException          if there is a error in the engine or a value isn't valid.
+     * @throws IllegalArgumentException if the engine doesn't support the parameter or the arrays haven't the
+     *                                  same length.
+     */
+    default void setLinkValues(int @NotNull [] indexes, @NotNull LinkParameters parameter, double @NotNull [] values)
+            throws EpanetException {
+        checkLength(indexes, values);
+        for (int i = 0; i < indexes.length; i++) {
+            setLinkValue(indexes[i], parameter, values[i]);
+        }
+    }
+
+    /**
+     * Check that the arrays of a bulk operation have the same length.
+     *
+     * @param indexes the indexes.
+     * @param values  the values.
+     * @throws IllegalArgumentException if the arrays haven't the same length.
+     */
+    static void checkLength(int @NotNull [] indexes, double @NotNull [] values) {
+        if (indexes.length != values.length) {
+            throw new IllegalArgumentException("The indexes (" + indexes.length + ") and values (" + values.length
+                    + ") haven't the same length");
+        }
+    }
+}
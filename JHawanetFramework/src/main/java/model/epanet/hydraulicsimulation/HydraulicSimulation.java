@@ -2,6 +2,7 @@ package model.epanet.hydraulicsimulation;
 
 import epanet.core.*;
 import exception.ApplicationException;
+import model.epanet.hydraulicsimulation.impl.EpanetEngine;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,7 +18,7 @@ import java.util.*;
 public final class HydraulicSimulation {
     private static final Logger LOGGER = LoggerFactory.getLogger(HydraulicSimulation.class);
 
-    private final String inpPath;
+    private final HydraulicEngine engine;
     private List<String> times;
     private List<List<NodeSimulationResult>> nodeResults; // row: nodos, column: time
     private List<List<LinkSimulationResult>> linkResults; // row: nodos, column: time
@@ -25,8 +26,8 @@ public final class HydraulicSimulation {
     private Map<String, Integer> linkIndex; // map id of link to index in linkResult
 
 
-    private HydraulicSimulation(String inpPath) {
-        this.inpPath = inpPath;
+    private HydraulicSimulation(HydraulicEngine engine) {
+        this.engine = engine;
     }
 
     /**
@@ -44,8 +45,39 @@ public final class HydraulicSimulation {
         Objects.requireNonNull(inpPath);
         if (inpPath.isEmpty()) throw new IllegalArgumentException("inpPath can not be an empty string");
 
-        HydraulicSimulation instance = new HydraulicSimulation(inpPath);
-        instance.run();
+        LOGGER.debug("Open epanet with {} network", inpPath);
+        HydraulicEngine engine = new EpanetEngine();
+        try {
+            engine.open(inpPath, "defaultSimulation.rpt");
+        } catch (EpanetException e) {
+            if (e.getCause() instanceof URISyntaxException) {
+                throw new ApplicationException("There is a error with EpanetToolkit.", e.getCause());
+            }
+            throw e;
+        }
+        try {
+            return run(engine);
+        } finally {
+            engine.close();
+            LOGGER.debug("Closing epanet.");
+        }
+    }
+
+    /**
+     * Run the total simulation with a engine that has the network opened. The engine isn't closed.
+     *
+     * @param engine the engine.
+     * @throws NullPointerException if engine is null.
+     * @throws EpanetException      if there is an error in simulation.
+     *
+     * @return the hydralucsimulation instance with that store the result of simulation.
+     */
+    public static @NotNull HydraulicSimulation run(@NotNull HydraulicEngine engine) throws EpanetException {
+        Objects.requireNonNull(engine);
+        HydraulicSimulation instance = new HydraulicSimulation(engine);
+        synchronized (engine.getSimulationLock()) {
+            instance.run();
+        }
         return instance;
     }
 
@@ -86,77 +118,60 @@ public final class HydraulicSimulation {
 
     /**
      * Run the simulation.
-     * @throws ApplicationException If there is a error with URI Syntax.
      * @throws EpanetException if there is a error in simulation.
      */
-    private void run() throws ApplicationException, EpanetException {
-        try {
-            LOGGER.debug("Open epanet with {} network", inpPath);
-            EpanetAPI epanet = new EpanetAPI();
-            epanet.ENopen(inpPath, "defaultSimulation.rpt", "");
-
-            long duration = epanet.ENgettimeparam(TimeParameterCodes.DURATION);
-            long rtstep = epanet.ENgettimeparam(TimeParameterCodes.REPORTSTEP);
-            long rtstart = epanet.ENgettimeparam(TimeParameterCodes.REPORTSTART);
-//            System.out.println("Duration " + duration);
-//            System.out.println("Report Step " + rtstep);
-//            System.out.println("Report start " + rtstart);
-
-            if (rtstart > duration) {
-                // if report start time is greater than duration set report start time to 0
-                rtstart = 0;
-            }
-            long numberOfElement = (duration - rtstart) / rtstep + 1; //the number of element that have to be retrieved
-            LOGGER.debug("The hydraulic simulation will have {} periods.", numberOfElement);
-
-            int nodeCount = epanet.ENgetcount(Components.EN_NODECOUNT);
-            int linkCount = epanet.ENgetcount(Components.EN_LINKCOUNT);
-
-            // initialize the list where result are saved
-            initializeTimesList((int) numberOfElement);
-            initializeNodeList(nodeCount);
-            initializeLinkList(linkCount);
-
-            //long t, tstep;
-            long[] tstep = {1};
-            long[] t = {0};
-
-            epanet.ENopenH();
-            epanet.ENinitH(0);
-            do {
-                epanet.ENrunH(t);
-                if (t[0] % rtstep == 0 && t[0] >= rtstart) {
-//                    System.out.printf(timeToStringTime(t[0]));
-                    times.add(timeToStringTime(t[0]));
-
-                    for (int i = 1; i <= nodeCount; i++) {
-                        NodeSimulationResult result = getNodeResult(t[0], i, epanet);
-                        // add to the node list the result in a specific time
-                        this.nodeResults.get(i - 1).add(result);
-                        // save in map the index correspondent to result of a specific node.
-                        if (!nodeIndex.containsKey(result.getId())) {
-                            nodeIndex.put(result.getId(), i - 1);
-                        }
+    private void run() throws EpanetException {
+        long duration = engine.getTimeParameter(TimeParameterCodes.DURATION);
+        long rtstep = engine.getTimeParameter(TimeParameterCodes.REPORTSTEP);
+        long rtstart = engine.getTimeParameter(TimeParameterCodes.REPORTSTART);
+//        System.out.println("Duration " + duration);
+//        System.out.println("Report Step " + rtstep);
+//        System.out.println("Report start " + rtstart);
+
+        if (rtstart > duration) {
+            // if report start time is greater than duration set report start time to 0
+            rtstart = 0;
+        }
+        long numberOfElement = (duration - rtstart) / rtstep + 1; //the number of element that have to be retrieved
+        LOGGER.debug("The hydraulic simulation will have {} periods.", numberOfElement);
+
+        int nodeCount = engine.getNodeCount();
+        int linkCount = engine.getLinkCount();
+
+        // initialize the list where result are saved
+        initializeTimesList((int) numberOfElement);
+        initializeNodeList(nodeCount);
+        initializeLinkList(linkCount);
+
+        long t, tstep;
+
+        engine.init();
+        do {
+            t = engine.run();
+            if (t % rtstep == 0 && t >= rtstart) {
+//                System.out.printf(timeToStringTime(t));
+                times.add(timeToStringTime(t));
+
+                for (int i = 0; i < nodeCount; i++) {
+                    NodeSimulationResult result = getNodeResult(t, i);
+                    // add to the node list the result in a specific time
+                    this.nodeResults.get(i).add(result);
+                    // save in map the index correspondent to result of a specific node.
+                    if (!nodeIndex.containsKey(result.getId())) {
+                        nodeIndex.put(result.getId(), i);
                     }
-                    for (int i = 1; i <= linkCount; i++) {
-                        LinkSimulationResult result = getLinkResult(t[0], i, epanet);
-                        this.linkResults.get(i - 1).add(result);
-                        if (!linkIndex.containsKey(result.getId())) {
-                            linkIndex.put(result.getId(), i - 1);
-                        }
+                }
+                for (int i = 0; i < linkCount; i++) {
+                    LinkSimulationResult result = getLinkResult(t, i);
+                    this.linkResults.get(i).add(result);
+                    if (!linkIndex.containsKey(result.getId())) {
+                        linkIndex.put(result.getId(), i);
                     }
                 }
-                epanet.ENnextH(tstep);
-            } while (tstep[0] > 0);
-
-            epanet.ENcloseH();
-//            System.out.println("n element " + numberOfElement);
-            epanet.ENclose();
-            LOGGER.debug("Closing epanet.", inpPath);
-
-        } catch (URISyntaxException e) {
-            throw new ApplicationException("There is a error with EpanetToolkit.",e);
-        }
+            }
+            tstep = engine.next();
+        } while (tstep > 0);
+//        System.out.println("n element " + numberOfElement);
     }
 
     /**
@@ -164,17 +179,14 @@ public final class HydraulicSimulation {
      *
      * @param timeInSeconds the time in second
      * @param index         the index of node
-     * @param epanet        the simulation engine
      * @return the result of the simulation
-     * @throws NullPointerException if epanet is null
      */
-    private @NotNull NodeSimulationResult getNodeResult(long timeInSeconds, int index, @NotNull EpanetAPI epanet) throws EpanetException {
-        Objects.requireNonNull(epanet);
-        String nodeId = epanet.ENgetnodeid(index);
-        final double demand = epanet.ENgetnodevalue(index, NodeParameters.EN_DEMAND);
-        final double head = epanet.ENgetnodevalue(index, NodeParameters.EN_HEAD);
-        final double pressure = epanet.ENgetnodevalue(index, NodeParameters.EN_PRESSURE);
-        final double quality = epanet.ENgetnodevalue(index, NodeParameters.EN_QUALITY);
+    private @NotNull NodeSimulationResult getNodeResult(long timeInSeconds, int index) throws EpanetException {
+        String nodeId = engine.getNodeId(index);
+        final double demand = engine.getNodeValue(index, NodeParameters.EN_DEMAND);
+        final double head = engine.getNodeValue(index, NodeParameters.EN_HEAD);
+        final double pressure = engine.getNodeValue(index, NodeParameters.EN_PRESSURE);
+        final double quality = engine.getNodeValue(index, NodeParameters.EN_QUALITY);
         return new NodeSimulationResult(nodeId, timeInSeconds, demand, head, pressure, quality);
     }
 
@@ -183,16 +195,14 @@ public final class HydraulicSimulation {
      *
      * @param timeInSeconds the time in second.
      * @param index         the index of link.
-     * @param epanet        the simulation engine.
      * @return the result of the simulation.
-     * @throws NullPointerException if epanet is null.
      */
-    private @NotNull LinkSimulationResult getLinkResult(long timeInSeconds, int index, @NotNull EpanetAPI epanet) throws EpanetException {
-        String linkId = epanet.ENgetlinkid(index);
-        final float flow = epanet.ENgetlinkvalue(index, LinkParameters.EN_FLOW)[0];
-        final float velocity = epanet.ENgetlinkvalue(index, LinkParameters.EN_VELOCITY)[0];
-        final float headloss = epanet.ENgetlinkvalue(index, LinkParameters.EN_HEADLOSS)[0];
-        final String status = epanet.ENgetlinkvalue(index, LinkParameters.EN_STATUS)[0] == 1 ? "OPEN" : "CLOSE";
+    private @NotNull LinkSimulationResult getLinkResult(long timeInSeconds, int index) throws EpanetException {
+        String linkId = engine.getLinkId(index);
+        final float flow = (float) engine.getLinkValue(index, LinkParameters.EN_FLOW);
+        final float velocity = (float) engine.getLinkValue(index, LinkParameters.EN_VELOCITY);
+        final float headloss = (float) engine.getLinkValue(index, LinkParameters.EN_HEADLOSS);
+        final String status = engine.getLinkValue(index, LinkParameters.EN_STATUS) == 1 ? "OPEN" : "CLOSE";
         return new LinkSimulationResult(linkId, timeInSeconds, flow, velocity, headloss, LinkSimulationResult.Status.parse(status));
     }
 
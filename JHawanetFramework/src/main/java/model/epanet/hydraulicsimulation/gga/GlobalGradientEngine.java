@@ -0,0 +1,220 @@
+package model.epanet.hydraulicsimulation.gga;
+
+import epanet.core.*;
+import exception.InputException;
+import model.epanet.element.Network;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.epanet.io.InpParser;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Engine that use the {@link GlobalGradientSolver}. It doesn't need the library of epanet and each instance has
+ * its own state, so several instances can simulate at the same time.
+ * <p>
+ * The supported node parameters are EN_ELEVATION, EN_BASEDEMAND, EN_TANKLEVEL (the current level), EN_DEMAND,
+ * EN_HEAD, EN_PRESSURE and EN_QUALITY (always 0). The supported link parameters are EN_DIAMETER, EN_LENGTH,
+ * EN_FLOW, EN_VELOCITY, EN_HEADLOSS, EN_STATUS and EN_ENERGY. Only EN_DIAMETER of pipes and EN_STATUS can be
+ * changed. The state of a simulation can be saved and restored.
+ */
+public class GlobalGradientEngine implements HydraulicEngine {
+    private GlobalGradientSolver solver;
+
+    /**
+     * Constructor. The network has to be opened with {@link #open(String, String)}.
+     */
+    public GlobalGradientEngine() {
+    }
+
+    /**
+     * Constructor that use a network already parsed. The network isn't modified.
+     *
+     * @param network the network
+     * @throws NullPointerException     if network is null
+     * @throws IllegalArgumentException if the network use a feature not supported by the solver
+     */
+    public GlobalGradientEngine(@NotNull Network network) {
+        this.solver = new GlobalGradientSolver(network);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The report file isn't used.
+     *
+     * @throws IllegalStateException    if a network is already opened.
+     * @throws IllegalArgumentException if the network use a feature not supported by the solver
+     */
+    @Override
+    public void open(@NotNull String inpPath, @NotNull String rptPath) throws EpanetException {
+        Objects.requireNonNull(inpPath);
+        Objects.requireNonNull(rptPath);
+        if (this.solver != null) {
+            throw new IllegalStateException("The engine already has a opened network");
+        }
+        Network network = new Network();
+        try {
+            new InpParser().parse(network, inpPath);
+        } catch (IOException | InputException e) {
+            throw new EpanetException(e);
+        }
+        this.solver = new GlobalGradientSolver(network);
+    }
+
+    @Override
+    public void init() {
+        getSolver().init();
+    }
+
+    @Override
+    public long run() throws EpanetException {
+        return getSolver().run();
+    }
+
+    @Override
+    public long next() {
+        return getSolver().next();
+    }
+
+    @Override
+    public void close() {
+        this.solver = null;
+    }
+
+    @Override
+    public int getStateSize() {
+        return getSolver().getStateSize();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * See {@link GlobalGradientSolver#saveState(double[])}.
+     */
+    @Override
+    public void saveState(double @NotNull [] state) {
+        getSolver().saveState(state);
+    }
+
+    @Override
+    public void restoreState(double @NotNull [] state) {
+        getSolver().restoreState(state);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return getSolver().getNodeCount();
+    }
+
+    @Override
+    public int getLinkCount() {
+        return getSolver().getLinkCount();
+    }
+
+    @Override
+    public @NotNull String getNodeId(int index) {
+        return getSolver().getNodeId(index);
+    }
+
+    @Override
+    public @NotNull String getLinkId(int index) {
+        return getSolver().getLinkId(index);
+    }
+
+    @Override
+    public @NotNull NodeTypes getNodeType(int index) {
+        return getSolver().getNodeType(index);
+    }
+
+    @Override
+    public @NotNull LinkTypes getLinkType(int index) {
+        return getSolver().getLinkType(index);
+    }
+
+    @Override
+    public long getTimeParameter(@NotNull TimeParameterCodes code) {
+        return getSolver().getTimeParameter(code);
+    }
+
+    @Override
+    public double getNodeValue(int index, @NotNull NodeParameters parameter) {
+        GlobalGradientSolver solver = getSolver();
+        switch (parameter) {
+            case EN_ELEVATION:
+                return solver.getNodeElevation(index);
+            case EN_BASEDEMAND:
+                return solver.getNodeBaseDemand(index);
+            case EN_TANKLEVEL:
+                return solver.getTankLevel(index);
+            case EN_DEMAND:
+                return solver.getNodeDemand(index);
+            case EN_HEAD:
+                return solver.getNodeHead(index);
+            case EN_PRESSURE:
+                return solver.getNodePressure(index);
+            case EN_QUALITY:
+                return 0;
+            default:
+                throw new IllegalArgumentException("The node parameter " + parameter + " isn't supported");
+        }
+    }
+
+    @Override
+    public double getLinkValue(int index, @NotNull LinkParameters parameter) {
+        GlobalGradientSolver solver = getSolver();
+        switch (parameter) {
+            case EN_DIAMETER:
+                return solver.getLinkDiameter(index);
+            case EN_LENGTH:
+                return solver.getLinkLength(index);
+            case EN_FLOW:
+                return solver.getLinkFlow(index);
+            case EN_VELOCITY:
+                return solver.getLinkVelocity(index);
+            case EN_HEADLOSS:
+                return solver.getLinkHeadloss(index);
+            case EN_STATUS:
+                return solver.isLinkOpen(index) ? 1 : 0;
+            case EN_ENERGY:
+                return solver.getLinkType(index) == LinkTypes.EN_PUMP ? solver.getPumpEnergy(index) : 0;
+            default:
+                throw new IllegalArgumentException("The link parameter " + parameter + " isn't supported");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the parameter isn't EN_DIAMETER or EN_STATUS, if the diameter is changed
+     *                                  in a link that isn't a pipe or if the status of a check valve is changed.
+     */
+    @Override
+    public void setLinkValue(int index, @NotNull LinkParameters parameter, double value) {
+        GlobalGradientSolver solver = getSolver();
+        switch (parameter) {
+            case EN_DIAMETER:
+                solver.setPipeDiameter(index, value);
+                break;
+            case EN_STATUS:
+                solver.setLinkStatus(index, value != 0);
+                break;
+            default:
+                throw new IllegalArgumentException("The link parameter " + parameter + " can't be changed");
+        }
+    }
+
+    /**
+     * Get the solver used by the engine.
+     *
+     * @return the solver
+     * @throws IllegalStateException if the network wasn't opened.
+     */
+    public @NotNull GlobalGradientSolver getSolver() {
+        if (this.solver == null) {
+            throw new IllegalStateException("The network wasn't opened");
+        }
+        return this.solver;
+    }
+}
@@ -0,0 +1,1283 @@
+package model.epanet.hydraulicsimulation.gga;
+
+import epanet.core.EpanetException;
+import epanet.core.LinkTypes;
+import epanet.core.NodeTypes;
+import epanet.core.TimeParameterCodes;
+import model.epanet.element.Network;
+import model.epanet.element.optionsreport.Option.HeadlossFormule;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static model.epanet.hydraulicsimulation.gga.HydraulicNetwork.*;
+
+/**
+ * Hydraulic solver written in java that use the Global Gradient Algorithm (Todini and Pilati) of epanet. It is
+ * created from a {@link Network} and it doesn't need the library of epanet, so it can be used in any operative
+ * system and several instances can be used at the same time by different threads.
+ * <p>
+ * The methods follow the hydraulic functions of the toolkit of epanet:
+ * <pre>
+ *     solver.init();
+ *     do {
+ *         long time = solver.run();
+ *         // read the pressures, flows and energy of the hydraulic step
+ *         step = solver.next();
+ *     } while (step > 0);
+ * </pre>
+ * The indexes of nodes and links start in 0. The nodes are ordered first the junctions, then the reservoirs and
+ * then the tanks. The links are ordered first the pipes, then the pumps and then the valves. The values received
+ * and returned use the units of the network (the units of flow and the units of length defined by them).
+ * <p>
+ * It support the pipes (Hazen-Williams, Darcy-Weisbach and Chezy-Manning), pipes with check valve, pumps with a
+ * curve of one point, three points or multiple points, pumps of constant power, tanks with diameter or volume
+ * curve, reservoirs, patterns of demand, head and speed, throttle control valves, valves with a fixed status and
+ * the simple controls.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * The rule based controls, the emitters and the pressure reducing, pressure sustaining, pressure breaker, flow
+ * control and general purpose valves without a fixed status aren't supported. The constructor throws a
+ * {@link IllegalArgumentException} if the network use them.
+ * <p>
+ * The flows are initialized in each call to {@link #init()}, so the result of a simulation don't depend of the
+ * previous simulations. This class isn't thread safe.
+ */
+public class GlobalGradientSolver {
+    private static final double CBIG = 1e8;
+    private static final double RQ_TOLERANCE = 1e-7;
+    private static final double H_TOLERANCE = 0.0005 * 0.3048; // m
+    private static final double Q_TOLERANCE = 0.0001 * 0.028316847; // m3/s
+    private static final double Q_ZERO = 1e-6 * 0.028316847; // m3/s
+    private static final double INITIAL_VELOCITY = 0.3048; // m/s
+    private static final long SECONDS_BY_DAY = 86400;
+
+    private final HydraulicNetwork network;
+    private final SparseCholesky matrix;
+    private final int[] diagonal1; // position in the matrix of node1 of each link or -1 if it isn't a junction
+    private final int[] diagonal2;
+    private final int[] offDiagonal;
+    private final double exponent;
+
+    private final double[] head;
+    private final double[] demand;
+    private final double[] nodeFlow;
+    private final double[] rhs;
+    private final double[] solution;
+    private final double[] tankVolume;
+    private final double[] tankMinimumVolume;
+    private final double[] tankMaximumVolume;
+
+    private final double[] flow;
+    private final byte[] status;
+    private final double[] setting;
+    private final double[] diameter;
+    private final double[] resistance;
+    private final double[] minorLossResistance;
+    private final double[] pumpH0;
+    private final double[] pumpR;
+    private final double[] p;
+    private final double[] y;
+
+    private long time;
+    private long reportTime;
+    private boolean initialized;
+    private boolean solved;
+    private boolean balanced;
+    private int iterations;
+    private double relativeError;
+
+    /**
+     * Constructor.
+     *
+     * @param network the network to simulate. The later changes of network don't modify the solver.
+     * @throws NullPointerException     if network is null.
+     * @throws IllegalArgumentException if the network use a feature not supported or if it has invalid data.
+     */
+    public GlobalGradientSolver(@NotNull Network network) {
+        Objects.requireNonNull(network);
+        this.network = new HydraulicNetwork(network);
+        HydraulicNetwork net = this.network;
+        int nodes = net.nodeCount;
+        int links = net.linkCount;
+        int junctions = net.junctionCount;
+
+        int[] rows = new int[links];
+        int[] columns = new int[links];
+        for (int k = 0; k < links; k++) {
+            boolean junctionLink = net.node1[k] < junctions && net.node2[k] < junctions;
+            rows[k] = junctionLink ? net.node1[k] : 0;
+            columns[k] = junctionLink ? net.node2[k] : 0;
+        }
+        this.matrix = new SparseCholesky(junctions, rows, columns);
+        this.diagonal1 = new int[links];
+        this.diagonal2 = new int[links];
+        this.offDiagonal = new int[links];
+        for (int k = 0; k < links; k++) {
+            int n1 = net.node1[k];
+            int n2 = net.node2[k];
+            this.diagonal1[k] = n1 < junctions ? matrix.position(n1, n1) : -1;
+            this.diagonal2[k] = n2 < junctions ? matrix.position(n2, n2) : -1;
+            this.offDiagonal[k] = n1 < junctions && n2 < junctions && n1 != n2 ? matrix.position(n1, n2) : -1;
+        }
+        switch (net.headlossFormule) {
+            case HW:
+                this.exponent = 1.852;
+                break;
+            default:
+                this.exponent = 2;
+        }
+
+        this.head = new double[nodes];
+        this.demand = new double[nodes];
+        this.nodeFlow = new double[nodes];
+        this.rhs = new double[junctions];
+        this.solution = new double[junctions];
+        this.tankVolume = new double[nodes];
+        this.tankMinimumVolume = new double[nodes];
+        this.tankMaximumVolume = new double[nodes];
+        for (int i = junctions; i < nodes; i++) {
+            if (net.nodeTypes[i] == NodeTypes.EN_TANK) {
+                this.tankMinimumVolume[i] = net.tankVolume(i, net.tankMinimumHead[i]);
+                this.tankMaximumVolume[i] = net.tankVolume(i, net.tankMaximumHead[i]);
+            }
+        }
+
+        this.flow = new double[links];
+        this.status = new byte[links];
+        this.setting = new double[links];
+        this.diameter = net.diameter.clone();
+        this.resistance = new double[links];
+        this.minorLossResistance = new double[links];
+        this.pumpH0 = net.pumpH0.clone();
+        this.pumpR = net.pumpR.clone();
+        this.p = new double[links];
+        this.y = new double[links];
+        for (int k = 0; k < links; k++) {
+            updateResistance(k, net.minorLoss[k]);
+        }
+    }
+
+    /**
+     * Initialize the hydraulic simulation. The tanks return to its initial level, the links return to its
+     * initial status and the time is set to 0. The diameters changed with {@link #setPipeDiameter(int, double)}
+     * are kept.
+     */
+    public void init() {
+        HydraulicNetwork net = this.network;
+        this.time = 0;
+        this.reportTime = net.reportStep;
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            if (net.nodeTypes[i] == NodeTypes.EN_TANK) {
+                this.head[i] = net.tankInitialHead[i];
+                this.tankVolume[i] = net.tankVolume(i, this.head[i]);
+            } else {
+                this.head[i] = net.reservoirHead[i];
+            }
+        }
+        for (int k = 0; k < net.linkCount; k++) {
+            this.status[k] = net.initialStatus[k];
+            this.setting[k] = net.initialSetting[k];
+            if (isValve(net.linkTypes[k])) {
+                // the controls can change the setting of valves
+                updateResistance(k, net.minorLoss[k]);
+            }
+            initializeFlow(k);
+        }
+        this.initialized = true;
+        this.solved = false;
+    }
+
+    /**
+     * Solve the hydraulic of the network in the current time.
+     *
+     * @return the current time of simulation in seconds.
+     * @throws IllegalStateException if {@link #init()} wasn't called after the end of last simulation.
+     * @throws EpanetException       if the system of equations can't be solved or if the network is unbalanced and
+     *                               the option unbalanced is STOP.
+     */
+    public long run() throws EpanetException {
+        if (!this.initialized) {
+            throw new IllegalStateException("The solver has to be initialized before run the simulation");
+        }
+        updateDemands();
+        applyTimeControls();
+        solve();
+        this.solved = true;
+        return this.time;
+    }
+
+    /**
+     * Advance the simulation to the next hydraulic step. The level of tanks is updated with the flows of the last
+     * call to {@link #run()}.
+     *
+     * @return the duration of the step in seconds or 0 if the simulation finished.
+     * @throws IllegalStateException if {@link #run()} wasn't called in the current time.
+     */
+    public long next() {
+        if (!this.solved) {
+            throw new IllegalStateException("The hydraulic of the current time has to be solved before advance");
+        }
+        long step = 0;
+        if (this.time < this.network.duration) {
+            step = timeStep();
+            updateTankLevels(step);
+            this.time += step;
+            if (this.time >= this.reportTime) {
+                this.reportTime += this.network.reportStep;
+            }
+        } else {
+            // the simulation finished, so it has to be initialized again
+            this.initialized = false;
+        }
+        this.solved = false;
+        return step;
+    }
+
+    /**
+     * Get the number of values needed to save the state of the simulation.
+     *
+     * @return the size of the state.
+     */
+    public int getStateSize() {
+        HydraulicNetwork net = this.network;
+        return 2 + net.nodeCount + (net.nodeCount - net.junctionCount) + 4 * net.linkCount;
+    }
+
+    /**
+     * Save the state of the simulation: the time, the heads, the volume of tanks and the flow, status, setting and
+     * resistance of links. It has to be called after {@link #next()} and before {@link #run()}.
+     *
+     * @param state the array where the state is saved. Its length has to be {@link #getStateSize()}.
+     * @throws IllegalArgumentException if the length of state isn't valid.
+     * @throws IllegalStateException    if the solver isn't in the middle of a simulation.
+     */
+    public void saveState(double @NotNull [] state) {
+        checkStateLength(state);
+        if (!this.initialized || this.solved) {
+            throw new IllegalStateException("The state only can be saved after advance to the next step");
+        }
+        HydraulicNetwork net = this.network;
+        int position = 0;
+        state[position++] = this.time;
+        state[position++] = this.reportTime;
+        System.arraycopy(this.head, 0, state, position, net.nodeCount);
+        position += net.nodeCount;
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            state[position++] = this.tankVolume[i];
+        }
+        for (int k = 0; k < net.linkCount; k++) {
+            state[position++] = this.flow[k];
+            state[position++] = this.status[k];
+            state[position++] = this.setting[k];
+            state[position++] = this.resistance[k];
+        }
+    }
+
+    /**
+     * Continue a simulation from a state saved with {@link #saveState(double[])}. It is used in place of
+     * {@link #init()}.
+     *
+     * @param state the state.
+     * @throws IllegalArgumentException if the length of state isn't valid.
+     */
+    public void restoreState(double @NotNull [] state) {
+        checkStateLength(state);
+        HydraulicNetwork net = this.network;
+        int position = 0;
+        this.time = (long) state[position++];
+        this.reportTime = (long) state[position++];
+        System.arraycopy(state, position, this.head, 0, net.nodeCount);
+        position += net.nodeCount;
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            this.tankVolume[i] = state[position++];
+        }
+        for (int k = 0; k < net.linkCount; k++) {
+            this.flow[k] = state[position++];
+            this.status[k] = (byte) state[position++];
+            this.setting[k] = state[position++];
+            this.resistance[k] = state[position++];
+        }
+        this.initialized = true;
+        this.solved = false;
+    }
+
+    private void checkStateLength(double[] state) {
+        if (state.length != getStateSize()) {
+            throw new IllegalArgumentException("The state has to have " + getStateSize() + " values");
+        }
+    }
+
+    /**
+     * Get the number of nodes.
+     *
+     * @return the number of nodes.
+     */
+    public int getNodeCount() {
+        return this.network.nodeCount;
+    }
+
+    /**
+     * Get the number of junctions. The junctions are the first nodes.
+     *
+     * @return the number of junctions.
+     */
+    public int getJunctionCount() {
+        return this.network.junctionCount;
+    }
+
+    /**
+     * Get the number of links.
+     *
+     * @return the number of links.
+     */
+    public int getLinkCount() {
+        return this.network.linkCount;
+    }
+
+    /**
+     * Get the index of a node.
+     *
+     * @param id the id of node.
+     * @return the index or -1 if the node don't exist.
+     */
+    public int getNodeIndex(String id) {
+        Integer index = this.network.nodeIndex.get(id);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Get the index of a link.
+     *
+     * @param id the id of link.
+     * @return the index or -1 if the link don't exist.
+     */
+    public int getLinkIndex(String id) {
+        Integer index = this.network.linkIndex.get(id);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Get the id of a node.
+     *
+     * @param index the index of node.
+     * @return the id.
+     */
+    public String getNodeId(int index) {
+        return this.network.nodeIds[index];
+    }
+
+    /**
+     * Get the id of a link.
+     *
+     * @param index the index of link.
+     * @return the id.
+     */
+    public String getLinkId(int index) {
+        return this.network.linkIds[index];
+    }
+
+    /**
+     * Get the type of a node.
+     *
+     * @param index the index of node.
+     * @return the type.
+     */
+    public NodeTypes getNodeType(int index) {
+        return this.network.nodeTypes[index];
+    }
+
+    /**
+     * Get the type of a link.
+     *
+     * @param index the index of link.
+     * @return the type.
+     */
+    public LinkTypes getLinkType(int index) {
+        return this.network.linkTypes[index];
+    }
+
+    /**
+     * Get the index of the start node of a link.
+     *
+     * @param index the index of link.
+     * @return the index of node.
+     */
+    public int getLinkNode1(int index) {
+        return this.network.node1[index];
+    }
+
+    /**
+     * Get the index of the end node of a link.
+     *
+     * @param index the index of link.
+     * @return the index of node.
+     */
+    public int getLinkNode2(int index) {
+        return this.network.node2[index];
+    }
+
+    /**
+     * Get the duration of the simulation.
+     *
+     * @return the duration in seconds.
+     */
+    public long getDuration() {
+        return this.network.duration;
+    }
+
+    /**
+     * Get a time parameter of the network.
+     *
+     * @param code the parameter. It can be DURATION, HYDSTEP, PATTERNSTEP, PATTERNSTART, REPORTSTEP, REPORTSTART
+     *             or STARTCLOCKTIME.
+     * @return the value in seconds.
+     * @throws IllegalArgumentException if the parameter isn't supported.
+     */
+    public long getTimeParameter(TimeParameterCodes code) {
+        switch (code) {
+            case DURATION:
+                return this.network.duration;
+            case HYDSTEP:
+                return this.network.hydraulicStep;
+            case PATTERNSTEP:
+                return this.network.patternStep;
+            case PATTERNSTART:
+                return this.network.patternStart;
+            case REPORTSTEP:
+                return this.network.reportStep;
+            case REPORTSTART:
+                return this.network.reportStart;
+            case STARTCLOCKTIME:
+                return this.network.startClockTime;
+            default:
+                throw new IllegalArgumentException("The time parameter " + code + " isn't supported");
+        }
+    }
+
+    /**
+     * Get the current time of the simulation.
+     *
+     * @return the time in seconds.
+     */
+    public long getTime() {
+        return this.time;
+    }
+
+    /**
+     * Get the number of iterations used in the last call to {@link #run()}.
+     *
+     * @return the number of iterations.
+     */
+    public int getIterations() {
+        return this.iterations;
+    }
+
+    /**
+     * Get the relative change of flows in the last iteration of the last call to {@link #run()}.
+     *
+     * @return the sum of flow changes divided by the sum of flows.
+     */
+    public double getRelativeError() {
+        return this.relativeError;
+    }
+
+    /**
+     * Indicate if the last call to {@link #run()} reached the accuracy of the network.
+     *
+     * @return true if the network is balanced.
+     */
+    public boolean isBalanced() {
+        return this.balanced;
+    }
+
+    /**
+     * Change the status of a link in the current time. If a pump is opened its speed is set to 1.
+     *
+     * @param index the index of link.
+     * @param open  true to open the link, false to close it.
+     * @throws IllegalArgumentException if the link is a pipe with check valve.
+     */
+    public void setLinkStatus(int index, boolean open) {
+        LinkTypes type = this.network.linkTypes[index];
+        if (type == LinkTypes.EN_CVPIPE) {
+            throw new IllegalArgumentException("The status of the check valve " + getLinkId(index) + " can't be changed");
+        }
+        if (type == LinkTypes.EN_PUMP) {
+            this.setting[index] = open ? 1 : 0;
+        }
+        boolean wasClosed = this.status[index] <= CLOSED;
+        this.status[index] = open ? OPEN : CLOSED;
+        if (open && wasClosed) {
+            initializeFlow(index);
+        }
+    }
+
+    /**
+     * Indicate if a link is open in the current time.
+     *
+     * @param index the index of link.
+     * @return true if it is open.
+     */
+    public boolean isLinkOpen(int index) {
+        return this.status[index] > CLOSED;
+    }
+
+    /**
+     * Change the diameter of a pipe. The change is kept after call to {@link #init()}.
+     *
+     * @param index    the index of pipe.
+     * @param diameter the diameter in the units of the network (millimeters or inches).
+     * @throws IllegalArgumentException if the link isn't a pipe or if diameter isn't positive.
+     */
+    public void setPipeDiameter(int index, double diameter) {
+        checkPipe(index);
+        if (!(diameter > 0)) {
+            throw new IllegalArgumentException("The diameter of pipe " + getLinkId(index) + " has to be positive");
+        }
+        this.diameter[index] = diameter * this.network.diameterFactor;
+        updateResistance(index, this.network.minorLoss[index]);
+    }
+
+    /**
+     * Get the diameter of a pipe or valve.
+     *
+     * @param index the index of link.
+     * @return the diameter in the units of the network (millimeters or inches).
+     */
+    public double getLinkDiameter(int index) {
+        return this.diameter[index] / this.network.diameterFactor;
+    }
+
+    /**
+     * Get the length of a pipe.
+     *
+     * @param index the index of link.
+     * @return the length in the units of the network (meters or feet), 0 if it isn't a pipe.
+     */
+    public double getLinkLength(int index) {
+        return this.network.length[index] / this.network.lengthFactor;
+    }
+
+    /**
+     * Get the elevation of a node. In the reservoirs it is the total head.
+     *
+     * @param index the index of node.
+     * @return the elevation in the units of the network (meters or feet).
+     */
+    public double getNodeElevation(int index) {
+        return this.network.elevation[index] / this.network.lengthFactor;
+    }
+
+    /**
+     * Get the head of a node.
+     *
+     * @param index the index of node.
+     * @return the head in the units of the network (meters or feet).
+     */
+    public double getNodeHead(int index) {
+        return this.head[index] / this.network.lengthFactor;
+    }
+
+    /**
+     * Get the pressure of a node.
+     *
+     * @param index the index of node.
+     * @return the pressure in the units of the network (meters or psi).
+     */
+    public double getNodePressure(int index) {
+        return (this.head[index] - this.network.elevation[index]) * this.network.pressureFactor;
+    }
+
+    /**
+     * Get the demand of a node in the current time. In the tanks and reservoirs it is the flow that enter to the
+     * node.
+     *
+     * @param index the index of node.
+     * @return the demand in the units of flow of the network.
+     */
+    public double getNodeDemand(int index) {
+        return this.demand[index] / this.network.flowFactor;
+    }
+
+    /**
+     * Get the sum of the base demands of a junction.
+     *
+     * @param index the index of node.
+     * @return the base demand in the units of flow of the network, 0 if it isn't a junction.
+     */
+    public double getNodeBaseDemand(int index) {
+        if (index >= this.network.junctionCount) {
+            return 0;
+        }
+        double sum = 0;
+        for (double value : this.network.baseDemand[index]) {
+            sum += value;
+        }
+        return sum / this.network.flowFactor;
+    }
+
+    /**
+     * Get the level of water of a tank.
+     *
+     * @param index the index of node.
+     * @return the level in the units of the network (meters or feet).
+     * @throws IllegalArgumentException if the node isn't a tank.
+     */
+    public double getTankLevel(int index) {
+        if (this.network.nodeTypes[index] != NodeTypes.EN_TANK) {
+            throw new IllegalArgumentException("The node " + getNodeId(index) + " isn't a tank");
+        }
+        return (this.head[index] - this.network.elevation[index]) / this.network.lengthFactor;
+    }
+
+    /**
+     * Get the flow of a link. It is 0 if the link is closed.
+     *
+     * @param index the index of link.
+     * @return the flow in the units of flow of the network.
+     */
+    public double getLinkFlow(int index) {
+        return this.status[index] <= CLOSED ? 0 : this.flow[index] / this.network.flowFactor;
+    }
+
+    /**
+     * Get the velocity of a link.
+     *
+     * @param index the index of link.
+     * @return the velocity in m/s or ft/s. It is 0 in the pumps and closed links.
+     */
+    public double getLinkVelocity(int index) {
+        if (this.status[index] <= CLOSED || this.network.linkTypes[index] == LinkTypes.EN_PUMP) {
+            return 0;
+        }
+        double d = this.diameter[index];
+        return Math.abs(this.flow[index]) / (Math.PI * d * d / 4) / this.network.lengthFactor;
+    }
+
+    /**
+     * Get the headloss of a link. In a pump it is negative when the pump gives head.
+     *
+     * @param index the index of link.
+     * @return the headloss in the units of the network (meters or feet). It is 0 if the link is closed.
+     */
+    public double getLinkHeadloss(int index) {
+        if (this.status[index] <= CLOSED) {
+            return 0;
+        }
+        double h = this.head[this.network.node1[index]] - this.head[this.network.node2[index]];
+        if (this.network.linkTypes[index] != LinkTypes.EN_PUMP) {
+            h = Math.abs(h);
+        }
+        return h / this.network.lengthFactor;
+    }
+
+    /**
+     * Get the power consumed by a pump in the current time. The efficiency is taken of the efficiency curve of
+     * pump or of the global efficiency.
+     *
+     * @param index the index of link.
+     * @return the power in kW.
+     * @throws IllegalArgumentException if the link isn't a pump.
+     */
+    public double getPumpEnergy(int index) {
+        HydraulicNetwork net = this.network;
+        if (net.linkTypes[index] != LinkTypes.EN_PUMP) {
+            throw new IllegalArgumentException("The link " + getLinkId(index) + " isn't a pump");
+        }
+        if (this.status[index] <= CLOSED) {
+            return 0;
+        }
+        double q = Math.abs(this.flow[index]);
+        double dh = Math.abs(this.head[net.node1[index]] - this.head[net.node2[index]]);
+        double efficiency = net.pumpEfficiencyFlow[index] != null
+                ? HydraulicNetwork.interpolate(net.pumpEfficiencyFlow[index], net.pumpEfficiency[index], q)
+                : net.globalEfficiency;
+        efficiency = Math.max(1, Math.min(100, efficiency)) / 100;
+        return KW_COEFFICIENT * dh * q * net.specificGravity / efficiency;
+    }
+
+    private static boolean isValve(LinkTypes type) {
+        return type != LinkTypes.EN_PIPE && type != LinkTypes.EN_CVPIPE && type != LinkTypes.EN_PUMP;
+    }
+
+    private void checkPipe(int index) {
+        LinkTypes type = this.network.linkTypes[index];
+        if (type != LinkTypes.EN_PIPE && type != LinkTypes.EN_CVPIPE) {
+            throw new IllegalArgumentException("The link " + getLinkId(index) + " isn't a pipe");
+        }
+    }
+
+    /**
+     * Calculate the resistance of a link with its diameter.
+     *
+     * @param k          the index of link
+     * @param lossCoefficient the minor loss coefficient (K) of link
+     */
+    private void updateResistance(int k, double lossCoefficient) {
+        HydraulicNetwork net = this.network;
+        double d = this.diameter[k];
+        if (net.linkTypes[k] == LinkTypes.EN_PUMP) {
+            return;
+        }
+        this.minorLossResistance[k] = MINOR_LOSS_COEFFICIENT * lossCoefficient / (d * d * d * d);
+        if (isValve(net.linkTypes[k])) {
+            return;
+        }
+        switch (net.headlossFormule) {
+            case HW:
+                this.resistance[k] = HAZEN_WILLIAMS_COEFFICIENT * net.length[k]
+                        / (Math.pow(net.roughness[k], 1.852) * Math.pow(d, 4.871));
+                break;
+            case DW:
+                this.resistance[k] = DARCY_WEISBACH_COEFFICIENT * net.length[k] / Math.pow(d, 5);
+                break;
+            default:
+                this.resistance[k] = CHEZY_MANNING_COEFFICIENT * net.roughness[k] * net.roughness[k] * net.length[k]
+                        / Math.pow(d, 5.33);
+        }
+    }
+
+    private void initializeFlow(int k) {
+        HydraulicNetwork net = this.network;
+        if (this.status[k] <= CLOSED) {
+            this.flow[k] = Q_ZERO;
+        } else if (net.linkTypes[k] == LinkTypes.EN_PUMP) {
+            this.flow[k] = net.pumpDesignFlow[k] * this.setting[k];
+        } else {
+            this.flow[k] = Math.PI * this.diameter[k] * this.diameter[k] / 4 * INITIAL_VELOCITY;
+        }
+    }
+
+    private void updateDemands() {
+        HydraulicNetwork net = this.network;
+        for (int i = 0; i < net.junctionCount; i++) {
+            double sum = 0;
+            double[] base = net.baseDemand[i];
+            for (int j = 0; j < base.length; j++) {
+                sum += base[j] * net.multiplier(net.demandPattern[i][j], this.time);
+            }
+            this.demand[i] = sum;
+        }
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            if (net.nodeTypes[i] == NodeTypes.EN_RESERVOIR) {
+                this.head[i] = net.reservoirHead[i] * net.multiplier(net.reservoirPattern[i], this.time);
+            }
+        }
+        for (int k = 0; k < net.linkCount; k++) {
+            if (net.pumpPattern[k] >= 0) {
+                double speed = net.multiplier(net.pumpPattern[k], this.time);
+                this.setting[k] = speed;
+                if (speed > 0 && this.status[k] <= CLOSED) {
+                    this.status[k] = OPEN;
+                    initializeFlow(k);
+                } else if (speed == 0 && this.status[k] > CLOSED) {
+                    this.status[k] = CLOSED;
+                }
+            }
+        }
+    }
+
+    private void applyTimeControls() {
+        HydraulicNetwork net = this.network;
+        for (int c = 0; c < net.controlLink.length; c++) {
+            boolean reset = false;
+            int node = net.controlNode[c];
+            switch (net.controlType[c]) {
+                case TIMER:
+                    reset = net.controlTime[c] == this.time;
+                    break;
+                case TIME_OF_DAY:
+                    reset = (this.time + net.startClockTime) % SECONDS_BY_DAY == net.controlTime[c];
+                    break;
+                default:
+                    if (net.nodeTypes[node] == NodeTypes.EN_TANK) {
+                        double volume = this.tankVolume[node];
+                        double controlVolume = net.tankVolume(node, net.controlHead[c]);
+                        double tolerance = Math.abs(this.demand[node]);
+                        reset = net.controlType[c] == LOW_LEVEL ? volume <= controlVolume + tolerance
+                                : volume >= controlVolume - tolerance;
+                    }
+            }
+            if (reset) {
+                applyControl(c);
+            }
+        }
+    }
+
+    /**
+     * Change the status and setting of the link of a control.
+     *
+     * @param c the index of control
+     * @return true if the link was changed
+     */
+    private boolean applyControl(int c) {
+        HydraulicNetwork net = this.network;
+        int k = net.controlLink[c];
+        byte newStatus = net.controlStatus[c];
+        double newSetting = net.controlSetting[c];
+        LinkTypes type = net.linkTypes[k];
+        boolean change;
+        if (type == LinkTypes.EN_PIPE) {
+            change = this.status[k] != newStatus;
+        } else {
+            change = this.status[k] != newStatus || this.setting[k] != newSetting;
+        }
+        if (!change) {
+            return false;
+        }
+        boolean wasClosed = this.status[k] <= CLOSED;
+        this.status[k] = newStatus;
+        if (type != LinkTypes.EN_PIPE) {
+            this.setting[k] = newSetting;
+            if (type != LinkTypes.EN_PUMP) {
+                updateResistance(k, newSetting);
+            }
+        }
+        if (wasClosed && newStatus > CLOSED) {
+            initializeFlow(k);
+        }
+        return true;
+    }
+
+    /**
+     * Solve the system of equations with the global gradient algorithm.
+     *
+     * @throws EpanetException if the system can't be solved.
+     */
+    private void solve() throws EpanetException {
+        HydraulicNetwork net = this.network;
+        int maximumTrials = net.maximumTrials + Math.max(0, net.extraTrials);
+        int nextCheck = net.checkFrequency;
+        double relaxation = 1;
+        double error = Double.MAX_VALUE;
+        int iteration = 1;
+        for (; iteration <= maximumTrials; iteration++) {
+            assemble();
+            int bad = this.matrix.solve(this.rhs, this.solution);
+            if (bad >= 0) {
+                throw new EpanetException("The hydraulic equations can't be solved at time " + this.time
+                        + " s. The node " + getNodeId(bad) + " is disconnected or the network is ill-conditioned");
+            }
+            System.arraycopy(this.solution, 0, this.head, 0, net.junctionCount);
+            error = updateFlows(relaxation);
+            if (net.dampLimit > 0) {
+                relaxation = error <= net.dampLimit ? 0.6 : 1;
+            }
+
+            if (iteration > net.maximumTrials) {
+                // the extra trials keep the status of links
+                if (error <= net.accuracy) {
+                    break;
+                }
+            } else if (error <= net.accuracy) {
+                boolean change = updateLinkStatus();
+                change |= applyPressureControls();
+                if (!change) {
+                    break;
+                }
+                nextCheck = iteration + net.checkFrequency;
+            } else if (iteration <= net.maximumCheck && iteration == nextCheck) {
+                updateLinkStatus();
+                nextCheck += net.checkFrequency;
+            }
+        }
+        this.iterations = Math.min(iteration, maximumTrials);
+        this.relativeError = error;
+        this.balanced = error <= net.accuracy;
+        if (!this.balanced && net.extraTrials < 0) {
+            throw new EpanetException("The network is unbalanced at time " + this.time + " s after "
+                    + this.iterations + " trials");
+        }
+    }
+
+    /**
+     * Calculate the coefficients of links and build the system of equations of the heads.
+     */
+    private void assemble() {
+        HydraulicNetwork net = this.network;
+        int junctions = net.junctionCount;
+        this.matrix.clear();
+        Arrays.fill(this.rhs, 0);
+        Arrays.fill(this.nodeFlow, 0);
+        for (int k = 0; k < net.linkCount; k++) {
+            switch (net.linkTypes[k]) {
+                case EN_PIPE:
+                case EN_CVPIPE:
+                    pipeCoefficients(k);
+                    break;
+                case EN_PUMP:
+                    pumpCoefficients(k);
+                    break;
+                default:
+                    valveCoefficients(k);
+            }
+            int n1 = net.node1[k];
+            int n2 = net.node2[k];
+            double q = this.flow[k];
+            this.nodeFlow[n1] -= q;
+            this.nodeFlow[n2] += q;
+            if (this.offDiagonal[k] >= 0) {
+                this.matrix.add(this.offDiagonal[k], -this.p[k]);
+            }
+            if (n1 < junctions) {
+                this.matrix.add(this.diagonal1[k], this.p[k]);
+                this.rhs[n1] += this.y[k];
+            } else if (n2 < junctions) {
+                this.rhs[n2] += this.p[k] * this.head[n1];
+            }
+            if (n2 < junctions) {
+                this.matrix.add(this.diagonal2[k], this.p[k]);
+                this.rhs[n2] -= this.y[k];
+            } else if (n1 < junctions) {
+                this.rhs[n1] += this.p[k] * this.head[n2];
+            }
+        }
+        for (int i = 0; i < junctions; i++) {
+            this.rhs[i] += this.nodeFlow[i] - this.demand[i];
+        }
+    }
+
+    private void closedCoefficients(int k) {
+        this.p[k] = 1 / CBIG;
+        this.y[k] = this.flow[k];
+    }
+
+    private void pipeCoefficients(int k) {
+        if (this.status[k] <= CLOSED) {
+            closedCoefficients(k);
+            return;
+        }
+        double q = Math.abs(this.flow[k]);
+        double r = this.resistance[k];
+        double ml = this.minorLossResistance[k];
+        double hloss;
+        double dh;
+        if (this.network.headlossFormule == HeadlossFormule.DW) {
+            double f = 1;
+            double dfdq = 0;
+            if (q > Q_ZERO) {
+                double d = this.diameter[k];
+                double w = q / (this.network.viscosity * d);
+                double e = this.network.roughness[k] / d;
+                if (w >= 1000 * Math.PI) { // turbulent
+                    double y1 = 4.61841319859066668690 / Math.pow(w, 0.9);
+                    double y2 = e / 3.7 + y1;
+                    double y3 = -0.86858896380650365530 * Math.log(y2);
+                    f = 1 / (y3 * y3);
+                    dfdq = 1.8 * f * y1 * -0.86858896380650365530 / y2 / y3 / q;
+                } else if (w > 500 * Math.PI) { // transition
+                    double y2 = e / 3.7 + 3.28895476345399058690e-03;
+                    double y3 = -0.86858896380650365530 * Math.log(y2);
+                    double fa = 1 / (y3 * y3);
+                    double fb = (2 + -5.14214965799093883760e-03 / (y2 * y3)) * fa;
+                    double rr = w / (500 * Math.PI);
+                    double x1 = 7 * fa - fb;
+                    double x2 = 0.128 - 17 * fa + 2.5 * fb;
+                    double x3 = -0.128 + 13 * fa - (fb + fb);
+                    double x4 = 0.032 - 3 * fa + 0.5 * fb;
+                    f = x1 + rr * (x2 + rr * (x3 + rr * x4));
+                    dfdq = (x2 + rr * (2 * x3 + rr * 3 * x4)) / (500 * Math.PI) * w / q;
+                } else { // laminar
+                    f = 16 * Math.PI / w;
+                    dfdq = -f / q;
+                }
+            }
+            double r1 = f * r + ml;
+            if (r1 * q < RQ_TOLERANCE) {
+                this.p[k] = 1 / RQ_TOLERANCE;
+                this.y[k] = this.flow[k] / 2;
+                return;
+            }
+            hloss = r1 * q * q;
+            dh = Math.max(2 * r1 * q + dfdq * r * q * q, RQ_TOLERANCE);
+        } else {
+            if ((r + ml) * q < RQ_TOLERANCE) {
+                this.p[k] = 1 / RQ_TOLERANCE;
+                this.y[k] = this.flow[k] / this.exponent;
+                return;
+            }
+            hloss = r * Math.pow(q, this.exponent);
+            dh = this.exponent * hloss;
+            if (ml > 0) {
+                double minor = ml * q * q;
+                hloss += minor;
+                dh += 2 * minor;
+            }
+            dh /= q;
+        }
+        this.p[k] = 1 / dh;
+        this.y[k] = Math.signum(this.flow[k]) * hloss / dh;
+    }
+
+    private void pumpCoefficients(int k) {
+        HydraulicNetwork net = this.network;
+        double speed = this.setting[k];
+        if (this.status[k] <= CLOSED || speed == 0) {
+            closedCoefficients(k);
+            return;
+        }
+        double q = Math.max(Math.abs(this.flow[k]), Q_ZERO);
+        if (net.pumpType[k] == CUSTOM) {
+            double[] x = net.pumpCurveFlow[k];
+            double[] h = net.pumpCurveHead[k];
+            double value = q / speed;
+            int k2 = 0;
+            while (k2 < x.length && x[k2] < value) {
+                k2++;
+            }
+            if (k2 == 0) {
+                k2++;
+            } else if (k2 == x.length) {
+                k2--;
+            }
+            int k1 = k2 - 1;
+            double slope = (h[k2] - h[k1]) / (x[k2] - x[k1]);
+            this.pumpH0[k] = -(h[k1] - slope * x[k1]);
+            this.pumpR[k] = -slope;
+        }
+        double n = net.pumpN[k];
+        double h0 = speed * speed * this.pumpH0[k];
+        double r = this.pumpR[k] * Math.pow(speed, 2 - n);
+        if (n != 1) {
+            r = n * r * Math.pow(q, n - 1);
+        }
+        this.p[k] = 1 / Math.max(r, RQ_TOLERANCE);
+        this.y[k] = this.flow[k] / n + this.p[k] * h0;
+    }
+
+    private void valveCoefficients(int k) {
+        if (this.status[k] <= CLOSED) {
+            closedCoefficients(k);
+            return;
+        }
+        double km = this.minorLossResistance[k];
+        if (km > 0) {
+            this.p[k] = 1 / Math.max(2 * km * Math.abs(this.flow[k]), RQ_TOLERANCE);
+            this.y[k] = this.flow[k] / 2;
+        } else {
+            this.p[k] = 1 / RQ_TOLERANCE;
+            this.y[k] = this.flow[k];
+        }
+    }
+
+    /**
+     * Update the flows with the new heads.
+     *
+     * @param relaxation the fraction of the flow change applied
+     * @return the sum of flow changes divided by the sum of flows
+     */
+    private double updateFlows(double relaxation) {
+        HydraulicNetwork net = this.network;
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            this.demand[i] = 0;
+        }
+        double sumFlow = 0;
+        double sumChange = 0;
+        for (int k = 0; k < net.linkCount; k++) {
+            int n1 = net.node1[k];
+            int n2 = net.node2[k];
+            double dq = (this.y[k] - this.p[k] * (this.head[n1] - this.head[n2])) * relaxation;
+            if (net.linkTypes[k] == LinkTypes.EN_PUMP && net.pumpType[k] == CONSTANT_POWER && dq > this.flow[k]) {
+                dq = this.flow[k] / 2;
+            }
+            this.flow[k] -= dq;
+            sumFlow += Math.abs(this.flow[k]);
+            sumChange += Math.abs(dq);
+            if (this.status[k] > CLOSED) {
+                if (n1 >= net.junctionCount) {
+                    this.demand[n1] -= this.flow[k];
+                }
+                if (n2 >= net.junctionCount) {
+                    this.demand[n2] += this.flow[k];
+                }
+            }
+        }
+        return sumFlow > net.accuracy ? sumChange / sumFlow : sumChange;
+    }
+
+    /**
+     * Check the status of check valves, pumps and links connected to tanks.
+     *
+     * @return true if some status changed.
+     */
+    private boolean updateLinkStatus() {
+        HydraulicNetwork net = this.network;
+        boolean change = false;
+        for (int k = 0; k < net.linkCount; k++) {
+            int n1 = net.node1[k];
+            int n2 = net.node2[k];
+            double dh = this.head[n1] - this.head[n2];
+            byte old = this.status[k];
+            if (old == XHEAD || old == TEMPCLOSED) {
+                this.status[k] = OPEN;
+            }
+            if (net.linkTypes[k] == LinkTypes.EN_CVPIPE) {
+                this.status[k] = checkValveStatus(this.status[k], dh, this.flow[k]);
+            }
+            if (net.linkTypes[k] == LinkTypes.EN_PUMP && this.status[k] >= OPEN && this.setting[k] > 0) {
+                double maximumHead = net.pumpMaximumHead[k] * this.setting[k] * this.setting[k];
+                this.status[k] = -dh > maximumHead + H_TOLERANCE ? XHEAD : OPEN;
+            }
+            if (n1 >= net.junctionCount || n2 >= net.junctionCount) {
+                updateTankLinkStatus(k, n1, n2);
+            }
+            if (old != this.status[k]) {
+                change = true;
+            }
+        }
+        return change;
+    }
+
+    private static byte checkValveStatus(byte status, double dh, double q) {
+        if (Math.abs(dh) > H_TOLERANCE) {
+            if (dh < -H_TOLERANCE || q < -Q_TOLERANCE) {
+                return CLOSED;
+            }
+            return OPEN;
+        }
+        return q < -Q_TOLERANCE ? CLOSED : status;
+    }
+
+    /**
+     * Close the links that fill a full tank or that empty a empty tank.
+     */
+    private void updateTankLinkStatus(int k, int n1, int n2) {
+        HydraulicNetwork net = this.network;
+        int tank = n1;
+        int other = n2;
+        double q = this.flow[k];
+        if (n1 < net.junctionCount) {
+            tank = n2;
+            other = n1;
+            q = -q;
+        }
+        if (net.nodeTypes[tank] != NodeTypes.EN_TANK || this.status[k] <= CLOSED) {
+            return;
+        }
+        double h = this.head[tank] - this.head[other];
+        boolean pump = net.linkTypes[k] == LinkTypes.EN_PUMP;
+        if (this.head[tank] >= net.tankMaximumHead[tank] - H_TOLERANCE) {
+            if (pump ? net.node2[k] == tank : checkValveStatus(OPEN, h, q) == CLOSED) {
+                this.status[k] = TEMPCLOSED;
+            }
+        }
+        if (this.head[tank] <= net.tankMinimumHead[tank] + H_TOLERANCE) {
+            if (pump ? net.node1[k] == tank : checkValveStatus(CLOSED, h, q) == OPEN) {
+                this.status[k] = TEMPCLOSED;
+            }
+        }
+    }
+
+    /**
+     * Apply the controls of links by pressure of junctions.
+     *
+     * @return true if some link changed.
+     */
+    private boolean applyPressureControls() {
+        HydraulicNetwork net = this.network;
+        boolean change = false;
+        for (int c = 0; c < net.controlLink.length; c++) {
+            int node = net.controlNode[c];
+            if (node < 0 || node >= net.junctionCount) {
+                continue;
+            }
+            boolean reset = net.controlType[c] == LOW_LEVEL ? this.head[node] <= net.controlHead[c] + H_TOLERANCE
+                    : this.head[node] >= net.controlHead[c] - H_TOLERANCE;
+            if (reset && applyControl(c)) {
+                change = true;
+            }
+        }
+        return change;
+    }
+
+    /**
+     * Calculate the duration of the next step. It is the smallest time until the next hydraulic step, the next
+     * period of patterns, the next report, a tank full or empty, a control or the end of simulation.
+     */
+    private long timeStep() {
+        HydraulicNetwork net = this.network;
+        long step = net.hydraulicStep;
+        long t = ((this.time + net.patternStart) / net.patternStep + 1) * net.patternStep - (this.time + net.patternStart);
+        if (t > 0 && t < step) {
+            step = t;
+        }
+        t = this.reportTime - this.time;
+        if (t > 0 && t < step) {
+            step = t;
+        }
+        t = net.duration - this.time;
+        if (t > 0 && t < step) {
+            step = t;
+        }
+
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            double q = this.demand[i];
+            if (net.nodeTypes[i] != NodeTypes.EN_TANK || Math.abs(q) <= Q_ZERO) {
+                continue;
+            }
+            double volume;
+            if (q > 0 && this.head[i] < net.tankMaximumHead[i]) {
+                volume = this.tankMaximumVolume[i] - this.tankVolume[i];
+            } else if (q < 0 && this.head[i] > net.tankMinimumHead[i]) {
+                volume = this.tankMinimumVolume[i] - this.tankVolume[i];
+            } else {
+                continue;
+            }
+            t = Math.round(volume / q);
+            if (t > 0 && t < step) {
+                step = t;
+            }
+        }
+
+        for (int c = 0; c < net.controlLink.length; c++) {
+            t = 0;
+            int node = net.controlNode[c];
+            int type = net.controlType[c];
+            if (type == TIMER) {
+                if (net.controlTime[c] > this.time) {
+                    t = net.controlTime[c] - this.time;
+                }
+            } else if (type == TIME_OF_DAY) {
+                long clock = (this.time + net.startClockTime) % SECONDS_BY_DAY;
+                t = net.controlTime[c] >= clock ? net.controlTime[c] - clock : SECONDS_BY_DAY - clock + net.controlTime[c];
+            } else if (net.nodeTypes[node] == NodeTypes.EN_TANK) {
+                double q = this.demand[node];
+                double h = this.head[node];
+                if (Math.abs(q) > Q_ZERO && ((h < net.controlHead[c] && type == HIGH_LEVEL && q > 0)
+                        || (h > net.controlHead[c] && type == LOW_LEVEL && q < 0))) {
+                    t = Math.round((net.tankVolume(node, net.controlHead[c]) - this.tankVolume[node]) / q);
+                }
+            }
+            if (t > 0 && t < step) {
+                int k = net.controlLink[c];
+                if (this.status[k] != net.controlStatus[c]
+                        || (net.linkTypes[k] != LinkTypes.EN_PIPE && this.setting[k] != net.controlSetting[c])) {
+                    step = t;
+                }
+            }
+        }
+        return step;
+    }
+
+    private void updateTankLevels(long step) {
+        HydraulicNetwork net = this.network;
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            if (net.nodeTypes[i] != NodeTypes.EN_TANK) {
+                continue;
+            }
+            double q = this.demand[i];
+            this.tankVolume[i] += q * step;
+            // the tank is full or empty within the next second
+            if (this.tankMaximumVolume[i] - this.tankVolume[i] < q) {
+                this.tankVolume[i] = this.tankMaximumVolume[i];
+            }
+            if (this.tankVolume[i] - this.tankMinimumVolume[i] < -q) {
+                this.tankVolume[i] = this.tankMinimumVolume[i];
+            }
+            this.head[i] = net.tankHead(i, this.tankVolume[i]);
+        }
+    }
+}
@@ -0,0 +1,792 @@
+package model.epanet.hydraulicsimulation.gga;
+
+import epanet.core.LinkTypes;
+import epanet.core.NodeTypes;
+import model.epanet.element.Network;
+import model.epanet.element.networkcomponent.*;
+import model.epanet.element.optionsreport.Option;
+import model.epanet.element.optionsreport.Option.FlowUnit;
+import model.epanet.element.optionsreport.Option.HeadlossFormule;
+import model.epanet.element.optionsreport.Time;
+import model.epanet.element.systemoperation.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Compiled version of a {@link Network} used by {@link GlobalGradientSolver}. All values are stored in arrays
+ * with the units of the international system (m, m3/s, s), so the solver doesn't need to convert the units in
+ * each iteration.
+ * <p>
+ * The nodes are ordered like in epanet: first the junctions, then the reservoirs and finally the tanks. The
+ * links are ordered first the pipes, then the pumps and finally the valves. In each group the order is the same
+ * that in the inp file.
+ * <p>
+ * This class is immutable after it is created.
+ */
+final class HydraulicNetwork {
+    static final byte XHEAD = 0; // pump closed because it can't give the head
+    static final byte TEMPCLOSED = 1; // link closed by a full or empty tank
+    static final byte CLOSED = 2;
+    static final byte OPEN = 3;
+
+    static final int POWER_FUNCTION = 0;
+    static final int CUSTOM = 1;
+    static final int CONSTANT_POWER = 2;
+
+    static final int TIMER = 0;
+    static final int TIME_OF_DAY = 1;
+    static final int LOW_LEVEL = 2;
+    static final int HIGH_LEVEL = 3;
+
+    static final double HAZEN_WILLIAMS_COEFFICIENT = 10.666829;
+    static final double DARCY_WEISBACH_COEFFICIENT = 0.082677;
+    static final double CHEZY_MANNING_COEFFICIENT = 10.329895;
+    static final double MINOR_LOSS_COEFFICIENT = 0.082579;
+    static final double KW_COEFFICIENT = 9.802259; // kw = coefficient * Q(m3/s) * H(m)
+    private static final double FEET = 0.3048;
+    private static final double INCH = 0.0254;
+    private static final double PSI_BY_METER = 0.4333 / FEET;
+    private static final double HP = 0.7457;
+    private static final double WATER_VISCOSITY = 1.1e-5 * FEET * FEET; // m2/s at 20 C
+    private static final long SECONDS_BY_DAY = 86400;
+
+    // nodes
+    final int nodeCount;
+    final int junctionCount;
+    final String[] nodeIds;
+    final Map<String, Integer> nodeIndex;
+    final NodeTypes[] nodeTypes;
+    final double[] elevation;
+    final double[][] baseDemand; // by junction and demand category
+    final int[][] demandPattern;
+    final double[] reservoirHead;
+    final int[] reservoirPattern;
+    final double[] tankInitialHead;
+    final double[] tankMinimumHead;
+    final double[] tankMaximumHead;
+    final double[] tankArea;
+    final double[] tankMinimumVolume;
+    final double[][] tankVolumeCurveLevel;
+    final double[][] tankVolumeCurveVolume;
+
+    // links
+    final int linkCount;
+    final String[] linkIds;
+    final Map<String, Integer> linkIndex;
+    final LinkTypes[] linkTypes;
+    final int[] node1;
+    final int[] node2;
+    final double[] length;
+    final double[] diameter;
+    final double[] roughness;
+    final double[] minorLoss; // K of the links
+    final byte[] initialStatus;
+    final double[] initialSetting;
+    final int[] pumpType;
+    final double[] pumpH0; // headloss at zero flow of power function (negative)
+    final double[] pumpR;
+    final double[] pumpN;
+    final double[] pumpMaximumHead;
+    final double[] pumpDesignFlow;
+    final double[][] pumpCurveFlow;
+    final double[][] pumpCurveHead;
+    final double[][] pumpEfficiencyFlow;
+    final double[][] pumpEfficiency;
+    final int[] pumpPattern;
+
+    // controls
+    final int[] controlLink;
+    final int[] controlNode;
+    final int[] controlType;
+    final double[] controlHead;
+    final long[] controlTime;
+    final byte[] controlStatus;
+    final double[] controlSetting;
+
+    // patterns
+    final double[][] patterns;
+
+    // options
+    final HeadlossFormule headlossFormule;
+    final double flowFactor; // m3/s by flow unit
+    final double lengthFactor; // m by length unit
+    final double diameterFactor; // m by diameter unit
+    final double pressureFactor; // pressure unit by m
+    final double viscosity;
+    final double specificGravity;
+    final int maximumTrials;
+    final int extraTrials; // -1 if the simulation stop when it isn't balanced
+    final double accuracy;
+    final int checkFrequency;
+    final int maximumCheck;
+    final double dampLimit;
+    final double globalEfficiency;
+
+    // times
+    final long duration;
+    final long hydraulicStep;
+    final long patternStep;
+    final long patternStart;
+    final long reportStep;
+    final long reportStart;
+    final long startClockTime;
+
+    /**
+     * Compile a network.
+     *
+     * @param network the network
+     * @throws NullPointerException     if network is null
+     * @throws IllegalArgumentException if the network use a feature not supported by the solver or if it has
+     *                                  invalid data.
+     */
+    HydraulicNetwork(@NotNull Network network) {
+        Objects.requireNonNull(network);
+        Option option = network.getOption() != null ? network.getOption() : new Option();
+        Time time = network.getTime() != null ? network.getTime() : new Time();
+        EnergyOption energyOption = network.getEnergyOption() != null ? network.getEnergyOption() : new EnergyOption();
+
+        // options
+        FlowUnit flowUnit = option.getFlowUnit();
+        boolean us = isUSUnit(flowUnit);
+        this.flowFactor = flowFactor(flowUnit);
+        this.lengthFactor = us ? FEET : 1;
+        this.diameterFactor = us ? INCH : 0.001;
+        this.specificGravity = option.getSpecificGravity();
+        this.pressureFactor = us ? PSI_BY_METER * specificGravity : specificGravity;
+        this.headlossFormule = option.getHeadlossFormule();
+        this.viscosity = option.getViscosity() > 1e-3 ? option.getViscosity() * WATER_VISCOSITY
+                : option.getViscosity() * this.lengthFactor * this.lengthFactor;
+        this.maximumTrials = Math.max(1, (int) option.getTrials());
+        this.extraTrials = parseUnbalanced(option.getUnbalanced());
+        this.accuracy = option.getAccuracy();
+        this.checkFrequency = Math.max(1, (int) option.getCheckfreq());
+        this.maximumCheck = (int) option.getMaxcheck();
+        this.dampLimit = option.getDamplimit();
+        this.globalEfficiency = energyOption.getGlobalEfficiency();
+
+        // times
+        this.duration = parseTime(time.getDuration());
+        this.patternStep = Math.max(1, parseTime(time.getPatternTimestep()));
+        this.patternStart = parseTime(time.getPatternStart());
+        this.reportStep = Math.max(1, parseTime(time.getReportTimestep()));
+        this.hydraulicStep = Math.max(1, Math.min(parseTime(time.getHydraulicTimestep()),
+                Math.min(this.patternStep, this.reportStep)));
+        this.reportStart = parseTime(time.getReportStart());
+        this.startClockTime = parseTime(time.getStartClockTime()) % SECONDS_BY_DAY;
+
+        // patterns
+        Map<String, Integer> patternIndex = new HashMap<>();
+        List<double[]> patternList = new ArrayList<>();
+        for (Pattern pattern : network.getPatterns()) {
+            List<Double> multipliers = pattern.getMultipliers();
+            double[] values = new double[multipliers.isEmpty() ? 1 : multipliers.size()];
+            if (multipliers.isEmpty()) {
+                values[0] = 1;
+            }
+            for (int i = 0; i < multipliers.size(); i++) {
+                values[i] = multipliers.get(i);
+            }
+            patternIndex.put(pattern.getId(), patternList.size());
+            patternList.add(values);
+        }
+        this.patterns = patternList.toArray(new double[0][]);
+        Integer defaultPattern = patternIndex.get(option.getPattern());
+
+        // nodes
+        List<Junction> junctions = network.getJunctions();
+        List<Node> fixedNodes = new ArrayList<>(network.getReservoirs());
+        fixedNodes.addAll(network.getTanks());
+        this.junctionCount = junctions.size();
+        this.nodeCount = junctionCount + fixedNodes.size();
+        this.nodeIds = new String[nodeCount];
+        this.nodeIndex = new HashMap<>(nodeCount * 2);
+        this.nodeTypes = new NodeTypes[nodeCount];
+        this.elevation = new double[nodeCount];
+        this.baseDemand = new double[junctionCount][];
+        this.demandPattern = new int[junctionCount][];
+        this.reservoirHead = new double[nodeCount];
+        this.reservoirPattern = new int[nodeCount];
+        this.tankInitialHead = new double[nodeCount];
+        this.tankMinimumHead = new double[nodeCount];
+        this.tankMaximumHead = new double[nodeCount];
+        this.tankArea = new double[nodeCount];
+        this.tankMinimumVolume = new double[nodeCount];
+        this.tankVolumeCurveLevel = new double[nodeCount][];
+        this.tankVolumeCurveVolume = new double[nodeCount][];
+        Arrays.fill(this.reservoirPattern, -1);
+
+        for (int i = 0; i < junctionCount; i++) {
+            Junction junction = junctions.get(i);
+            addNode(i, junction.getId(), NodeTypes.EN_JUNCTION);
+            if (junction.getEmitter() != null && junction.getEmitter().getCoefficient() > 0) {
+                throw new IllegalArgumentException("The emitter of junction " + junction.getId() + " isn't supported");
+            }
+            this.elevation[i] = junction.getElevation() * lengthFactor;
+            List<Demand> demands = junction.getDemandCategories();
+            this.baseDemand[i] = new double[demands.size()];
+            this.demandPattern[i] = new int[demands.size()];
+            for (int j = 0; j < demands.size(); j++) {
+                Demand demand = demands.get(j);
+                this.baseDemand[i][j] = demand.getDemand() * option.getDemandMultiplier() * flowFactor;
+                Integer pattern = demand.getDemandPattern().isEmpty() ? defaultPattern
+                        : patternIndex.get(demand.getDemandPattern());
+                this.demandPattern[i][j] = pattern == null ? -1 : pattern;
+            }
+        }
+        for (int i = junctionCount; i < nodeCount; i++) {
+            Node node = fixedNodes.get(i - junctionCount);
+            if (node instanceof Reservoir) {
+                Reservoir reservoir = (Reservoir) node;
+                addNode(i, reservoir.getId(), NodeTypes.EN_RESERVOIR);
+                this.elevation[i] = reservoir.getTotalHead() * lengthFactor;
+                this.reservoirHead[i] = this.elevation[i];
+                this.reservoirPattern[i] = findPattern(patternIndex, reservoir.getHeadPattern());
+            } else {
+                Tank tank = (Tank) node;
+                addNode(i, tank.getId(), NodeTypes.EN_TANK);
+                compileTank(network, i, tank);
+            }
+        }
+
+        // links
+        List<Link> links = new ArrayList<>(network.getPipes());
+        links.addAll(network.getPumps());
+        links.addAll(network.getValves());
+        this.linkCount = links.size();
+        this.linkIds = new String[linkCount];
+        this.linkIndex = new HashMap<>(linkCount * 2);
+        this.linkTypes = new LinkTypes[linkCount];
+        this.node1 = new int[linkCount];
+        this.node2 = new int[linkCount];
+        this.length = new double[linkCount];
+        this.diameter = new double[linkCount];
+        this.roughness = new double[linkCount];
+        this.minorLoss = new double[linkCount];
+        this.initialStatus = new byte[linkCount];
+        this.initialSetting = new double[linkCount];
+        this.pumpType = new int[linkCount];
+        this.pumpH0 = new double[linkCount];
+        this.pumpR = new double[linkCount];
+        this.pumpN = new double[linkCount];
+        this.pumpMaximumHead = new double[linkCount];
+        this.pumpDesignFlow = new double[linkCount];
+        this.pumpCurveFlow = new double[linkCount][];
+        this.pumpCurveHead = new double[linkCount][];
+        this.pumpEfficiencyFlow = new double[linkCount][];
+        this.pumpEfficiency = new double[linkCount][];
+        this.pumpPattern = new int[linkCount];
+        Arrays.fill(this.pumpPattern, -1);
+
+        for (int i = 0; i < linkCount; i++) {
+            Link link = links.get(i);
+            this.linkIds[i] = link.getId();
+            this.linkIndex.put(link.getId(), i);
+            if (link.getNode1() == null || link.getNode2() == null) {
+                throw new IllegalArgumentException("The link " + link.getId() + " hasn't its nodes");
+            }
+            this.node1[i] = getNodeIndex(link.getNode1().getId());
+            this.node2[i] = getNodeIndex(link.getNode2().getId());
+            this.initialStatus[i] = OPEN;
+            if (link instanceof Pipe) {
+                compilePipe(i, (Pipe) link);
+            } else if (link instanceof Pump) {
+                compilePump(network, patternIndex, i, (Pump) link);
+            } else {
+                compileValve(i, (Valve) link);
+            }
+        }
+
+        // controls
+        List<String[]> controls = new ArrayList<>();
+        if (network.getControl() != null) {
+            for (String line : network.getControl().getCode().split("\n")) {
+                int comment = line.indexOf(';');
+                String code = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (!code.isEmpty()) {
+                    controls.add(code.split("\\s+"));
+                }
+            }
+        }
+        if (network.getRule() != null && !removeComments(network.getRule().getCode()).isEmpty()) {
+            throw new IllegalArgumentException("The rule based controls aren't supported");
+        }
+        this.controlLink = new int[controls.size()];
+        this.controlNode = new int[controls.size()];
+        this.controlType = new int[controls.size()];
+        this.controlHead = new double[controls.size()];
+        this.controlTime = new long[controls.size()];
+        this.controlStatus = new byte[controls.size()];
+        this.controlSetting = new double[controls.size()];
+        for (int i = 0; i < controls.size(); i++) {
+            compileControl(i, controls.get(i));
+        }
+    }
+
+    private void addNode(int index, String id, NodeTypes type) {
+        this.nodeIds[index] = id;
+        this.nodeIndex.put(id, index);
+        this.nodeTypes[index] = type;
+    }
+
+    private void compileTank(Network network, int index, Tank tank) {
+        this.elevation[index] = tank.getElevation() * lengthFactor;
+        this.tankInitialHead[index] = this.elevation[index] + tank.getInitialLevel() * lengthFactor;
+        this.tankMinimumHead[index] = this.elevation[index] + tank.getMinimumLevel() * lengthFactor;
+        this.tankMaximumHead[index] = this.elevation[index] + tank.getMaximumLevel() * lengthFactor;
+        double volumeFactor = lengthFactor * lengthFactor * lengthFactor;
+        if (!tank.getVolumeCurve().isEmpty()) {
+            Curve curve = findCurve(network, tank.getVolumeCurve());
+            this.tankVolumeCurveLevel[index] = curveX(curve, lengthFactor);
+            this.tankVolumeCurveVolume[index] = curveY(curve, volumeFactor);
+            this.tankArea[index] = 1; // only to indicate that it is a tank
+            this.tankMinimumVolume[index] = interpolate(tankVolumeCurveLevel[index], tankVolumeCurveVolume[index],
+                    tankMinimumHead[index] - elevation[index]);
+        } else {
+            double tankDiameter = tank.getDiameter() * lengthFactor;
+            this.tankArea[index] = Math.PI * tankDiameter * tankDiameter / 4;
+            if (this.tankArea[index] <= 0) {
+                throw new IllegalArgumentException("The tank " + tank.getId() + " hasn't diameter or volume curve");
+            }
+            double minimumVolume = tank.getMinimumVolume() * volumeFactor;
+            this.tankMinimumVolume[index] = minimumVolume > 0 ? minimumVolume
+                    : this.tankArea[index] * (tankMinimumHead[index] - elevation[index]);
+        }
+    }
+
+    private void compilePipe(int index, Pipe pipe) {
+        this.linkTypes[index] = pipe.getStatus() == Pipe.PipeStatus.CV ? LinkTypes.EN_CVPIPE : LinkTypes.EN_PIPE;
+        this.length[index] = pipe.getLength() * lengthFactor;
+        this.diameter[index] = pipe.getDiameter() * diameterFactor;
+        this.minorLoss[index] = pipe.getLossCoefficient();
+        switch (headlossFormule) {
+            case DW:
+                // the roughness is in millifeet or millimeters
+                this.roughness[index] = pipe.getRoughness() * 0.001 * lengthFactor;
+                break;
+            default:
+                this.roughness[index] = pipe.getRoughness();
+        }
+        if (this.length[index] <= 0 || this.diameter[index] <= 0 || this.roughness[index] <= 0) {
+            throw new IllegalArgumentException("The pipe " + pipe.getId() + " has a invalid length, diameter or roughness");
+        }
+        this.initialStatus[index] = pipe.getStatus() == Pipe.PipeStatus.CLOSED ? CLOSED : OPEN;
+    }
+
+    private void compilePump(Network network, Map<String, Integer> patternIndex, int index, Pump pump) {
+        this.linkTypes[index] = LinkTypes.EN_PUMP;
+        Object speed = pump.getProperty(Pump.PumpProperty.SPEED);
+        double initialSpeed = speed != null ? (Double) speed : 1;
+        this.initialSetting[index] = initialSpeed;
+        this.initialStatus[index] = pump.getStatus() == Pump.PumpStatus.CLOSED || initialSpeed == 0 ? CLOSED : OPEN;
+        if (pump.getStatus() == Pump.PumpStatus.CLOSED) {
+            this.initialSetting[index] = 0;
+        }
+        Object pattern = pump.getProperty(Pump.PumpProperty.PATTERN);
+        if (pattern != null) {
+            this.pumpPattern[index] = findPattern(patternIndex, (String) pattern);
+        }
+        if (!pump.getEfficiencyCurve().isEmpty()) {
+            Curve curve = findCurve(network, pump.getEfficiencyCurve());
+            this.pumpEfficiencyFlow[index] = curveX(curve, flowFactor);
+            this.pumpEfficiency[index] = curveY(curve, 1);
+        }
+
+        Object head = pump.getProperty(Pump.PumpProperty.HEAD);
+        Object power = pump.getProperty(Pump.PumpProperty.POWER);
+        if (head != null) {
+            Curve curve = findCurve(network, (String) head);
+            double[] q = curveX(curve, flowFactor);
+            double[] h = curveY(curve, lengthFactor);
+            if (q.length == 1 || (q.length == 3 && q[0] == 0)) {
+                double h0, h1, h2, q1, q2;
+                if (q.length == 1) {
+                    h0 = 1.33334 * h[0];
+                    h1 = h[0];
+                    h2 = 0;
+                    q1 = q[0];
+                    q2 = 2 * q[0];
+                } else {
+                    h0 = h[0];
+                    h1 = h[1];
+                    h2 = h[2];
+                    q1 = q[1];
+                    q2 = q[2];
+                }
+                if (h0 <= 0 || h0 - h1 <= 0 || h1 - h2 <= 0 || q1 <= 0 || q2 - q1 <= 0) {
+                    throw new IllegalArgumentException("The curve of pump " + pump.getId() + " is invalid");
+                }
+                double n = Math.log((h0 - h2) / (h0 - h1)) / Math.log(q2 / q1);
+                if (n <= 0 || n > 20) {
+                    throw new IllegalArgumentException("The curve of pump " + pump.getId() + " is invalid");
+                }
+                this.pumpType[index] = POWER_FUNCTION;
+                this.pumpH0[index] = -h0;
+                this.pumpR[index] = (h0 - h1) / Math.pow(q1, n);
+                this.pumpN[index] = n;
+                this.pumpMaximumHead[index] = h0;
+                this.pumpDesignFlow[index] = q1;
+            } else {
+                for (int i = 1; i < q.length; i++) {
+                    if (q[i] <= q[i - 1] || h[i] >= h[i - 1]) {
+                        throw new IllegalArgumentException("The curve of pump " + pump.getId() + " is invalid");
+                    }
+                }
+                this.pumpType[index] = CUSTOM;
+                this.pumpCurveFlow[index] = q;
+                this.pumpCurveHead[index] = h;
+                this.pumpN[index] = 1;
+                this.pumpMaximumHead[index] = h[0];
+                this.pumpDesignFlow[index] = (q[0] + q[q.length - 1]) / 2;
+            }
+        } else if (power != null) {
+            double kw = (Double) power * (lengthFactor == 1 ? 1 : HP);
+            if (kw <= 0) {
+                throw new IllegalArgumentException("The power of pump " + pump.getId() + " is invalid");
+            }
+            this.pumpType[index] = CONSTANT_POWER;
+            this.pumpH0[index] = 0;
+            this.pumpR[index] = -kw / KW_COEFFICIENT;
+            this.pumpN[index] = -1;
+            this.pumpMaximumHead[index] = Double.MAX_VALUE;
+            this.pumpDesignFlow[index] = flowFactor;
+        } else {
+            throw new IllegalArgumentException("The pump " + pump.getId() + " hasn't head curve or power");
+        }
+    }
+
+    private void compileValve(int index, Valve valve) {
+        this.diameter[index] = valve.getDiameter() * diameterFactor;
+        if (this.diameter[index] <= 0) {
+            throw new IllegalArgumentException("The valve " + valve.getId() + " has a invalid diameter");
+        }
+        this.minorLoss[index] = valve.getLossCoefficient();
+        Valve.ValveStatus status = valve.getFixedStatus() == null ? Valve.ValveStatus.NONE : valve.getFixedStatus();
+        switch (valve.getType()) {
+            case PRV:
+                this.linkTypes[index] = LinkTypes.EN_PRV;
+                break;
+            case PSV:
+                this.linkTypes[index] = LinkTypes.EN_PSV;
+                break;
+            case PBV:
+                this.linkTypes[index] = LinkTypes.EN_PBV;
+                break;
+            case FCV:
+                this.linkTypes[index] = LinkTypes.EN_FCV;
+                break;
+            case GPV:
+                this.linkTypes[index] = LinkTypes.EN_GPV;
+                break;
+            default:
+                this.linkTypes[index] = LinkTypes.EN_TCV;
+        }
+        if (status == Valve.ValveStatus.CLOSED) {
+            this.initialStatus[index] = CLOSED;
+        } else if (status == Valve.ValveStatus.NONE) {
+            if (this.linkTypes[index] != LinkTypes.EN_TCV) {
+                throw new IllegalArgumentException("The valve " + valve.getId() + " of type " + valve.getType().getName()
+                        + " only is supported with a fixed status");
+            }
+            // the setting of a throttle control valve is its loss coefficient
+            try {
+                this.minorLoss[index] = Double.parseDouble(valve.getSetting());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The setting of valve " + valve.getId() + " is invalid", e);
+            }
+        }
+    }
+
+    private void compileControl(int index, String[] tokens) {
+        String code = String.join(" ", tokens);
+        if (tokens.length < 5 || !tokens[0].equalsIgnoreCase("LINK")) {
+            throw new IllegalArgumentException("The control " + code + " isn't supported");
+        }
+        Integer link = this.linkIndex.get(tokens[1]);
+        if (link == null) {
+            throw new IllegalArgumentException("The link of control " + code + " don't exist");
+        }
+        this.controlLink[index] = link;
+        this.controlNode[index] = -1;
+        LinkTypes type = this.linkTypes[link];
+        if (type == LinkTypes.EN_CVPIPE) {
+            throw new IllegalArgumentException("The control " + code + " can't change a check valve");
+        }
+        if (tokens[2].equalsIgnoreCase("OPEN")) {
+            this.controlStatus[index] = OPEN;
+            this.controlSetting[index] = type == LinkTypes.EN_PUMP ? 1 : this.minorLoss[link];
+        } else if (tokens[2].equalsIgnoreCase("CLOSED")) {
+            this.controlStatus[index] = CLOSED;
+            this.controlSetting[index] = type == LinkTypes.EN_PUMP ? 0 : this.minorLoss[link];
+        } else if (type == LinkTypes.EN_PUMP || type == LinkTypes.EN_TCV) {
+            double setting = Double.parseDouble(tokens[2]);
+            this.controlSetting[index] = setting;
+            this.controlStatus[index] = type == LinkTypes.EN_PUMP && setting == 0 ? CLOSED : OPEN;
+        } else {
+            throw new IllegalArgumentException("The control " + code + " has a invalid status");
+        }
+
+        if (tokens[3].equalsIgnoreCase("IF") && tokens.length >= 7 && tokens[4].equalsIgnoreCase("NODE")) {
+            Integer node = this.nodeIndex.get(tokens[5]);
+            if (node == null) {
+                throw new IllegalArgumentException("The node of control " + code + " don't exist");
+            }
+            this.controlNode[index] = node;
+            if (tokens[6].equalsIgnoreCase("ABOVE")) {
+                this.controlType[index] = HIGH_LEVEL;
+            } else if (tokens[6].equalsIgnoreCase("BELOW")) {
+                this.controlType[index] = LOW_LEVEL;
+            } else {
+                throw new IllegalArgumentException("The control " + code + " isn't supported");
+            }
+            double value = Double.parseDouble(tokens[7]);
+            switch (this.nodeTypes[node]) {
+                case EN_JUNCTION:
+                    this.controlHead[index] = this.elevation[node] + value / this.pressureFactor;
+                    break;
+                case EN_TANK:
+                    this.controlHead[index] = this.elevation[node] + value * this.lengthFactor;
+                    break;
+                default:
+                    throw new IllegalArgumentException("The control " + code + " can't use a reservoir");
+            }
+        } else if (tokens[3].equalsIgnoreCase("AT") && tokens[4].equalsIgnoreCase("TIME") && tokens.length >= 6) {
+            this.controlType[index] = TIMER;
+            this.controlTime[index] = parseTime(join(tokens, 5));
+        } else if (tokens[3].equalsIgnoreCase("AT") && tokens[4].equalsIgnoreCase("CLOCKTIME") && tokens.length >= 6) {
+            this.controlType[index] = TIME_OF_DAY;
+            this.controlTime[index] = parseTime(join(tokens, 5)) % SECONDS_BY_DAY;
+        } else {
+            throw new IllegalArgumentException("The control " + code + " isn't supported");
+        }
+    }
+
+    /**
+     * Get the index of a node.
+     *
+     * @param id the id of node
+     * @return the index
+     * @throws IllegalArgumentException if the node don't exist
+     */
+    int getNodeIndex(String id) {
+        Integer index = this.nodeIndex.get(id);
+        if (index == null) {
+            throw new IllegalArgumentException("The node " + id + " don't exist");
+        }
+        return index;
+    }
+
+    /**
+     * Get the volume of a tank with a specific head.
+     *
+     * @param node the index of tank
+     * @param head the head (m)
+     * @return the volume (m3)
+     */
+    double tankVolume(int node, double head) {
+        if (this.tankVolumeCurveLevel[node] != null) {
+            return interpolate(this.tankVolumeCurveLevel[node], this.tankVolumeCurveVolume[node], head - this.elevation[node]);
+        }
+        return this.tankMinimumVolume[node] + (head - this.tankMinimumHead[node]) * this.tankArea[node];
+    }
+
+    /**
+     * Get the head of a tank with a specific volume.
+     *
+     * @param node   the index of tank
+     * @param volume the volume (m3)
+     * @return the head (m)
+     */
+    double tankHead(int node, double volume) {
+        if (this.tankVolumeCurveLevel[node] != null) {
+            return this.elevation[node] + interpolate(this.tankVolumeCurveVolume[node], this.tankVolumeCurveLevel[node], volume);
+        }
+        return this.tankMinimumHead[node] + (volume - this.tankMinimumVolume[node]) / this.tankArea[node];
+    }
+
+    /**
+     * Get the multiplier of a pattern at a time.
+     *
+     * @param pattern the index of pattern or -1 if there isn't pattern
+     * @param time    the time of simulation (s)
+     * @return the multiplier
+     */
+    double multiplier(int pattern, long time) {
+        if (pattern < 0) {
+            return 1;
+        }
+        double[] multipliers = this.patterns[pattern];
+        return multipliers[(int) (((time + this.patternStart) / this.patternStep) % multipliers.length)];
+    }
+
+    /**
+     * Linear interpolation of a curve. Outside of the curve the first or last segment is used.
+     *
+     * @param x the x values sorted.
+     * @param y the y values.
+     * @param value the x value to interpolate.
+     * @return the y value.
+     */
+    static double interpolate(double[] x, double[] y, double value) {
+        int n = x.length;
+        if (n == 1) {
+            return y[0];
+        }
+        int k = 1;
+        while (k < n - 1 && x[k] < value) {
+            k++;
+        }
+        double dx = x[k] - x[k - 1];
+        if (dx == 0) {
+            return y[k];
+        }
+        return y[k - 1] + (value - x[k - 1]) * (y[k] - y[k - 1]) / dx;
+    }
+
+    /**
+     * Convert a time of the inp file to seconds. The time can be a decimal number of hours, hours:minutes[:seconds]
+     * or a number followed by the units SEC, MIN, HOURS, DAYS, AM or PM.
+     *
+     * @param text the time
+     * @return the seconds
+     * @throws IllegalArgumentException if the time has a invalid format
+     */
+    static long parseTime(String text) {
+        String[] tokens = text.trim().split("\\s+");
+        if (tokens.length == 0 || tokens[0].isEmpty() || tokens.length > 2) {
+            throw new IllegalArgumentException("The time " + text + " has a invalid format");
+        }
+        double hours;
+        try {
+            if (tokens[0].contains(":")) {
+                String[] parts = tokens[0].split(":");
+                hours = 0;
+                for (int i = 0; i < parts.length && i < 3; i++) {
+                    hours += Double.parseDouble(parts[i]) / Math.pow(60, i);
+                }
+            } else {
+                hours = Double.parseDouble(tokens[0]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The time " + text + " has a invalid format", e);
+        }
+        if (tokens.length == 2) {
+            String unit = tokens[1].toUpperCase();
+            if (unit.startsWith("SEC")) {
+                hours /= 3600;
+            } else if (unit.startsWith("MIN")) {
+                hours /= 60;
+            } else if (unit.startsWith("DAY")) {
+                hours *= 24;
+            } else if (unit.equals("AM")) {
+                hours = hours >= 12 ? hours - 12 : hours;
+            } else if (unit.equals("PM")) {
+                hours = hours >= 12 ? hours : hours + 12;
+            } else if (!unit.startsWith("HOUR")) {
+                throw new IllegalArgumentException("The time " + text + " has a invalid unit");
+            }
+        }
+        return Math.round(hours * 3600);
+    }
+
+    private static int parseUnbalanced(String unbalanced) {
+        String[] tokens = unbalanced.trim().split("\\s+");
+        if (tokens[0].equalsIgnoreCase("STOP")) {
+            return -1;
+        }
+        if (tokens.length > 1) {
+            try {
+                return Integer.parseInt(tokens[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("The option unbalanced " + unbalanced + " is invalid", e);
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isUSUnit(FlowUnit flowUnit) {
+        switch (flowUnit) {
+            case CFS:
+            case GPM:
+            case MGD:
+            case IMGD:
+            case AFD:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static double flowFactor(FlowUnit flowUnit) {
+        switch (flowUnit) {
+            case CFS:
+                return 0.028316847;
+            case GPM:
+                return 6.3090196e-5;
+            case MGD:
+                return 0.043812636;
+            case IMGD:
+                return 0.052616782;
+            case AFD:
+                return 0.014276410;
+            case LPS:
+                return 0.001;
+            case LPM:
+                return 0.001 / 60;
+            case MLD:
+                return 1000.0 / 86400;
+            case CMH:
+                return 1.0 / 3600;
+            default:
+                return 1.0 / 86400;
+        }
+    }
+
+    private static int findPattern(Map<String, Integer> patternIndex, String id) {
+        if (id == null || id.isEmpty()) {
+            return -1;
+        }
+        Integer index = patternIndex.get(id);
+        if (index == null) {
+            throw new IllegalArgumentException("The pattern " + id + " don't exist");
+        }
+        return index;
+    }
+
+    private static Curve findCurve(Network network, String id) {
+        Curve curve = network.getCurve(id);
+        if (curve == null || curve.getNumberOfPoint() == 0) {
+            throw new IllegalArgumentException("The curve " + id + " don't exist");
+        }
+        return curve;
+    }
+
+    private static double[] curveX(Curve curve, double factor) {
+        double[] x = new double[curve.getNumberOfPoint()];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = curve.getPoint(i).getX() * factor;
+        }
+        return x;
+    }
+
+    private static double[] curveY(Curve curve, double factor) {
+        double[] y = new double[curve.getNumberOfPoint()];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = curve.getPoint(i).getY() * factor;
+        }
+        return y;
+    }
+
+    private static String removeComments(String code) {
+        StringBuilder builder = new StringBuilder();
+        for (String line : code.split("\n")) {
+            int comment = line.indexOf(';');
+            builder.append(comment >= 0 ? line.substring(0, comment) : line);
+        }
+        return builder.toString().trim();
+    }
+
+    private static String join(String[] tokens, int from) {
+        return String.join(" ", Arrays.copyOfRange(tokens, from, tokens.length));
+    }
+}
@@ -0,0 +1,225 @@
+package model.epanet.hydraulicsimulation.gga;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Symmetric positive definite matrix of the heads of the junctions and its Cholesky factorization.
+ * <p>
+ * The rows are reordered with the reverse Cuthill-McKee algorithm and the matrix is stored as a skyline (for
+ * each row the values from the first column not zero until the diagonal). The structure is calculated only one
+ * time in the constructor, so the assembly and the factorization don't create new objects.
+ */
+final class SparseCholesky {
+    private final int size;
+    private final int[] newIndex; // new index of each original row
+    private final int[] first; // first column of each row (new order)
+    private final int[] start; // position in values of the first column of each row
+    private final double[] values;
+    private final double[] work;
+
+    /**
+     * Constructor.
+     *
+     * @param size  the number of rows
+     * @param rows  the row of each value outside of the diagonal
+     * @param columns the column of each value outside of the diagonal
+     */
+    SparseCholesky(int size, int[] rows, int[] columns) {
+        this.size = size;
+        List<List<Integer>> adjacency = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            adjacency.add(new ArrayList<>());
+        }
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] != columns[i] && !adjacency.get(rows[i]).contains(columns[i])) {
+                adjacency.get(rows[i]).add(columns[i]);
+                adjacency.get(columns[i]).add(rows[i]);
+            }
+        }
+
+        this.newIndex = reverseCuthillMcKee(adjacency);
+        this.first = new int[size];
+        for (int i = 0; i < size; i++) {
+            int row = this.newIndex[i];
+            int column = row;
+            for (int neighbor : adjacency.get(i)) {
+                column = Math.min(column, this.newIndex[neighbor]);
+            }
+            this.first[row] = column;
+        }
+        this.start = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            this.start[row] = count;
+            count += row - this.first[row] + 1;
+        }
+        this.values = new double[count];
+        this.work = new double[size];
+    }
+
+    /**
+     * Get the number of rows.
+     *
+     * @return the size
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Get the number of values stored by the skyline.
+     *
+     * @return the number of values
+     */
+    int storedValues() {
+        return this.values.length;
+    }
+
+    /**
+     * Get the position of a value of the matrix. The position can be used with {@link #add(int, double)}.
+     *
+     * @param row    the row (original order)
+     * @param column the column (original order)
+     * @return the position
+     */
+    int position(int row, int column) {
+        int newRow = this.newIndex[row];
+        int newColumn = this.newIndex[column];
+        if (newColumn > newRow) {
+            int aux = newRow;
+            newRow = newColumn;
+            newColumn = aux;
+        }
+        if (newColumn < this.first[newRow]) {
+            throw new IllegalArgumentException("The value (" + row + ", " + column + ") isn't in the structure of the matrix");
+        }
+        return this.start[newRow] + newColumn - this.first[newRow];
+    }
+
+    /**
+     * Set all values of matrix to 0.
+     */
+    void clear() {
+        Arrays.fill(this.values, 0);
+    }
+
+    /**
+     * Add a value to the matrix.
+     *
+     * @param position the position of value returned by {@link #position(int, int)}
+     * @param value    the value
+     */
+    void add(int position, double value) {
+        this.values[position] += value;
+    }
+
+    /**
+     * Factorize the matrix and solve the system. The matrix is destroyed by the factorization.
+     *
+     * @param rhs      the right hand side (original order)
+     * @param solution the array where the solution is saved (original order)
+     * @return -1 if the system was solved or the original row where the matrix isn't positive definite.
+     */
+    int solve(double[] rhs, double[] solution) {
+        double[] a = this.values;
+        // factorization L * L^t
+        for (int row = 0; row < size; row++) {
+            int firstRow = this.first[row];
+            int offsetRow = this.start[row] - firstRow;
+            for (int column = firstRow; column < row; column++) {
+                int firstColumn = this.first[column];
+                int offsetColumn = this.start[column] - firstColumn;
+                double sum = a[offsetRow + column];
+                for (int k = Math.max(firstRow, firstColumn); k < column; k++) {
+                    sum -= a[offsetRow + k] * a[offsetColumn + k];
+                }
+                a[offsetRow + column] = sum / a[offsetColumn + column];
+            }
+            double diagonal = a[offsetRow + row];
+            for (int k = firstRow; k < row; k++) {
+                diagonal -= a[offsetRow + k] * a[offsetRow + k];
+            }
+            if (!(diagonal > 0)) {
+                for (int i = 0; i < size; i++) {
+                    if (this.newIndex[i] == row) {
+                        return i;
+                    }
+                }
+            }
+            a[offsetRow + row] = Math.sqrt(diagonal);
+        }
+
+        double[] y = this.work;
+        for (int i = 0; i < size; i++) {
+            y[this.newIndex[i]] = rhs[i];
+        }
+        // L * y = rhs
+        for (int row = 0; row < size; row++) {
+            int offsetRow = this.start[row] - this.first[row];
+            double sum = y[row];
+            for (int k = this.first[row]; k < row; k++) {
+                sum -= a[offsetRow + k] * y[k];
+            }
+            y[row] = sum / a[offsetRow + row];
+        }
+        // L^t * x = y
+        for (int row = size - 1; row >= 0; row--) {
+            int offsetRow = this.start[row] - this.first[row];
+            double x = y[row] / a[offsetRow + row];
+            y[row] = x;
+            for (int k = this.first[row]; k < row; k++) {
+                y[k] -= a[offsetRow + k] * x;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            solution[i] = y[this.newIndex[i]];
+        }
+        return -1;
+    }
+
+    /**
+     * Reorder the rows to reduce the profile of matrix.
+     *
+     * @param adjacency the adjacency list of each row
+     * @return the new index of each row
+     */
+    private static int[] reverseCuthillMcKee(List<List<Integer>> adjacency) {
+        int size = adjacency.size();
+        int[] order = new int[size];
+        boolean[] visited = new boolean[size];
+        int count = 0;
+        while (count < size) {
+            // each component start in the row with less neighbors
+            int root = -1;
+            for (int i = 0; i < size; i++) {
+                if (!visited[i] && (root == -1 || adjacency.get(i).size() < adjacency.get(root).size())) {
+                    root = i;
+                }
+            }
+            Deque<Integer> queue = new ArrayDeque<>();
+            queue.add(root);
+            visited[root] = true;
+            while (!queue.isEmpty()) {
+                int row = queue.poll();
+                order[count++] = row;
+                List<Integer> neighbors = new ArrayList<>(adjacency.get(row));
+                neighbors.sort((a, b) -> Integer.compare(adjacency.get(a).size(), adjacency.get(b).size()));
+                for (int neighbor : neighbors) {
+                    if (!visited[neighbor]) {
+                        visited[neighbor] = true;
+                        queue.add(neighbor);
+                    }
+                }
+            }
+        }
+        int[] newIndex = new int[size];
+        for (int i = 0; i < size; i++) {
+            newIndex[order[i]] = size - 1 - i;
+        }
+        return newIndex;
+    }
+}
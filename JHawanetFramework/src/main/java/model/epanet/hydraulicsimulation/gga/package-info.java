@@ -0,0 +1,7 @@
+/**
+ * This package contains a hydraulic solver written in java that use the Global Gradient Algorithm (the same
+ * method used by epanet). The entry point is {@link model.epanet.hydraulicsimulation.gga.GlobalGradientSolver}.
+ * The engine {@link model.epanet.hydraulicsimulation.gga.GlobalGradientEngine} simulates with it the networks
+ * read of a inp file.
+ */
+package model.epanet.hydraulicsimulation.gga;
@@ -0,0 +1,249 @@
+package model.epanet.hydraulicsimulation.impl;
+
+import epanet.core.*;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.util.Objects;
+
+/**
+ * Engine that use the library of epanet.
+ * <p>
+ * The library keep a only project by process, so the instances opened with the same network share it and the
+ * library is only closed when all of them are closed. The values of links changed by a instance are seen by the
+ * others, and all instances return the same object in {@link #getSimulationLock()}. A network different to the
+ * network opened by other instance can't be opened; to simulate other network at the same time (or to simulate the
+ * same network in parallel) the engines have to run in other processes (see {@link
+ * model.metaheuristic.util.evaluator.impl.ProcessPoolSolutionEvaluator}).
+ * <p>
+ * The hydraulic solver of epanet is opened in the first call to {@link #init()} and it is kept open until the
+ * project is closed to don't allocate it in each simulation.
+ */
+public class EpanetEngine implements HydraulicEngine {
+    // the project opened in the library. It is shared by the opened instances.
+    private static Project openedProject;
+
+    private Project project;
+    private final long[] time = {0};
+    private final long[] step = {0};
+
+    /**
+     * Constructor. The network has to be opened with {@link #open(String, String)}.
+     */
+    public EpanetEngine() {
+    }
+
+    /**
+     * Constructor that open a network.
+     *
+     * @param inpPath the path to inp file
+     * @param rptPath the path to report file
+     * @throws EpanetException if there is a error opening the network or loading the library
+     * @throws IllegalStateException if other instance has opened a different network.
+     */
+    public EpanetEngine(@NotNull String inpPath, @NotNull String rptPath) throws EpanetException {
+        open(inpPath, rptPath);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If other instance has opened the same network its project is shared and rptPath isn't used.
+     *
+     * @throws IllegalStateException if this engine already has a opened network or if other instance has opened a
+     *                               different network.
+     */
+    @Override
+    public void open(@NotNull String inpPath, @NotNull String rptPath) throws EpanetException {
+        Objects.requireNonNull(inpPath);
+        Objects.requireNonNull(rptPath);
+        if (this.project != null) {
+            throw new IllegalStateException("The engine already has a opened network");
+        }
+        String path = new File(inpPath).getAbsolutePath();
+        synchronized (EpanetEngine.class) {
+            if (openedProject == null) {
+                EpanetAPI api;
+                try {
+                    api = new EpanetAPI();
+                } catch (URISyntaxException e) {
+                    throw new EpanetException(e);
+                }
+                api.ENopen(inpPath, rptPath, "");
+                try {
+                    openedProject = new Project(api, path);
+                } catch (EpanetException | RuntimeException e) {
+                    api.ENclose();
+                    throw e;
+                }
+            } else if (!openedProject.inpPath.equals(path)) {
+                throw new IllegalStateException("The library of epanet has the network " + openedProject.inpPath
+                        + " opened by other engine");
+            }
+            openedProject.openCount++;
+            this.project = openedProject;
+        }
+    }
+
+    @Override
+    public void init() throws EpanetException {
+        Project project = getProject();
+        if (!project.hydraulicOpened) {
+            project.api.ENopenH();
+            project.hydraulicOpened = true;
+        }
+        project.api.ENinitH(0);
+    }
+
+    @Override
+    public long run() throws EpanetException {
+        getProject().api.ENrunH(this.time);
+        return this.time[0];
+    }
+
+    @Override
+    public long next() throws EpanetException {
+        getProject().api.ENnextH(this.step);
+        return this.step[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The project of epanet is closed when all the instances that share it are closed. It do nothing if the network
+     * wasn't opened.
+     */
+    @Override
+    public void close() throws EpanetException {
+        synchronized (EpanetEngine.class) {
+            Project project = this.project;
+            if (project == null) {
+                return;
+            }
+            this.project = null;
+            if (--project.openCount > 0) {
+                return;
+            }
+            openedProject = null;
+            try {
+                if (project.hydraulicOpened) {
+                    project.hydraulicOpened = false;
+                    project.api.ENcloseH();
+                }
+            } finally {
+                project.api.ENclose();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * It is the instance of the library of epanet.
+     *
+     * @throws IllegalStateException if the network wasn't opened.
+     */
+    @Override
+    public @NotNull Object getSimulationLock() {
+        return getProject().api.getEpanet();
+    }
+
+    @Override
+    public int getNodeCount() {
+        return getProject().nodeIds.length;
+    }
+
+    @Override
+    public int getLinkCount() {
+        return getProject().linkIds.length;
+    }
+
+    @Override
+    public @NotNull String getNodeId(int index) {
+        return getProject().nodeIds[index];
+    }
+
+    @Override
+    public @NotNull String getLinkId(int index) {
+        return getProject().linkIds[index];
+    }
+
+    @Override
+    public @NotNull NodeTypes getNodeType(int index) {
+        return getProject().nodeTypes[index];
+    }
+
+    @Override
+    public @NotNull LinkTypes getLinkType(int index) {
+        return getProject().linkTypes[index];
+    }
+
+    @Override
+    public long getTimeParameter(@NotNull TimeParameterCodes code) throws EpanetException {
+        return getProject().api.ENgettimeparam(code);
+    }
+
+    @Override
+    public double getNodeValue(int index, @NotNull NodeParameters parameter) throws EpanetException {
+        return getProject().api.ENgetnodevalue(index + 1, parameter);
+    }
+
+    @Override
+    public double getLinkValue(int index, @NotNull LinkParameters parameter) throws EpanetException {
+        return getProject().api.ENgetlinkvalue(index + 1, parameter)[0];
+    }
+
+    @Override
+    public void setLinkValue(int index, @NotNull LinkParameters parameter, double value) throws EpanetException {
+        getProject().api.ENsetlinkvalue(index + 1, parameter, (float) value);
+    }
+
+    /**
+     * Get the project opened by this engine.
+     *
+     * @return the project
+     * @throws IllegalStateException if the network wasn't opened.
+     */
+    private Project getProject() {
+        if (this.project == null) {
+            throw new IllegalStateException("The network wasn't opened");
+        }
+        return this.project;
+    }
+
+    /**
+     * The project opened in the library of epanet and the number of instances that use it. The ids and types are
+     * saved to don't call to the library each time that they are needed.
+     */
+    private static final class Project {
+        private final EpanetAPI api;
+        private final String inpPath;
+        private final String[] nodeIds;
+        private final String[] linkIds;
+        private final NodeTypes[] nodeTypes;
+        private final LinkTypes[] linkTypes;
+        private int openCount;
+        private boolean hydraulicOpened;
+
+        private Project(EpanetAPI api, String inpPath) throws EpanetException {
+            this.api = api;
+            this.inpPath = inpPath;
+            int nodeCount = api.ENgetcount(Components.EN_NODECOUNT);
+            int linkCount = api.ENgetcount(Components.EN_LINKCOUNT);
+            this.nodeIds = new String[nodeCount];
+            this.nodeTypes = new NodeTypes[nodeCount];
+            this.linkIds = new String[linkCount];
+            this.linkTypes = new LinkTypes[linkCount];
+            for (int i = 0; i < nodeCount; i++) {
+                this.nodeIds[i] = api.ENgetnodeid(i + 1);
+                this.nodeTypes[i] = api.ENgetnodetype(i + 1);
+            }
+            for (int i = 0; i < linkCount; i++) {
+                this.linkIds[i] = api.ENgetlinkid(i + 1);
+                this.linkTypes[i] = api.ENgetlinktype(i + 1);
+            }
+        }
+    }
+}
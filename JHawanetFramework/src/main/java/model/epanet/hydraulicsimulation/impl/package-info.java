@@ -0,0 +1,5 @@
+/**
+ * This package contains the implementations of {@link model.epanet.hydraulicsimulation.HydraulicEngine} that
+ * use external simulators.
+ */
+package model.epanet.hydraulicsimulation.impl;
@@ -1,5 +1,6 @@
 /**
  * This package constains the classes to store the result of hydraulic simulation generated
- * by {@link model.epanet.hydraulicsimulation.HydraulicSimulation}.
+ * by {@link model.epanet.hydraulicsimulation.HydraulicSimulation} and the interface
+ * {@link model.epanet.hydraulicsimulation.HydraulicEngine} used by the problems to simulate a network.
  */
-package model.epanet.hydraulicsimulation;
\ No newline at end of file
+package model.epanet.hydraulicsimulation;
@@ -251,7 +251,7 @@ public class InpParser implements InputParser {
         if (tokens.length == 2) {
             node.setBaseDemand(0);
         }
-        if (tokens.length == 3) {
+        if (tokens.length >= 3) {
             node.setBaseDemand(Double.parseDouble(tokens[2]));
         }
         if (tokens.length == 4) {
@@ -672,7 +672,7 @@ public class InpParser implements InputParser {
         if (code.isEmpty()) {
             code = line;
         } else {
-            code = "\n" + line;
+            code += "\n" + line;
         }
         control.setCode(code);
 
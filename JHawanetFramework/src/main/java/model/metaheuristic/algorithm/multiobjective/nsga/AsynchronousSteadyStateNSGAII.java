@@ -0,0 +1,240 @@
+package model.metaheuristic.algorithm.multiobjective.nsga;
+
+import epanet.core.EpanetException;
+import exception.ApplicationException;
+import model.metaheuristic.operator.crossover.CrossoverOperator;
+import model.metaheuristic.operator.mutation.MutationOperator;
+import model.metaheuristic.operator.selection.SelectionOperator;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.evaluator.AsynchronousSolutionEvaluator;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
+import model.metaheuristic.util.solutionattribute.IncrementalDominanceRanking;
+import model.metaheuristic.util.surrogate.SurrogatePreScreening;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Asynchronous steady state version of NSGA-II.
+ * <p>
+ * The initial population is evaluated as in {@link NSGAII}. After that, each step waits the evaluation of a
+ * offspring, adds it to the population with a incremental update of the ranking and the crowding distance (see
+ * {@link IncrementalDominanceRanking}), removes the worst solution and sends a new offspring to the evaluator. So if
+ * the evaluator is a {@link AsynchronousSolutionEvaluator} all its workers are busy while the algorithm runs,
+ * instead of wait the slowest simulation of each generation.
+ * <p>
+ * If the evaluator isn't asynchronous each step evaluates a offspring with it, so the algorithm is a steady state
+ * NSGA-II. To use a evaluation cache with a asynchronous evaluator wrap it in a
+ * {@link model.metaheuristic.util.evaluator.impl.AsynchronousCachedSolutionEvaluator} instead of a
+ * {@link model.metaheuristic.util.evaluator.impl.CachedSolutionEvaluator}, which only evaluates lists.
+ * <p>
+ * Each step inserts only a solution, so the number of steps is the number of evaluations. The surrogate of
+ * {@link NSGAII} isn't supported.
+ */
+public class AsynchronousSteadyStateNSGAII<S extends Solution<?>> extends NSGAII<S> {
+    private final IncrementalDominanceRanking<S> ranking;
+    private final BlockingQueue<Future<S>> completionQueue;
+    private final Deque<S> offspringQueue;
+    private final Deque<S> waitingQueue;
+    private boolean initialized;
+    private int pending;
+
+    /**
+     * Constructor
+     *
+     * @param problem             the problem to solve.
+     * @param maxEvaluations      the max number of evaluation to realize.
+     * @param populationSize      the population size.
+     * @param crossoverOperator   the crossover operator.
+     * @param mutationOperator    the mutation operator.
+     * @param selectionOperator   the selection operator used to choose each parent.
+     * @param dominanceComparator the dominance operator.
+     * @param evaluator           the solution evaluator. If it is a {@link AsynchronousSolutionEvaluator} the
+     *                            offspring are evaluated in background.
+     */
+    public AsynchronousSteadyStateNSGAII(Problem<S> problem, int maxEvaluations, int populationSize
+            , SelectionOperator<List<S>, S> selectionOperator
+            , CrossoverOperator<S> crossoverOperator
+            , MutationOperator<S> mutationOperator
+            , Comparator<S> dominanceComparator
+            , SolutionListEvaluator<S> evaluator) {
+        super(problem, maxEvaluations, populationSize, crossoverOperator.getNumberOfRequiredParents(), 1,
+                selectionOperator, crossoverOperator, mutationOperator, dominanceComparator, evaluator);
+        this.ranking = new IncrementalDominanceRanking<>(dominanceComparator);
+        this.completionQueue = new LinkedBlockingQueue<>();
+        this.offspringQueue = new ArrayDeque<>();
+        this.waitingQueue = new ArrayDeque<>();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException if surrogate isn't null.
+     */
+    @Override
+    public void setSurrogate(SurrogatePreScreening<S> surrogate) {
+        if (surrogate != null) {
+            throw new UnsupportedOperationException("The asynchronous NSGA-II doesn't support a surrogate");
+        }
+    }
+
+    /**
+     * Get the number of offspring that are being evaluated.
+     *
+     * @return the number of pending evaluations.
+     */
+    public int getNumberOfPendingEvaluations() {
+        return this.pending;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The first step evaluates the initial population and sends the first offspring to the evaluator. The next
+     * steps insert a offspring evaluated in the population.
+     *
+     * @throws ApplicationException if the thread is interrupted while wait a evaluation or if a evaluation throws
+     *                              a checked exception different of {@link EpanetException}.
+     */
+    @Override
+    public void runSingleStep() throws Exception, EpanetException {
+        if (!this.initialized) {
+            List<S> population = evaluatePopulation(createInitialPopulation());
+            this.ranking.computeRanking(population);
+            setPopulation(new ArrayList<>(population));
+            initProgress();
+            this.initialized = true;
+            dispatch();
+            return;
+        }
+        if (isStoppingConditionReached()) {
+            return;
+        }
+
+        S offspring = nextEvaluated();
+        insert(offspring);
+        updateProgress();
+        dispatch();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The number of evaluations increases in one by each offspring inserted.
+     */
+    @Override
+    protected void updateProgress() {
+        this.numberOfEvaluations++;
+    }
+
+    /**
+     * Send new offspring to the evaluator until all its workers are busy or until the offspring needed to reach
+     * the max number of evaluations are sent. If the evaluator isn't asynchronous only a offspring waits and it is
+     * evaluated in the next step. The evaluators without workers yet (as a remote evaluator waiting connections)
+     * receive a offspring, which is evaluated when a worker is available.
+     */
+    private void dispatch() {
+        SolutionListEvaluator<S> evaluator = getDuplicateElimination().getEvaluator();
+        int capacity = evaluator instanceof AsynchronousSolutionEvaluator
+                ? Math.max(1, ((AsynchronousSolutionEvaluator<S>) evaluator).getNumberOfWorkers()) : 1;
+        while (this.pending < capacity && this.numberOfEvaluations + this.pending < this.maxEvaluations) {
+            S offspring = createOffspring();
+            if (evaluator instanceof AsynchronousSolutionEvaluator) {
+                ((AsynchronousSolutionEvaluator<S>) evaluator).submit(offspring, this.problem, this.completionQueue::add);
+            } else {
+                this.waitingQueue.addLast(offspring);
+            }
+            this.pending++;
+        }
+    }
+
+    /**
+     * Get the next offspring. The crossover can create several offspring, so they are kept until they are used.
+     */
+    private S createOffspring() {
+        if (this.offspringQueue.isEmpty()) {
+            List<S> parents = new ArrayList<>(this.matingPoolSize);
+            for (int i = 0; i < this.matingPoolSize; i++) {
+                parents.add(this.selectionOperator.execute(getPopulation()));
+            }
+            for (S solution : this.crossoverOperator.execute(parents)) {
+                this.mutationOperator.execute(solution);
+                this.offspringQueue.addLast(solution);
+            }
+        }
+        return this.offspringQueue.pollFirst();
+    }
+
+    /**
+     * Wait the next offspring evaluated.
+     */
+    private S nextEvaluated() throws EpanetException {
+        SolutionListEvaluator<S> evaluator = getDuplicateElimination().getEvaluator();
+        this.pending--;
+        if (!(evaluator instanceof AsynchronousSolutionEvaluator)) {
+            S offspring = this.waitingQueue.pollFirst();
+            evaluator.evaluate(Collections.singletonList(offspring), this.problem);
+            return offspring;
+        }
+
+        Throwable error;
+        try {
+            return this.completionQueue.take().get();
+        } catch (ExecutionException e) {
+            error = e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("The evaluation of the solutions was interrupted.", e);
+        }
+        if (error instanceof EpanetException) {
+            throw (EpanetException) error;
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        }
+        throw new ApplicationException("There is a error in the evaluation of the solutions.", error);
+    }
+
+    /**
+     * Add a offspring to the population and remove the worst solution.
+     */
+    private void insert(S offspring) {
+        List<S> population = getPopulation();
+        this.ranking.add(offspring);
+        population.add(offspring);
+        S worst = this.ranking.removeWorst();
+        // the solutions are compared by reference because two solutions can be equal
+        for (int i = population.size() - 1; i >= 0; i--) {
+            if (population.get(i) == worst) {
+                population.set(i, population.get(population.size() - 1));
+                population.remove(population.size() - 1);
+                break;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull String getStatusOfExecution() {
+        return "Number of evaluations: " + this.numberOfEvaluations + " / " + this.maxEvaluations
+                + "\nEvaluations in progress: " + this.pending;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "Asynchronous NSGA-II";
+    }
+}
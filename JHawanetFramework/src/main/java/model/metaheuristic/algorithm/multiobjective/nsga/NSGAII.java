@@ -38,6 +38,8 @@ import model.metaheuristic.problem.Problem;
 import model.metaheuristic.solution.Solution;
 import model.metaheuristic.util.SolutionListUtils;
 import model.metaheuristic.util.evaluator.SolutionListEvaluator;
+import model.metaheuristic.util.evaluator.impl.DuplicateEliminationSolutionEvaluator;
+import model.metaheuristic.util.surrogate.SurrogatePreScreening;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
@@ -63,6 +65,8 @@ public class NSGAII<S extends Solution<?>> extends AbstractEvolutionaryAlgorithm
     protected final MutationOperator<S> mutationOperator;
     protected List<S> population;
     protected final SolutionListEvaluator<S> evaluator;
+    private final DuplicateEliminationSolutionEvaluator<S> duplicateElimination;
+    private SurrogatePreScreening<S> surrogate;
 
     /**
      * Constructor
@@ -94,7 +98,8 @@ public class NSGAII<S extends Solution<?>> extends AbstractEvolutionaryAlgorithm
         this.selectionOperator = selectionOperator;
 
         this.dominanceComparator = dominanceComparator;
-        this.evaluator = evaluator;
+        this.duplicateElimination = new DuplicateEliminationSolutionEvaluator<>(evaluator);
+        this.evaluator = this.duplicateElimination;
 
         this.matingPoolSize = matingPoolSize;
         this.offspringPopulationSize = offspringPopulationSize;
@@ -118,6 +123,37 @@ public class NSGAII<S extends Solution<?>> extends AbstractEvolutionaryAlgorithm
         this.maxPopulationSize = maxPopulationSize;
     }
 
+    /**
+     * Get the evaluator that removes the duplicated solutions of each generation before they are sent to the
+     * evaluator received in the constructor.
+     *
+     * @return the evaluator of duplicates.
+     */
+    public DuplicateEliminationSolutionEvaluator<S> getDuplicateElimination() {
+        return duplicateElimination;
+    }
+
+    /**
+     * Get the surrogate used to filter the offspring.
+     *
+     * @return the surrogate or null if all the offspring are evaluated.
+     */
+    public SurrogatePreScreening<S> getSurrogate() {
+        return surrogate;
+    }
+
+    /**
+     * Set the surrogate used to filter the offspring before its evaluation. The offspring confidently dominated
+     * by the population aren't evaluated and they are discarded before the replacement. The number of evaluations
+     * used by the stopping condition is the number of offspring created, so the surrogate reduces the number of
+     * simulations but not the number of generations.
+     *
+     * @param surrogate the surrogate or null to evaluate all the offspring.
+     */
+    public void setSurrogate(SurrogatePreScreening<S> surrogate) {
+        this.surrogate = surrogate;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -131,7 +167,21 @@ public class NSGAII<S extends Solution<?>> extends AbstractEvolutionaryAlgorithm
      */
     @Override
     protected List<S> evaluatePopulation(List<S> population) throws EpanetException {
-        return this.evaluator.evaluate(population, problem);
+        if (this.surrogate == null) {
+            return this.evaluator.evaluate(population, problem);
+        }
+        // the initial population is evaluated before initProgress() and all its solutions are evaluated
+        if (this.numberOfEvaluations == 0) {
+            this.evaluator.evaluate(population, problem);
+            this.surrogate.train(population);
+            return population;
+        }
+        List<S> selected = this.surrogate.screen(population, getPopulation());
+        if (!selected.isEmpty()) {
+            this.evaluator.evaluate(selected, problem);
+        }
+        this.surrogate.update(selected);
+        return selected;
     }
 
     /**
@@ -264,7 +314,14 @@ public class NSGAII<S extends Solution<?>> extends AbstractEvolutionaryAlgorithm
      */
     @Override
     public @NotNull String getStatusOfExecution() {
-        return "Number of evaluations: " + this.numberOfEvaluations + " / " + this.maxEvaluations;
+        String status = "Number of evaluations: " + this.numberOfEvaluations + " / " + this.maxEvaluations
+                + "\n" + this.duplicateElimination;
+        if (this.surrogate != null && !this.surrogate.getReports().isEmpty()) {
+            List<SurrogatePreScreening.GenerationReport> reports = this.surrogate.getReports();
+            status += "\nEvaluations saved by surrogate: " + this.surrogate.getSavedEvaluations() + " / "
+                    + this.surrogate.getTotalOffspring() + "\n" + reports.get(reports.size() - 1);
+        }
+        return status;
     }
 
     @Override
@@ -36,7 +36,9 @@ import model.metaheuristic.problem.Problem;
 import model.metaheuristic.solution.Solution;
 import model.metaheuristic.util.comparator.DominanceComparator;
 import model.metaheuristic.util.comparator.RankingAndCrowdingDistanceComparator;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
 import model.metaheuristic.util.evaluator.impl.SequentialSolutionEvaluator;
+import model.metaheuristic.util.surrogate.SurrogatePreScreening;
 
 import java.util.List;
 import java.util.Objects;
@@ -51,8 +53,10 @@ public class NSGAIIBuilder<S extends Solution<?>> {
     private MutationOperator<S> mutationOperator;
     private CrossoverOperator<S> crossoverOperator;
     private SelectionOperator<List<S>, S> selectionOperator;
-    private SequentialSolutionEvaluator<S> evaluator;
+    private SolutionListEvaluator<S> evaluator;
     private DominanceComparator<S> dominanceComparator;
+    private SurrogatePreScreening<S> surrogate;
+    private boolean asynchronous;
 
     /**
      * Constructor
@@ -275,7 +279,7 @@ public class NSGAIIBuilder<S extends Solution<?>> {
      *
      * @return the evaluator.
      */
-    public SequentialSolutionEvaluator<S> getEvaluator() {
+    public SolutionListEvaluator<S> getEvaluator() {
         return evaluator;
     }
 
@@ -286,7 +290,7 @@ public class NSGAIIBuilder<S extends Solution<?>> {
      * @return the instance of builder.
      * @throws NullPointerException if evaluator is null.
      */
-    public NSGAIIBuilder<S> setEvaluator(SequentialSolutionEvaluator<S> evaluator) {
+    public NSGAIIBuilder<S> setEvaluator(SolutionListEvaluator<S> evaluator) {
         this.evaluator = Objects.requireNonNull(evaluator);
         return this;
     }
@@ -312,20 +316,72 @@ public class NSGAIIBuilder<S extends Solution<?>> {
         return this;
     }
 
+    /**
+     * Get the surrogate used to filter the offspring.
+     *
+     * @return the surrogate or null if it isn't used.
+     */
+    public SurrogatePreScreening<S> getSurrogate() {
+        return surrogate;
+    }
+
+    /**
+     * Set the surrogate used to filter the offspring. By default it isn't used.
+     *
+     * @param surrogate the surrogate or null to evaluate all the offspring.
+     * @return the instance of builder.
+     */
+    public NSGAIIBuilder<S> setSurrogate(SurrogatePreScreening<S> surrogate) {
+        this.surrogate = surrogate;
+        return this;
+    }
+
+    /**
+     * Get if the algorithm built is a {@link AsynchronousSteadyStateNSGAII}.
+     *
+     * @return true if the algorithm is asynchronous.
+     */
+    public boolean isAsynchronous() {
+        return asynchronous;
+    }
+
+    /**
+     * Set if the algorithm built is a {@link AsynchronousSteadyStateNSGAII}. By default it is false. The asynchronous
+     * algorithm doesn't use the mating pool size and the offspring population size, and it doesn't support a
+     * surrogate.
+     *
+     * @param asynchronous true to build a asynchronous steady state algorithm.
+     * @return the instance of builder.
+     */
+    public NSGAIIBuilder<S> setAsynchronous(boolean asynchronous) {
+        this.asynchronous = asynchronous;
+        return this;
+    }
+
     /**
      * Build the algorithm.
      *
      * @return the algorithm.
+     * @throws UnsupportedOperationException if the algorithm is asynchronous and it has a surrogate.
      */
     public NSGAII<S> build() {
+        if (this.asynchronous) {
+            AsynchronousSteadyStateNSGAII<S> algorithm = new AsynchronousSteadyStateNSGAII<>(this.problem,
+                    this.maxEvaluations, this.populationSize, this.selectionOperator, this.crossoverOperator,
+                    this.mutationOperator, this.dominanceComparator, this.evaluator);
+            algorithm.setSurrogate(this.surrogate);
+            return algorithm;
+        }
 
-        return new NSGAII<>(this.problem, this.maxEvaluations, this.populationSize, this.matingPoolSize
+        NSGAII<S> algorithm = new NSGAII<>(this.problem, this.maxEvaluations, this.populationSize, this.matingPoolSize
                 , this.offspringPopulationSize
                 , this.selectionOperator
                 , this.crossoverOperator
                 , this.mutationOperator
                 , this.dominanceComparator
                 , this.evaluator);
+        algorithm.setSurrogate(this.surrogate);
+        return algorithm;
     }
 
 
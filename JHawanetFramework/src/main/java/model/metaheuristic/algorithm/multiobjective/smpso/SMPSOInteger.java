@@ -36,12 +36,18 @@ import model.metaheuristic.solution.impl.IntegerSolution;
 import model.metaheuristic.util.archive.BoundedArchive;
 import model.metaheuristic.util.evaluator.SolutionListEvaluator;
 import model.metaheuristic.util.random.JavaRandom;
-import model.metaheuristic.util.solutionattribute.SolutionAttribute;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * SMPSO to integer problems.
+ * <p>
+ * The positions of the particles, the positions of its local best and the velocities are kept in matrices with a
+ * row by particle, so the update of the velocity and of the position doesn't copy solutions. The global best of each
+ * particle is read from the leaders without copy it.
+ */
 public class SMPSOInteger extends AbstractParticleSwarmOptimization<IntegerSolution> {
 
     private final Problem<IntegerSolution> problem;
@@ -64,12 +70,16 @@ public class SMPSOInteger extends AbstractParticleSwarmOptimization<IntegerSolut
     private final double changeVelocity1;
     private final double changeVelocity2;
 
-    private final JavaRandom randomGenerator;
     private final SolutionListEvaluator<IntegerSolution> evaluator;
 
-    private final SolutionAttribute<IntegerSolution, IntegerSolution> localBest;
+    // the row i is the particle i of the swarm
+    private final int[][] position;
+    private final int[][] localBest;
     private final double[][] speed;
 
+    private final double[] lowerBound;
+    private final double[] upperBound;
+
     private final double[] deltaMax;
     private final double[] deltaMin;
 
@@ -101,12 +111,19 @@ public class SMPSOInteger extends AbstractParticleSwarmOptimization<IntegerSolut
         this.changeVelocity1 = changeVelocity1;
         this.changeVelocity2 = changeVelocity2;
 
-        randomGenerator = JavaRandom.getInstance();
         this.evaluator = evaluator;
 
-        localBest = new SolutionAttribute<>();
+        position = new int[swarmSize][problem.getNumberOfVariables()];
+        localBest = new int[swarmSize][problem.getNumberOfVariables()];
         speed = new double[swarmSize][problem.getNumberOfVariables()];
 
+        lowerBound = new double[problem.getNumberOfVariables()];
+        upperBound = new double[problem.getNumberOfVariables()];
+        for (int i = 0; i < problem.getNumberOfVariables(); i++) {
+            lowerBound[i] = problem.getLowerBound(i);
+            upperBound[i] = problem.getUpperBound(i);
+        }
+
         deltaMax = new double[problem.getNumberOfVariables()];
         deltaMin = new double[problem.getNumberOfVariables()];
         for (int i = 0; i < problem.getNumberOfVariables(); i++) {
@@ -173,8 +190,8 @@ public class SMPSOInteger extends AbstractParticleSwarmOptimization<IntegerSolut
 
     @Override
     protected void initializeParticlesMemory(List<IntegerSolution> swarm) {
-        for (IntegerSolution particle : swarm) {
-            localBest.setAttribute(particle, (IntegerSolution) particle.copy());
+        for (int i = 0; i < swarm.size(); i++) {
+            readPosition(swarm.get(i), localBest[i]);
         }
     }
 
@@ -187,21 +204,33 @@ public class SMPSOInteger extends AbstractParticleSwarmOptimization<IntegerSolut
         }
     }
 
+    /**
+     * Select the global best between two random leaders. The leader isn't copied, so it can't be modified.
+     *
+     * @return the global best.
+     */
     protected IntegerSolution selectGlobalBest() {
         IntegerSolution one, two;
-        IntegerSolution bestGlobal;
+        JavaRandom randomGenerator = JavaRandom.getInstance();
         int pos1 = randomGenerator.nextInt(0, leaders.getSolutionList().size());
         int pos2 = randomGenerator.nextInt(0, leaders.getSolutionList().size());
         one = leaders.getSolutionList().get(pos1);
         two = leaders.getSolutionList().get(pos2);
 
         if (leaders.getComparator().compare(one, two) < 1) {
-            bestGlobal = (IntegerSolution) one.copy();
+            return one;
         } else {
-            bestGlobal = (IntegerSolution) two.copy();
+            return two;
         }
+    }
 
-        return bestGlobal;
+    /**
+     * Copy the variables of a solution to a row of a matrix.
+     */
+    private static void readPosition(IntegerSolution solution, int[] row) {
+        for (int j = 0; j < row.length; j++) {
+            row[j] = solution.getInt(j);
+        }
     }
 
     private double velocityConstriction(double v, double[] deltaMax, double[] deltaMin, int variableIndex) {
@@ -236,10 +265,16 @@ public class SMPSOInteger extends AbstractParticleSwarmOptimization<IntegerSolut
         double r1, r2, c1, c2;
         double wmax, wmin;
         IntegerSolution bestGlobal;
+        int numberOfVariables = problem.getNumberOfVariables();
+        // the stream of the run that executes this step
+        JavaRandom randomGenerator = JavaRandom.getInstance();
 
         for (int i = 0; i < swarm.size(); i++) {
-            IntegerSolution particle = (IntegerSolution) swarm.get(i).copy();
-            IntegerSolution bestParticle = (IntegerSolution) localBest.getAttribute(swarm.get(i)).copy();
+            // the position is read again because the perturbation can modify the particle
+            int[] particle = position[i];
+            readPosition(swarm.get(i), particle);
+            int[] bestParticle = localBest[i];
+            double[] particleSpeed = speed[i];
 
             bestGlobal = selectGlobalBest();
 
@@ -250,11 +285,13 @@ public class SMPSOInteger extends AbstractParticleSwarmOptimization<IntegerSolut
             wmax = weightMax;
             wmin = weightMin;
 
-            for (int var = 0; var < particle.getNumberOfVariables(); var++) {
-                speed[i][var] = velocityConstriction(constrictionCoefficient(c1, c2) * (
-                                inertiaWeight(iterations, maxIterations, wmax, wmin) * speed[i][var] +
-                                        c1 * r1 * (bestParticle.getVariable(var) - particle.getVariable(var)) +
-                                        c2 * r2 * (bestGlobal.getVariable(var) - particle.getVariable(var))),
+            double constriction = constrictionCoefficient(c1, c2);
+            double weight = inertiaWeight(iterations, maxIterations, wmax, wmin);
+            for (int var = 0; var < numberOfVariables; var++) {
+                particleSpeed[var] = velocityConstriction(constriction * (
+                                weight * particleSpeed[var] +
+                                        c1 * r1 * (bestParticle[var] - particle[var]) +
+                                        c2 * r2 * (bestGlobal.getInt(var) - particle[var])),
                         deltaMax, deltaMin, var);
             }
         }
@@ -262,18 +299,23 @@ public class SMPSOInteger extends AbstractParticleSwarmOptimization<IntegerSolut
 
     @Override
     protected void updatePosition(List<IntegerSolution> swarm) {
+        int numberOfVariables = problem.getNumberOfVariables();
         for (int i = 0; i < swarmSize; i++) {
             IntegerSolution particle = swarm.get(i);
-            for (int j = 0; j < particle.getNumberOfVariables(); j++) {
-                particle.setVariable(j, particle.getVariable(j) + (int)speed[i][j]);
-                if (particle.getVariable(j) < problem.getLowerBound(j)) {
-                    particle.setVariable(j, (int) problem.getLowerBound(j));
-                    speed[i][j] = speed[i][j] * changeVelocity1;
+            int[] particlePosition = position[i];
+            double[] particleSpeed = speed[i];
+            for (int j = 0; j < numberOfVariables; j++) {
+                int value = particlePosition[j] + (int) particleSpeed[j];
+                if (value < lowerBound[j]) {
+                    value = (int) lowerBound[j];
+                    particleSpeed[j] = particleSpeed[j] * changeVelocity1;
                 }
-                if (particle.getVariable(j) > problem.getUpperBound(j)) {
-                    particle.setVariable(j, (int) problem.getUpperBound(j));
-                    speed[i][j] = speed[i][j] * changeVelocity2;
+                if (value > upperBound[j]) {
+                    value = (int) upperBound[j];
+                    particleSpeed[j] = particleSpeed[j] * changeVelocity2;
                 }
+                particlePosition[j] = value;
+                particle.setInt(j, value);
             }
         }
     }
@@ -33,6 +33,7 @@ import model.metaheuristic.operator.mutation.impl.IntegerPolynomialMutation;
 import model.metaheuristic.problem.Problem;
 import model.metaheuristic.solution.impl.IntegerSolution;
 import model.metaheuristic.util.archive.BoundedArchive;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
 import model.metaheuristic.util.evaluator.impl.SequentialSolutionEvaluator;
 
 import java.util.Objects;
@@ -56,7 +57,7 @@ public class SMPSOIntegerBuilder {
     private double r2Min;
     private double weightMax;
     private MutationOperator<IntegerSolution> mutationOperator;
-    private SequentialSolutionEvaluator<IntegerSolution> evaluator;
+    private SolutionListEvaluator<IntegerSolution> evaluator;
 
     public SMPSOIntegerBuilder(Problem<IntegerSolution> problem, BoundedArchive<IntegerSolution> leaders) {
         this.problem = problem;
@@ -252,7 +253,7 @@ public class SMPSOIntegerBuilder {
      *
      * @return the evaluator.
      */
-    public SequentialSolutionEvaluator<IntegerSolution> getEvaluator() {
+    public SolutionListEvaluator<IntegerSolution> getEvaluator() {
         return evaluator;
     }
 
@@ -263,7 +264,7 @@ public class SMPSOIntegerBuilder {
      * @return the instance of builder.
      * @throws NullPointerException if evaluator is null.
      */
-    public SMPSOIntegerBuilder setEvaluator(SequentialSolutionEvaluator<IntegerSolution> evaluator) {
+    public SMPSOIntegerBuilder setEvaluator(SolutionListEvaluator<IntegerSolution> evaluator) {
         this.evaluator = Objects.requireNonNull(evaluator);
         return this;
     }
@@ -34,6 +34,7 @@ import model.metaheuristic.operator.selection.SelectionOperator;
 import model.metaheuristic.operator.selection.impl.TournamentSelection;
 import model.metaheuristic.problem.Problem;
 import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
 import model.metaheuristic.util.evaluator.impl.SequentialSolutionEvaluator;
 
 import java.util.List;
@@ -45,7 +46,7 @@ public class SPEA2Builder<S extends Solution<?>> {
     private CrossoverOperator<S> crossoverOperator;
     private MutationOperator<S> mutationOperator;
     private SelectionOperator<List<S>, S> selectionOperator;
-    private SequentialSolutionEvaluator<S> evaluator;
+    private SolutionListEvaluator<S> evaluator;
     private int k;
 
     public SPEA2Builder(Problem<S> problem, CrossoverOperator<S> crossoverOperator,
@@ -200,7 +201,7 @@ public class SPEA2Builder<S extends Solution<?>> {
      *
      * @return the evaluator used.
      */
-    public SequentialSolutionEvaluator<S> getEvaluator() {
+    public SolutionListEvaluator<S> getEvaluator() {
         return evaluator;
     }
 
@@ -211,7 +212,7 @@ public class SPEA2Builder<S extends Solution<?>> {
      * @return the instance of builder.
      * @throws NullPointerException if evaluator is null.
      */
-    public SPEA2Builder<S> setEvaluator(SequentialSolutionEvaluator<S> evaluator) {
+    public SPEA2Builder<S> setEvaluator(SolutionListEvaluator<S> evaluator) {
         this.evaluator = evaluator;
         return this;
     }
@@ -31,16 +31,22 @@ package model.metaheuristic.algorithm.multiobjective.spa2.utils;
 import model.metaheuristic.operator.selection.SelectionOperator;
 import model.metaheuristic.solution.Solution;
 import model.metaheuristic.util.SolutionListUtils;
-import model.metaheuristic.util.solutionattribute.LocationAttribute;
 import model.metaheuristic.util.solutionattribute.StrengthFitnessComparator;
 import model.metaheuristic.util.solutionattribute.StrengthRawFitness;
-import org.apache.commons.lang3.tuple.Pair;
+import model.metaheuristic.util.sorting.PrimitiveSorting;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
+/**
+ * Environmental selection of SPEA2. The non dominated solutions (fitness less than 1) are selected. If they aren't
+ * enough, the best dominated solutions are added. If they are too many, the archive is truncated removing each time
+ * the solution whose distances to the other solutions, sorted from the nearest, are the lexicographically smallest.
+ * <p>
+ * To truncate, the other solutions of each solution are sorted by distance only once. The removed solutions are only
+ * marked and they are skipped when the distances are compared, so the lists of distances aren't changed.
+ */
 public class EnvironmentalSelection<S extends Solution<?>> implements SelectionOperator<List<S>,List<S>> {
 
     private final int solutionsToSelect ;
@@ -56,100 +62,125 @@ public class EnvironmentalSelection<S extends Solution<?>> implements SelectionO
     }
 
     @Override
-    public List<S> execute(List<S> source2) {
-        int size;
-        List<S> source = new ArrayList<>(source2.size());
-        source.addAll(source2);
-        if (source2.size() < this.solutionsToSelect) {
-            size = source.size();
-        } else {
-            size = this.solutionsToSelect;
-        }
+    public List<S> execute(List<S> source) {
+        int size = Math.min(source.size(), this.solutionsToSelect);
 
         List<S> aux = new ArrayList<>(source.size());
-
-        int i = 0;
-        while (i < source.size()){
-            double fitness = (double) this.strengthRawFitness.getAttribute(source.get(i));
-            if (fitness<1.0){
-                aux.add(source.get(i));
-                source.remove(i);
+        List<S> dominated = new ArrayList<>(source.size());
+        for (S solution : source) {
+            double fitness = this.strengthRawFitness.getDouble(solution, Double.NaN);
+            if (fitness < 1.0) {
+                aux.add(solution);
             } else {
-                i++;
+                dominated.add(solution);
             }
         }
 
         if (aux.size() < size){
             StrengthFitnessComparator<S> comparator = new StrengthFitnessComparator<S>();
-            Collections.sort(source,comparator);
+            Collections.sort(dominated, comparator);
             int remain = size - aux.size();
-            for (i = 0; i < remain; i++){
-                aux.add(source.get(i));
+            for (int i = 0; i < remain; i++){
+                aux.add(dominated.get(i));
             }
             return aux;
         } else if (aux.size() == size) {
             return aux;
         }
 
-        double [][] distance = SolutionListUtils.distanceMatrix(aux);
-        List<List<Pair<Integer, Double>> > distanceList = new ArrayList<>();
-        LocationAttribute<S> location = new LocationAttribute<S>(aux);
-        for (int pos = 0; pos < aux.size(); pos++) {
-            List<Pair<Integer, Double>> distanceNodeList = new ArrayList<>();
-            for (int ref = 0; ref < aux.size(); ref++) {
-                if (pos != ref) {
-                    distanceNodeList.add(Pair.of(ref, distance[pos][ref]));
+        return truncate(aux, size);
+    }
+
+    /**
+     * Remove solutions until the size of the list is the received size.
+     *
+     * @param aux  the non dominated solutions.
+     * @param size the number of solutions to keep.
+     * @return a new list with the solutions kept in the same order.
+     */
+    private List<S> truncate(List<S> aux, int size) {
+        int n = aux.size();
+        double[] objectives = SolutionListUtils.objectiveMatrix(aux);
+        int numberOfObjectives = objectives.length / n;
+
+        // neighbors[i] are the other solutions sorted by its distance to i, and distances[i] are the distances
+        int[][] neighbors = new int[n][];
+        double[][] distances = new double[n][];
+        double[] row = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                row[j] = SolutionListUtils.distanceBetweenObjectives(objectives, numberOfObjectives, i, j);
+            }
+            int[] order = PrimitiveSorting.sortIndices(row, 0, n);
+            neighbors[i] = new int[n - 1];
+            distances[i] = new double[n - 1];
+            int position = 0;
+            for (int j : order) {
+                if (j != i) {
+                    neighbors[i][position] = j;
+                    distances[i][position] = row[j];
+                    position++;
                 }
             }
-            distanceList.add(distanceNodeList);
-        }
-
-        for (List<Pair<Integer, Double>> pairs : distanceList) {
-            Collections.sort(pairs, (pair1, pair2) -> {
-                return pair1.getRight().compareTo(pair2.getRight());
-            });
         }
 
-        while (aux.size() > size) {
-            double minDistance = Double.MAX_VALUE;
-            int toRemove = 0;
-            i = 0;
-            for (List<Pair<Integer, Double>> dn : distanceList) {
-                if (dn.get(0).getRight() < minDistance) {
+        boolean[] removed = new boolean[n];
+        // first position of neighbors[i] that isn't removed
+        int[] first = new int[n];
+        int alive = n;
+        while (alive > size) {
+            int toRemove = -1;
+            for (int i = 0; i < n; i++) {
+                if (removed[i]) {
+                    continue;
+                }
+                while (first[i] < n - 1 && removed[neighbors[i][first[i]]]) {
+                    first[i]++;
+                }
+                if (toRemove == -1 || isNearer(i, toRemove, neighbors, distances, first, removed)) {
                     toRemove = i;
-                    minDistance = dn.get(0).getRight();
-                    //i y toRemove have the same distance to the first solution
-                } else if (dn.get(0).getRight().equals(minDistance)) {
-                    int k = 0;
-                    while ((dn.get(k).getRight().equals(
-                            distanceList.get(toRemove).get(k).getRight())) &&
-                            k < (distanceList.get(i).size() - 1)) {
-                        k++;
-                    }
-
-                    if (dn.get(k).getRight() <
-                            distanceList.get(toRemove).get(k).getRight()) {
-                        toRemove = i;
-                    }
                 }
-                i++;
             }
+            removed[toRemove] = true;
+            alive--;
+        }
 
-            int tmp =  (int) location.getAttribute(aux.get(toRemove));
-            aux.remove(toRemove);
-            distanceList.remove(toRemove);
-
-            for (List<Pair<Integer, Double>> pairs : distanceList) {
-                Iterator<Pair<Integer, Double>> interIterator = pairs.iterator();
-                while (interIterator.hasNext()) {
-                    if (interIterator.next().getLeft() == tmp) {
-                        interIterator.remove();
-                        continue;
-                    }
-                }
+        List<S> selected = new ArrayList<>(size);
+        for (int i = 0; i < n; i++) {
+            if (!removed[i]) {
+                selected.add(aux.get(i));
             }
         }
-        return aux;
+        return selected;
     }
 
+    /**
+     * Test if the distances of the solution i to the solutions not removed are lexicographically smaller than the
+     * distances of the solution j.
+     */
+    private static boolean isNearer(int i, int j, int[][] neighbors, double[][] distances, int[] first,
+                                    boolean[] removed) {
+        int positionI = first[i];
+        int positionJ = first[j];
+        int length = neighbors[i].length;
+        while (true) {
+            while (positionI < length && removed[neighbors[i][positionI]]) {
+                positionI++;
+            }
+            while (positionJ < length && removed[neighbors[j][positionJ]]) {
+                positionJ++;
+            }
+            // both solutions have the same number of neighbors not removed
+            if (positionI >= length || positionJ >= length) {
+                return false;
+            }
+            double distanceI = distances[i][positionI];
+            double distanceJ = distances[j][positionJ];
+            if (distanceI != distanceJ) {
+                return distanceI < distanceJ;
+            }
+            positionI++;
+            positionJ++;
+        }
+    }
 }
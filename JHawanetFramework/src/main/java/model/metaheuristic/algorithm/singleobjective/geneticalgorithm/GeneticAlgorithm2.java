@@ -32,6 +32,9 @@ import model.metaheuristic.problem.Problem;
 import model.metaheuristic.solution.Solution;
 import model.metaheuristic.util.comparator.DominanceComparator;
 import model.metaheuristic.util.evaluator.SolutionListEvaluator;
+import model.metaheuristic.util.evaluator.impl.DuplicateEliminationSolutionEvaluator;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import model.metaheuristic.util.solutionattribute.ViolationCutoff;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
@@ -78,9 +81,20 @@ public class GeneticAlgorithm2<S extends Solution<?>> extends AbstractEvolutiona
      */
     private int numberOfIterationWithoutImprovement;
     protected final SolutionListEvaluator<S> evaluator;
+    private final DuplicateEliminationSolutionEvaluator<S> duplicateElimination;
 
     private S bestSolution;
 
+    private final OverallConstraintViolation<S> overallConstraintViolation = new OverallConstraintViolation<>();
+    private final ViolationCutoff<S> violationCutoff = new ViolationCutoff<>();
+    /**
+     * The overall constraint violation of the worst solution kept in the last replacement. It is a heuristic cutoff:
+     * the replacement only drops 2 of the N + 2 solutions, so the offspring mostly compete between them and an
+     * offspring worse than the cutoff can survive. The offspring stopped with it are ranked after the solutions
+     * evaluated completely.
+     */
+    private Double cutoff;
+
     public GeneticAlgorithm2(Problem<S> problem, int populationSize,
                              SelectionOperator<List<S>, List<S>> selectionOperator, CrossoverOperator<S> crossoverOperator,
                              MutationOperator<S> mutationOperator, SolutionListEvaluator<S> evaluator) {
@@ -93,7 +107,8 @@ public class GeneticAlgorithm2<S extends Solution<?>> extends AbstractEvolutiona
         this.maxNumberOfIterationWithoutImprovement = 0;
 
         this.comparator = new DominanceComparator<S>();
-        this.evaluator = evaluator;
+        this.duplicateElimination = new DuplicateEliminationSolutionEvaluator<>(evaluator);
+        this.evaluator = this.duplicateElimination;
     }
 
     /**
@@ -170,6 +185,16 @@ public class GeneticAlgorithm2<S extends Solution<?>> extends AbstractEvolutiona
         this.maxNumberOfIterationWithoutImprovement = maxNumberOfIterationWithoutImprovement;
     }
 
+    /**
+     * Get the evaluator that removes the duplicated solutions of each generation before they are sent to the
+     * evaluator received in the constructor.
+     *
+     * @return the evaluator of duplicates.
+     */
+    public DuplicateEliminationSolutionEvaluator<S> getDuplicateElimination() {
+        return duplicateElimination;
+    }
+
     /**
      * @return the problem
      */
@@ -194,6 +219,7 @@ public class GeneticAlgorithm2<S extends Solution<?>> extends AbstractEvolutiona
         Collections.sort(offspringPopulation, comparator);
         offspringPopulation.remove(offspringPopulation.size() - 1);
         offspringPopulation.remove(offspringPopulation.size() - 1);
+        this.cutoff = overallConstraintViolation.getAttribute(offspringPopulation.get(offspringPopulation.size() - 1));
 
         return offspringPopulation;
     }
@@ -309,9 +335,19 @@ public class GeneticAlgorithm2<S extends Solution<?>> extends AbstractEvolutiona
 
     /**
      * {@inheritDoc}
+     * <p>
+     * After the first replacement each solution receive a {@link ViolationCutoff} with the violation of the worst
+     * solution kept, so the problem can stop the evaluation of the solutions that probably won't survive. It isn't a
+     * valid bound (see {@link #cutoff}), so the early termination can discard a offspring that would have survived
+     * the replacement.
      */
     @Override
     protected List<S> evaluatePopulation(List<S> population) throws EpanetException {
+        if (this.cutoff != null) {
+            for (S solution : population) {
+                violationCutoff.setAttribute(solution, this.cutoff);
+            }
+        }
         return evaluator.evaluate(population, problem);
     }
 
@@ -343,10 +379,11 @@ public class GeneticAlgorithm2<S extends Solution<?>> extends AbstractEvolutiona
     @Override
     public @NotNull String getStatusOfExecution() {
         if (getMaxEvaluations() > 0) {
-            return "Number of evaluations: " + this.performedEvaluationsNumber + " / " + this.maxEvaluations + "\n";
+            return "Number of evaluations: " + this.performedEvaluationsNumber + " / " + this.maxEvaluations + "\n"
+                    + this.duplicateElimination;
         } else if (getMaxNumberOfIterationWithoutImprovement() > 0) {
             return "Number of interation without improvement: " + this.numberOfIterationWithoutImprovement + " / "
-                    + this.maxNumberOfIterationWithoutImprovement;
+                    + this.maxNumberOfIterationWithoutImprovement + "\n" + this.duplicateElimination;
         }
         return "No term settings were set.";
     }
@@ -34,6 +34,7 @@ import model.metaheuristic.operator.selection.SelectionOperator;
 import model.metaheuristic.operator.selection.impl.UniformSelection;
 import model.metaheuristic.problem.Problem;
 import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
 import model.metaheuristic.util.evaluator.impl.SequentialSolutionEvaluator;
 
 import java.util.List;
@@ -48,7 +49,7 @@ public class GeneticAlgorithmBuilder<S extends Solution<?>> {
     private int populationSize;
     private MutationOperator<S> mutationOperator;
     private CrossoverOperator<S> crossoverOperator;
-    private SequentialSolutionEvaluator<S> evaluator;
+    private SolutionListEvaluator<S> evaluator;
     private SelectionOperator<List<S>, List<S>> selectionOperator;
 
     /**
@@ -207,7 +208,7 @@ public class GeneticAlgorithmBuilder<S extends Solution<?>> {
      * Get the evaluator.
      * @return the evaluator used.
      */
-    public SequentialSolutionEvaluator<S> getEvaluator() {
+    public SolutionListEvaluator<S> getEvaluator() {
         return evaluator;
     }
 
@@ -217,7 +218,7 @@ public class GeneticAlgorithmBuilder<S extends Solution<?>> {
      * @return the instance of builder.
      * @throws NullPointerException if evaluator is null.
      */
-    public GeneticAlgorithmBuilder<S> setEvaluator(SequentialSolutionEvaluator<S> evaluator) {
+    public GeneticAlgorithmBuilder<S> setEvaluator(SolutionListEvaluator<S> evaluator) {
         Objects.requireNonNull(evaluator);
         this.evaluator = evaluator;
         return this;
@@ -0,0 +1,369 @@
+package model.metaheuristic.algorithm.singleobjective.island;
+
+import epanet.core.EpanetException;
+import exception.ApplicationException;
+import model.metaheuristic.algorithm.AbstractEvolutionaryAlgorithm;
+import model.metaheuristic.algorithm.Algorithm;
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.random.JavaRandom;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Island model of a single objective evolutionary algorithm, i.e, {@link
+ * model.metaheuristic.algorithm.singleobjective.geneticalgorithm.GeneticAlgorithm2} or {@link
+ * model.metaheuristic.algorithm.singleobjective.differentialevolution.IntegerDifferentialEvolution}.
+ * <p>
+ * Each island is a independent algorithm with its own population that runs in its own thread. Every {@code
+ * migrationInterval} generations the islands stop and the best {@code numberOfMigrants} solutions of each island
+ * are copied to the islands connected by the {@link Topology}, where they replace the worst solutions.
+ * <p>
+ * A step of this algorithm runs {@code migrationInterval} generations of each island and a migration. The algorithm
+ * stops when all islands stop, and the result is the best solution of all islands.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * Each island has to use its own problem with its own simulator (see {@link
+ * model.metaheuristic.util.evaluator.impl.ParallelSolutionEvaluator}), and the operators shared by the islands
+ * can't keep state between calls. Each island uses its own random stream, split from the stream of the thread that
+ * runs the first step, so the result doesn't depend of the order in which the threads run.
+ *
+ * @param <S> the type of solution
+ */
+public class IslandModel<S extends Solution<?>> implements Algorithm<S> {
+    private final List<AbstractEvolutionaryAlgorithm<S>> islands;
+    private final Comparator<S> comparator;
+    private final int migrationInterval;
+    private final int numberOfMigrants;
+    private final Topology topology;
+    private final int[] generations;
+    private final double[] bestObjectives;
+    private ThreadPoolExecutor executor;
+    private JavaRandom[] randoms;
+    private int numberOfMigrations;
+
+    /**
+     * The connections used to send the migrants between the islands.
+     */
+    public enum Topology {
+        /**
+         * Each island receives the migrants of the previous island.
+         */
+        RING,
+        /**
+         * Each island receives the migrants of other island chosen at random in each migration.
+         */
+        RANDOM,
+        /**
+         * Each island receives the best migrants of all other islands.
+         */
+        FULLY_CONNECTED;
+
+        /**
+         * Get the islands that send its migrants to a island.
+         *
+         * @param island          the index of the island that receives the migrants.
+         * @param numberOfIslands the number of islands.
+         * @return the indexes of the islands.
+         */
+        List<Integer> getSources(int island, int numberOfIslands) {
+            List<Integer> sources = new ArrayList<>();
+            switch (this) {
+                case RING:
+                    sources.add((island - 1 + numberOfIslands) % numberOfIslands);
+                    break;
+                case RANDOM:
+                    int source = JavaRandom.getInstance().nextInt(numberOfIslands - 1);
+                    sources.add(source >= island ? source + 1 : source);
+                    break;
+                default:
+                    for (int i = 0; i < numberOfIslands; i++) {
+                        if (i != island) {
+                            sources.add(i);
+                        }
+                    }
+            }
+            return sources;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param islands           the algorithms of the islands. Each one has to use its own problem.
+     * @param comparator        the comparator used to choose the best and the worst solutions of each island. The
+     *                          best solution is the first. It has to rank the solutions as the islands do, so if the
+     *                          problem has constraints it has to check them (as {@link
+     *                          model.metaheuristic.util.comparator.DominanceComparator}).
+     * @param migrationInterval the number of generations between two migrations.
+     * @param numberOfMigrants  the number of solutions received by each island in a migration.
+     * @param topology          the topology of migration.
+     * @throws NullPointerException     if islands, some island, comparator or topology is null.
+     * @throws IllegalArgumentException if islands is empty, if migrationInterval is less than 1 or if
+     *                                  numberOfMigrants is negative.
+     */
+    public IslandModel(@NotNull List<? extends AbstractEvolutionaryAlgorithm<S>> islands, @NotNull Comparator<S> comparator,
+                       int migrationInterval, int numberOfMigrants, @NotNull Topology topology) {
+        Objects.requireNonNull(islands);
+        if (islands.isEmpty()) {
+            throw new IllegalArgumentException("There isn't islands to the island model.");
+        }
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("The migration interval has to be greater than 0.");
+        }
+        if (numberOfMigrants < 0) {
+            throw new IllegalArgumentException("The number of migrants can't be negative.");
+        }
+        this.islands = new ArrayList<>(islands.size());
+        for (AbstractEvolutionaryAlgorithm<S> island : islands) {
+            this.islands.add(Objects.requireNonNull(island, "A island is null."));
+        }
+        this.comparator = Objects.requireNonNull(comparator);
+        this.migrationInterval = migrationInterval;
+        this.numberOfMigrants = numberOfMigrants;
+        this.topology = Objects.requireNonNull(topology);
+        this.generations = new int[islands.size()];
+        this.bestObjectives = new double[islands.size()];
+        Arrays.fill(this.bestObjectives, Double.NaN);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The threads of the islands are stopped when the algorithm finishes or when a island throws a exception.
+     *
+     * @throws ApplicationException if the thread is interrupted while wait the islands.
+     */
+    @Override
+    public void runSingleStep() throws Exception, EpanetException {
+        if (isStoppingConditionReached()) {
+            return;
+        }
+        if (this.executor == null) {
+            AtomicInteger threadNumber = new AtomicInteger(0);
+            // the idle threads finish, so a cancelled execution doesn't keep them
+            this.executor = new ThreadPoolExecutor(this.islands.size(), this.islands.size(), 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "island-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+        if (this.randoms == null) {
+            this.randoms = new JavaRandom[this.islands.size()];
+            for (int i = 0; i < this.randoms.length; i++) {
+                this.randoms[i] = JavaRandom.getInstance().split();
+            }
+        }
+
+        try {
+            runIslands();
+            // the best solutions are saved here because the status can be asked from other thread
+            for (int i = 0; i < this.islands.size(); i++) {
+                List<S> population = this.islands.get(i).getPopulation();
+                if (population != null && !population.isEmpty()) {
+                    this.bestObjectives[i] = getBest(population).getObjective(0);
+                }
+            }
+            if (!isStoppingConditionReached()) {
+                migrate();
+            }
+        } finally {
+            if (isStoppingConditionReached() || Thread.currentThread().isInterrupted()) {
+                this.executor.shutdownNow();
+            }
+        }
+    }
+
+    private void runIslands() throws Exception {
+        List<Future<Void>> futures = new ArrayList<>(this.islands.size());
+        for (int i = 0; i < this.islands.size(); i++) {
+            AbstractEvolutionaryAlgorithm<S> island = this.islands.get(i);
+            int index = i;
+            JavaRandom random = this.randoms[i];
+            futures.add(this.executor.submit(() -> {
+                JavaRandom previous = JavaRandom.setInstance(random);
+                try {
+                    for (int generation = 0; generation < this.migrationInterval && !island.isStoppingConditionReached(); generation++) {
+                        island.runSingleStep();
+                        this.generations[index]++;
+                    }
+                } finally {
+                    JavaRandom.setInstance(previous);
+                }
+                return null;
+            }));
+        }
+
+        // wait all islands before report a error so there isn't a island running when this method ends.
+        Throwable error = null;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                this.executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new ApplicationException("The execution of the islands was interrupted.", e);
+            }
+        }
+
+        if (error instanceof Exception) {
+            this.executor.shutdownNow();
+            throw (Exception) error;
+        } else if (error instanceof Error) {
+            this.executor.shutdownNow();
+            throw (Error) error;
+        }
+    }
+
+    /**
+     * Copy the best solutions of each island to the islands connected with it. All the migrants are chosen before
+     * that any island receives its immigrants. The islands that already stopped don't receive immigrants.
+     */
+    @SuppressWarnings("unchecked")
+    private void migrate() {
+        int numberOfIslands = this.islands.size();
+        if (numberOfIslands < 2 || this.numberOfMigrants == 0) {
+            return;
+        }
+        List<List<S>> migrants = new ArrayList<>(numberOfIslands);
+        for (AbstractEvolutionaryAlgorithm<S> island : this.islands) {
+            List<S> best = new ArrayList<>(island.getPopulation());
+            best.sort(this.comparator);
+            migrants.add(best.subList(0, Math.min(this.numberOfMigrants, best.size())));
+        }
+
+        for (int i = 0; i < numberOfIslands; i++) {
+            AbstractEvolutionaryAlgorithm<S> island = this.islands.get(i);
+            if (island.isStoppingConditionReached()) {
+                continue;
+            }
+            List<S> immigrants = new ArrayList<>();
+            for (int source : this.topology.getSources(i, numberOfIslands)) {
+                immigrants.addAll(migrants.get(source));
+            }
+            immigrants.sort(this.comparator);
+
+            List<S> population = island.getPopulation();
+            population.sort(this.comparator);
+            int count = Math.min(Math.min(this.numberOfMigrants, immigrants.size()), population.size());
+            for (int j = 0; j < count; j++) {
+                population.set(population.size() - count + j, (S) immigrants.get(j).copy());
+            }
+        }
+        this.numberOfMigrations++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * It is true when all the islands stopped.
+     */
+    @Override
+    public boolean isStoppingConditionReached() {
+        for (AbstractEvolutionaryAlgorithm<S> island : this.islands) {
+            if (!island.isStoppingConditionReached()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * It shows the status of each island and the objective of its best solution in the last migration.
+     */
+    @Override
+    public @NotNull String getStatusOfExecution() {
+        StringBuilder status = new StringBuilder("Migrations: " + this.numberOfMigrations);
+        for (int i = 0; i < this.islands.size(); i++) {
+            AbstractEvolutionaryAlgorithm<S> island = this.islands.get(i);
+            status.append("\nIsland ").append(i + 1).append(" (generation ").append(this.generations[i]).append(")");
+            if (!Double.isNaN(this.bestObjectives[i])) {
+                status.append(", best: ").append(this.bestObjectives[i]);
+            }
+            status.append(": ").append(island.getStatusOfExecution().trim().replace("\n", ", "));
+        }
+        return status.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * It is the best solution of the results of all islands.
+     */
+    @Override
+    public @NotNull List<S> getResult() {
+        List<S> results = new ArrayList<>();
+        for (AbstractEvolutionaryAlgorithm<S> island : this.islands) {
+            if (island.getPopulation() != null) {
+                results.addAll(island.getResult());
+            }
+        }
+        if (results.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(getBest(results));
+    }
+
+    private S getBest(List<S> solutions) {
+        S best = solutions.get(0);
+        for (S solution : solutions) {
+            if (this.comparator.compare(solution, best) < 0) {
+                best = solution;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Get the algorithms of the islands.
+     *
+     * @return a unmodifiable list with the islands.
+     */
+    public List<AbstractEvolutionaryAlgorithm<S>> getIslands() {
+        return Collections.unmodifiableList(this.islands);
+    }
+
+    /**
+     * Get the number of generations executed by a island.
+     *
+     * @param island the index of the island.
+     * @return the number of generations.
+     */
+    public int getGenerations(int island) {
+        return this.generations[island];
+    }
+
+    /**
+     * Get the number of migrations realized.
+     *
+     * @return the number of migrations.
+     */
+    public int getNumberOfMigrations() {
+        return this.numberOfMigrations;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "Island " + this.islands.get(0).getName();
+    }
+}
@@ -42,7 +42,8 @@ import java.util.Objects;
 /**
  * Class for describing the configuration of a experiment.
  * <p>
- * A experiment execute sequentially the algorithm configured in it.
+ * A experiment execute sequentially the algorithm configured in it, or several at the same time if the number of
+ * concurrent runs is greater than 1.
  *
  * @see ExperimentBuilder for more detail
  */
@@ -62,6 +63,7 @@ public final class Experiment<S extends Solution<?>> {
     final String referenceFrontDirectory;
 
     private final int independentRuns;
+    private final int numberOfConcurrentRuns;
 
     /**
      * Constructor.
@@ -76,6 +78,7 @@ public final class Experiment<S extends Solution<?>> {
         this.algorithmList = builder.getAlgorithmList();
         this.problem = builder.getProblem();
         this.independentRuns = builder.getIndependentRuns();
+        this.numberOfConcurrentRuns = builder.getNumberOfConcurrentRuns();
 //		this.experimentBaseDirectory = builder.getExperimentBaseDirectory();
 //		this.objectiveOutputFileName = builder.getObjectiveOutputFileName();
 //		this.variablesOutputFileName = builder.getVariablesOutputFileName();
@@ -152,6 +155,16 @@ public final class Experiment<S extends Solution<?>> {
         return independentRuns;
     }
 
+    /**
+     * Get the number of independent runs executed at the same time.
+     *
+     * @return the number of concurrent runs.
+     * @see ExperimentBuilder#setNumberOfConcurrentRuns(int)
+     */
+    public int getNumberOfConcurrentRuns() {
+        return numberOfConcurrentRuns;
+    }
+
     /**
      * Get the file name where reference front (Final Pareto Front) will be stored when the problem are multiobjective.
      *
@@ -96,6 +96,7 @@ public final class ExperimentBuilder<S extends Solution<?>> {
 //    @NotNull private String objectiveOutputFileName;
 //    @NotNull private String variablesOutputFileName;
     private int independentRuns;
+    private int numberOfConcurrentRuns;
 
     /**
      * Constructor.
@@ -110,6 +111,7 @@ public final class ExperimentBuilder<S extends Solution<?>> {
         }
         this.experimentName = experimentName;
         this.independentRuns = 1;
+        this.numberOfConcurrentRuns = 1;
 //        this.objectiveOutputFileName = "FUN";
 //        this.variablesOutputFileName = "VAR";
 //        this.referenceFrontDirectory = "";
@@ -218,6 +220,24 @@ public final class ExperimentBuilder<S extends Solution<?>> {
         return this;
     }
 
+    /**
+     * Set the number of independent runs executed at the same time. The run i is executed after the run
+     * i - numberOfConcurrentRuns, so the algorithms of these runs can share a problem, but the runs executed at
+     * the same time can't share a problem or a operator that keeps state.
+     * @param numberOfConcurrentRuns the number of runs executed at the same time. 1 to execute the runs one after
+     *                               other.
+     * @return this object.
+     * @throws IllegalArgumentException if numberOfConcurrentRuns is less than 1.
+     */
+    public @NotNull ExperimentBuilder<S> setNumberOfConcurrentRuns(int numberOfConcurrentRuns) {
+        if (numberOfConcurrentRuns <= 0) {
+            throw new IllegalArgumentException("The number of concurrent runs can't be less or equal than 0 but was " + numberOfConcurrentRuns);
+        }
+        this.numberOfConcurrentRuns = numberOfConcurrentRuns;
+
+        return this;
+    }
+
     /**
      * Build the experiment.
      * @return the experiment.
@@ -255,6 +275,14 @@ public final class ExperimentBuilder<S extends Solution<?>> {
         return this.problem;
     }
 
+    /**
+     * Get the number of independent runs executed at the same time.
+     * @return the number of concurrent runs.
+     */
+    public int getNumberOfConcurrentRuns() {
+        return this.numberOfConcurrentRuns;
+    }
+
 //    /**
 //     * Get the experiment base directory where the pareto front for each algorithm execution will be stored.
 //     * @return the experiment base directory name or a empty string if it isn't set up.
@@ -5,7 +5,9 @@ import model.metaheuristic.experiment.ExperimentComponent;
 import model.metaheuristic.experiment.ExperimentSet;
 import model.metaheuristic.experiment.util.ExperimentAlgorithm;
 import model.metaheuristic.experiment.util.ExperimentProblem;
-import model.metaheuristic.util.archive.impl.NonDominatedSolutionListArchive;
+import model.metaheuristic.util.archive.Archive;
+import model.metaheuristic.util.archive.impl.BiObjectiveNonDominatedArchive;
+import model.metaheuristic.util.archive.impl.NDTreeArchive;
 import model.metaheuristic.util.front.Front;
 import model.metaheuristic.util.front.impl.ArrayFront;
 import model.metaheuristic.util.front.util.FrontUtils;
@@ -57,8 +59,8 @@ public class GenerateReferenceParetoFrontInDisk implements ExperimentComponent {
 
         List<String> referenceFrontFileNames = new LinkedList<>();
         for (ExperimentProblem<?> problem : experimentSet.getExperimentProblems()) {
-            NonDominatedSolutionListArchive<PointSolution> nonDominatedSolutionArchive =
-                    new NonDominatedSolutionListArchive<PointSolution>();
+            Archive<PointSolution> nonDominatedSolutionArchive =
+                    createNonDominatedArchive(problem.getProblem().getNumberOfObjectives());
 
             for (ExperimentAlgorithm<?> algorithm : experimentSet.getExperimentAlgorithms()) {
                 String problemDirectory = experimentBaseDirectory + "/data/" +
@@ -89,6 +91,20 @@ public class GenerateReferenceParetoFrontInDisk implements ExperimentComponent {
 
     }
 
+    /**
+     * Create the archive used to join the fronts. The points read from the files haven't constraint violation, so
+     * they are compared only by its objectives with a archive sorted by the objectives.
+     *
+     * @param numberOfObjectives the number of objectives of the problem.
+     * @return the archive.
+     */
+    private static Archive<PointSolution> createNonDominatedArchive(int numberOfObjectives) {
+        if (numberOfObjectives == 2) {
+            return new BiObjectiveNonDominatedArchive<>();
+        }
+        return new NDTreeArchive<>();
+    }
+
     private File createOutputDirectory(String outputDirectoryName) {
         File outputDirectory;
         outputDirectory = new File(outputDirectoryName);
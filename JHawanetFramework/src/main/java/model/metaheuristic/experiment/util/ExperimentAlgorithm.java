@@ -33,6 +33,7 @@ import model.metaheuristic.algorithm.Algorithm;
 import model.metaheuristic.experiment.Experiment;
 import model.metaheuristic.solution.Solution;
 import model.metaheuristic.util.io.SolutionListOutput;
+import model.metaheuristic.util.random.JavaRandom;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -62,6 +63,9 @@ import java.util.Objects;
  *     <li> A calls to {@link #saveSolutionList}</li>
  * </ul>
  * <p>
+ * Each step is executed with the random stream of the run (see {@link JavaRandom#forRun(long, int)}), so the
+ * result of a run only depends of the experiment seed and the run id, also when several runs are executed at the
+ * same time.
  */
 public final class ExperimentAlgorithm<S extends Solution<?>> {
 
@@ -72,6 +76,9 @@ public final class ExperimentAlgorithm<S extends Solution<?>> {
     @NotNull
     private ExperimentProblem<S> problem;
     private final int runId;
+    private final long experimentSeed;
+    @NotNull
+    private final JavaRandom random;
 
     /**
      * A StringBuffer that can be used has a log to the operation realize from this
@@ -85,12 +92,29 @@ public final class ExperimentAlgorithm<S extends Solution<?>> {
     private String varFile;
 
      /**
+     * Constructor. The run uses a experiment seed different in each call.
+     *
      * @param algorithm the algorithm
      * @param problem   the problem
      * @param runId     the id of execution of this algorithm for a experiment
      * @throws NullPointerException     if algorithm or problem is null .
      */
     public ExperimentAlgorithm(@NotNull Algorithm<S> algorithm, @NotNull ExperimentProblem<S> problem, int runId) {
+        this(algorithm, problem, runId, JavaRandom.createSeed());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param algorithm      the algorithm
+     * @param problem        the problem
+     * @param runId          the id of execution of this algorithm for a experiment
+     * @param experimentSeed the seed of the experiment. The random stream of the run is created with it and the run
+     *                       id.
+     * @throws NullPointerException if algorithm or problem is null .
+     */
+    public ExperimentAlgorithm(@NotNull Algorithm<S> algorithm, @NotNull ExperimentProblem<S> problem, int runId,
+                               long experimentSeed) {
         Objects.requireNonNull(algorithm);
         Objects.requireNonNull(problem);
         this.algorithmTag = Objects.requireNonNull(algorithm.getName());
@@ -100,6 +124,8 @@ public final class ExperimentAlgorithm<S extends Solution<?>> {
         this.algorithm = algorithm;
         this.problem = problem;
         this.runId = runId;
+        this.experimentSeed = experimentSeed;
+        this.random = JavaRandom.forRun(experimentSeed, runId);
     }
 
 //    /**
@@ -143,17 +169,22 @@ public final class ExperimentAlgorithm<S extends Solution<?>> {
         this.funFile = outputDirectoryName + "/" + experimentData.getObjectiveOutputFileName() + runId + ".csv";
         this.varFile = outputDirectoryName + "/" + experimentData.getVariablesOutputFileName() + runId + ".csv";
         getLogBuffer().println("- Running algorithm: " + algorithmTag + ", problem: " + getProblemTag() + ", run: " + runId
-                + ", funFile: " + funFile);
+                + ", seed: " + experimentSeed + ", funFile: " + funFile);
     }
 
     /**
-     * Run a single step of algorithm.
+     * Run a single step of algorithm. The step uses the random stream of the run, that is restored after the step.
      *
      * @throws EpanetException if algorithm execution has a problem with simulation
      * @throws Exception       if algorithm can't close the resource
      */
     public void runASingleStepOfAlgorithm() throws EpanetException, Exception {
-        algorithm.runSingleStep();
+        JavaRandom previous = JavaRandom.setInstance(this.random);
+        try {
+            algorithm.runSingleStep();
+        } finally {
+            JavaRandom.setInstance(previous);
+        }
     }
 
     /**
@@ -240,6 +271,15 @@ public final class ExperimentAlgorithm<S extends Solution<?>> {
         return this.runId;
     }
 
+    /**
+     * Get the seed of the experiment used to create the random stream of the run.
+     *
+     * @return the experiment seed.
+     */
+    public long getExperimentSeed() {
+        return this.experimentSeed;
+    }
+
     /**
      * Get the log buffer. This property is set up automatically when the algorithm will be execute.
      *
@@ -32,6 +32,8 @@ import model.metaheuristic.problem.Problem;
 import model.metaheuristic.solution.Solution;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -40,6 +42,7 @@ import java.util.Objects;
 public final class ExperimentProblem<S extends Solution<?>> {
 	@NotNull private final Problem<S> problem;
 	@NotNull private String tag;
+	@NotNull private final List<AutoCloseable> resources;
 
 	/**
 	 * Constructor.
@@ -48,6 +51,7 @@ public final class ExperimentProblem<S extends Solution<?>> {
 	 */
 	public ExperimentProblem(@NotNull Problem<S> problem) {
 		this.problem = Objects.requireNonNull(problem);
+		this.resources = new ArrayList<>();
 		this.tag = Objects.requireNonNull(problem.getName());
 		if (this.tag.isEmpty()) {
 			this.tag = this.problem.getClass().getSimpleName();
@@ -86,11 +90,40 @@ public final class ExperimentProblem<S extends Solution<?>> {
 	}
 
 	/**
-	 * Close the resource of the problems calling this close method.
+	 * Add a resource that has to be closed with the problem. It is used to register the elements created to
+	 * solve the problem that have its own resources, i.e, the evaluators with its own simulators.
+	 * @param resource the resource.
+	 * @throws NullPointerException if resource is null.
+	 */
+	public void addResource(@NotNull AutoCloseable resource) {
+		this.resources.add(Objects.requireNonNull(resource));
+	}
+
+	/**
+	 * Close the resource of the problems calling this close method and the resources added to this problem.
 	 * This method is called when the experiment finish.
 	 * @throws Exception if there is an exception to close the resources.
 	 */
 	public void closeResources() throws Exception {
-		this.problem.closeResources();
+		Exception exception = null;
+		try {
+			this.problem.closeResources();
+		} catch (Exception e) {
+			exception = e;
+		}
+		for (AutoCloseable resource : this.resources) {
+			try {
+				resource.close();
+			} catch (Exception e) {
+				if (exception == null) {
+					exception = e;
+				} else {
+					exception.addSuppressed(e);
+				}
+			}
+		}
+		if (exception != null) {
+			throw exception;
+		}
 	}
 }
@@ -0,0 +1,241 @@
+package model.metaheuristic.experiment.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Class that executes the independent runs of a experiment, several at the same time if the number of concurrent
+ * runs is greater than 1.
+ * <p>
+ * The runs are divided in so many lanes as concurrent runs. The lane k executes the runs k, k +
+ * numberOfConcurrentRuns, k + 2 * numberOfConcurrentRuns, ... one after other in its own thread. So the runs of a
+ * same lane can share a problem, but the runs of different lanes need their own problem with its own simulator
+ * and their own operators if the operators keep state.
+ * <p>
+ * If the number of concurrent runs is 1 the runs are executed in the thread that calls {@link #run}.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * The methods of the {@link Listener} are called from the threads of the lanes, so they can be called at the same
+ * time by different runs.
+ */
+public final class ExperimentRunExecutor {
+    private final int numberOfConcurrentRuns;
+    private final List<ExperimentAlgorithm<?>> runningAlgorithms;
+
+    /**
+     * Receive the events of the execution of the runs.
+     */
+    public interface Listener {
+        /**
+         * Called before run the first step of a algorithm.
+         *
+         * @param algorithm the algorithm.
+         * @throws Exception if there is a error preparing the algorithm.
+         */
+        void onStart(@NotNull ExperimentAlgorithm<?> algorithm) throws Exception;
+
+        /**
+         * Called after each step of a algorithm if the execution wasn't cancelled.
+         *
+         * @param algorithm           the algorithm.
+         * @param numberOfGenerations the number of steps executed before this step.
+         */
+        void onStep(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations);
+
+        /**
+         * Called when a algorithm finishes if the execution wasn't cancelled.
+         *
+         * @param algorithm           the algorithm.
+         * @param numberOfGenerations the number of steps executed.
+         * @throws Exception if there is a error saving the result of the algorithm.
+         */
+        void onFinish(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) throws Exception;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param numberOfConcurrentRuns the number of runs executed at the same time.
+     * @throws IllegalArgumentException if numberOfConcurrentRuns is less than 1.
+     */
+    public ExperimentRunExecutor(int numberOfConcurrentRuns) {
+        if (numberOfConcurrentRuns < 1) {
+            throw new IllegalArgumentException("The number of concurrent runs has to be greater than 0.");
+        }
+        this.numberOfConcurrentRuns = numberOfConcurrentRuns;
+        this.runningAlgorithms = new ArrayList<>();
+    }
+
+    /**
+     * Execute the algorithms until they finish or until the execution is cancelled. When this method returns there
+     * isn't a algorithm running, so the resources of the problems can be closed.
+     * <p>
+     * If a algorithm throws a exception the other lanes stop after its current step and the first exception is
+     * thrown.
+     *
+     * @param algorithms the algorithms of the independent runs.
+     * @param cancelled  return true when the execution has to be stopped. It is called after each step.
+     * @param listener   the listener of the execution.
+     * @throws NullPointerException if some parameter is null.
+     * @throws Exception            the exception thrown by a algorithm or by the listener.
+     */
+    public void run(@NotNull List<? extends ExperimentAlgorithm<?>> algorithms, @NotNull BooleanSupplier cancelled,
+                    @NotNull Listener listener) throws Exception {
+        Objects.requireNonNull(algorithms);
+        Objects.requireNonNull(cancelled);
+        Objects.requireNonNull(listener);
+        int numberOfLanes = Math.min(this.numberOfConcurrentRuns, algorithms.size());
+        if (numberOfLanes <= 1) {
+            runLane(algorithms, 0, 1, cancelled, listener);
+            return;
+        }
+
+        AtomicBoolean failed = new AtomicBoolean(false);
+        BooleanSupplier stopped = () -> failed.get() || cancelled.getAsBoolean();
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfLanes, runnable -> {
+            Thread thread = new Thread(runnable, "experiment-run-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Void>> futures = new ArrayList<>(numberOfLanes);
+            for (int lane = 0; lane < numberOfLanes; lane++) {
+                int first = lane;
+                futures.add(executor.submit(() -> {
+                    try {
+                        runLane(algorithms, first, numberOfLanes, stopped, listener);
+                    } catch (Exception | Error e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            waitLanes(futures, failed);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Wait all lanes and throw the first error. If the thread is interrupted the lanes are stopped and the
+     * interruption is kept, so the caller can see it.
+     */
+    private void waitLanes(List<Future<Void>> futures, AtomicBoolean failed) throws Exception {
+        Throwable error = null;
+        boolean interrupted = false;
+        for (Future<Void> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (ExecutionException e) {
+                    if (error == null) {
+                        error = e.getCause();
+                    }
+                    break;
+                } catch (InterruptedException e) {
+                    // the lanes have to finish before return because the caller closes the problems
+                    interrupted = true;
+                    failed.set(true);
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (error instanceof Exception) {
+            throw (Exception) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        }
+    }
+
+    private void runLane(List<? extends ExperimentAlgorithm<?>> algorithms, int first, int step,
+                         BooleanSupplier stopped, Listener listener) throws Exception {
+        for (int i = first; i < algorithms.size(); i += step) {
+            // break the for loop if the execution is cancelled
+            if (stopped.getAsBoolean()) {
+                return;
+            }
+            ExperimentAlgorithm<?> algorithm = algorithms.get(i);
+            listener.onStart(algorithm);
+            synchronized (this.runningAlgorithms) {
+                this.runningAlgorithms.add(algorithm);
+            }
+            try {
+                int numberOfGenerations = 0;
+                while (algorithm.algorithmHasANextStep()) {
+                    // run only a iteration of the current algorithm
+                    algorithm.runASingleStepOfAlgorithm();
+
+                    // break the while loop if the execution is cancelled
+                    if (stopped.getAsBoolean()) {
+                        return;
+                    }
+                    listener.onStep(algorithm, numberOfGenerations);
+                    numberOfGenerations++;
+                }
+                listener.onFinish(algorithm, numberOfGenerations);
+            } finally {
+                synchronized (this.runningAlgorithms) {
+                    this.runningAlgorithms.remove(algorithm);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the algorithms that are running.
+     *
+     * @return a copy of the list of algorithms running sorted by run id.
+     */
+    public @NotNull List<ExperimentAlgorithm<?>> getRunningAlgorithms() {
+        List<ExperimentAlgorithm<?>> running;
+        synchronized (this.runningAlgorithms) {
+            running = new ArrayList<>(this.runningAlgorithms);
+        }
+        running.sort(Comparator.comparingInt(ExperimentAlgorithm::getRunId));
+        return running;
+    }
+
+    /**
+     * Get a message with the status of execution of the algorithms that are running.
+     *
+     * @return the message or a empty string if there isn't a algorithm running.
+     */
+    public @NotNull String getStatusOfExecution() {
+        List<ExperimentAlgorithm<?>> running = getRunningAlgorithms();
+        if (running.size() == 1) {
+            return "Progress of current algorithm:\n" + running.get(0).getAlgorithm().getStatusOfExecution();
+        }
+        StringBuilder status = new StringBuilder();
+        for (ExperimentAlgorithm<?> algorithm : running) {
+            status.append("Progress of run ").append(algorithm.getRunId() + 1).append(":\n")
+                    .append(algorithm.getAlgorithm().getStatusOfExecution()).append("\n");
+        }
+        return status.toString();
+    }
+
+    /**
+     * Get the number of runs executed at the same time.
+     *
+     * @return the number of concurrent runs.
+     */
+    public int getNumberOfConcurrentRuns() {
+        return this.numberOfConcurrentRuns;
+    }
+}
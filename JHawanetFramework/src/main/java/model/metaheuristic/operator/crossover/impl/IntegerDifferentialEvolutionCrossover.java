@@ -292,13 +292,15 @@ public class IntegerDifferentialEvolutionCrossover implements CrossoverOperator<
         int numberOfVariables = parentSolutions.get(0).getNumberOfVariables();
         int jrand = jRandomGenerator.getRandomValue(0, numberOfVariables);
 
-        Integer[][] parent = new Integer[getNumberOfRequiredParents()][];
+        int[][] parent = new int[getNumberOfRequiredParents()][];
 
         IntStream.range(0, getNumberOfRequiredParents())
                 .forEach(
                         i -> {
-                            parent[i] = new Integer[numberOfVariables];
-                            parentSolutions.get(i).getVariables().toArray(parent[i]);
+                            parent[i] = new int[numberOfVariables];
+                            for (int j = 0; j < numberOfVariables; j++) {
+                                parent[i][j] = parentSolutions.get(i).getInt(j);
+                            }
                         });
 
         if (crossoverType.equals(DE_CROSSOVER_TYPE.BIN)) {
@@ -306,7 +308,7 @@ public class IntegerDifferentialEvolutionCrossover implements CrossoverOperator<
                 if (crRandomGenerator.getRandomValue(0.0, 1.0) < cr || j == jrand) {
                     double value = mutate(parent, j);
 
-                    child.setVariable(j, (int) value);
+                    child.setInt(j, (int) value);
                 }
             }
         } else if (crossoverType.equals(DE_CROSSOVER_TYPE.EXP)) {
@@ -316,7 +318,7 @@ public class IntegerDifferentialEvolutionCrossover implements CrossoverOperator<
             do {
                 double value = mutate(parent, j);
 
-                child.setVariable(j, (int) value);
+                child.setInt(j, (int) value);
 
                 j = (j + 1) % numberOfVariables;
                 l++;
@@ -334,14 +336,14 @@ public class IntegerDifferentialEvolutionCrossover implements CrossoverOperator<
         IntStream.range(0, solution.getNumberOfVariables())
                 .forEach(
                         i -> {
-                            solution.setVariable(
+                            solution.setInt(
                                     i,
                                     (int) repairSolutionVariableValue(
-                                            solution.getVariable(i), solution.getLowerBound(i), solution.getUpperBound(i)));
+                                            solution.getInt(i), solution.getLowerBound(i), solution.getUpperBound(i)));
                         });
     }
 
-    private double mutate(Integer[][] parent, int index) {
+    private double mutate(int[][] parent, int index) {
         double value = 0;
         if (mutationType.equals(DE_MUTATION_TYPE.RAND)) {
             value = randMutation(parent, index, numberOfDifferenceVectors);
@@ -361,7 +363,7 @@ public class IntegerDifferentialEvolutionCrossover implements CrossoverOperator<
      * @return
      * @throws IllegalArgumentException if numberOfDifferenceVectors isn't 1 or 2.
      */
-    private double randMutation(Integer[][] parent, int index, int numberOfDifferenceVectors) {
+    private double randMutation(int[][] parent, int index, int numberOfDifferenceVectors) {
         if (numberOfDifferenceVectors == 1) {
             return parent[2][index] + f * (parent[0][index] - parent[1][index]);
         } else if (numberOfDifferenceVectors == 2) {
@@ -382,12 +384,12 @@ public class IntegerDifferentialEvolutionCrossover implements CrossoverOperator<
      * @throws NullPointerException     if bestSolution of this object is null.
      * @throws IllegalArgumentException if the numberOfDifferenceVectors isn't 1 or 2.
      */
-    private double bestMutation(Integer[][] parent, int index, int numberOfDifferenceVectors) {
+    private double bestMutation(int[][] parent, int index, int numberOfDifferenceVectors) {
         Objects.requireNonNull(bestSolution);
         if (numberOfDifferenceVectors == 1) {
-            return bestSolution.getVariable(index) + f * (parent[0][index] - parent[1][index]);
+            return bestSolution.getInt(index) + f * (parent[0][index] - parent[1][index]);
         } else if (numberOfDifferenceVectors == 2) {
-            return bestSolution.getVariable(index)
+            return bestSolution.getInt(index)
                     + f * (parent[0][index] - parent[1][index])
                     + f * (parent[2][index] - parent[3][index]);
         } else {
@@ -402,11 +404,11 @@ public class IntegerDifferentialEvolutionCrossover implements CrossoverOperator<
      * @return
      * @throws NullPointerException if bestSolution or currentSolution of this object is null when this method is called
      */
-    private double bestRandToBestMutation(Integer[][] parent, int index) {
+    private double bestRandToBestMutation(int[][] parent, int index) {
         Objects.requireNonNull(bestSolution);
         Objects.requireNonNull(currentSolution);
-        return currentSolution.getVariable(index)
-                + f * (bestSolution.getVariable(index) - currentSolution.getVariable(index))
+        return currentSolution.getInt(index)
+                + f * (bestSolution.getInt(index) - currentSolution.getInt(index))
                 + f * (parent[0][index] - parent[1][index]);
     }
 
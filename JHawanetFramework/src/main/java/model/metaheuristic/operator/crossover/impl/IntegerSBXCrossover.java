@@ -134,8 +134,8 @@ public class IntegerSBXCrossover implements CrossoverOperator<IntegerSolution> {
 
         if (random.getRandomValue() <= crossoverProbability) {
             for (i = 0; i < parent1.getNumberOfVariables(); i++) {
-                valueX1 = parent1.getVariable(i);
-                valueX2 = parent2.getVariable(i);
+                valueX1 = parent1.getInt(i);
+                valueX2 = parent2.getInt(i);
                 if (random.getRandomValue() <= 0.5) {
                     if (Math.abs(valueX1 - valueX2) > EPS) // noinspection DuplicatedCode
                     {
@@ -192,19 +192,19 @@ public class IntegerSBXCrossover implements CrossoverOperator<IntegerSolution> {
                         }
 
                         if (random.getRandomValue() <= 0.5) {
-                            offspring.get(0).setVariable(i, (int) c2);
-                            offspring.get(1).setVariable(i, (int) c1);
+                            offspring.get(0).setInt(i, (int) c2);
+                            offspring.get(1).setInt(i, (int) c1);
                         } else {
-                            offspring.get(0).setVariable(i, (int) c1);
-                            offspring.get(1).setVariable(i, (int) c2);
+                            offspring.get(0).setInt(i, (int) c1);
+                            offspring.get(1).setInt(i, (int) c2);
                         }
                     } else {
-                        offspring.get(0).setVariable(i, valueX1);
-                        offspring.get(1).setVariable(i, valueX2);
+                        offspring.get(0).setInt(i, valueX1);
+                        offspring.get(1).setInt(i, valueX2);
                     }
                 } else {
-                    offspring.get(0).setVariable(i, valueX2);
-                    offspring.get(1).setVariable(i, valueX1);
+                    offspring.get(0).setInt(i, valueX2);
+                    offspring.get(1).setInt(i, valueX1);
                 }
             }
         }
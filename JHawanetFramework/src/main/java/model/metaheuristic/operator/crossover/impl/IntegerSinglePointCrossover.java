@@ -119,8 +119,8 @@ public class IntegerSinglePointCrossover implements CrossoverOperator<IntegerSol
 
             // crossover
             for (int i = crossoverPoint; i < totalNumberOfVariables; i++) {
-                offspring.get(0).setVariable(i, parent2.getVariable(i));
-                offspring.get(1).setVariable(i, parent1.getVariable(i));
+                offspring.get(0).setInt(i, parent2.getInt(i));
+                offspring.get(1).setInt(i, parent1.getInt(i));
             }
         }
 
@@ -169,7 +169,7 @@ public class IntegerPolynomialMutation implements MutationOperator<IntegerSoluti
 
         for (int i = 0; i < solution.getNumberOfVariables(); i++) {
             if (random.getRandomValue() <= probability) {
-                y = (double) solution.getVariable(i);
+                y = (double) solution.getInt(i);
                 yL = solution.getLowerBound(i);
                 yU = solution.getUpperBound(i);
                 if (yL == yU) {
@@ -191,7 +191,7 @@ public class IntegerPolynomialMutation implements MutationOperator<IntegerSoluti
                     y = y + deltaq * (yU - yL);
                     y = repairSolutionVariableValue(y, yL, yU);
                 }
-                solution.setVariable(i, (int) y);
+                solution.setInt(i, (int) y);
             }
         }
     }
@@ -105,7 +105,7 @@ public class IntegerRangeRandomMutation implements MutationOperator<IntegerSolut
     private void doMutation(double probability, int range, IntegerSolution solution) {
         for (int i = 0; i < solution.getNumberOfVariables(); i++) {
             if (randomGenerator.getRandomValue() <= probability) {
-                Integer value = solution.getVariable(i);
+                int value = solution.getInt(i);
                 int minValue = solution.getLowerBound(i);
                 int maxValue = solution.getUpperBound(i);
 
@@ -117,11 +117,11 @@ public class IntegerRangeRandomMutation implements MutationOperator<IntegerSolut
                 if (upperBound > maxValue) {
                     upperBound = maxValue;
                 }
-                Integer newValue;
+                int newValue;
                 do {
                     newValue = pointRandomGenerator.getRandomValue(lowerBound, upperBound + 1);
-                } while (newValue.equals(value) && range != 0); //when the range is 0 does not force the change of the variable.
-                solution.setVariable(i, newValue);
+                } while (newValue == value && range != 0); //when the range is 0 does not force the change of the variable.
+                solution.setInt(i, newValue);
             }
         }
 
@@ -86,9 +86,9 @@ public class IntegerSimpleRandomMutation implements MutationOperator<IntegerSolu
 
 		for (int i = 0; i < solution.getNumberOfVariables(); i++) {
 			if (randomGenerator.getRandomValue() <= probability) {
-				Integer value = pointRandomGenerator.getRandomValue(solution.getLowerBound(i),
+				int value = pointRandomGenerator.getRandomValue(solution.getLowerBound(i),
 						solution.getUpperBound(i) + 1); // The last element is exclude for it is needed the +1
-				solution.setVariable(i, value);
+				solution.setInt(i, value);
 			}
 		}
 
@@ -97,6 +97,24 @@ public class IntegerDifferentialEvolutionSelection
         this.currentSolutionIndex = index;
     }
 
+    /**
+     * Get the number of solutions selected.
+     *
+     * @return the number of solutions to select.
+     */
+    public int getNumberOfSolutionsToSelect() {
+        return numberOfSolutionsToSelect;
+    }
+
+    /**
+     * Get if the current solution is selected.
+     *
+     * @return true if the current solution is selected.
+     */
+    public boolean isSelectCurrentSolution() {
+        return selectCurrentSolution;
+    }
+
     /**
      * Execute() method
      */
@@ -30,7 +30,6 @@ package model.metaheuristic.operator.selection.impl;
 
 import model.metaheuristic.operator.selection.SelectionOperator;
 import model.metaheuristic.solution.Solution;
-import model.metaheuristic.util.comparator.CrowdingDistanceComparator;
 import model.metaheuristic.util.comparator.DominanceComparator;
 import model.metaheuristic.util.solutionattribute.CrowdingDistance;
 import model.metaheuristic.util.solutionattribute.DominanceRanking;
@@ -117,8 +116,8 @@ public class RankingAndCrowdingSelection<S extends Solution<?>> implements Selec
                 addRankedSolutionsToPopulation(ranking, rankingIndex, population);
                 rankingIndex++;
             } else {
-                crowdingDistance.computeDensityEstimator(ranking.getSubfront(rankingIndex));
-                addLastRankedSolutionsToPopulation(ranking, rankingIndex, population);
+                double[] distances = crowdingDistance.computeCrowdingDistances(ranking.getSubfront(rankingIndex));
+                addLastRankedSolutionsToPopulation(ranking, rankingIndex, population, distances);
             }
         }
 
@@ -154,20 +153,27 @@ public class RankingAndCrowdingSelection<S extends Solution<?>> implements Selec
 
     /**
      * Add only some solution until the size of population is equals to solution to
-     * select.
+     * select. The solutions with greater crowding distance are added first.
      *
      * @param ranking    the population separated by rank
      * @param rank       the rank index to subfront
      * @param population the population
+     * @param distances  the crowding distances of the solutions of the subfront
      */
-    protected void addLastRankedSolutionsToPopulation(DominanceRanking<S> ranking, int rank, List<S> population) {
+    protected void addLastRankedSolutionsToPopulation(DominanceRanking<S> ranking, int rank, List<S> population,
+                                                      double[] distances) {
         List<S> currentRankedFront = ranking.getSubfront(rank);
 
-        Collections.sort(currentRankedFront, new CrowdingDistanceComparator<S>());
+        // sort the positions of the subfront by distance, the sort is stable as the sort of the solutions
+        Integer[] order = new Integer[currentRankedFront.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i, j) -> Double.compare(distances[j], distances[i]));
 
         int i = 0;
         while (population.size() < solutionsToSelect) {
-            population.add(currentRankedFront.get(i));
+            population.add(currentRankedFront.get(order[i]));
             i++;
         }
     }
@@ -34,6 +34,8 @@ import model.metaheuristic.solution.Solution;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+
 /**
  * Class that denote a problem. <br>
  * <br>
@@ -79,6 +81,24 @@ public interface Problem<S extends Solution<?>> {
      */
     void evaluate(S solution) throws EpanetException;
 
+    /**
+     * Evaluate a list of solutions. The default implementation evaluate each solution with
+     * {@link #evaluate(Solution)}.
+     * <p>
+     * The problems that can share work between the solutions (as the changes sent to the simulator) override this
+     * method. The solutions can be evaluated in any order, but the result of each solution has to be the same that
+     * the result of {@link #evaluate(Solution)}. The order of the list isn't changed.
+     *
+     * @param solutions the solutions to evaluate
+     * @throws EpanetException If there is a problem in EPANETToolkit to evaluate
+     *                         the solutions.
+     */
+    default void evaluateAll(@NotNull List<S> solutions) throws EpanetException {
+        for (S solution : solutions) {
+            evaluate(solution);
+        }
+    }
+
     /**
      * Make a solution to this problem. This can be created randomly and be used to
      * fill the initial population needed in some algorithms.
@@ -20,13 +20,23 @@ package model.metaheuristic.problem.evaluator;
 
 import epanet.core.*;
 import epanet.core.types.*;
+import model.epanet.element.Network;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.epanet.hydraulicsimulation.gga.GlobalGradientEngine;
+import model.epanet.hydraulicsimulation.impl.EpanetEngine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 public class EpatoolForJava {
 
     public String inInp = null;
+    /**
+     * The report file of epanet. If it is null is used the inp file with the extension .rpt.
+     */
+    public String outRpt = null;
 
     public String tStart = "1970-01-01 00:00:00"; //$NON-NLS-1$
     public String tCurrent = null;
@@ -41,20 +51,27 @@ public class EpatoolForJava {
 	private int num_tanks;
     
     //NODES INDEX
-    private final ArrayList<Integer> nodeIndex = new ArrayList<>(); // todos los nodos
-    private final ArrayList<Integer> nodeDemandIndex = new ArrayList<>(); // nodos con Demanda
-    private final ArrayList<Integer> tankIndex = new ArrayList<>(); // tanques
+    private int[] nodeIndex = new int[0]; // todos los nodos
+    private int[] nodeDemandIndex = new int[0]; // nodos con Demanda
+    private int[] tankIndex = new int[0]; // tanques
     
     //LINK INDEX
-    public final ArrayList<Integer> pumpIndex = new ArrayList<>();
-    private final ArrayList<Integer> linkIndex = new ArrayList<>();
-    
-    private final ArrayList<Double> listPressureNodesDiff = new ArrayList<>();
-	private final ArrayList<Double> listPressureTanksDiff = new ArrayList<>();
-	private final ArrayList<Double> listFlowratePumpsDiff = new ArrayList<>();
-	private final ArrayList<Double> ListInfactibilidad = new ArrayList<>();
-	
+    private int[] pumpIndex = new int[0];
+    private int[] linkIndex = new int[0];
 
+	/*
+	 * The buffers are reused in each simulation so a evaluation doesn't create garbage. Only the first
+	 * count values of each buffer are of the last simulation.
+	 */
+	private double[] pressureNodesDiff = new double[0];
+	private int pressureNodesDiffCount;
+	private double[] pressureTanksDiff = new double[0];
+	private int pressureTanksDiffCount;
+	private double[] flowratePumpsDiff = new double[0];
+	private int flowratePumpsDiffCount;
+	private double[] initialTankLevel = new double[0];
+	private ScheduleCheckpointTrie checkpoints;
+	private ScheduleCheckpointTrie.Node[] checkpointPath = new ScheduleCheckpointTrie.Node[0];
 
 	double[][] energyConsumed = null;
 
@@ -63,7 +80,7 @@ public class EpatoolForJava {
     
     public boolean doProcess = false;
 
-    private EpanetAPI ep;
+    private HydraulicEngine engine;
 
 
     
@@ -81,153 +98,419 @@ public class EpatoolForJava {
     }
 
     public void openINP() throws Exception {		
+        openEngine(new EpanetEngine(inInp, outRpt != null ? outRpt : inInp + ".rpt"));
+        System.out.println("Se han detectado "+ pumpIndex.length + " bombas ");
+	}
+
+    /**
+     * Use the hydraulic solver written in java instead of epanet. It is used in place of {@link #openINP()}.
+     *
+     * @param network the network to simulate
+     * @throws EpanetException if there is a error reading the network
+     * @throws IllegalArgumentException if the network use a feature not supported by the solver
+     */
+    public void openNetwork(Network network) throws EpanetException {
+        openEngine(new GlobalGradientEngine(network));
+    }
+
+    /**
+     * Use a engine with a network already opened. It is used in place of {@link #openINP()}. The engine is closed
+     * by {@link #close()}.
+     *
+     * @param engine the engine
+     * @throws EpanetException if there is a error reading the network
+     * @throws NullPointerException if engine is null
+     */
+    public void openEngine(HydraulicEngine engine) throws EpanetException {
+        Objects.requireNonNull(engine);
+        this.engine = engine;
+
+		int num_nodes = engine.getNodeCount();
+		int num_links = engine.getLinkCount();
 
-        ep = new EpanetAPI();
-        ep.ENopen(inInp, inInp + ".rpt", "");
+		List<Integer> nodes = new ArrayList<>();
+		List<Integer> nodesWithDemand = new ArrayList<>();
+		List<Integer> tanks = new ArrayList<>();
+		List<Integer> pumps = new ArrayList<>();
+		List<Integer> links = new ArrayList<>();
 
-		int num_nodes = ep.ENgetcount(Components.EN_NODECOUNT);
-		int num_links = ep.ENgetcount(Components.EN_LINKCOUNT);
-        
-        for (int i = 1; i <= num_nodes; i++) {
-			if(ep.ENgetnodetype(i)==NodeTypes.EN_JUNCTION) {
-				nodeIndex.add(i);
+        for (int i = 0; i < num_nodes; i++) {
+			if(engine.getNodeType(i)==NodeTypes.EN_JUNCTION) {
+				nodes.add(i);
 			}
-			
-			if(ep.ENgetnodetype(i)==NodeTypes.EN_JUNCTION && ep.ENgetnodevalue(i, NodeParameters.EN_BASEDEMAND)>0) {
-				nodeDemandIndex.add(i);
+
+			if(engine.getNodeType(i)==NodeTypes.EN_JUNCTION && engine.getNodeValue(i, NodeParameters.EN_BASEDEMAND)>0) {
+				nodesWithDemand.add(i);
 			}
-			else if (ep.ENgetnodetype(i)==NodeTypes.EN_TANK) {
-				tankIndex.add(i);
+			else if (engine.getNodeType(i)==NodeTypes.EN_TANK) {
+				tanks.add(i);
 			}
 		}
-        
-        for (int i = 1; i <= num_links; i++) {
-        	if(ep.ENgetlinktype(i) == LinkTypes.EN_PUMP) {
-        		pumpIndex.add(i);
+
+        for (int i = 0; i < num_links; i++) {
+        	if(engine.getLinkType(i) == LinkTypes.EN_PUMP) {
+        		pumps.add(i);
         	}
-        	else if(ep.ENgetlinktype(i)== LinkTypes.EN_PIPE) {
-        		linkIndex.add(i);
+        	else if(engine.getLinkType(i)== LinkTypes.EN_PIPE) {
+        		links.add(i);
         	}
-		}     
-        System.out.println("Se han detectado "+ pumpIndex.size() + " bombas ");
-	}
+		}
 
+		this.nodeIndex = toArray(nodes);
+		this.nodeDemandIndex = toArray(nodesWithDemand);
+		this.tankIndex = toArray(tanks);
+		this.pumpIndex = toArray(pumps);
+		this.linkIndex = toArray(links);
+		this.num_tanks = this.tankIndex.length;
+		this.initialTankLevel = new double[this.tankIndex.length];
+		this.pressureTanksDiff = new double[this.tankIndex.length];
+    }
 
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * Create the buffers of the simulation if they don't have the size needed by a solution.
+	 *
+	 * @param numPumps     the number of rows of the solution.
+	 * @param numIntervals the number of columns of the solution.
+	 */
+	private void ensureCapacity(int numPumps, int numIntervals) {
+		if (this.energyConsumed == null || this.energyConsumed.length != numPumps
+				|| (numPumps > 0 && this.energyConsumed[0].length != numIntervals)) {
+			this.energyConsumed = new double[numPumps][numIntervals];
+		} else {
+			for (double[] row : this.energyConsumed) {
+				Arrays.fill(row, 0);
+			}
+		}
+		if (this.pressureNodesDiff.length < this.nodeDemandIndex.length * numIntervals) {
+			this.pressureNodesDiff = new double[this.nodeDemandIndex.length * numIntervals];
+		}
+		if (this.flowratePumpsDiff.length < this.pumpIndex.length * numIntervals) {
+			this.flowratePumpsDiff = new double[this.pumpIndex.length * numIntervals];
+		}
+		if (this.checkpointPath.length < numIntervals) {
+			this.checkpointPath = new ScheduleCheckpointTrie.Node[numIntervals];
+		}
+	}
 
     /*Simulacion Hidraulica de una solucion*/
     public void hidraulicSimulation(int[][] solution, double timeInterval, double minPressure, double[] maxFlowrateEachPump) throws EpanetException {
     	
-    	this.energyConsumed= new double[solution.length][solution[0].length];
-		this.listPressureNodesDiff.clear();
-		this.listPressureTanksDiff.clear();
-		this.listFlowratePumpsDiff.clear();
-		this.ListInfactibilidad.clear();
-		
-		
-    	long[] tstep = {1};
-		long[] t = {0};
+		ensureCapacity(solution.length, solution[0].length);
+		this.pressureNodesDiffCount = 0;
+		this.pressureTanksDiffCount = 0;
+		this.flowratePumpsDiffCount = 0;
+
+		// the engine can share a global state (as the library of epanet) so the simulations can't be made at the same time
+		synchronized (engine.getSimulationLock()) {
+			if (this.checkpoints == null) {
+				simulate(solution, timeInterval, minPressure, maxFlowrateEachPump, null);
+				return;
+			}
+			ScheduleCheckpointTrie.Node last = null;
+			try {
+				last = simulate(solution, timeInterval, minPressure, maxFlowrateEachPump, this.checkpoints);
+			} finally {
+				if (last != null) {
+					this.checkpoints.release(last);
+				} else {
+					// the checkpoints added by the simulation that failed can be incomplete
+					this.checkpoints.clear();
+				}
+			}
+		}
+    }
+
+	/**
+	 * Simulate a schedule. If there is a trie the simulation continues from the deepest checkpoint of the schedule
+	 * and a checkpoint is added at the start of each hour simulated.
+	 *
+	 * @return the deepest checkpoint used or added, or null if there isn't a trie.
+	 */
+	private ScheduleCheckpointTrie.Node simulate(int[][] solution, double timeInterval, double minPressure,
+												 double[] maxFlowrateEachPump, ScheduleCheckpointTrie trie)
+			throws EpanetException {
+		long tstep;
+		long t = 0;
 		int hours = 0;
-		double[] initialTankLevel = new double[tankIndex.size()];
-		int k = 0;
-		
-		ep.ENopenH();
-		ep.ENinitH(0);
-		
-		// nivel inicial de los tanques
-		for(int i: tankIndex){
-			initialTankLevel[k] = ep.ENgetnodevalue(i, NodeParameters.EN_TANKLEVEL);
-			k++;
+		ScheduleCheckpointTrie.Node checkpoint = null;
+		int hourNodesDiffStart = 0;
+		int hourPumpsDiffStart = 0;
+
+		if (trie != null) {
+			// the last hour isn't saved because there isn't other hour to continue
+			checkpoint = trie.lookup(solution, solution[0].length - 1);
+		}
+		if (checkpoint != null && checkpoint.depth > 0) {
+			resume(checkpoint);
+			t = checkpoint.time;
+			hours = checkpoint.depth;
+			hourNodesDiffStart = this.pressureNodesDiffCount;
+			hourPumpsDiffStart = this.flowratePumpsDiffCount;
+		} else {
+			engine.init();
+
+			// nivel inicial de los tanques
+			for(int k = 0; k < tankIndex.length; k++){
+				initialTankLevel[k] = engine.getNodeValue(tankIndex[k], NodeParameters.EN_TANKLEVEL);
+			}
 		}
 
 		do {
-			if(t[0]%timeInterval == 0) {
+			if(t%timeInterval == 0) {
+				if (checkpoint != null && hours > checkpoint.depth && hours < solution[0].length) {
+					checkpoint = addCheckpoint(trie, checkpoint, solution, hours, t, hourNodesDiffStart,
+							hourPumpsDiffStart);
+				}
+				hourNodesDiffStart = this.pressureNodesDiffCount;
+				hourPumpsDiffStart = this.flowratePumpsDiffCount;
+
 				// Cambiamos el estado de las bombas de acuerdo a la configuracion de la solucion
-				for (int i=0; i < this.pumpIndex.size(); i++) {
-					ep.ENsetlinkvalue(this.pumpIndex.get(i), LinkParameters.EN_STATUS, solution[i][hours]);
+				for (int i=0; i < this.pumpIndex.length; i++) {
+					engine.setLinkValue(this.pumpIndex[i], LinkParameters.EN_STATUS, solution[i][hours]);
 				}
 
 				// Simulacion hidraulica en tiempo t
-				ep.ENrunH(t);
-				String w = ep.getWarningMessage();
-			
+				t = engine.run();
+		
 				// Calculo de la energia consumida por la bombas
-				for (int i=0; i < this.pumpIndex.size(); i++) {
-					double value = ep.ENgetlinkvalue(this.pumpIndex.get(i), LinkParameters.EN_ENERGY)[0];
+				for (int i=0; i < this.pumpIndex.length; i++) {
+					double value = engine.getLinkValue(this.pumpIndex[i], LinkParameters.EN_ENERGY);
 					energyConsumed[i][hours] = value;
 				}
-				
+			
 				// calculo de presion en los nodos con demanda
 				for (int i : nodeDemandIndex) {
-					double value = ep.ENgetnodevalue(i, NodeParameters.EN_PRESSURE);
+					double value = engine.getNodeValue(i, NodeParameters.EN_PRESSURE);
 					if(value < minPressure) {
-						this.listPressureNodesDiff.add(Math.abs(value - minPressure));
+						this.pressureNodesDiff[this.pressureNodesDiffCount++] = Math.abs(value - minPressure);
 					}
 				}
-				
+			
 				// Calculo de caudal en bombas. Se penaliza si existe un flujo m�ximo al establecido
 				int pump =0;
 				for (int i : pumpIndex) {
-					double value = ep.ENgetlinkvalue(i, LinkParameters.EN_FLOW )[0];
+					double value = engine.getLinkValue(i, LinkParameters.EN_FLOW);
 					if (value > maxFlowrateEachPump[pump]) {
-						this.listFlowratePumpsDiff.add(Math.abs(value-maxFlowrateEachPump[pump]));
+						this.flowratePumpsDiff[this.flowratePumpsDiffCount++] = Math.abs(value-maxFlowrateEachPump[pump]);
 					}
 					pump ++;
 				}
 				hours++;
 			}
 			else {
-				
+			
 				// Simulacion hidraulica en tiempo t
-				ep.ENrunH(t);
+				t = engine.run();
 				// en el caso de que la simulacion se detenga en medio una hora, se penaliza el valor de las presiones negativas
 				// en los nodos con demanda superior a 0.0
-				
-				//ListInfactibilidad.add((double) Penalty);
 			
+				//ListInfactibilidad.add((double) Penalty);
+		
 			}
 
-			ep.ENnextH(tstep);
-			
-		} while (tstep[0] > 0);
+			tstep = engine.next();
 		
-		k = 0;
-		for(int i: tankIndex) {
-			double value = ep.ENgetnodevalue(i, NodeParameters.EN_PRESSURE);
+		} while (tstep > 0);
+	
+		for(int k = 0; k < tankIndex.length; k++) {
+			double value = engine.getNodeValue(tankIndex[k], NodeParameters.EN_PRESSURE);
 			if((initialTankLevel[k])> value){
-				listPressureTanksDiff.add(Math.abs(initialTankLevel[k]-value));
+				pressureTanksDiff[pressureTanksDiffCount++] = Math.abs(initialTankLevel[k]-value);
 			}
-			k++;
 		}
-
-		
-		ep.ENcloseH();
-		
+		return checkpoint;
     }
-    
-	
-	
+
+	/**
+	 * Restore the state of a checkpoint and copy the energy and violations of the hours before it.
+	 */
+	private void resume(ScheduleCheckpointTrie.Node checkpoint) throws EpanetException {
+		ScheduleCheckpointTrie.Node[] path = this.checkpointPath;
+		for (ScheduleCheckpointTrie.Node node = checkpoint; node.depth > 0; node = node.parent) {
+			path[node.depth - 1] = node;
+		}
+		for (int hour = 0; hour < checkpoint.depth; hour++) {
+			ScheduleCheckpointTrie.Node node = path[hour];
+			for (int i = 0; i < node.energy.length; i++) {
+				this.energyConsumed[i][hour] = node.energy[i];
+			}
+			System.arraycopy(node.nodeViolations, 0, this.pressureNodesDiff, this.pressureNodesDiffCount,
+					node.nodeViolations.length);
+			this.pressureNodesDiffCount += node.nodeViolations.length;
+			System.arraycopy(node.pumpViolations, 0, this.flowratePumpsDiff, this.flowratePumpsDiffCount,
+					node.pumpViolations.length);
+			this.flowratePumpsDiffCount += node.pumpViolations.length;
+			path[hour] = null;
+		}
+		engine.restoreState(checkpoint.state);
+	}
+
+	/**
+	 * Save the state of the engine at the start of a hour with the energy and violations of the previous hour.
+	 */
+	private ScheduleCheckpointTrie.Node addCheckpoint(ScheduleCheckpointTrie trie, ScheduleCheckpointTrie.Node parent,
+													  int[][] solution, int hours, long t, int hourNodesDiffStart,
+													  int hourPumpsDiffStart) throws EpanetException {
+		ScheduleCheckpointTrie.Node node = trie.add(parent, ScheduleCheckpointTrie.key(solution, hours - 1),
+				this.pressureNodesDiffCount - hourNodesDiffStart, this.flowratePumpsDiffCount - hourPumpsDiffStart);
+		node.time = t;
+		engine.saveState(node.state);
+		for (int i = 0; i < node.energy.length; i++) {
+			node.energy[i] = this.energyConsumed[i][hours - 1];
+		}
+		System.arraycopy(this.pressureNodesDiff, hourNodesDiffStart, node.nodeViolations, 0,
+				node.nodeViolations.length);
+		System.arraycopy(this.flowratePumpsDiff, hourPumpsDiffStart, node.pumpViolations, 0,
+				node.pumpViolations.length);
+		return node;
+	}
+
+	/**
+	 * Enable the checkpoints of the simulations. The simulation of a schedule continues from the state saved at the
+	 * start of the deepest hour where the status of pumps of a schedule simulated before is the same (see
+	 * {@link ScheduleCheckpointTrie}). The results are the same that without checkpoints.
+	 * <p>
+	 * It has to be called after the network is opened.
+	 *
+	 * @param maxMemory the max number of bytes used by the checkpoints.
+	 * @throws IllegalStateException         if the network wasn't opened.
+	 * @throws UnsupportedOperationException if the engine can't save the state of a simulation (as the library of
+	 *                                       epanet).
+	 * @throws IllegalArgumentException      if maxMemory is negative or if the network doesn't have between 1 and
+	 *                                       {@value ScheduleCheckpointTrie#MAX_PUMPS} pumps.
+	 */
+	public void enableCheckpoints(long maxMemory) {
+		if (engine == null) {
+			throw new IllegalStateException("The network wasn't opened");
+		}
+		if (engine.getStateSize() == 0) {
+			throw new UnsupportedOperationException("The engine can't save the state of a simulation");
+		}
+		this.checkpoints = new ScheduleCheckpointTrie(pumpIndex.length, engine.getStateSize(), maxMemory);
+	}
+
+	/**
+	 * Get the object used to synchronize the simulations of the engine (see
+	 * {@link HydraulicEngine#getSimulationLock()}).
+	 *
+	 * @return the lock.
+	 * @throws IllegalStateException if the network wasn't opened.
+	 */
+	public Object getSimulationLock() {
+		if (engine == null) {
+			throw new IllegalStateException("The network wasn't opened");
+		}
+		return engine.getSimulationLock();
+	}
+
+	/**
+	 * Get the trie of checkpoints.
+	 *
+	 * @return the trie or null if the checkpoints aren't enabled.
+	 */
+	public ScheduleCheckpointTrie getCheckpoints() {
+		return this.checkpoints;
+	}
+
 	public void finish() throws EpanetException {
-        ep.ENcloseH();
-        ep.ENclose();
+        close();
     }
 
-	public ArrayList<Double> getListPressureNodesDiff() {
-		return this.listPressureNodesDiff;
+	/**
+	 * Close the engine. It do nothing if the network wasn't opened.
+	 *
+	 * @throws EpanetException if there is a error closing the engine.
+	 */
+	public void close() throws EpanetException {
+		if (engine != null) {
+			engine.close();
+		}
 	}
-	
-	public ArrayList<Double> getlistPressureTanksDiff() {
-		return this.listPressureTanksDiff;
+
+	/**
+	 * Get the buffer with the pressure that is missing in the nodes with demand in each hour of the last
+	 * simulation. Only the first {@link #getPressureNodesDiffCount()} values are valid. The buffer is reused in
+	 * the next simulation.
+	 *
+	 * @return the buffer.
+	 */
+	public double[] getPressureNodesDiff() {
+		return this.pressureNodesDiff;
 	}
-	
-	public ArrayList<Double> getlistFlowratePumpsDiff() {
-		return this.listFlowratePumpsDiff;
+
+	/**
+	 * Get the number of violations of the pressure in the nodes in the last simulation.
+	 *
+	 * @return the number of violations.
+	 */
+	public int getPressureNodesDiffCount() {
+		return this.pressureNodesDiffCount;
+	}
+
+	/**
+	 * Get the buffer with the level that the tanks lost in the last simulation. Only the first
+	 * {@link #getPressureTanksDiffCount()} values are valid. The buffer is reused in the next simulation.
+	 *
+	 * @return the buffer.
+	 */
+	public double[] getPressureTanksDiff() {
+		return this.pressureTanksDiff;
+	}
+
+	/**
+	 * Get the number of tanks that finished the last simulation with a level lower than the initial level.
+	 *
+	 * @return the number of violations.
+	 */
+	public int getPressureTanksDiffCount() {
+		return this.pressureTanksDiffCount;
 	}
+
+	/**
+	 * Get the buffer with the flowrate that exceeds the max flowrate of the pumps in each hour of the last
+	 * simulation. Only the first {@link #getFlowratePumpsDiffCount()} values are valid. The buffer is reused in the
+	 * next simulation.
+	 *
+	 * @return the buffer.
+	 */
+	public double[] getFlowratePumpsDiff() {
+		return this.flowratePumpsDiff;
+	}
+
+	/**
+	 * Get the number of violations of the flowrate in the pumps in the last simulation.
+	 *
+	 * @return the number of violations.
+	 */
+	public int getFlowratePumpsDiffCount() {
+		return this.flowratePumpsDiffCount;
+	}
+
+	/**
+	 * Get the energy consumed by each pump (row) in each hour (column) of the last simulation. The matrix is reused
+	 * in the next simulation.
+	 *
+	 * @return the energy consumed.
+	 */
 	public double[][] getEnergyConsumed(){
 		return this.energyConsumed;
 	}
-	
-	public ArrayList<Double> getListInfactibilidad() {
-		return ListInfactibilidad;
+
+	/**
+	 * Get the number of pumps of the network.
+	 *
+	 * @return the number of pumps.
+	 */
+	public int getNumberOfPumps() {
+		return this.pumpIndex.length;
 	}
 	
     
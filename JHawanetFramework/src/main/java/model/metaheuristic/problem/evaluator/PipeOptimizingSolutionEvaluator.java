@@ -2,87 +2,214 @@ package model.metaheuristic.problem.evaluator;
 
 import epanet.core.*;
 import model.epanet.element.Gama;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
 import model.metaheuristic.solution.impl.IntegerSolution;
 import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
 import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import model.metaheuristic.util.solutionattribute.ViolationCutoff;
+import model.metaheuristic.util.solutionattribute.ViolationLowerBound;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 public class PipeOptimizingSolutionEvaluator {
+    // the state of the last engine that applied its diameters, by simulation lock. The engines that share a lock
+    // (as the instances of EpanetEngine) share the network, so they have to know if other engine changed it.
+    private static final Map<Object, EngineState> LAST_APPLIED = Collections.synchronizedMap(new WeakHashMap<>());
+
     private final double minPressure;
+    // the state of each engine used by this evaluator
+    private final Map<HydraulicEngine, EngineState> states = new IdentityHashMap<>();
+
+    private boolean earlyTermination;
+    private double maxInfactibilityGrade = Double.POSITIVE_INFINITY;
+    private final ViolationCutoff<IntegerSolution> violationCutoff = new ViolationCutoff<>();
+    private final ViolationLowerBound<IntegerSolution> violationLowerBound = new ViolationLowerBound<>();
 
     public PipeOptimizingSolutionEvaluator(double minPressure) {
         this.minPressure = minPressure;
     }
 
+    /**
+     * Enable or disable the early termination of simulations. When it is enabled the simulation of a solution is
+     * stopped when its infactibility grade is greater than the max infactibility grade or when it is worse than the
+     * {@link ViolationCutoff} of the solution (set by the algorithm). The solutions whose simulation was stopped have
+     * the attribute {@link ViolationLowerBound} in true.
+     * <p>
+     * The default is false.
+     *
+     * @param earlyTermination true to enable the early termination
+     */
+    public void setEarlyTermination(boolean earlyTermination) {
+        this.earlyTermination = earlyTermination;
+    }
+
+    /**
+     * Check if the early termination of simulations is enabled.
+     *
+     * @return true if it is enabled
+     */
+    public boolean isEarlyTermination() {
+        return earlyTermination;
+    }
+
+    /**
+     * Set the max infactibility grade (sum of the pressure deficit of nodes in all steps) that a solution can
+     * reach before its simulation is stopped. It is only used when the early termination is enabled.
+     * <p>
+     * The default is {@link Double#POSITIVE_INFINITY}, so only the {@link ViolationCutoff} is used.
+     *
+     * @param maxInfactibilityGrade the max infactibility grade
+     * @throws IllegalArgumentException if maxInfactibilityGrade isn't greater than 0
+     */
+    public void setMaxInfactibilityGrade(double maxInfactibilityGrade) {
+        if (!(maxInfactibilityGrade > 0)) {
+            throw new IllegalArgumentException("The max infactibility grade has to be greater than 0");
+        }
+        this.maxInfactibilityGrade = maxInfactibilityGrade;
+    }
+
     /**
      * Evaluate the factibility of solution. It add a {@link OverallConstraintViolation} and  {@link NumberOfViolatedConstraints} to {@code solution}.
+     * <p>
+     * The evaluator remember the diameters applied to each engine, so only the pipes whose diameter changed since
+     * the last evaluation with the same engine are sent to it. If other engine with the same simulation lock (or
+     * other evaluator) applied its diameters after that evaluation, all the diameters are sent again. The
+     * diameters of the pipes can't be changed by other objects between two evaluations.
      *
      * @param solution the solution to evaluate
      * @param gamas    the gamas to map the solution
-     * @param epanet   the simulator
+     * @param engine   the simulator
      * @throws EpanetException if there is and error in the simulator
      */
-    public void evaluate(IntegerSolution solution, List<Gama> gamas, EpanetAPI epanet)
+    public void evaluate(IntegerSolution solution, List<Gama> gamas, HydraulicEngine engine)
             throws EpanetException {
 
         int numberOfInfactibilities = 0;
         double infactibilityGrade = 0;
         int nDecisionVariables = solution.getNumberOfVariables();
-
-        // long t, tstep;
-        long[] tstep = {1};
-        long[] t = {0};
-
-        epanet.ENopenH();
-        epanet.ENinitH(0);
-        int n_link = epanet.ENgetcount(Components.EN_LINKCOUNT);
-        // Set the diameter of pipes network to the solutions
-        // runs through all link change the diameters of pipes
-        int changed = 0; // count the number of pipes with his diameters modified.
-        for (int i = 1; i <= n_link; i++) {
-            LinkTypes type = epanet.ENgetlinktype(i);
-            if (type == LinkTypes.EN_PIPE){
-                float diameter = (float) gamas.get(solution.getVariable(i - 1) - 1).getDiameter();
-                epanet.ENsetlinkvalue(i, LinkParameters.EN_DIAMETER, diameter);
-                changed++;
+        EngineState state = getState(engine);
+        assert nDecisionVariables == state.pipes.length;
+        double[] pressures = state.pressures;
+        double limit = Double.POSITIVE_INFINITY;
+        if (this.earlyTermination) {
+            limit = this.maxInfactibilityGrade;
+            Double cutoff = this.violationCutoff.getAttribute(solution);
+            if (cutoff != null) {
+                limit = Math.min(limit, -cutoff);
             }
         }
-        assert nDecisionVariables == changed;
-        do {
-//			RecorrerNudos(epanet); // Borrar es solo para probar
-//			System.out.println(solution);
-            epanet.ENrunH(t);
-            int n_nodes = epanet.ENgetcount(Components.EN_NODECOUNT);
-            for (int j = 1; j <= n_nodes; j++) {
-                // If the node is a reservoir or a tank so continue to next node
-                if (epanet.ENgetnodetype(j) != NodeTypes.EN_JUNCTION) {
-                    continue;
-                }
-                float pressure = epanet.ENgetnodevalue(j, NodeParameters.EN_PRESSURE);
-                if (pressure < this.minPressure) {
-                    numberOfInfactibilities++;
-                    infactibilityGrade += (this.minPressure - pressure);
+        boolean stopped = false;
+
+        // the engine can share a global state (as the library of epanet) so the simulations can't be made at the same time
+        Object lock = engine.getSimulationLock();
+        synchronized (lock) {
+            if (LAST_APPLIED.put(lock, state) != state) {
+                // other engine changed the network, so the diameters applied by this engine aren't valid
+                Arrays.fill(state.diameters, Double.NaN);
+            }
+            // Set the diameter of pipes network to the solutions. Only the pipes with a new diameter are changed.
+            for (int i = 0; i < state.pipes.length; i++) {
+                int pipe = state.pipes[i];
+                double diameter = gamas.get(solution.getInt(pipe) - 1).getDiameter();
+                if (diameter != state.diameters[i]) {
+                    engine.setLinkValue(pipe, LinkParameters.EN_DIAMETER, diameter);
+                    state.diameters[i] = diameter;
                 }
-//				System.out.println("Presion nodo " + j + " id " + epanet.ENgetnodeid(j) + " es " + pressure);
             }
-            epanet.ENnextH(tstep);
-//			System.out.println("Ya paso por aqui " + count++ + " veces");
-        } while (tstep[0] > 0);
+            engine.init();
+            long tstep;
+            do {
+                engine.run();
+                engine.getNodeValues(state.junctions, NodeParameters.EN_PRESSURE, pressures);
+                for (double pressure : pressures) {
+                    if (pressure < this.minPressure) {
+                        numberOfInfactibilities++;
+                        infactibilityGrade += (this.minPressure - pressure);
+                    }
+                }
+                if (infactibilityGrade > limit) {
+                    // the solution can't be better so the rest of simulation isn't needed
+                    stopped = true;
+                    break;
+                }
+                tstep = engine.next();
+            } while (tstep > 0);
+        }
+        setConstraints(solution, numberOfInfactibilities, infactibilityGrade);
+        if (this.earlyTermination) {
+            this.violationLowerBound.setAttribute(solution, stopped);
+        }
+    }
+
+    /**
+     * Get the state of a engine. It is created the first time that the engine is used.
+     *
+     * @param engine the engine
+     * @return the state
+     */
+    private EngineState getState(HydraulicEngine engine) {
+        EngineState state = this.states.get(engine);
+        if (state == null) {
+            state = new EngineState(engine);
+            this.states.put(engine, state);
+        }
+        return state;
+    }
+
+    private void setConstraints(IntegerSolution solution, int numberOfInfactibilities, double infactibilityGrade) {
         OverallConstraintViolation<IntegerSolution> infactibilityConstrains = new OverallConstraintViolation<IntegerSolution>();
         infactibilityConstrains.setAttribute(solution, -infactibilityGrade);
 
         NumberOfViolatedConstraints<IntegerSolution> numberOfViolatedConstraints = new NumberOfViolatedConstraints<IntegerSolution>();
         numberOfViolatedConstraints.setAttribute(solution, numberOfInfactibilities);
-        epanet.ENcloseH();
     }
 
-    private void RecorrerNudos(EpanetAPI epanet) throws EpanetException {
-        int n_links = epanet.ENgetcount(Components.EN_LINKCOUNT);
-        for (int j = 1; j <= n_links; j++) {
-            String label = epanet.ENgetlinkid(j);
-            float[] value = epanet.ENgetlinkvalue(j, LinkParameters.EN_DIAMETER);
-            System.out.printf("Link id = %10s de indice %10d tiene un valor de diametro de %-11f\n", label, j, value[0]);
+    private void RecorrerNudos(HydraulicEngine engine) throws EpanetException {
+        int n_links = engine.getLinkCount();
+        for (int j = 0; j < n_links; j++) {
+            String label = engine.getLinkId(j);
+            double value = engine.getLinkValue(j, LinkParameters.EN_DIAMETER);
+            System.out.printf("Link id = %10s de indice %10d tiene un valor de diametro de %-11f\n", label, j, value);
+        }
+    }
+
+    /**
+     * The indexes of pipes and junctions of a engine and the last diameters applied to it.
+     */
+    private static final class EngineState {
+        private final int[] pipes;
+        private final int[] junctions;
+        private final double[] diameters; // NaN if the diameter wasn't applied
+        private final double[] pressures;
+
+        private EngineState(HydraulicEngine engine) {
+            int nLinks = engine.getLinkCount();
+            int[] pipes = new int[nLinks];
+            int nPipes = 0;
+            for (int i = 0; i < nLinks; i++) {
+                if (engine.getLinkType(i) == LinkTypes.EN_PIPE) {
+                    pipes[nPipes++] = i;
+                }
+            }
+            int nNodes = engine.getNodeCount();
+            int[] junctions = new int[nNodes];
+            int nJunctions = 0;
+            for (int j = 0; j < nNodes; j++) {
+                // If the node is a reservoir or a tank it isn't checked
+                if (engine.getNodeType(j) == NodeTypes.EN_JUNCTION) {
+                    junctions[nJunctions++] = j;
+                }
+            }
+            this.pipes = Arrays.copyOf(pipes, nPipes);
+            this.junctions = Arrays.copyOf(junctions, nJunctions);
+            this.diameters = new double[nPipes];
+            Arrays.fill(this.diameters, Double.NaN);
+            this.pressures = new double[nJunctions];
         }
     }
 
@@ -0,0 +1,379 @@
+package model.metaheuristic.problem.evaluator;
+
+import java.util.Arrays;
+
+/**
+ * Trie with the state of the hydraulic simulations of pump schedules. Two schedules that have the same status of
+ * pumps in the first k hours have the same hydraulic state until the hour k, so the simulation of a new schedule
+ * can continue from the deepest checkpoint of the trie that has its prefix instead of start from the time 0.
+ * <p>
+ * The level k of the trie is the start of the hour k. The key of a node is the status of the pumps in the previous
+ * hour (a bit by pump) and the node saves the state of the engine (see
+ * {@link model.epanet.hydraulicsimulation.HydraulicEngine#saveState(double[])}), the time of the last hydraulic
+ * step and the energy and violations calculated in the previous hour.
+ * <p>
+ * The memory used by the checkpoints is limited. When the limit is exceeded the least recently used checkpoints are
+ * removed. A checkpoint is always used after its descendants, so only the leaves are removed.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * The checkpoints are valid while the network isn't changed. The memory used is a approximation of the size of the
+ * arrays saved in the nodes. This class isn't thread safe.
+ */
+public class ScheduleCheckpointTrie {
+    /**
+     * Max number of pumps supported by the trie.
+     */
+    public static final int MAX_PUMPS = 31;
+    // approximation of the memory of the object of a node and its arrays without the values
+    private static final int NODE_OVERHEAD = 160;
+
+    private final int numPumps;
+    private final int stateSize;
+    private final long maxMemory;
+    private final Node root;
+    private Node mostRecent;
+    private Node leastRecent;
+    private long memoryUsed;
+    private int size;
+
+    private long lookups;
+    private long hits;
+    private long hitDepthSum;
+    private long[] hitDepths;
+    private long evictions;
+
+    /**
+     * Constructor.
+     *
+     * @param numPumps  the number of pumps of the schedules.
+     * @param stateSize the size of the state of the engine.
+     * @param maxMemory the max number of bytes used by the checkpoints.
+     * @throws IllegalArgumentException if numPumps isn't between 1 and {@value #MAX_PUMPS}, if stateSize is less
+     *                                  than 1 or if maxMemory is negative.
+     */
+    public ScheduleCheckpointTrie(int numPumps, int stateSize, long maxMemory) {
+        if (numPumps < 1 || numPumps > MAX_PUMPS) {
+            throw new IllegalArgumentException("The number of pumps has to be between 1 and " + MAX_PUMPS);
+        }
+        if (stateSize < 1) {
+            throw new IllegalArgumentException("The size of the state has to be greater than 0");
+        }
+        if (maxMemory < 0) {
+            throw new IllegalArgumentException("The max memory can't be negative");
+        }
+        this.numPumps = numPumps;
+        this.stateSize = stateSize;
+        this.maxMemory = maxMemory;
+        this.root = new Node(null, 0, 0, 0);
+        this.hitDepths = new long[1];
+    }
+
+    /**
+     * Get the key of the status of the pumps in a hour.
+     *
+     * @param schedule the schedule. Each row is a pump and each column is a hour.
+     * @param hour     the hour.
+     * @return the key.
+     */
+    static int key(int[][] schedule, int hour) {
+        int key = 0;
+        for (int i = 0; i < schedule.length; i++) {
+            if (schedule[i][hour] != 0) {
+                key |= 1 << i;
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Get the root of the trie. It doesn't have a checkpoint and it is used as the parent of the checkpoints of
+     * the first hour.
+     *
+     * @return the root.
+     */
+    Node getRoot() {
+        return this.root;
+    }
+
+    /**
+     * Find the deepest checkpoint with the same status of pumps that the schedule. The statistics of hits are
+     * updated.
+     *
+     * @param schedule the schedule. Each row is a pump and each column is a hour.
+     * @param maxDepth the max depth of the checkpoint.
+     * @return the checkpoint or the root if there isn't a checkpoint of the schedule.
+     */
+    Node lookup(int[][] schedule, int maxDepth) {
+        Node node = this.root;
+        while (node.depth < maxDepth) {
+            Node child = node.getChild(key(schedule, node.depth));
+            if (child == null) {
+                break;
+            }
+            node = child;
+        }
+        this.lookups++;
+        if (node.depth > 0) {
+            this.hits++;
+            this.hitDepthSum += node.depth;
+        }
+        if (node.depth >= this.hitDepths.length) {
+            this.hitDepths = Arrays.copyOf(this.hitDepths, node.depth + 1);
+        }
+        this.hitDepths[node.depth]++;
+        return node;
+    }
+
+    /**
+     * Add a checkpoint to a node. If the checkpoint already exists it is returned. The values of a new checkpoint
+     * have to be set by the caller.
+     *
+     * @param parent             the checkpoint of the previous hour.
+     * @param key                the key of the status of pumps in the previous hour.
+     * @param numNodeViolations  the number of violations of pressure in the previous hour.
+     * @param numPumpsViolations the number of violations of flowrate in the previous hour.
+     * @return the checkpoint.
+     */
+    Node add(Node parent, int key, int numNodeViolations, int numPumpsViolations) {
+        Node child = parent.getChild(key);
+        if (child != null) {
+            return child;
+        }
+        child = new Node(parent, key, numNodeViolations, numPumpsViolations);
+        parent.addChild(child);
+        addFirst(child);
+        this.memoryUsed += child.memory;
+        this.size++;
+        return child;
+    }
+
+    /**
+     * Mark the checkpoints of the path to a node as the most recently used and remove the least recently used
+     * checkpoints if the memory used exceeds the limit. It is called when the simulation of a schedule finishes.
+     *
+     * @param last the deepest checkpoint used or added in the simulation.
+     */
+    void release(Node last) {
+        // the ancestors are marked after the descendants, so the least recently used node is always a leaf
+        for (Node node = last; node != this.root; node = node.parent) {
+            remove(node);
+            addFirst(node);
+        }
+        while (this.memoryUsed > this.maxMemory && this.leastRecent != null) {
+            Node node = this.leastRecent;
+            remove(node);
+            node.parent.removeChild(node);
+            this.memoryUsed -= node.memory;
+            this.size--;
+            this.evictions++;
+        }
+    }
+
+    /**
+     * Remove all the checkpoints. It is used when a simulation fails and the checkpoints added can be incomplete.
+     * The statistics are kept.
+     */
+    void clear() {
+        this.root.childCount = 0;
+        this.root.childKeys = null;
+        this.root.children = null;
+        this.mostRecent = null;
+        this.leastRecent = null;
+        this.memoryUsed = 0;
+        this.size = 0;
+    }
+
+    private void addFirst(Node node) {
+        node.previous = null;
+        node.next = this.mostRecent;
+        if (this.mostRecent != null) {
+            this.mostRecent.previous = node;
+        } else {
+            this.leastRecent = node;
+        }
+        this.mostRecent = node;
+    }
+
+    private void remove(Node node) {
+        if (node.previous != null) {
+            node.previous.next = node.next;
+        } else {
+            this.mostRecent = node.next;
+        }
+        if (node.next != null) {
+            node.next.previous = node.previous;
+        } else {
+            this.leastRecent = node.previous;
+        }
+        node.previous = null;
+        node.next = null;
+    }
+
+    /**
+     * Get the number of checkpoints saved.
+     *
+     * @return the number of checkpoints.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Get the approximate number of bytes used by the checkpoints.
+     *
+     * @return the memory used.
+     */
+    public long getMemoryUsed() {
+        return this.memoryUsed;
+    }
+
+    /**
+     * Get the max number of bytes used by the checkpoints.
+     *
+     * @return the max memory.
+     */
+    public long getMaxMemory() {
+        return this.maxMemory;
+    }
+
+    /**
+     * Get the number of schedules searched in the trie.
+     *
+     * @return the number of lookups.
+     */
+    public long getLookups() {
+        return this.lookups;
+    }
+
+    /**
+     * Get the number of schedules that continued the simulation from a checkpoint.
+     *
+     * @return the number of hits.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Get the average number of hours that weren't simulated by schedule searched.
+     *
+     * @return the average depth or 0 if there aren't lookups.
+     */
+    public double getAverageHitDepth() {
+        return this.lookups == 0 ? 0 : (double) this.hitDepthSum / this.lookups;
+    }
+
+    /**
+     * Get the number of lookups that finished in each depth. The position 0 is the number of schedules that were
+     * simulated from the start.
+     *
+     * @return a copy of the histogram.
+     */
+    public long[] getHitDepthHistogram() {
+        return this.hitDepths.clone();
+    }
+
+    /**
+     * Get the number of checkpoints removed to don't exceed the max memory.
+     *
+     * @return the number of evictions.
+     */
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Checkpoints: %d (%.1f MB), hits: %d of %d, average depth: %.2f, evictions: %d",
+                this.size, this.memoryUsed / (1024.0 * 1024.0), this.hits, this.lookups, getAverageHitDepth(),
+                this.evictions);
+    }
+
+    /**
+     * A checkpoint of the trie.
+     */
+    final class Node {
+        final Node parent;
+        final int key;
+        final int depth;
+        final long memory;
+        /**
+         * The time of the last hydraulic step solved before the checkpoint.
+         */
+        long time;
+        /**
+         * The state of the engine.
+         */
+        final double[] state;
+        /**
+         * The energy consumed by each pump in the previous hour.
+         */
+        final double[] energy;
+        /**
+         * The violations of pressure in the nodes in the previous hour.
+         */
+        final double[] nodeViolations;
+        /**
+         * The violations of flowrate in the pumps in the previous hour.
+         */
+        final double[] pumpViolations;
+
+        private int[] childKeys;
+        private Node[] children;
+        private int childCount;
+        private Node previous;
+        private Node next;
+
+        private Node(Node parent, int key, int numNodeViolations, int numPumpsViolations) {
+            this.parent = parent;
+            this.key = key;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+            if (parent == null) {
+                this.state = new double[0];
+                this.energy = new double[0];
+            } else {
+                this.state = new double[stateSize];
+                this.energy = new double[numPumps];
+            }
+            this.nodeViolations = new double[numNodeViolations];
+            this.pumpViolations = new double[numPumpsViolations];
+            this.memory = NODE_OVERHEAD + 8L * (this.state.length + this.energy.length + numNodeViolations
+                    + numPumpsViolations);
+        }
+
+        private Node getChild(int key) {
+            for (int i = 0; i < this.childCount; i++) {
+                if (this.childKeys[i] == key) {
+                    return this.children[i];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(Node child) {
+            if (this.children == null) {
+                this.childKeys = new int[2];
+                this.children = new Node[2];
+            } else if (this.childCount == this.children.length) {
+                this.childKeys = Arrays.copyOf(this.childKeys, this.childCount * 2);
+                this.children = Arrays.copyOf(this.children, this.childCount * 2);
+            }
+            this.childKeys[this.childCount] = child.key;
+            this.children[this.childCount] = child;
+            this.childCount++;
+        }
+
+        private void removeChild(Node child) {
+            for (int i = 0; i < this.childCount; i++) {
+                if (this.children[i] == child) {
+                    this.childCount--;
+                    this.childKeys[i] = this.childKeys[this.childCount];
+                    this.children[i] = this.children[this.childCount];
+                    this.children[this.childCount] = null;
+                    return;
+                }
+            }
+        }
+    }
+}
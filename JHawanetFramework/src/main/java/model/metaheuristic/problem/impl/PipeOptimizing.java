@@ -4,11 +4,13 @@ import epanet.core.*;
 import model.epanet.element.Gama;
 import model.epanet.element.Network;
 import model.epanet.element.networkcomponent.Pipe;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
 import model.io.GamaParser;
 import model.metaheuristic.problem.Problem;
 import model.metaheuristic.problem.evaluator.PipeOptimizingSolutionEvaluator;
 import model.metaheuristic.solution.Solution;
 import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.SolutionListUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
@@ -23,6 +25,8 @@ import java.util.Objects;
  *
  */
 public class PipeOptimizing implements Problem<IntegerSolution> {
+	// the larger lists are sorted by its variables because the order by nearest neighbor needs a quadratic time
+	private static final int MAX_SIZE_ORDERED_BY_NEIGHBOR = 1000;
 
 	private int numberOfVariables;
 	private final int numberOfObjectives;
@@ -31,7 +35,7 @@ public class PipeOptimizing implements Problem<IntegerSolution> {
 	private int upperBound;
 	private final String networkGama;
 	private final PipeOptimizingSolutionEvaluator evaluator;
-	private final EpanetAPI epanet;
+	private final HydraulicEngine engine;
 
 	private List<Gama> gamas;
 	private List<Float> LenghtLinks;
@@ -39,17 +43,17 @@ public class PipeOptimizing implements Problem<IntegerSolution> {
 	/**
 	 * Constructor
 	 * 
-	 * @param epanet the hydraulic simulation api
+	 * @param engine the hydraulic simulator with the network opened
 	 * @param networkGama the name of file with additional data of the network
 	 * @param minPressure the min pressure of network
 	 * @throws IOException          if there is a error in the io operator over the
 	 *                              gama.
-	 * @throws EpanetException      if there is a error in epatoolkit
-	 * @throws NullPointerException if epanet is null or networkGama is null
+	 * @throws EpanetException      if there is a error in the simulator
+	 * @throws NullPointerException if engine is null or networkGama is null
 	 * @throws IllegalArgumentException if networkGama is empty
 	 */
-	public PipeOptimizing(EpanetAPI epanet, String networkGama, int minPressure) throws IOException, EpanetException {
-		Objects.requireNonNull(epanet, "EpanetAPI can't be null in CostConstructionProblem");
+	public PipeOptimizing(HydraulicEngine engine, String networkGama, int minPressure) throws IOException, EpanetException {
+		Objects.requireNonNull(engine, "The engine can't be null in PipeOptimizing");
 		Objects.requireNonNull(networkGama);
 		if (networkGama.equals("")) {
 			throw new IllegalArgumentException("The parameter networkGama can't be empty");
@@ -57,7 +61,7 @@ public class PipeOptimizing implements Problem<IntegerSolution> {
 		this.numberOfConstrains = 1;
 		this.numberOfObjectives = 1;
 		this.networkGama = networkGama;
-		this.epanet = epanet;
+		this.engine = engine;
 		this.evaluator = new PipeOptimizingSolutionEvaluator(minPressure);
 		initialize();
 	}
@@ -66,10 +70,10 @@ public class PipeOptimizing implements Problem<IntegerSolution> {
 	 * Initialize values needed to the problem.
 	 * 
 	 * @throws IOException     if there is a error in the io operator over the gama.
-	 * @throws EpanetException if there is a error in epatoolkit.
+	 * @throws EpanetException if there is a error in the simulator.
 	 */
 	private void initialize() throws IOException, EpanetException {
-		this.numberOfVariables = epanet.ENgetcount(Components.EN_LINKCOUNT);
+		this.numberOfVariables = engine.getLinkCount();
 		GamaParser gamaParser = new GamaParser();
 		this.gamas = gamaParser.parser(new File(networkGama));
 		this.lowerBound = 1;
@@ -77,7 +81,21 @@ public class PipeOptimizing implements Problem<IntegerSolution> {
 
 //		System.out.println("t " + this.numberOfVariables);
 
-		this.LenghtLinks = getLengthLink(epanet);
+		this.LenghtLinks = getLengthLink(engine);
+	}
+
+	/**
+	 * Enable the early termination of the simulations. The simulation of a solution is stopped when its
+	 * infactibility grade is greater than maxInfactibilityGrade or when it can't beat the worst solution kept by
+	 * the algorithm. See {@link PipeOptimizingSolutionEvaluator#setEarlyTermination(boolean)}.
+	 *
+	 * @param maxInfactibilityGrade the max infactibility grade or {@link Double#POSITIVE_INFINITY} to only use the
+	 *                              solution kept by the algorithm
+	 * @throws IllegalArgumentException if maxInfactibilityGrade isn't greater than 0
+	 */
+	public void enableEarlyTermination(double maxInfactibilityGrade) {
+		evaluator.setMaxInfactibilityGrade(maxInfactibilityGrade);
+		evaluator.setEarlyTermination(true);
 	}
 
 	/** {@inheritDoc} */
@@ -105,12 +123,29 @@ public class PipeOptimizing implements Problem<IntegerSolution> {
 		double cost = 0;
 
 		for (int i = 0; i < getNumberOfVariables(); i++) {
-			int index = solution.getVariable(i);
+			int index = solution.getInt(i);
 			Gama gama = gamas.get(index - 1);
 			cost += this.LenghtLinks.get(i) * gama.getCost();
 		}
 		solution.setObjective(0, cost);
-		evaluator.evaluate(solution, gamas, epanet);
+		evaluator.evaluate(solution, gamas, engine);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Each solution is evaluated after the most similar solution not evaluated yet (see
+	 * {@link SolutionListUtils#orderByNearestNeighbor(List, int)}), so few diameters are changed in the simulator
+	 * between two simulations. The simulator is locked while all the solutions are evaluated.
+	 */
+	@Override
+	public void evaluateAll(@NotNull List<IntegerSolution> solutions) throws EpanetException {
+		List<IntegerSolution> ordered = SolutionListUtils.orderByNearestNeighbor(solutions, MAX_SIZE_ORDERED_BY_NEIGHBOR);
+		synchronized (engine.getSimulationLock()) {
+			for (IntegerSolution solution : ordered) {
+				evaluate(solution);
+			}
+		}
 	}
 
 	/** {@inheritDoc} */
@@ -132,22 +167,21 @@ public class PipeOptimizing implements Problem<IntegerSolution> {
 	}
 
 	/**
-	 * Get the length of the link. Use the epanet toolkit.
+	 * Get the length of the link.
 	 * 
-	 * @param epanet the hydraulic simulator api
+	 * @param engine the hydraulic simulator
 	 * @return a list with the lenght of links
-	 * @throws EpanetException if there is an error with EpaToolkit function.
+	 * @throws EpanetException if there is an error in the simulator.
 	 */
-	private List<Float> getLengthLink(EpanetAPI epanet) throws EpanetException {
+	private List<Float> getLengthLink(HydraulicEngine engine) throws EpanetException {
 		ArrayList<Float> length = new ArrayList<Float>();
 		int n_link;
-		n_link = epanet.ENgetcount(Components.EN_LINKCOUNT);
+		n_link = engine.getLinkCount();
 //		System.out.println("Link count " + n_link);
-		for (int i = 1; i <= n_link; i++) {
-			LinkTypes type = epanet.ENgetlinktype(i);
+		for (int i = 0; i < n_link; i++) {
+			LinkTypes type = engine.getLinkType(i);
 			if (type == LinkTypes.EN_PIPE){
-				float[] value = epanet.ENgetlinkvalue(i, LinkParameters.EN_LENGTH);
-				length.add(value[0]);
+				length.add((float) engine.getLinkValue(i, LinkParameters.EN_LENGTH));
 			}
 //			System.out.println(i + " " + value[0]);
 		}
@@ -156,11 +190,11 @@ public class PipeOptimizing implements Problem<IntegerSolution> {
 	}
 
 	/**
-	 * Override the default method close. It close epanet if is called.
+	 * Override the default method close. It close the engine if is called.
 	 */
 	@Override
 	public void closeResources() throws Exception {
-		epanet.ENclose();
+		engine.close();
 	}
 
 	/**
@@ -172,7 +206,7 @@ public class PipeOptimizing implements Problem<IntegerSolution> {
 		Collection<Pipe> pipes = network.getPipes();
 		int i = 0;
 		for (Pipe pipe : pipes) {
-			double diameter = this.gamas.get(iSolution.getVariable(i) - 1).getDiameter();
+			double diameter = this.gamas.get(iSolution.getInt(i) - 1).getDiameter();
 			pipe.setDiameter(diameter);
 			i++;
 		}
@@ -1,9 +1,14 @@
 package model.metaheuristic.problem.impl;
 
 import epanet.core.EpanetException;
+import model.epanet.element.Network;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.epanet.hydraulicsimulation.gga.GlobalGradientEngine;
 import model.metaheuristic.problem.Problem;
 import model.metaheuristic.problem.evaluator.EpatoolForJava;
+import model.metaheuristic.problem.evaluator.ScheduleCheckpointTrie;
 import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.SolutionListUtils;
 import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
 import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
 import org.jetbrains.annotations.NotNull;
@@ -43,6 +48,7 @@ public class VanzylOriginal implements Problem<IntegerSolution> {
     private String problemName;
     private List<Integer> lowerLimmit;
     private List<Integer> upperLimit;
+    private int[][] binaryMatrix;
 
     public VanzylOriginal(String psePath, String inpPath) {
 
@@ -82,6 +88,91 @@ public class VanzylOriginal implements Problem<IntegerSolution> {
     public VanzylOriginal(int numPumps, int totalOptimizationTime, int intervalOptimizationTime,
                           double[] energyCostPerTime, double maintenanceCost, int minNodePressure, int numConstraints,
                           double[] minTank, double[] maxTank, double[] maxFlowrateEachPump, String inpPath) {
+        this(numPumps, totalOptimizationTime, intervalOptimizationTime, energyCostPerTime, maintenanceCost,
+                minNodePressure, numConstraints, minTank, maxTank, maxFlowrateEachPump, inpPath, inpPath + ".rpt");
+    }
+
+    /**
+     * Constructor that use a specific report file to epanet. It is used when the problem is replicated to
+     * evaluate in parallel, so each replica has its own report file.
+     *
+     * @param numPumps                 the number of pumps
+     * @param totalOptimizationTime    the total time of the simulation
+     * @param intervalOptimizationTime the time of each interval of the schedule
+     * @param energyCostPerTime        the cost of the energy in each interval
+     * @param maintenanceCost          the cost of start a pump
+     * @param minNodePressure          the min pressure of the nodes with demand
+     * @param numConstraints           the number of constraints
+     * @param minTank                  the min level of the tanks
+     * @param maxTank                  the max level of the tanks
+     * @param maxFlowrateEachPump      the max flowrate of each pump
+     * @param inpPath                  the path to inp file
+     * @param rptPath                  the path to report file
+     */
+    public VanzylOriginal(int numPumps, int totalOptimizationTime, int intervalOptimizationTime,
+                          double[] energyCostPerTime, double maintenanceCost, int minNodePressure, int numConstraints,
+                          double[] minTank, double[] maxTank, double[] maxFlowrateEachPump, String inpPath, String rptPath) {
+        this(numPumps, totalOptimizationTime, intervalOptimizationTime, energyCostPerTime, maintenanceCost,
+                minNodePressure, numConstraints, minTank, maxTank, maxFlowrateEachPump, openINP(inpPath, rptPath));
+    }
+
+    /**
+     * Constructor that use the hydraulic solver written in java instead of epanet. The network isn't modified.
+     *
+     * @param numPumps                 the number of pumps
+     * @param totalOptimizationTime    the total time of the simulation
+     * @param intervalOptimizationTime the time of each interval of the schedule
+     * @param energyCostPerTime        the cost of the energy in each interval
+     * @param maintenanceCost          the cost of start a pump
+     * @param minNodePressure          the min pressure of the nodes with demand
+     * @param numConstraints           the number of constraints
+     * @param minTank                  the min level of the tanks
+     * @param maxTank                  the max level of the tanks
+     * @param maxFlowrateEachPump      the max flowrate of each pump
+     * @param network                  the network to simulate
+     * @throws EpanetException          if there is a error reading the network
+     * @throws IllegalArgumentException if the network use a feature not supported by the solver
+     */
+    public VanzylOriginal(int numPumps, int totalOptimizationTime, int intervalOptimizationTime,
+                          double[] energyCostPerTime, double maintenanceCost, int minNodePressure, int numConstraints,
+                          double[] minTank, double[] maxTank, double[] maxFlowrateEachPump, Network network)
+            throws EpanetException {
+        this(numPumps, totalOptimizationTime, intervalOptimizationTime, energyCostPerTime, maintenanceCost,
+                minNodePressure, numConstraints, minTank, maxTank, maxFlowrateEachPump, new GlobalGradientEngine(network));
+    }
+
+    /**
+     * Constructor that use a engine with the network already opened. The engine is closed by
+     * {@link #closeResources()}.
+     *
+     * @param numPumps                 the number of pumps
+     * @param totalOptimizationTime    the total time of the simulation
+     * @param intervalOptimizationTime the time of each interval of the schedule
+     * @param energyCostPerTime        the cost of the energy in each interval
+     * @param maintenanceCost          the cost of start a pump
+     * @param minNodePressure          the min pressure of the nodes with demand
+     * @param numConstraints           the number of constraints
+     * @param minTank                  the min level of the tanks
+     * @param maxTank                  the max level of the tanks
+     * @param maxFlowrateEachPump      the max flowrate of each pump
+     * @param engine                   the hydraulic simulator
+     * @throws EpanetException      if there is a error reading the network
+     * @throws NullPointerException if engine is null
+     */
+    public VanzylOriginal(int numPumps, int totalOptimizationTime, int intervalOptimizationTime,
+                          double[] energyCostPerTime, double maintenanceCost, int minNodePressure, int numConstraints,
+                          double[] minTank, double[] maxTank, double[] maxFlowrateEachPump, HydraulicEngine engine)
+            throws EpanetException {
+        this(numPumps, totalOptimizationTime, intervalOptimizationTime, energyCostPerTime, maintenanceCost,
+                minNodePressure, numConstraints, minTank, maxTank, maxFlowrateEachPump, openEngine(engine));
+    }
+
+    /**
+     * Constructor used by the other constructors once the simulator is opened.
+     */
+    private VanzylOriginal(int numPumps, int totalOptimizationTime, int intervalOptimizationTime,
+                           double[] energyCostPerTime, double maintenanceCost, int minNodePressure, int numConstraints,
+                           double[] minTank, double[] maxTank, double[] maxFlowrateEachPump, EpatoolForJava epatool) {
 
         this.numPumps = numPumps;
         this.totalOptimizationTime = totalOptimizationTime;
@@ -91,22 +182,63 @@ public class VanzylOriginal implements Problem<IntegerSolution> {
         this.minNodePressure = minNodePressure;
         this.minTank = minTank;
         this.maxTank = maxTank;
-        this.numInterval = (int) (totalOptimizationTime / intervalOptimizationTime);
+        this.numInterval = totalOptimizationTime / intervalOptimizationTime;
         this.maxFlowrateEachPump = maxFlowrateEachPump;
 
         problemConfiguration(numConstraints); // Configuracion del problema
 
-        this.epatool = new EpatoolForJava();
+        this.epatool = epatool;
+
+        generateCombinations(numPumps); // Genera una lista de posibles configuraciones del funcionamiento de las bombas
+
+    }
+
+    /**
+     * Open the network with epanet. The errors are printed as in the constructor that reads a pse file.
+     */
+    private static EpatoolForJava openINP(String inpPath, String rptPath) {
+        EpatoolForJava epatool = new EpatoolForJava();
         epatool.inInp = inpPath;
+        epatool.outRpt = rptPath;
 
         try {
             epatool.openINP();
         } catch (Exception e) {
             System.out.println("Error al abrir INP");
         }
+        return epatool;
+    }
 
-        generateCombinations(numPumps); // Genera una lista de posibles configuraciones del funcionamiento de las bombas
+    /**
+     * Read the network of a engine already opened.
+     */
+    private static EpatoolForJava openEngine(HydraulicEngine engine) throws EpanetException {
+        EpatoolForJava epatool = new EpatoolForJava();
+        epatool.openEngine(engine);
+        return epatool;
+    }
+
+    /**
+     * Enable the checkpoints of the simulations, so the simulation of a schedule continues from the deepest hour
+     * where it has the same status of pumps that a schedule simulated before. The results don't change. See
+     * {@link EpatoolForJava#enableCheckpoints(long)}.
+     *
+     * @param maxMemory the max number of bytes used by the checkpoints.
+     * @throws UnsupportedOperationException if the engine can't save the state of a simulation (as the library of
+     *                                       epanet).
+     * @throws IllegalArgumentException      if maxMemory is negative.
+     */
+    public void enableCheckpoints(long maxMemory) {
+        epatool.enableCheckpoints(maxMemory);
+    }
 
+    /**
+     * Get the trie with the checkpoints of the simulations and its statistics.
+     *
+     * @return the trie or null if the checkpoints aren't enabled.
+     */
+    public ScheduleCheckpointTrie getCheckpoints() {
+        return epatool.getCheckpoints();
     }
 
     @Override
@@ -143,48 +275,59 @@ public class VanzylOriginal implements Problem<IntegerSolution> {
         double overallConstraintViolation = 0.0;
         int violatedConstraints = 0;
 
-        ArrayList<Double> listNodeViolated;
-        listNodeViolated = epatool.getListPressureNodesDiff();
-
-        ArrayList<Double> listPumpsViolated;
-        listPumpsViolated = epatool.getlistFlowratePumpsDiff();
+        double[] nodesViolated = epatool.getPressureNodesDiff();
+        int numberOfNodesViolated = epatool.getPressureNodesDiffCount();
 
-        ArrayList<Double> listTanksViolated;
-        listTanksViolated = epatool.getlistPressureTanksDiff();
+        double[] pumpsViolated = epatool.getFlowratePumpsDiff();
+        int numberOfPumpsViolated = epatool.getFlowratePumpsDiffCount();
 
-        ArrayList<Double> listInfactibilidad;
-        listInfactibilidad = epatool.getListInfactibilidad();
+        double[] tanksViolated = epatool.getPressureTanksDiff();
+        int numberOfTanksViolated = epatool.getPressureTanksDiffCount();
 
-        for (Double violation : listNodeViolated) {
-            overallConstraintViolation -= violation;
+        for (int i = 0; i < numberOfNodesViolated; i++) {
+            overallConstraintViolation -= nodesViolated[i];
         }
 
-        for (Double violation : listPumpsViolated) {
-            overallConstraintViolation -= violation;
+        for (int i = 0; i < numberOfPumpsViolated; i++) {
+            overallConstraintViolation -= pumpsViolated[i];
         }
 
-        for (Double violation : listTanksViolated) {
-            overallConstraintViolation -= violation;
-        }
-
-        for (Double violation : listInfactibilidad) {
-            overallConstraintViolation -= violation;
+        for (int i = 0; i < numberOfTanksViolated; i++) {
+            overallConstraintViolation -= tanksViolated[i];
         }
 
         overallConstraintViolation = Math.round(overallConstraintViolation * 100.0) / 100.0;
-        violatedConstraints = listNodeViolated.size() + listPumpsViolated.size() + listTanksViolated.size();
+        violatedConstraints = numberOfNodesViolated + numberOfPumpsViolated + numberOfTanksViolated;
 
 //		System.out.println(
 //				"Total de violaciones: " + overallConstraintViolation + "Num Violaciones " + violatedConstraints);
-//		System.out.println("Violacion en nodos: " + listNodeViolated.size());
-//		System.out.println("Violacion en bombas: " + listPumpsViolated.size());
-//		System.out.println("Violacion en tanques: " + listTanksViolated.size());
+//		System.out.println("Violacion en nodos: " + numberOfNodesViolated);
+//		System.out.println("Violacion en bombas: " + numberOfPumpsViolated);
+//		System.out.println("Violacion en tanques: " + numberOfTanksViolated);
 //		System.out.println("");
 
         overallConstraintViolationDegree.setAttribute(solution, overallConstraintViolation);
         numberOfViolatedConstraints.setAttribute(solution, violatedConstraints);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The simulator is locked while all the solutions are evaluated. If the checkpoints are enabled the solutions
+     * are evaluated sorted by its variables, so each schedule continues from the checkpoints of the previous
+     * schedule and only the checkpoints of the last path are needed.
+     */
+    @Override
+    public void evaluateAll(@NotNull List<IntegerSolution> solutions) {
+        List<IntegerSolution> ordered = epatool.getCheckpoints() != null
+                ? SolutionListUtils.sortByVariables(solutions) : solutions;
+        synchronized (epatool.getSimulationLock()) {
+            for (IntegerSolution solution : ordered) {
+                evaluate(solution);
+            }
+        }
+    }
+
     /*
      * Calculo del costo energetico de las bombas (Makaremi, Y., Haghighi, A., &
      * Ghafouri, H. R. (2017). Optimization of pump scheduling program in water
@@ -248,11 +391,12 @@ public class VanzylOriginal implements Problem<IntegerSolution> {
         numVariables = getNumberOfVariables();
         // int paperSolution[] =
         // {5,5,5,5,13,13,13,13,13,13,13,47,63,47,47,47,47,47,47,47,5,5,5,5};
-        matrix = new int[this.numPumps][numVariables];
+        // the matrix is reused between evaluations to don't create garbage
+        matrix = this.binaryMatrix;
 
         for (int i = 0; i < numVariables; i++) {
 
-            numCombinations = solution.getVariable(i);
+            numCombinations = solution.getInt(i);
             // numCombinations = paperSolution[i];
             for (int j = 0; j < numPumps; j++) {
                 int a = combination[numCombinations][j];
@@ -323,6 +467,14 @@ public class VanzylOriginal implements Problem<IntegerSolution> {
     }
 
 
+    /**
+     * Override the default method close. It close epanet if is called.
+     */
+    @Override
+    public void closeResources() throws Exception {
+        epatool.close();
+    }
+
     protected void setLowerLimit(List<Integer> lowerLimit) {
         // TODO Auto-generated method stub
         this.lowerLimmit = lowerLimit;
@@ -342,6 +494,7 @@ public class VanzylOriginal implements Problem<IntegerSolution> {
         setNumberOfVariables(24); // hours
         setName("VanzylOriginal");
         setNumberOfConstraints(numConstraints);
+        this.binaryMatrix = new int[this.numPumps][getNumberOfVariables()];
 
         List<Integer> up = new ArrayList<Integer>();
         List<Integer> low = new ArrayList<Integer>();
@@ -51,15 +51,26 @@ public abstract class AbstractGenericSolution<T, P extends Problem<?>> implement
 	 * @throws NullPointerException if problem is null.
 	 */
 	public AbstractGenericSolution(P problem) {
+		this(problem, new ArrayList<>(Collections.<T>nCopies(Objects.requireNonNull(problem).getNumberOfVariables(),
+				null)));
+	}
+
+	/**
+	 * Constructor used by the solutions that keep its variables in other structure. The list is used by {@link
+	 * #getVariable(int)}, {@link #setVariable(int, Object)} and {@link #getVariables()}, so it has to be a view of the
+	 * variables of the solution and its size has to be the number of variables.
+	 *
+	 * @param problem           the problem class
+	 * @param decisionVariables the list of variables
+	 * @throws NullPointerException if problem or decisionVariables is null.
+	 */
+	protected AbstractGenericSolution(P problem, List<T> decisionVariables) {
 		this.problem = Objects.requireNonNull(problem);
-		this.attributes = new HashMap<>();
-		this.decisionVariables = new ArrayList<>(problem.getNumberOfVariables());
+		this.attributes = new SolutionAttributeMap();
+		this.decisionVariables = Objects.requireNonNull(decisionVariables);
 		this.objectives = new double[problem.getNumberOfObjectives()];
 
 		initializeObjectiveValues();
-		for (int i = 0; i < problem.getNumberOfVariables(); i++) {
-			decisionVariables.add(i, null);
-		}
 	}
 
 	/** {@inheritDoc} */
@@ -30,24 +30,28 @@ package model.metaheuristic.solution.impl;
 
 import model.metaheuristic.problem.Problem;
 import model.metaheuristic.solution.Solution;
-import model.metaheuristic.util.random.BoundedRandomGenerator;
 import model.metaheuristic.util.random.JavaRandom;
 
-import java.util.HashMap;
+import java.util.AbstractList;
+import java.util.RandomAccess;
 
 /**
  * A solution whose variables are Integer
- *
+ * <p>
+ * The variables are kept in a array of int. {@link #getVariable(int)} and {@link #setVariable(int, Integer)} are
+ * kept to use the solution as any {@link Solution}, but {@link #getInt(int)} and {@link #setInt(int, int)} don't box
+ * the values. The copy only clones the array, without initialize random variables.
  */
 public class IntegerSolution extends AbstractGenericSolution<Integer, Problem<IntegerSolution>> {
+	private final int[] variables;
 
 	/**
 	 * Constructor
 	 * @param problem the problem
 	 */
 	public IntegerSolution(Problem<IntegerSolution> problem) {
-		super(problem);
-		
+		this(problem, new int[problem.getNumberOfVariables()]);
+
 		initializeDecisionVariables();
 	}
 
@@ -56,18 +60,37 @@ public class IntegerSolution extends AbstractGenericSolution<Integer, Problem<In
 	 * @param solution the solution to copy
 	 */
 	public IntegerSolution(IntegerSolution solution) {
-		this(solution.problem);
-		for (int i = 0; i < problem.getNumberOfVariables(); i++) {
-			setVariable(i, solution.getVariable(i));
-		}
+		this(solution.problem, solution.variables.clone());
+		System.arraycopy(solution.getObjectives(), 0, getObjectives(), 0, getNumberOfObjectives());
 
-		for (int i = 0; i < problem.getNumberOfObjectives(); i++) {
-			setObjective(i, solution.getObjective(i));
-		}
+		attributes = new SolutionAttributeMap(solution.attributes);
+	}
+
+	private IntegerSolution(Problem<IntegerSolution> problem, int[] variables) {
+		super(problem, new IntegerVariables(variables));
+		this.variables = variables;
+	}
 
-		attributes = new HashMap<Object, Object>(solution.attributes);
+	/**
+	 * Get the variable without box it.
+	 *
+	 * @param index the index of the decision variable
+	 * @return the value of the variable
+	 */
+	public int getInt(int index) {
+		return this.variables[index];
 	}
-	
+
+	/**
+	 * Set the variable without box it.
+	 *
+	 * @param index the index of the decision variable
+	 * @param value the value of the variable
+	 */
+	public void setInt(int index, int value) {
+		this.variables[index] = value;
+	}
+
 	/**
 	 * The lower bound of the decision variable.
 	 * 
@@ -92,13 +115,10 @@ public class IntegerSolution extends AbstractGenericSolution<Integer, Problem<In
 	 * Initialize the decision variables
 	 */
 	private void initializeDecisionVariables() {
-		BoundedRandomGenerator<Integer> random = (lowerBound, upperBound) -> JavaRandom.getInstance().nextInt(lowerBound, upperBound);
-		
-		for (int i = 0; i < this.problem.getNumberOfVariables(); i++) {
-			setVariable(i, random.getRandomValue(getLowerBound(i), getUpperBound(i) + 1));
+		JavaRandom random = JavaRandom.getInstance();
+		for (int i = 0; i < this.variables.length; i++) {
+			this.variables[i] = random.nextInt(getLowerBound(i), getUpperBound(i) + 1);
 		}
-		
-	
 	}
 
 	/** {@inheritDoc} */
@@ -109,7 +129,35 @@ public class IntegerSolution extends AbstractGenericSolution<Integer, Problem<In
 
 	@Override
 	public String getVariableAsString(int index) {
-		return Integer.toString(getVariable(index));
+		return Integer.toString(this.variables[index]);
 	}
 
+	/**
+	 * View of the array of variables as a list, used by the methods of {@link AbstractGenericSolution}. The size of
+	 * the list can't be changed and the variables can't be null.
+	 */
+	private static final class IntegerVariables extends AbstractList<Integer> implements RandomAccess {
+		private final int[] variables;
+
+		IntegerVariables(int[] variables) {
+			this.variables = variables;
+		}
+
+		@Override
+		public Integer get(int index) {
+			return this.variables[index];
+		}
+
+		@Override
+		public Integer set(int index, Integer value) {
+			int previous = this.variables[index];
+			this.variables[index] = value;
+			return previous;
+		}
+
+		@Override
+		public int size() {
+			return this.variables.length;
+		}
+	}
 }
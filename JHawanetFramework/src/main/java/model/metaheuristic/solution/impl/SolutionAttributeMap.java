@@ -0,0 +1,350 @@
+package model.metaheuristic.solution.impl;
+
+import model.metaheuristic.util.solutionattribute.AttributeSlot;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map of the attributes of a solution. The attributes registered in {@link AttributeSlot} are kept as primitive
+ * values in arrays indexed by the slot, and the other attributes are kept in a hash map.
+ * <p>
+ * The values of the slots can be read and written without box them with the methods that receive a {@link
+ * AttributeSlot}, as {@link #getDouble(AttributeSlot, double)}. The methods of {@link Map} box the values, so the map
+ * has the same content than a {@link HashMap} with the same attributes.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * A value of a registered attribute whose type isn't the type of the slot (or null) is kept in the hash map.
+ */
+public class SolutionAttributeMap extends AbstractMap<Object, Object> {
+	// the bit i is 1 if the slot i has a value
+	private long present;
+	private double[] doubles;
+	private int[] integers;
+	private HashMap<Object, Object> others;
+
+	/**
+	 * Constructor
+	 */
+	public SolutionAttributeMap() {
+	}
+
+	/**
+	 * Copy constructor
+	 *
+	 * @param map the attributes to copy
+	 */
+	public SolutionAttributeMap(Map<?, ?> map) {
+		if (map instanceof SolutionAttributeMap) {
+			SolutionAttributeMap attributes = (SolutionAttributeMap) map;
+			this.present = attributes.present;
+			if (attributes.doubles != null) {
+				this.doubles = attributes.doubles.clone();
+				this.integers = attributes.integers.clone();
+			}
+			if (attributes.others != null && !attributes.others.isEmpty()) {
+				this.others = new HashMap<>(attributes.others);
+			}
+		} else {
+			putAll(map);
+		}
+	}
+
+	/**
+	 * Check if the slot has a value.
+	 *
+	 * @param slot the slot
+	 * @return true if the slot has a value
+	 */
+	public boolean contains(AttributeSlot slot) {
+		return (this.present & (1L << slot.getIndex())) != 0;
+	}
+
+	/**
+	 * Get the value of a slot whose type is {@link AttributeSlot.Type#DOUBLE}.
+	 *
+	 * @param slot         the slot
+	 * @param defaultValue the value returned if the attribute isn't present
+	 * @return the value of the attribute or defaultValue
+	 */
+	public double getDouble(AttributeSlot slot, double defaultValue) {
+		if (contains(slot)) {
+			return this.doubles[slot.getIndex()];
+		}
+		Object value = getOther(slot);
+		return value instanceof Double ? (Double) value : defaultValue;
+	}
+
+	/**
+	 * Set the value of a slot whose type is {@link AttributeSlot.Type#DOUBLE}.
+	 *
+	 * @param slot  the slot
+	 * @param value the value
+	 */
+	public void setDouble(AttributeSlot slot, double value) {
+		int index = set(slot);
+		this.doubles[index] = value;
+	}
+
+	/**
+	 * Get the value of a slot whose type is {@link AttributeSlot.Type#INTEGER}.
+	 *
+	 * @param slot         the slot
+	 * @param defaultValue the value returned if the attribute isn't present
+	 * @return the value of the attribute or defaultValue
+	 */
+	public int getInt(AttributeSlot slot, int defaultValue) {
+		if (contains(slot)) {
+			return this.integers[slot.getIndex()];
+		}
+		Object value = getOther(slot);
+		return value instanceof Integer ? (Integer) value : defaultValue;
+	}
+
+	/**
+	 * Set the value of a slot whose type is {@link AttributeSlot.Type#INTEGER}.
+	 *
+	 * @param slot  the slot
+	 * @param value the value
+	 */
+	public void setInt(AttributeSlot slot, int value) {
+		int index = set(slot);
+		this.integers[index] = value;
+	}
+
+	/**
+	 * Get the value of a slot whose type is {@link AttributeSlot.Type#BOOLEAN}.
+	 *
+	 * @param slot         the slot
+	 * @param defaultValue the value returned if the attribute isn't present
+	 * @return the value of the attribute or defaultValue
+	 */
+	public boolean getBoolean(AttributeSlot slot, boolean defaultValue) {
+		if (contains(slot)) {
+			return this.integers[slot.getIndex()] != 0;
+		}
+		Object value = getOther(slot);
+		return value instanceof Boolean ? (Boolean) value : defaultValue;
+	}
+
+	/**
+	 * Set the value of a slot whose type is {@link AttributeSlot.Type#BOOLEAN}.
+	 *
+	 * @param slot  the slot
+	 * @param value the value
+	 */
+	public void setBoolean(AttributeSlot slot, boolean value) {
+		int index = set(slot);
+		this.integers[index] = value ? 1 : 0;
+	}
+
+	/**
+	 * Get the value of a slot as a object.
+	 *
+	 * @param slot the slot
+	 * @return the value or null if the attribute isn't present
+	 */
+	public Object getValue(AttributeSlot slot) {
+		if (!contains(slot)) {
+			return getOther(slot);
+		}
+		int index = slot.getIndex();
+		switch (slot.getType()) {
+			case DOUBLE:
+				return this.doubles[index];
+			case INTEGER:
+				return this.integers[index];
+			default:
+				return this.integers[index] != 0;
+		}
+	}
+
+	/**
+	 * Set the value of a slot. If the value hasn't the type of the slot it is kept in the hash map.
+	 *
+	 * @param slot  the slot
+	 * @param value the value
+	 */
+	public void setValue(AttributeSlot slot, Object value) {
+		if (slot.getType() == AttributeSlot.Type.DOUBLE && value instanceof Double) {
+			setDouble(slot, (Double) value);
+		} else if (slot.getType() == AttributeSlot.Type.INTEGER && value instanceof Integer) {
+			setInt(slot, (Integer) value);
+		} else if (slot.getType() == AttributeSlot.Type.BOOLEAN && value instanceof Boolean) {
+			setBoolean(slot, (Boolean) value);
+		} else {
+			this.present &= ~(1L << slot.getIndex());
+			if (this.others == null) {
+				this.others = new HashMap<>();
+			}
+			this.others.put(slot.getIdentifier(), value);
+		}
+	}
+
+	/**
+	 * Mark the slot as present and remove the value of the hash map if there is one.
+	 *
+	 * @return the index of the slot
+	 */
+	private int set(AttributeSlot slot) {
+		int index = slot.getIndex();
+		if (this.doubles == null || this.doubles.length <= index) {
+			int length = Math.max(index + 1, AttributeSlot.getNumberOfSlots());
+			double[] newDoubles = new double[length];
+			int[] newIntegers = new int[length];
+			if (this.doubles != null) {
+				System.arraycopy(this.doubles, 0, newDoubles, 0, this.doubles.length);
+				System.arraycopy(this.integers, 0, newIntegers, 0, this.integers.length);
+			}
+			this.doubles = newDoubles;
+			this.integers = newIntegers;
+		}
+		this.present |= 1L << index;
+		if (this.others != null && !this.others.isEmpty()) {
+			this.others.remove(slot.getIdentifier());
+		}
+		return index;
+	}
+
+	private Object getOther(AttributeSlot slot) {
+		return this.others == null ? null : this.others.get(slot.getIdentifier());
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Object get(Object key) {
+		AttributeSlot slot = AttributeSlot.find(key);
+		if (slot != null) {
+			return getValue(slot);
+		}
+		return this.others == null ? null : this.others.get(key);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public boolean containsKey(Object key) {
+		AttributeSlot slot = AttributeSlot.find(key);
+		if (slot != null && contains(slot)) {
+			return true;
+		}
+		return this.others != null && this.others.containsKey(key);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Object put(Object key, Object value) {
+		AttributeSlot slot = AttributeSlot.find(key);
+		if (slot != null) {
+			Object previous = getValue(slot);
+			setValue(slot, value);
+			return previous;
+		}
+		if (this.others == null) {
+			this.others = new HashMap<>();
+		}
+		return this.others.put(key, value);
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Object remove(Object key) {
+		Object previous = get(key);
+		AttributeSlot slot = AttributeSlot.find(key);
+		if (slot != null) {
+			this.present &= ~(1L << slot.getIndex());
+		}
+		if (this.others != null) {
+			this.others.remove(key);
+		}
+		return previous;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public int size() {
+		return Long.bitCount(this.present) + (this.others == null ? 0 : this.others.size());
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public void clear() {
+		this.present = 0;
+		this.others = null;
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Set<Entry<Object, Object>> entrySet() {
+		return new AbstractSet<Entry<Object, Object>>() {
+			@Override
+			public Iterator<Entry<Object, Object>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				return SolutionAttributeMap.this.size();
+			}
+		};
+	}
+
+	/**
+	 * Iterator over the slots with value and after over the entries of the hash map.
+	 */
+	private final class EntryIterator implements Iterator<Entry<Object, Object>> {
+		private long remaining = present;
+		private final Iterator<Entry<Object, Object>> othersIterator = others == null ? null
+				: others.entrySet().iterator();
+		private AttributeSlot lastSlot;
+		private boolean lastInOthers;
+
+		@Override
+		public boolean hasNext() {
+			return this.remaining != 0 || (this.othersIterator != null && this.othersIterator.hasNext());
+		}
+
+		@Override
+		public Entry<Object, Object> next() {
+			if (this.remaining != 0) {
+				int index = Long.numberOfTrailingZeros(this.remaining);
+				this.remaining &= this.remaining - 1;
+				AttributeSlot slot = AttributeSlot.get(index);
+				this.lastSlot = slot;
+				this.lastInOthers = false;
+				return new SimpleEntry<Object, Object>(slot.getIdentifier(), getValue(slot)) {
+					@Override
+					public Object setValue(Object value) {
+						super.setValue(value);
+						return put(slot.getIdentifier(), value);
+					}
+				};
+			}
+			if (this.othersIterator == null) {
+				throw new NoSuchElementException();
+			}
+			Entry<Object, Object> entry = this.othersIterator.next();
+			this.lastSlot = null;
+			this.lastInOthers = true;
+			return entry;
+		}
+
+		@Override
+		public void remove() {
+			if (this.lastSlot != null) {
+				present &= ~(1L << this.lastSlot.getIndex());
+				this.lastSlot = null;
+			} else if (this.lastInOthers) {
+				this.othersIterator.remove();
+				this.lastInOthers = false;
+			} else {
+				throw new IllegalStateException();
+			}
+		}
+	}
+}
@@ -118,6 +118,48 @@ public class SolutionListUtils {
         return distance;
     }
 
+    /**
+     * Copy the objectives of the solutions to a array. The objective m of the solution i is in the position i *
+     * numberOfObjectives + m.
+     *
+     * @param solutionSet the solutions. All of them have to have the same number of objectives.
+     * @param <S>         the type of solutions.
+     * @return the objectives.
+     */
+    public static <S extends Solution<?>> double[] objectiveMatrix(List<S> solutionSet) {
+        if (solutionSet.isEmpty()) {
+            return new double[0];
+        }
+        int numberOfObjectives = solutionSet.get(0).getNumberOfObjectives();
+        double[] objectives = new double[solutionSet.size() * numberOfObjectives];
+        for (int i = 0; i < solutionSet.size(); i++) {
+            System.arraycopy(solutionSet.get(i).getObjectives(), 0, objectives, i * numberOfObjectives,
+                    numberOfObjectives);
+        }
+        return objectives;
+    }
+
+    /**
+     * Euclidean distance between the objectives of two solutions, computed as
+     * {@link SolutionUtils#distanceBetweenObjectives(Solution, Solution)}.
+     *
+     * @param objectives         the objectives returned by {@link #objectiveMatrix(List)}.
+     * @param numberOfObjectives the number of objectives.
+     * @param i                  the index of the first solution.
+     * @param j                  the index of the second solution.
+     * @return the distance.
+     */
+    public static double distanceBetweenObjectives(double[] objectives, int numberOfObjectives, int i, int j) {
+        double distance = 0.0;
+        int offset1 = i * numberOfObjectives;
+        int offset2 = j * numberOfObjectives;
+        for (int m = 0; m < numberOfObjectives; m++) {
+            double diff = objectives[offset1 + m] - objectives[offset2 + m];
+            distance += Math.pow(diff, 2.0);
+        }
+        return Math.sqrt(distance);
+    }
+
     /**
      * Determine if solution is dominated by solution list.
      * @param solution the solution.
@@ -141,4 +183,67 @@ public class SolutionListUtils {
 
         return result;
     }
+
+    /**
+     * Get a copy of the solution list sorted by its variables. The first variable is compared first, so the
+     * solutions with a common prefix of variables are together.
+     *
+     * @param solutionList the solution list.
+     * @param <S>          the type of solution.
+     * @return the sorted copy.
+     */
+    public static <S extends Solution<Integer>> List<S> sortByVariables(List<S> solutionList) {
+        List<S> sorted = new ArrayList<>(solutionList);
+        sorted.sort((solution1, solution2) -> {
+            int n = Math.min(solution1.getNumberOfVariables(), solution2.getNumberOfVariables());
+            for (int i = 0; i < n; i++) {
+                int flag = Integer.compare(solution1.getVariable(i), solution2.getVariable(i));
+                if (flag != 0) {
+                    return flag;
+                }
+            }
+            return Integer.compare(solution1.getNumberOfVariables(), solution2.getNumberOfVariables());
+        });
+        return sorted;
+    }
+
+    /**
+     * Get a copy of the solution list where each solution is followed by the solution with the least number of
+     * different variables that isn't in the copy yet (the nearest neighbor). The list starts with the first
+     * solution. It needs a time proportional to the square of the size, so the lists with more than
+     * {@code maxSize} solutions are sorted with {@link #sortByVariables(List)}.
+     *
+     * @param solutionList the solution list.
+     * @param maxSize      the max size of list ordered by nearest neighbor.
+     * @param <S>          the type of solution.
+     * @return the ordered copy.
+     */
+    public static <S extends Solution<Integer>> List<S> orderByNearestNeighbor(List<S> solutionList, int maxSize) {
+        int size = solutionList.size();
+        if (size > maxSize) {
+            return sortByVariables(solutionList);
+        }
+        List<S> remaining = new ArrayList<>(solutionList);
+        List<S> ordered = new ArrayList<>(size);
+        while (!remaining.isEmpty()) {
+            int nearest = 0;
+            if (!ordered.isEmpty()) {
+                S last = ordered.get(ordered.size() - 1);
+                int minDistance = Integer.MAX_VALUE;
+                for (int i = 0; i < remaining.size() && minDistance > 0; i++) {
+                    int distance = SolutionUtils.hammingDistance(last, remaining.get(i), minDistance);
+                    if (distance < minDistance) {
+                        minDistance = distance;
+                        nearest = i;
+                    }
+                }
+            }
+            // the last solution takes the place of the removed solution, so the removal is constant
+            S solution = remaining.get(nearest);
+            remaining.set(nearest, remaining.get(remaining.size() - 1));
+            remaining.remove(remaining.size() - 1);
+            ordered.add(solution);
+        }
+        return ordered;
+    }
 }
@@ -59,4 +59,23 @@ public class SolutionUtils {
 		return Math.sqrt(distance);
 	}
 
+	/**
+	 * Returns the number of variables that are different between a pair of solutions. The count stops when it
+	 * reaches {@code limit}.
+	 * @param firstSolution the first solution.
+	 * @param secondSolution the second solution. It has the same number of variables that the first solution.
+	 * @param limit the value where the count stops.
+	 * @return the number of different variables or limit if there are more.
+	 * @param <S> the type of solution.
+	 */
+	public static <S extends Solution<?>> int hammingDistance(S firstSolution, S secondSolution, int limit) {
+		int distance = 0;
+		for (int i = 0; i < firstSolution.getNumberOfVariables() && distance < limit; i++) {
+			if (!firstSolution.getVariable(i).equals(secondSolution.getVariable(i))) {
+				distance++;
+			}
+		}
+		return distance;
+	}
+
 }
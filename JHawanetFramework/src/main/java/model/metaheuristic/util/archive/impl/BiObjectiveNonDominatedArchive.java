@@ -0,0 +1,154 @@
+package model.metaheuristic.util.archive.impl;
+
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.archive.Archive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Archive of non dominated solutions with two objectives. It keeps the same solutions than {@link
+ * NonDominatedSolutionListArchive} but it is faster with a lot of solutions.
+ * <p>
+ * The solutions are kept sorted by the first objective. In a set of non dominated solutions with two objectives the
+ * second objective decreases when the first objective increases, so the only solution that can dominate a new
+ * solution is the solution with the greatest first objective not greater than the first objective of the new
+ * solution, and the solutions dominated by the new solution are consecutive. So each insertion costs O(log n) plus
+ * the removed solutions.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * The solutions are compared only by its objectives (there isn't a constraint comparator), so this archive is
+ * useful to points without constraint violation as the points of the reference fronts. The objectives can't be NaN
+ * and 0.0 and -0.0 are the same value.
+ * <p>
+ * The list returned by {@link #getSolutionList()} has the solutions in the order in which they were inserted, as
+ * {@link NonDominatedSolutionListArchive}, and it can't be modified.
+ *
+ * @param <S> the type of solutions
+ */
+public class BiObjectiveNonDominatedArchive<S extends Solution<?>> implements Archive<S> {
+    // the solutions by first objective. 0.0 is added to the keys so -0.0 and 0.0 are the same key.
+    private final TreeMap<Double, Entry<S>> solutions;
+    private long insertions;
+    private List<S> solutionList;
+
+    /**
+     * Constructor
+     */
+    public BiObjectiveNonDominatedArchive() {
+        this.solutions = new TreeMap<>();
+    }
+
+    /**
+     * Inserts a solution in the archive if it isn't dominated by a solution of the archive and if there isn't a
+     * solution with the same objectives. The solutions dominated by the new solution are removed.
+     *
+     * @param solution the solution to be inserted.
+     * @return true if the solution was inserted.
+     * @throws NullPointerException     if solution is null.
+     * @throws IllegalArgumentException if the solution hasn't two objectives.
+     */
+    @Override
+    public boolean add(S solution) {
+        Objects.requireNonNull(solution);
+        if (solution.getNumberOfObjectives() != 2) {
+            throw new IllegalArgumentException("The solution has " + solution.getNumberOfObjectives()
+                    + " objectives but this archive only accepts two objectives.");
+        }
+        double first = solution.getObjective(0) + 0.0;
+        double second = solution.getObjective(1);
+
+        Map.Entry<Double, Entry<S>> floor = this.solutions.floorEntry(first);
+        if (floor != null) {
+            double floorSecond = floor.getValue().solution.getObjective(1);
+            // the solution of the floor isn't worse in the first objective
+            if (floorSecond < second || (floorSecond == second && floor.getKey() < first)) {
+                return false; // dominated
+            } else if (floorSecond == second) {
+                return false; // the same objectives
+            }
+        }
+
+        // remove the solutions dominated by the new solution. They are the solutions from the first objective of
+        // the new solution with a second objective not better.
+        Iterator<Entry<S>> iterator = this.solutions.tailMap(first, true).values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().solution.getObjective(1) >= second) {
+                iterator.remove();
+            } else {
+                break;
+            }
+        }
+
+        this.solutions.put(first, new Entry<>(solution, this.insertions++));
+        this.solutionList = null;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public S get(int index) {
+        return getSolutionList().get(index);
+    }
+
+    /**
+     * Get the solutions in the order in which they were inserted.
+     *
+     * @return a unmodifiable list with the solutions.
+     */
+    @Override
+    public List<S> getSolutionList() {
+        if (this.solutionList == null) {
+            List<Entry<S>> entries = new ArrayList<>(this.solutions.values());
+            entries.sort((entry1, entry2) -> Long.compare(entry1.insertion, entry2.insertion));
+            List<S> list = new ArrayList<>(entries.size());
+            for (Entry<S> entry : entries) {
+                list.add(entry.solution);
+            }
+            this.solutionList = Collections.unmodifiableList(list);
+        }
+        return this.solutionList;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return this.solutions.size();
+    }
+
+    /**
+     * Add all the solutions of a list.
+     *
+     * @param list the solutions.
+     * @return this archive.
+     */
+    public Archive<S> addAll(List<S> list) {
+        for (S solution : list) {
+            add(solution);
+        }
+        return this;
+    }
+
+    /**
+     * A solution and the number of insertions before it, used to keep the order of insertion.
+     */
+    static final class Entry<S> {
+        final S solution;
+        final long insertion;
+
+        Entry(S solution, long insertion) {
+            this.solution = solution;
+            this.insertion = insertion;
+        }
+    }
+}
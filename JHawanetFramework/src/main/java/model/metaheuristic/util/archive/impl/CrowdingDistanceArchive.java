@@ -1,7 +1,6 @@
 package model.metaheuristic.util.archive.impl;
 
 import model.metaheuristic.solution.Solution;
-import model.metaheuristic.util.SolutionListUtils;
 import model.metaheuristic.util.comparator.CrowdingDistanceComparator;
 import model.metaheuristic.util.solutionattribute.CrowdingDistance;
 
@@ -22,8 +21,14 @@ public class CrowdingDistanceArchive<S extends Solution<?>> extends AbstractBoun
     @Override
     public void prune() {
         if (getSolutionList().size() > getMaxSize()) {
-            computeDensityEstimator();
-            S worst = SolutionListUtils.findWorstSolution(getSolutionList(), crowdingDistanceComparator) ;
+            double[] distances = crowdingDistance.computeCrowdingDistances(getSolutionList());
+            // the worst solution is the first with the less distance
+            int worst = 0;
+            for (int i = 1; i < distances.length; i++) {
+                if (Double.compare(distances[i], distances[worst]) < 0) {
+                    worst = i;
+                }
+            }
             getSolutionList().remove(worst);
         }
     }
@@ -0,0 +1,269 @@
+package model.metaheuristic.util.archive.impl;
+
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.comparator.CrowdingDistanceComparator;
+import model.metaheuristic.util.solutionattribute.CrowdingDistance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Bounded archive that removes the solution with the less crowding distance, as {@link CrowdingDistanceArchive}, but
+ * that keeps the crowding distances of its solutions between insertions.
+ * <p>
+ * The solutions are kept sorted by each objective and by its crowding distance. When a solution is inserted or
+ * removed only the distances of its neighbors in each objective are computed again (all the distances are computed
+ * again if the minimum or the maximum of a objective change), so the solution to remove is found without compute
+ * the crowding distance of the whole archive.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * The removed solutions and the distances are the same that with {@link CrowdingDistanceArchive}. The solutions with
+ * the same value in a objective are sorted by its position in the list of solutions, so the list returned by {@link
+ * #getSolutionList()} can't be modified. {@link #sortByDensityEstimator()} modifies the list and updates the
+ * distances.
+ * <p>
+ * The crowding distance attribute of the solutions is only written by {@link #computeDensityEstimator()}.
+ *
+ * @param <S> the type of solutions
+ */
+public class IncrementalCrowdingDistanceArchive<S extends Solution<?>> extends AbstractBoundedArchive<S> {
+    private final Comparator<S> crowdingDistanceComparator;
+    private final CrowdingDistance<S> crowdingDistance;
+    private final Map<S, Point<S>> points;
+    // the points sorted by each objective and by the crowding distance
+    private final List<TreeSet<Point<S>>> objectiveSets;
+    private final TreeSet<Point<S>> distanceSet;
+    private int numberOfObjectives;
+    private long insertions;
+
+    /**
+     * Constructor
+     *
+     * @param maxSize the max number of solutions of the archive.
+     */
+    public IncrementalCrowdingDistanceArchive(int maxSize) {
+        super(maxSize);
+        this.crowdingDistanceComparator = new CrowdingDistanceComparator<S>();
+        this.crowdingDistance = new CrowdingDistance<S>();
+        this.points = new IdentityHashMap<>();
+        this.objectiveSets = new ArrayList<>();
+        this.distanceSet = new TreeSet<>((point1, point2) -> {
+            int result = Double.compare(point1.distance, point2.distance);
+            return result != 0 ? result : Long.compare(point1.order, point2.order);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(S solution) {
+        int size = this.archive.size();
+        boolean success = this.archive.add(solution);
+        if (success) {
+            if (this.archive.size() != size + 1) {
+                removeDominatedPoints();
+            }
+            insertPoint(solution);
+            prune();
+        }
+        return success;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void prune() {
+        if (getSolutionList().size() > getMaxSize()) {
+            // the worst solution is the first with the less distance
+            Point<S> worst = this.distanceSet.first();
+            List<S> solutionList = getSolutionList();
+            for (int i = 0; i < solutionList.size(); i++) {
+                if (solutionList.get(i) == worst.solution) {
+                    solutionList.remove(i);
+                    break;
+                }
+            }
+            removePoint(worst);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Comparator<S> getComparator() {
+        return this.crowdingDistanceComparator;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void computeDensityEstimator() {
+        for (S solution : getSolutionList()) {
+            this.crowdingDistance.setAttribute(solution, this.points.get(solution).distance);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sortByDensityEstimator() {
+        Collections.sort(getSolutionList(), new CrowdingDistanceComparator<S>());
+        // the order of the solutions with the same objectives changed
+        this.points.clear();
+        this.objectiveSets.clear();
+        this.distanceSet.clear();
+        this.insertions = 0;
+        for (S solution : getSolutionList()) {
+            Point<S> point = createPoint(solution);
+            for (TreeSet<Point<S>> objectiveSet : this.objectiveSets) {
+                objectiveSet.add(point);
+            }
+        }
+        updateDistances(this.points.values());
+    }
+
+    /**
+     * Remove the points of the solutions removed of the list because they are dominated by the last solution.
+     */
+    private void removeDominatedPoints() {
+        Set<S> solutions = Collections.newSetFromMap(new IdentityHashMap<>());
+        solutions.addAll(getSolutionList());
+        List<Point<S>> dominated = new ArrayList<>();
+        for (Point<S> point : this.points.values()) {
+            if (!solutions.contains(point.solution)) {
+                dominated.add(point);
+            }
+        }
+        for (Point<S> point : dominated) {
+            removePoint(point);
+        }
+    }
+
+    private void insertPoint(S solution) {
+        Point<S> point = createPoint(solution);
+        boolean updateAll = this.points.size() <= 3;
+        List<Point<S>> neighbors = new ArrayList<>();
+        neighbors.add(point);
+        for (TreeSet<Point<S>> objectiveSet : this.objectiveSets) {
+            objectiveSet.add(point);
+            // a new extreme changes the range of the objective
+            if (objectiveSet.first() == point || objectiveSet.last() == point) {
+                updateAll = true;
+            }
+            addIfNotNull(neighbors, objectiveSet.lower(point));
+            addIfNotNull(neighbors, objectiveSet.higher(point));
+        }
+        updateDistances(updateAll ? this.points.values() : neighbors);
+    }
+
+    private void removePoint(Point<S> point) {
+        this.points.remove(point.solution);
+        this.distanceSet.remove(point);
+        boolean updateAll = this.points.size() <= 2;
+        List<Point<S>> neighbors = new ArrayList<>();
+        for (int m = 0; m < this.numberOfObjectives; m++) {
+            TreeSet<Point<S>> objectiveSet = this.objectiveSets.get(m);
+            Point<S> first = objectiveSet.first();
+            Point<S> last = objectiveSet.last();
+            addIfNotNull(neighbors, objectiveSet.lower(point));
+            addIfNotNull(neighbors, objectiveSet.higher(point));
+            objectiveSet.remove(point);
+            if (!objectiveSet.isEmpty() && (Double.compare(first.objectives[m], objectiveSet.first().objectives[m]) != 0
+                    || Double.compare(last.objectives[m], objectiveSet.last().objectives[m]) != 0)) {
+                updateAll = true;
+            }
+        }
+        updateDistances(updateAll ? this.points.values() : neighbors);
+    }
+
+    private Point<S> createPoint(S solution) {
+        if (this.objectiveSets.isEmpty()) {
+            this.numberOfObjectives = solution.getNumberOfObjectives();
+            for (int i = 0; i < this.numberOfObjectives; i++) {
+                int m = i;
+                this.objectiveSets.add(new TreeSet<>((point1, point2) -> {
+                    int result = Double.compare(point1.objectives[m], point2.objectives[m]);
+                    return result != 0 ? result : Long.compare(point1.order, point2.order);
+                }));
+            }
+        }
+        double[] objectives = new double[this.numberOfObjectives];
+        for (int i = 0; i < objectives.length; i++) {
+            objectives[i] = solution.getObjective(i);
+        }
+        Point<S> point = new Point<>(solution, objectives, this.insertions++);
+        this.points.put(solution, point);
+        return point;
+    }
+
+    /**
+     * Compute again the distance of the points. The distance is computed as in {@link
+     * CrowdingDistance#computeCrowdingDistances(double[], int, int, boolean)}, adding the objectives in the same
+     * order, so the result is the same.
+     */
+    private void updateDistances(Iterable<Point<S>> toUpdate) {
+        int size = this.points.size();
+        Iterator<Point<S>> iterator = toUpdate.iterator();
+        while (iterator.hasNext()) {
+            Point<S> point = iterator.next();
+            this.distanceSet.remove(point);
+            double distance = 0.0;
+            if (size <= 2) {
+                distance = Double.POSITIVE_INFINITY;
+            } else {
+                for (int m = 0; m < this.numberOfObjectives; m++) {
+                    TreeSet<Point<S>> objectiveSet = this.objectiveSets.get(m);
+                    Point<S> first = objectiveSet.first();
+                    Point<S> last = objectiveSet.last();
+                    if (point == first || point == last) {
+                        distance = Double.POSITIVE_INFINITY;
+                    } else {
+                        double difference = objectiveSet.higher(point).objectives[m]
+                                - objectiveSet.lower(point).objectives[m];
+                        distance += difference / (last.objectives[m] - first.objectives[m]);
+                    }
+                }
+            }
+            point.distance = distance;
+        }
+        iterator = toUpdate.iterator();
+        while (iterator.hasNext()) {
+            this.distanceSet.add(iterator.next());
+        }
+    }
+
+    private static <T> void addIfNotNull(List<T> list, T element) {
+        if (element != null) {
+            list.add(element);
+        }
+    }
+
+    /**
+     * A solution of the archive, its objectives, its position in the list and its crowding distance.
+     */
+    static final class Point<S> {
+        final S solution;
+        final double[] objectives;
+        final long order;
+        double distance;
+
+        Point(S solution, double[] objectives, long order) {
+            this.solution = solution;
+            this.objectives = objectives;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package model.metaheuristic.util.archive.impl;
+
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.archive.Archive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Archive of non dominated solutions with any number of objectives. It keeps the same solutions than {@link
+ * NonDominatedSolutionListArchive} but it is faster with a lot of solutions, principally with three or more
+ * objectives. With two objectives {@link BiObjectiveNonDominatedArchive} is faster.
+ * <p>
+ * The solutions are kept in a ND-Tree. Each node of the tree has the ideal point and the nadir point of its
+ * solutions, so a new solution is only compared with the solutions of the nodes that can dominate it or that can be
+ * dominated by it. If the nadir point of a node weakly dominates the new solution, the solution is dominated without
+ * compare it with the solutions of the node, and if the new solution dominates the ideal point of a node all the
+ * solutions of the node are removed.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * The solutions are compared only by its objectives (there isn't a constraint comparator), so this archive is
+ * useful to points without constraint violation as the points of the reference fronts. The objectives can't be NaN
+ * and 0.0 and -0.0 are the same value.
+ * <p>
+ * The list returned by {@link #getSolutionList()} has the solutions in the order in which they were inserted, as
+ * {@link NonDominatedSolutionListArchive}, and it can't be modified.
+ *
+ * @param <S> the type of solutions
+ */
+public class NDTreeArchive<S extends Solution<?>> implements Archive<S> {
+    private final int maxLeafSize;
+    private final int numberOfChildren;
+    private int numberOfObjectives;
+    private Node<S> root;
+    private int size;
+    private long insertions;
+    private List<S> solutionList;
+
+    /**
+     * Constructor. The leaves have until 20 solutions and the nodes have until the number of objectives plus one
+     * children.
+     */
+    public NDTreeArchive() {
+        this.maxLeafSize = 20;
+        this.numberOfChildren = -1;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maxLeafSize      the max number of solutions of a leaf before split it.
+     * @param numberOfChildren the number of children of the nodes that aren't leaves.
+     * @throws IllegalArgumentException if maxLeafSize is less than 1 or if numberOfChildren is less than 2.
+     */
+    public NDTreeArchive(int maxLeafSize, int numberOfChildren) {
+        if (maxLeafSize < 1) {
+            throw new IllegalArgumentException("The max size of the leaves can't be less than 1.");
+        }
+        if (numberOfChildren < 2) {
+            throw new IllegalArgumentException("The number of children can't be less than 2.");
+        }
+        this.maxLeafSize = maxLeafSize;
+        this.numberOfChildren = numberOfChildren;
+    }
+
+    /**
+     * Inserts a solution in the archive if it isn't dominated by a solution of the archive and if there isn't a
+     * solution with the same objectives. The solutions dominated by the new solution are removed.
+     *
+     * @param solution the solution to be inserted.
+     * @return true if the solution was inserted.
+     * @throws NullPointerException     if solution is null.
+     * @throws IllegalArgumentException if the solution hasn't the same number of objectives than the solutions
+     *                                  inserted before.
+     */
+    @Override
+    public boolean add(S solution) {
+        Objects.requireNonNull(solution);
+        if (this.insertions == 0) {
+            this.numberOfObjectives = solution.getNumberOfObjectives();
+        } else if (solution.getNumberOfObjectives() != this.numberOfObjectives) {
+            throw new IllegalArgumentException("The solution has " + solution.getNumberOfObjectives()
+                    + " objectives but the archive has solutions with " + this.numberOfObjectives + " objectives.");
+        }
+        double[] point = new double[this.numberOfObjectives];
+        for (int i = 0; i < point.length; i++) {
+            point[i] = solution.getObjective(i);
+        }
+
+        if (this.root != null) {
+            if (!update(this.root, point)) {
+                return false;
+            }
+            if (this.root.isEmpty()) {
+                this.root = null;
+            }
+        }
+
+        Entry<S> entry = new Entry<>(solution, point, this.insertions++);
+        if (this.root == null) {
+            this.root = new Node<>(point);
+        }
+        insert(this.root, entry);
+        this.size++;
+        this.solutionList = null;
+        return true;
+    }
+
+    /**
+     * Remove the solutions of the node dominated by the point.
+     *
+     * @param node  the node.
+     * @param point the point.
+     * @return false if a solution of the node dominates the point or has the same objectives.
+     */
+    private boolean update(Node<S> node, double[] point) {
+        // the boxes aren't reduced when the solutions are removed, but a box bigger than the solutions is still valid
+        if (weaklyDominates(node.nadir, point)) {
+            return false;
+        }
+        if (weaklyDominates(point, node.ideal)) {
+            if (!equals(point, node.ideal)) {
+                this.size -= node.size();
+                node.clear();
+                return true;
+            }
+        } else if (!weaklyDominates(node.ideal, point) && !weaklyDominates(point, node.nadir)) {
+            // a solution of the node can't dominate the point and can't be dominated by it
+            return true;
+        }
+
+        if (node.isLeaf()) {
+            Iterator<Entry<S>> iterator = node.entries.iterator();
+            while (iterator.hasNext()) {
+                Entry<S> entry = iterator.next();
+                if (weaklyDominates(entry.point, point)) {
+                    return false;
+                } else if (weaklyDominates(point, entry.point)) {
+                    iterator.remove();
+                    this.size--;
+                }
+            }
+        } else {
+            Iterator<Node<S>> iterator = node.children.iterator();
+            while (iterator.hasNext()) {
+                Node<S> child = iterator.next();
+                if (!update(child, point)) {
+                    return false;
+                }
+                if (child.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Insert a entry in the node. The entry isn't dominated by the solutions of the node.
+     */
+    private void insert(Node<S> node, Entry<S> entry) {
+        while (true) {
+            node.extend(entry.point);
+            if (node.isLeaf()) {
+                node.entries.add(entry);
+                if (node.entries.size() > this.maxLeafSize) {
+                    split(node);
+                }
+                return;
+            }
+            // the child with the nearest center to the point
+            Node<S> nearest = null;
+            double nearestDistance = Double.POSITIVE_INFINITY;
+            for (Node<S> child : node.children) {
+                double distance = child.distanceToCenter(entry.point);
+                if (nearest == null || distance < nearestDistance) {
+                    nearest = child;
+                    nearestDistance = distance;
+                }
+            }
+            node = nearest;
+        }
+    }
+
+    /**
+     * Convert a leaf in a node with children. The first solution of each child is the solution more far from the
+     * solutions of the children created before, and the other solutions go to the child with the nearest first
+     * solution.
+     */
+    private void split(Node<S> leaf) {
+        List<Entry<S>> entries = leaf.entries;
+        int children = Math.min(entries.size(), this.numberOfChildren < 0 ? this.numberOfObjectives + 1
+                : this.numberOfChildren);
+        // distance from each solution to the nearest seed
+        double[] distances = new double[entries.size()];
+        int[] nearestSeed = new int[entries.size()];
+        List<Entry<S>> seeds = new ArrayList<>(children);
+
+        int seed = 0;
+        double[] center = leaf.center();
+        double farthest = -1;
+        for (int i = 0; i < entries.size(); i++) {
+            double distance = distance(entries.get(i).point, center);
+            if (distance > farthest) {
+                farthest = distance;
+                seed = i;
+            }
+        }
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        while (true) {
+            seeds.add(entries.get(seed));
+            for (int i = 0; i < entries.size(); i++) {
+                double distance = distance(entries.get(i).point, entries.get(seed).point);
+                if (distance < distances[i]) {
+                    distances[i] = distance;
+                    nearestSeed[i] = seeds.size() - 1;
+                }
+            }
+            if (seeds.size() == children) {
+                break;
+            }
+            farthest = -1;
+            for (int i = 0; i < entries.size(); i++) {
+                if (distances[i] > farthest) {
+                    farthest = distances[i];
+                    seed = i;
+                }
+            }
+        }
+
+        leaf.children = new ArrayList<>(children);
+        for (Entry<S> entry : seeds) {
+            leaf.children.add(new Node<>(entry.point));
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            Node<S> child = leaf.children.get(nearestSeed[i]);
+            child.extend(entries.get(i).point);
+            child.entries.add(entries.get(i));
+        }
+        leaf.entries = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public S get(int index) {
+        return getSolutionList().get(index);
+    }
+
+    /**
+     * Get the solutions in the order in which they were inserted.
+     *
+     * @return a unmodifiable list with the solutions.
+     */
+    @Override
+    public List<S> getSolutionList() {
+        if (this.solutionList == null) {
+            List<Entry<S>> entries = new ArrayList<>(this.size);
+            if (this.root != null) {
+                this.root.collect(entries);
+            }
+            entries.sort((entry1, entry2) -> Long.compare(entry1.insertion, entry2.insertion));
+            List<S> list = new ArrayList<>(entries.size());
+            for (Entry<S> entry : entries) {
+                list.add(entry.solution);
+            }
+            this.solutionList = Collections.unmodifiableList(list);
+        }
+        return this.solutionList;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Add all the solutions of a list.
+     *
+     * @param list the solutions.
+     * @return this archive.
+     */
+    public Archive<S> addAll(List<S> list) {
+        for (S solution : list) {
+            add(solution);
+        }
+        return this;
+    }
+
+    /**
+     * Check if the first point is not worse than the second point in all the objectives.
+     */
+    private static boolean weaklyDominates(double[] point1, double[] point2) {
+        for (int i = 0; i < point1.length; i++) {
+            if (point1[i] > point2[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equals(double[] point1, double[] point2) {
+        for (int i = 0; i < point1.length; i++) {
+            if (point1[i] != point2[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double distance(double[] point1, double[] point2) {
+        double distance = 0;
+        for (int i = 0; i < point1.length; i++) {
+            distance += (point1[i] - point2[i]) * (point1[i] - point2[i]);
+        }
+        return distance;
+    }
+
+    /**
+     * A solution, its objectives and the number of insertions before it, used to keep the order of insertion.
+     */
+    static final class Entry<S> {
+        final S solution;
+        final double[] point;
+        final long insertion;
+
+        Entry(S solution, double[] point, long insertion) {
+            this.solution = solution;
+            this.point = point;
+            this.insertion = insertion;
+        }
+    }
+
+    /**
+     * A node of the tree. A leaf has entries and the other nodes have children.
+     */
+    static final class Node<S> {
+        final double[] ideal;
+        final double[] nadir;
+        List<Entry<S>> entries;
+        List<Node<S>> children;
+
+        Node(double[] point) {
+            this.ideal = point.clone();
+            this.nadir = point.clone();
+            this.entries = new ArrayList<>();
+        }
+
+        boolean isLeaf() {
+            return this.entries != null;
+        }
+
+        boolean isEmpty() {
+            return isLeaf() ? this.entries.isEmpty() : this.children.isEmpty();
+        }
+
+        int size() {
+            if (isLeaf()) {
+                return this.entries.size();
+            }
+            int size = 0;
+            for (Node<S> child : this.children) {
+                size += child.size();
+            }
+            return size;
+        }
+
+        void clear() {
+            this.entries = new ArrayList<>();
+            this.children = null;
+        }
+
+        void extend(double[] point) {
+            for (int i = 0; i < point.length; i++) {
+                if (point[i] < this.ideal[i]) {
+                    this.ideal[i] = point[i];
+                }
+                if (point[i] > this.nadir[i]) {
+                    this.nadir[i] = point[i];
+                }
+            }
+        }
+
+        double[] center() {
+            double[] center = new double[this.ideal.length];
+            for (int i = 0; i < center.length; i++) {
+                center[i] = (this.ideal[i] + this.nadir[i]) / 2.0;
+            }
+            return center;
+        }
+
+        double distanceToCenter(double[] point) {
+            double distance = 0;
+            for (int i = 0; i < point.length; i++) {
+                double difference = point[i] - (this.ideal[i] + this.nadir[i]) / 2.0;
+                distance += difference * difference;
+            }
+            return distance;
+        }
+
+        void collect(List<Entry<S>> list) {
+            if (isLeaf()) {
+                list.addAll(this.entries);
+            } else {
+                for (Node<S> child : this.children) {
+                    child.collect(list);
+                }
+            }
+        }
+    }
+}
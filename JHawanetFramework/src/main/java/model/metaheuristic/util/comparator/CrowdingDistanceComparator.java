@@ -61,16 +61,8 @@ public class CrowdingDistanceComparator<S extends Solution<?>> implements Compar
 		} else if (solution2 == null) {
 			result = -1;
 		} else {
-			double distance1 = Double.MIN_VALUE;
-			double distance2 = Double.MIN_VALUE;
-
-			if (crowdingDistance.getAttribute(solution1) != null) {
-				distance1 = crowdingDistance.getAttribute(solution1);
-			}
-
-			if (crowdingDistance.getAttribute(solution2) != null) {
-				distance2 = crowdingDistance.getAttribute(solution2);
-			}
+			double distance1 = crowdingDistance.getDouble(solution1, Double.MIN_VALUE);
+			double distance2 = crowdingDistance.getDouble(solution2, Double.MIN_VALUE);
 
 			result = Double.compare(distance2, distance1);
 		}
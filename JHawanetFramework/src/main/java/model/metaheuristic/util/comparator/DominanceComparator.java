@@ -88,6 +88,15 @@ public class DominanceComparator<S extends Solution<?>> implements Comparator<S>
         return result;
     }
 
+    /**
+     * Get the comparator used to compare the constraints.
+     *
+     * @return the constraint comparator.
+     */
+    public ConstraintViolationComparator<S> getConstraintViolationComparator() {
+        return constraintViolationComparator;
+    }
+
     /**
      * Compare if a solution dominate other solution based in the objectives
      *
@@ -65,16 +65,8 @@ public class HypervolumeContributionComparator<S extends Solution<?>> implements
     } else if (solution2 == null) {
       result = -1;
     } else {
-      double contribution1 = Double.MAX_VALUE ;
-      double contribution2 = Double.MAX_VALUE ;
-
-      if (hvContribution.getAttribute(solution1) != null) {
-        contribution1 = (double) hvContribution.getAttribute(solution1);
-      }
-
-      if (hvContribution.getAttribute(solution2) != null) {
-        contribution2 = (double) hvContribution.getAttribute(solution2);
-      }
+      double contribution1 = hvContribution.getDouble(solution1, Double.MAX_VALUE) ;
+      double contribution2 = hvContribution.getDouble(solution2, Double.MAX_VALUE) ;
 
       result = Double.compare(contribution2, contribution1);
     }
@@ -30,21 +30,28 @@ package model.metaheuristic.util.comparator;
 
 import model.metaheuristic.solution.Solution;
 import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import model.metaheuristic.util.solutionattribute.ViolationLowerBound;
 
 /**
  * This class implements a <code>Comparator</code> (a method for comparing
  * <code>Solution</code> objects) based on the overall constraint violation of
  * the solutions, as done in NSGA-II.
+ * <p>
+ * The solutions whose violation is only a bound ({@link ViolationLowerBound}) are worse than the solutions
+ * with a exact violation, because its evaluation was stopped when it was known that they couldn't beat the
+ * solutions kept by the algorithm.
  *
  */
 public class OverallConstraintViolationComparator<S extends Solution<?>> implements ConstraintViolationComparator<S> {
 	private final OverallConstraintViolation<S> overallConstraintViolation;
+	private final ViolationLowerBound<S> violationLowerBound;
 
 	/**
 	 * Constructor
 	 */
 	public OverallConstraintViolationComparator() {
 		overallConstraintViolation = new OverallConstraintViolation<S>();
+		violationLowerBound = new ViolationLowerBound<S>();
 	}
 
 	/**
@@ -59,15 +66,18 @@ public class OverallConstraintViolationComparator<S extends Solution<?>> impleme
 	 *         respectively.
 	 */
 	public int compare(S solution1, S solution2) {
-		double violationDegreeSolution1;
-		double violationDegreeSolution2;
-		if (overallConstraintViolation.getAttribute(solution1) == null) {
+		double violationDegreeSolution1 = overallConstraintViolation.getDouble(solution1, Double.NaN);
+		if (Double.isNaN(violationDegreeSolution1)) {
 			return 0;
 		}
-		violationDegreeSolution1 = overallConstraintViolation.getAttribute(solution1);
-		violationDegreeSolution2 = overallConstraintViolation.getAttribute(solution2);
+		double violationDegreeSolution2 = overallConstraintViolation.getDouble(solution2, Double.NaN);
 
 		if ((violationDegreeSolution1 < 0) && (violationDegreeSolution2 < 0)) {
+			boolean bound1 = violationLowerBound.isLowerBound(solution1);
+			boolean bound2 = violationLowerBound.isLowerBound(solution2);
+			if (bound1 != bound2) {
+				return bound1 ? 1 : -1;
+			}
 			return Double.compare(violationDegreeSolution2, violationDegreeSolution1);
 		} else if ((violationDegreeSolution1 == 0) && (violationDegreeSolution2 < 0)) {
 			return -1;
@@ -61,16 +61,8 @@ public class RankingComparator<S extends Solution<?>> implements Comparator<S> {
 		} else if (solution2 == null) {
 			result = -1;
 		} else {
-			int rank1 = Integer.MAX_VALUE;
-			int rank2 = Integer.MAX_VALUE;
-
-			if (ranking.getAttribute(solution1) != null) {
-				rank1 = ranking.getAttribute(solution1);
-			}
-
-			if (ranking.getAttribute(solution2) != null) {
-				rank2 = ranking.getAttribute(solution2);
-			}
+			int rank1 = ranking.getInt(solution1, Integer.MAX_VALUE);
+			int rank2 = ranking.getInt(solution2, Integer.MAX_VALUE);
 
 			result = Integer.compare(rank1, rank2);
 		}
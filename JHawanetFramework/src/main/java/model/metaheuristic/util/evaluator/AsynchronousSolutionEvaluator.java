@@ -0,0 +1,39 @@
+package model.metaheuristic.util.evaluator;
+
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.Solution;
+
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Evaluator that can evaluate a solution in background. It is used by the steady state algorithms to send a new
+ * solution as soon as a worker finishes, instead of wait the evaluation of a complete list.
+ * <p>
+ * The evaluator can be shared between several algorithms, so each algorithm receives its results with its own
+ * completion callback.
+ *
+ * @param <S> the type of solution
+ */
+public interface AsynchronousSolutionEvaluator<S extends Solution<?>> extends SolutionListEvaluator<S> {
+    /**
+     * Get the number of solutions that can be evaluated at the same time.
+     *
+     * @return the number of workers.
+     */
+    int getNumberOfWorkers();
+
+    /**
+     * Start the evaluation of a solution. When the evaluation finishes, successfully or not, the completion callback
+     * receives its future, which is already done.
+     * <p>
+     * The callback is called in the thread that finishes the evaluation (or in the current thread if the evaluation
+     * finishes at once), so it has to be fast and thread safe, for example the add method of a concurrent queue.
+     *
+     * @param solution     the solution to evaluate.
+     * @param problem      the problem.
+     * @param onCompletion the callback that receives the future when the evaluation finishes.
+     * @return the future of the evaluation. Its value is the solution evaluated.
+     */
+    Future<S> submit(S solution, Problem<S> problem, Consumer<Future<S>> onCompletion);
+}
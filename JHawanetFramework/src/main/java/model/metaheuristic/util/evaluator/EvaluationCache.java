@@ -0,0 +1,228 @@
+package model.metaheuristic.util.evaluator;
+
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import model.metaheuristic.util.solutionattribute.ViolationLowerBound;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of the evaluations of a problem. The key of the cache is the vector of decision variables and
+ * the value are the objectives, the {@link OverallConstraintViolation} and the
+ * {@link NumberOfViolatedConstraints} of the solution.
+ * <p>
+ * When the cache is full the entry least recently used is removed. This class is thread safe, so a same cache
+ * can be shared between the algorithms of a experiment, but it only can be used with solutions of a same problem.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * The cache assume that the evaluation of a solution only depends of its decision variables. The evaluations whose
+ * simulation was stopped before the end ({@link ViolationLowerBound}) aren't stored because their violation is only
+ * a bound.
+ *
+ * @param <S> the type of solution
+ */
+public class EvaluationCache<S extends Solution<?>> {
+    private final int maximumSize;
+    private final Map<Key, CachedEvaluation> entries;
+    private final OverallConstraintViolation<S> overallConstraintViolation;
+    private final NumberOfViolatedConstraints<S> numberOfViolatedConstraints;
+    private final ViolationLowerBound<S> violationLowerBound;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize the max number of evaluations that can be stored.
+     * @throws IllegalArgumentException if maximumSize is less than 1.
+     */
+    public EvaluationCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The size of the cache has to be greater than 0.");
+        }
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<Key, CachedEvaluation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedEvaluation> eldest) {
+                if (size() > EvaluationCache.this.maximumSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.overallConstraintViolation = new OverallConstraintViolation<>();
+        this.numberOfViolatedConstraints = new NumberOfViolatedConstraints<>();
+        this.violationLowerBound = new ViolationLowerBound<>();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+    /**
+     * Search the evaluation of solution in the cache. If it is found, the objectives and the constraint attributes
+     * are copied to solution. The evaluations stored are complete, so if the solution has a
+     * {@link ViolationLowerBound} (for example copied from its parent) it is cleared.
+     *
+     * @param solution the solution.
+     * @return true if the evaluation was found, false in other case.
+     */
+    public boolean restore(S solution) {
+        CachedEvaluation entry;
+        synchronized (this.entries) {
+            entry = this.entries.get(new Key(solution));
+        }
+        if (entry == null) {
+            this.misses.incrementAndGet();
+            return false;
+        }
+        this.hits.incrementAndGet();
+        for (int i = 0; i < entry.objectives.length; i++) {
+            solution.setObjective(i, entry.objectives[i]);
+        }
+        if (entry.overallConstraintViolation != null) {
+            this.overallConstraintViolation.setAttribute(solution, entry.overallConstraintViolation);
+        }
+        if (entry.numberOfViolatedConstraints != null) {
+            this.numberOfViolatedConstraints.setAttribute(solution, entry.numberOfViolatedConstraints);
+        }
+        if (this.violationLowerBound.isLowerBound(solution)) {
+            this.violationLowerBound.setAttribute(solution, false);
+        }
+        return true;
+    }
+
+    /**
+     * Save the evaluation of a solution already evaluated. It isn't saved if the solution has a
+     * {@link ViolationLowerBound} because its evaluation wasn't complete.
+     *
+     * @param solution the solution.
+     */
+    public void store(S solution) {
+        if (this.violationLowerBound.isLowerBound(solution)) {
+            return;
+        }
+        CachedEvaluation entry = new CachedEvaluation(solution.getObjectives().clone(), this.overallConstraintViolation.getAttribute(solution),
+                this.numberOfViolatedConstraints.getAttribute(solution));
+        Key key = new Key(solution);
+        synchronized (this.entries) {
+            this.entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Get the number of searches that found the evaluation.
+     *
+     * @return the number of hits.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Get the number of searches that don't found the evaluation.
+     *
+     * @return the number of misses.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Get the number of evaluations removed because the cache was full.
+     *
+     * @return the number of evictions.
+     */
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    /**
+     * Get the fraction of searches that found the evaluation.
+     *
+     * @return the hit ratio or 0 if there isn't searches.
+     */
+    public double getHitRatio() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Get the number of evaluations stored.
+     *
+     * @return the size of cache.
+     */
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Get the max number of evaluations that can be stored.
+     *
+     * @return the max size.
+     */
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluationCache{" +
+                "size=" + size() +
+                ", maximumSize=" + maximumSize +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", evictions=" + getEvictions() +
+                '}';
+    }
+
+    /**
+     * The decision variables of a solution.
+     */
+    private static final class Key {
+        private final Object[] variables;
+        private final int hash;
+
+        Key(Solution<?> solution) {
+            this.variables = solution.getVariables().toArray();
+            this.hash = Arrays.hashCode(this.variables);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return hash == key.hash && Arrays.equals(variables, key.variables);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The result of a evaluation.
+     */
+    private static final class CachedEvaluation {
+        private final double[] objectives;
+        private final Double overallConstraintViolation;
+        private final Integer numberOfViolatedConstraints;
+
+        CachedEvaluation(double[] objectives, Double overallConstraintViolation, Integer numberOfViolatedConstraints) {
+            this.objectives = objectives;
+            this.overallConstraintViolation = overallConstraintViolation;
+            this.numberOfViolatedConstraints = numberOfViolatedConstraints;
+        }
+    }
+}
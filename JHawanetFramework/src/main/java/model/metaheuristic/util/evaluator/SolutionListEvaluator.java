@@ -11,8 +11,9 @@ import java.util.List;
  * <p>
  * <strong>Notes:</strong>
  * <p>
- * Epanet cannot run parallel simulations so the evaluator as to be sequentially. For this this class is added as a interface to
- * let you customize the evaluation or add print to debug
+ * Epanet cannot run parallel simulations in a same project so the evaluator as to be sequentially or it has to use
+ * a problem with its own simulator by thread (see {@link model.metaheuristic.util.evaluator.impl.ParallelSolutionEvaluator}).
+ * For this this class is added as a interface to let you customize the evaluation or add print to debug
  * @param <S> the type of solution
  */
 @FunctionalInterface
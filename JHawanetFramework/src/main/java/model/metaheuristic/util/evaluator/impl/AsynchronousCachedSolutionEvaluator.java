@@ -0,0 +1,83 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.evaluator.AsynchronousSolutionEvaluator;
+import model.metaheuristic.util.evaluator.EvaluationCache;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * {@link CachedSolutionEvaluator} of a {@link AsynchronousSolutionEvaluator}. The solutions sent one by one (as the
+ * offspring of {@link model.metaheuristic.algorithm.multiobjective.nsga.AsynchronousSteadyStateNSGAII}) are also
+ * searched in the cache: if they are found its future is completed at once, in other case they are evaluated in
+ * background with the decorated evaluator and its results are added to the cache by the completion callback, before
+ * the callback of the algorithm receives them.
+ *
+ * @param <S> the type of solution
+ */
+public class AsynchronousCachedSolutionEvaluator<S extends Solution<?>> extends CachedSolutionEvaluator<S>
+        implements AsynchronousSolutionEvaluator<S> {
+    @NotNull private final AsynchronousSolutionEvaluator<S> evaluator;
+
+    /**
+     * Constructor.
+     *
+     * @param evaluator the evaluator used to the solutions that aren't in cache.
+     * @param cache     the cache.
+     * @throws NullPointerException if evaluator or cache is null.
+     */
+    public AsynchronousCachedSolutionEvaluator(@NotNull AsynchronousSolutionEvaluator<S> evaluator, @NotNull EvaluationCache<S> cache) {
+        super(evaluator, cache);
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * It is the number of workers of the decorated evaluator.
+     */
+    @Override
+    public int getNumberOfWorkers() {
+        return this.evaluator.getNumberOfWorkers();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Future<S> submit(S solution, Problem<S> problem, Consumer<Future<S>> onCompletion) {
+        if (getCache().restore(solution)) {
+            FutureTask<S> task = new FutureTask<>(() -> solution);
+            task.run();
+            onCompletion.accept(task);
+            return task;
+        }
+        return this.evaluator.submit(solution, problem, future -> {
+            store(future);
+            onCompletion.accept(future);
+        });
+    }
+
+    /**
+     * Add the solution of a finished future to the cache. The failed evaluations aren't saved.
+     *
+     * @param future the future of a evaluation already finished.
+     */
+    private void store(Future<S> future) {
+        if (future.isCancelled()) {
+            return;
+        }
+        try {
+            getCache().store(future.get());
+        } catch (ExecutionException e) {
+            // the error is reported by the algorithm when it takes the future
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import epanet.core.EpanetException;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.evaluator.EvaluationCache;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Evaluator that search the solutions in a {@link EvaluationCache} before evaluate them. Only the solutions
+ * that aren't in the cache are evaluated with the decorated evaluator, and its results are added to the cache.
+ * <p>
+ * If the same decision variables appear several times in the solution list they are evaluated only once.
+ * <p>
+ * A same instance of this evaluator can be used by all algorithms of a experiment to share the evaluations of the
+ * problem. The evaluator is thread safe if the decorated evaluator is thread safe.
+ *
+ * @param <S> the type of solution
+ */
+public class CachedSolutionEvaluator<S extends Solution<?>> implements SolutionListEvaluator<S> {
+    @NotNull private final SolutionListEvaluator<S> evaluator;
+    @NotNull private final EvaluationCache<S> cache;
+
+    /**
+     * Constructor.
+     *
+     * @param evaluator the evaluator used to the solutions that aren't in cache.
+     * @param cache     the cache.
+     * @throws NullPointerException if evaluator or cache is null.
+     */
+    public CachedSolutionEvaluator(@NotNull SolutionListEvaluator<S> evaluator, @NotNull EvaluationCache<S> cache) {
+        this.evaluator = Objects.requireNonNull(evaluator);
+        this.cache = Objects.requireNonNull(cache);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<S> evaluate(List<S> solutionList, Problem<S> problem) throws EpanetException {
+        List<S> toEvaluate = new ArrayList<>();
+        List<S> duplicates = new ArrayList<>();
+        Set<List<?>> pending = new HashSet<>();
+
+        for (S solution : solutionList) {
+            List<?> variables = solution.getVariables();
+            if (pending.contains(variables)) {
+                duplicates.add(solution);
+            } else if (!this.cache.restore(solution)) {
+                pending.add(new ArrayList<>(variables));
+                toEvaluate.add(solution);
+            }
+        }
+
+        if (!toEvaluate.isEmpty()) {
+            this.evaluator.evaluate(toEvaluate, problem);
+            for (S solution : toEvaluate) {
+                this.cache.store(solution);
+            }
+        }
+
+        // the repeated solutions take the result of the first. If it isn't in the cache (it was removed or its
+        // simulation was stopped) the repeated solution is evaluated.
+        List<S> evicted = new ArrayList<>();
+        for (S solution : duplicates) {
+            if (!this.cache.restore(solution)) {
+                evicted.add(solution);
+            }
+        }
+        if (!evicted.isEmpty()) {
+            this.evaluator.evaluate(evicted, problem);
+        }
+        return solutionList;
+    }
+
+    /**
+     * Get the cache used by this evaluator.
+     *
+     * @return the cache.
+     */
+    public @NotNull EvaluationCache<S> getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,175 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import epanet.core.EpanetException;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
+import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import model.metaheuristic.util.solutionattribute.ViolationLowerBound;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Evaluator that groups the solutions of the list with the same decision variables and only evaluates a
+ * representative of each group with the decorated evaluator. The objectives, the {@link OverallConstraintViolation},
+ * the {@link NumberOfViolatedConstraints} and the {@link ViolationLowerBound} of the representative are copied to the
+ * other solutions of the group.
+ * <p>
+ * Unlike {@link CachedSolutionEvaluator} the evaluations aren't kept between calls, so it doesn't use memory and it
+ * can be used by each algorithm. The number of duplicates found in the last call is used to show the convergence of
+ * the population.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * It assumes that the evaluation of a solution only depends of its decision variables. This class isn't thread safe.
+ *
+ * @param <S> the type of solution
+ */
+public class DuplicateEliminationSolutionEvaluator<S extends Solution<?>> implements SolutionListEvaluator<S> {
+    @NotNull private final SolutionListEvaluator<S> evaluator;
+    private final OverallConstraintViolation<S> overallConstraintViolation;
+    private final NumberOfViolatedConstraints<S> numberOfViolatedConstraints;
+    private final ViolationLowerBound<S> violationLowerBound;
+
+    private int lastSize;
+    private int lastDuplicates;
+    private long totalSolutions;
+    private long totalDuplicates;
+
+    /**
+     * Constructor.
+     *
+     * @param evaluator the evaluator used to the representatives of each group.
+     * @throws NullPointerException if evaluator is null.
+     */
+    public DuplicateEliminationSolutionEvaluator(@NotNull SolutionListEvaluator<S> evaluator) {
+        this.evaluator = Objects.requireNonNull(evaluator);
+        this.overallConstraintViolation = new OverallConstraintViolation<>();
+        this.numberOfViolatedConstraints = new NumberOfViolatedConstraints<>();
+        this.violationLowerBound = new ViolationLowerBound<>();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<S> evaluate(List<S> solutionList, Problem<S> problem) throws EpanetException {
+        Map<List<?>, S> representatives = new HashMap<>();
+        List<S> unique = new ArrayList<>(solutionList.size());
+        List<S> duplicates = new ArrayList<>();
+        List<S> duplicatesRepresentative = new ArrayList<>();
+
+        for (S solution : solutionList) {
+            S representative = representatives.putIfAbsent(solution.getVariables(), solution);
+            if (representative == null) {
+                unique.add(solution);
+            } else {
+                duplicates.add(solution);
+                duplicatesRepresentative.add(representative);
+            }
+        }
+
+        this.lastSize = solutionList.size();
+        this.lastDuplicates = duplicates.size();
+        this.totalSolutions += this.lastSize;
+        this.totalDuplicates += this.lastDuplicates;
+
+        if (duplicates.isEmpty()) {
+            this.evaluator.evaluate(solutionList, problem);
+            return solutionList;
+        }
+
+        this.evaluator.evaluate(unique, problem);
+        for (int i = 0; i < duplicates.size(); i++) {
+            copyEvaluation(duplicatesRepresentative.get(i), duplicates.get(i));
+        }
+        return solutionList;
+    }
+
+    private void copyEvaluation(S from, S to) {
+        for (int i = 0; i < from.getNumberOfObjectives(); i++) {
+            to.setObjective(i, from.getObjective(i));
+        }
+        Double violation = this.overallConstraintViolation.getAttribute(from);
+        if (violation != null) {
+            this.overallConstraintViolation.setAttribute(to, violation);
+        }
+        Integer violated = this.numberOfViolatedConstraints.getAttribute(from);
+        if (violated != null) {
+            this.numberOfViolatedConstraints.setAttribute(to, violated);
+        }
+        // the flag of the solution can be copied from its parent, so it is cleared if the evaluation was complete
+        if (this.violationLowerBound.isLowerBound(from)) {
+            this.violationLowerBound.setAttribute(to, true);
+        } else if (this.violationLowerBound.isLowerBound(to)) {
+            this.violationLowerBound.setAttribute(to, false);
+        }
+    }
+
+    /**
+     * Get the decorated evaluator.
+     *
+     * @return the evaluator.
+     */
+    public @NotNull SolutionListEvaluator<S> getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Get the fraction of solutions of the last list that weren't evaluated because they were duplicates.
+     *
+     * @return the ratio or 0 if no list was evaluated.
+     */
+    public double getLastDuplicateRatio() {
+        return this.lastSize == 0 ? 0 : (double) this.lastDuplicates / this.lastSize;
+    }
+
+    /**
+     * Get the number of duplicates in the last list.
+     *
+     * @return the number of duplicates.
+     */
+    public int getLastDuplicates() {
+        return this.lastDuplicates;
+    }
+
+    /**
+     * Get the size of the last list.
+     *
+     * @return the size.
+     */
+    public int getLastSize() {
+        return this.lastSize;
+    }
+
+    /**
+     * Get the number of duplicates in all the lists.
+     *
+     * @return the number of duplicates.
+     */
+    public long getTotalDuplicates() {
+        return this.totalDuplicates;
+    }
+
+    /**
+     * Get the number of solutions in all the lists.
+     *
+     * @return the number of solutions.
+     */
+    public long getTotalSolutions() {
+        return this.totalSolutions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Duplicates in the last generation: %d / %d (%.1f %%), total: %d / %d",
+                this.lastDuplicates, this.lastSize, 100 * getLastDuplicateRatio(), this.totalDuplicates,
+                this.totalSolutions);
+    }
+}
@@ -0,0 +1,200 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import epanet.core.EpanetException;
+import exception.ApplicationException;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.evaluator.AsynchronousSolutionEvaluator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Evaluator that split the solution list in contiguous shards and evaluate each shard in a different thread.
+ * <p>
+ * Every thread evaluate the solutions using its own worker problem, so each worker must own its own simulator
+ * (a different {@link model.epanet.hydraulicsimulation.HydraulicEngine} with its own report file) and it has to be
+ * configured in the same way that the problem received in {@link #evaluate(List, Problem)}. The worker problems
+ * are kept in a pool, so a same instance of this evaluator can be shared between several algorithms.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * The library of EPANET 2.0 keep a only project by process, so the simulations made through the epanet engine are
+ * serialized by the problem evaluators. The threads of this evaluator still overlap the work done outside the
+ * simulator. The engines written in java don't have this limitation.
+ * <p>
+ * This evaluator has to be closed when it is not used anymore. The close method close the resources of the
+ * worker problems.
+ *
+ * @param <S> the type of solution
+ */
+public class ParallelSolutionEvaluator<S extends Solution<?>> implements AsynchronousSolutionEvaluator<S>, AutoCloseable {
+    @NotNull private final List<Problem<S>> workers;
+    @NotNull private final BlockingQueue<Problem<S>> idleWorkers;
+    @NotNull private final ExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param workers the problems used by the threads. The number of threads is the number of workers.
+     * @throws NullPointerException     if workers is null or some worker is null.
+     * @throws IllegalArgumentException if workers is empty.
+     */
+    public ParallelSolutionEvaluator(@NotNull List<? extends Problem<S>> workers) {
+        Objects.requireNonNull(workers);
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("There isn't worker problems to the parallel evaluator.");
+        }
+        this.workers = new ArrayList<>(workers.size());
+        for (Problem<S> worker : workers) {
+            this.workers.add(Objects.requireNonNull(worker, "A worker problem is null."));
+        }
+        this.idleWorkers = new ArrayBlockingQueue<>(this.workers.size(), false, this.workers);
+
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        this.executor = Executors.newFixedThreadPool(this.workers.size(), runnable -> {
+            Thread thread = new Thread(runnable, "solution-evaluator-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the number of threads used to evaluate.
+     *
+     * @return the number of threads.
+     */
+    public int getNumberOfThreads() {
+        return this.workers.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * It is the number of threads.
+     */
+    @Override
+    public int getNumberOfWorkers() {
+        return this.workers.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The solution is evaluated with the first worker problem that is idle. The problem received is not used to
+     * evaluate.
+     */
+    @Override
+    public Future<S> submit(S solution, Problem<S> problem, Consumer<Future<S>> onCompletion) {
+        FutureTask<S> task = new FutureTask<S>(() -> {
+            Problem<S> worker = this.idleWorkers.take();
+            try {
+                worker.evaluate(solution);
+            } finally {
+                this.idleWorkers.put(worker);
+            }
+            return solution;
+        }) {
+            @Override
+            protected void done() {
+                onCompletion.accept(this);
+            }
+        };
+        this.executor.execute(task);
+        return task;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The solutions are evaluated with the worker problems. The problem received is not used to evaluate.
+     *
+     * @throws ApplicationException if the thread is interrupted while wait the evaluation or if the evaluation
+     *                              throws a checked exception different of {@link EpanetException}.
+     */
+    @Override
+    public List<S> evaluate(List<S> solutionList, Problem<S> problem) throws EpanetException {
+        int size = solutionList.size();
+        int numberOfShards = Math.min(this.workers.size(), size);
+        List<Future<Void>> futures = new ArrayList<>(numberOfShards);
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            List<S> sublist = solutionList.subList(shard * size / numberOfShards, (shard + 1) * size / numberOfShards);
+            futures.add(this.executor.submit(() -> {
+                Problem<S> worker = this.idleWorkers.take();
+                try {
+                    worker.evaluateAll(sublist);
+                } finally {
+                    this.idleWorkers.put(worker);
+                }
+                return null;
+            }));
+        }
+
+        // wait all shards before report a error so there isn't a worker running when this method ends.
+        Throwable error = null;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                for (Future<Void> f : futures) {
+                    f.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new ApplicationException("The evaluation of the solutions was interrupted.", e);
+            }
+        }
+
+        if (error instanceof EpanetException) {
+            throw (EpanetException) error;
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new ApplicationException("There is a error in the evaluation of the solutions.", error);
+        }
+        return solutionList;
+    }
+
+    /**
+     * Stop the threads and close the resources of the worker problems. All the worker problems are closed even if
+     * some of them fail.
+     *
+     * @throws ApplicationException if there is a error closing the worker problems. The errors are its cause and
+     *                              its suppressed exceptions.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+        Exception exception = null;
+        for (Problem<S> worker : this.workers) {
+            try {
+                worker.closeResources();
+            } catch (Exception e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw new ApplicationException("There is a error closing the worker problems.", exception);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import epanet.core.EpanetException;
+import exception.ApplicationException;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.evaluator.AsynchronousSolutionEvaluator;
+import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import model.metaheuristic.util.solutionattribute.ViolationCutoff;
+import model.metaheuristic.util.solutionattribute.ViolationLowerBound;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Evaluator that evaluate the solutions in other processes. It launch several JVMs in the same machine with the
+ * main class {@link ProcessWorker}, each one with its own problem (and its own simulator) created by a
+ * {@link ProcessProblemFactory}. Because each process load its own copy of the library of epanet, the simulations
+ * made through the epanet engine are really executed in parallel.
+ * <p>
+ * The solution list is split in contiguous shards and each shard is sent to a process through its standard input.
+ * The results are read from its standard output. The format of messages is binary (see {@link SolutionWireFormat}): the
+ * decision variables and the {@link ViolationCutoff} of each solution are sent and the objectives, the
+ * {@link OverallConstraintViolation}, the {@link NumberOfViolatedConstraints} and the {@link ViolationLowerBound}
+ * are received.
+ * <p>
+ * The solutions sent with {@link #submit(IntegerSolution, Problem, Consumer)} are sent alone to the first process
+ * that is idle, so the asynchronous algorithms keep all the processes busy.
+ * <p>
+ * If a process dies (or its stream is corrupted) it is restarted and its shard is sent again. A shard is tried
+ * {@value #MAX_ATTEMPTS} times before report a error. The errors throw by the problem in the worker aren't retried.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * The processes use the classpath of the current JVM, so the factory has to be in it. The standard error of the
+ * processes is redirected to the standard error of the current process.
+ * <p>
+ * This evaluator has to be closed when it is not used anymore. The close method stop the processes.
+ */
+public class ProcessPoolSolutionEvaluator implements AsynchronousSolutionEvaluator<IntegerSolution>, AutoCloseable {
+    private static final int MAX_ATTEMPTS = 3;
+
+    @NotNull private final List<String> command;
+    private final int workerIndexPosition;
+    @NotNull private final List<WorkerProcess> workers;
+    @NotNull private final BlockingQueue<WorkerProcess> idleWorkers;
+    @NotNull private final ExecutorService executor;
+    @NotNull private final AtomicInteger restarts;
+
+    /**
+     * Constructor. The processes are started with the java command of the current JVM.
+     *
+     * @param numberOfWorkers the number of processes.
+     * @param factory         the factory of the problems of the processes. It has to have a public constructor without
+     *                        parameters.
+     * @param arguments       the arguments received by the factory.
+     * @throws NullPointerException     if factory or arguments is null.
+     * @throws IllegalArgumentException if numberOfWorkers is less than 1.
+     * @throws IOException              if a process can't be started.
+     */
+    public ProcessPoolSolutionEvaluator(int numberOfWorkers, @NotNull Class<? extends ProcessProblemFactory> factory,
+                                        @NotNull String... arguments) throws IOException {
+        this(numberOfWorkers, new ArrayList<>(), factory, Arrays.asList(arguments));
+    }
+
+    /**
+     * Constructor. The processes are started with the java command of the current JVM.
+     *
+     * @param numberOfWorkers the number of processes.
+     * @param jvmOptions      the options of the JVM of processes (for example -Xmx512m).
+     * @param factory         the factory of the problems of the processes. It has to have a public constructor without
+     *                        parameters.
+     * @param arguments       the arguments received by the factory.
+     * @throws NullPointerException     if jvmOptions, factory or arguments is null.
+     * @throws IllegalArgumentException if numberOfWorkers is less than 1.
+     * @throws IOException              if a process can't be started.
+     */
+    public ProcessPoolSolutionEvaluator(int numberOfWorkers, @NotNull List<String> jvmOptions,
+                                        @NotNull Class<? extends ProcessProblemFactory> factory,
+                                        @NotNull List<String> arguments) throws IOException {
+        Objects.requireNonNull(jvmOptions);
+        Objects.requireNonNull(factory);
+        Objects.requireNonNull(arguments);
+        if (numberOfWorkers < 1) {
+            throw new IllegalArgumentException("The number of worker processes has to be greater than 0.");
+        }
+        this.command = new ArrayList<>();
+        this.command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        this.command.addAll(jvmOptions);
+        this.command.add("-cp");
+        this.command.add(System.getProperty("java.class.path"));
+        this.command.add(ProcessWorker.class.getName());
+        this.command.add(factory.getName());
+        // the index of worker is set here when the process is started
+        this.workerIndexPosition = this.command.size();
+        this.command.add("");
+        this.command.addAll(arguments);
+
+        this.restarts = new AtomicInteger();
+        this.workers = new ArrayList<>(numberOfWorkers);
+        try {
+            for (int i = 0; i < numberOfWorkers; i++) {
+                WorkerProcess worker = new WorkerProcess(i);
+                this.workers.add(worker);
+                worker.start();
+            }
+        } catch (IOException e) {
+            for (WorkerProcess worker : this.workers) {
+                worker.kill();
+            }
+            throw e;
+        }
+        this.idleWorkers = new ArrayBlockingQueue<>(numberOfWorkers, false, this.workers);
+
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        this.executor = Executors.newFixedThreadPool(numberOfWorkers, runnable -> {
+            Thread thread = new Thread(runnable, "process-evaluator-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * It is the number of processes.
+     */
+    @Override
+    public int getNumberOfWorkers() {
+        return this.workers.size();
+    }
+
+    /**
+     * Get the number of times that a process was restarted.
+     *
+     * @return the number of restarts.
+     */
+    public int getRestarts() {
+        return this.restarts.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The solutions are evaluated with the problems of the processes. The problem received is not used.
+     *
+     * @throws EpanetException      if the problem of a process throws a {@link EpanetException}.
+     * @throws ApplicationException if the problem of a process throws other exception, if a process fails
+     *                              {@value #MAX_ATTEMPTS} times evaluating the same shard or if the thread is
+     *                              interrupted while wait the evaluation.
+     */
+    @Override
+    public List<IntegerSolution> evaluate(List<IntegerSolution> solutionList, Problem<IntegerSolution> problem)
+            throws EpanetException {
+        int size = solutionList.size();
+        int numberOfShards = Math.min(this.workers.size(), size);
+        List<Future<Void>> futures = new ArrayList<>(numberOfShards);
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            List<IntegerSolution> sublist = solutionList.subList(shard * size / numberOfShards,
+                    (shard + 1) * size / numberOfShards);
+            futures.add(this.executor.submit(() -> {
+                WorkerProcess worker = this.idleWorkers.take();
+                try {
+                    evaluate(worker, sublist);
+                } finally {
+                    this.idleWorkers.put(worker);
+                }
+                return null;
+            }));
+        }
+
+        // wait all shards before report a error so there isn't a process working when this method ends.
+        Throwable error = null;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                for (Future<Void> f : futures) {
+                    f.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new ApplicationException("The evaluation of the solutions was interrupted.", e);
+            }
+        }
+
+        if (error instanceof EpanetException) {
+            throw (EpanetException) error;
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new ApplicationException("There is a error in the evaluation of the solutions.", error);
+        }
+        return solutionList;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The solution is evaluated by the first process that is idle. The problem received is not used. The errors are
+     * the same of {@link #evaluate(List, Problem)}.
+     */
+    @Override
+    public Future<IntegerSolution> submit(IntegerSolution solution, Problem<IntegerSolution> problem,
+                                          Consumer<Future<IntegerSolution>> onCompletion) {
+        FutureTask<IntegerSolution> task = new FutureTask<IntegerSolution>(() -> {
+            WorkerProcess worker = this.idleWorkers.take();
+            try {
+                evaluate(worker, Collections.singletonList(solution));
+            } finally {
+                this.idleWorkers.put(worker);
+            }
+            return solution;
+        }) {
+            @Override
+            protected void done() {
+                onCompletion.accept(this);
+            }
+        };
+        this.executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Evaluate a shard in a process. If the process fails it is restarted and the shard is sent again.
+     *
+     * @param worker the process.
+     * @param shard  the solutions.
+     * @throws EpanetException      if the problem of process throws a {@link EpanetException}.
+     * @throws ApplicationException if the process fails {@value #MAX_ATTEMPTS} times.
+     */
+    private void evaluate(WorkerProcess worker, List<IntegerSolution> shard) throws EpanetException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (!worker.isAlive()) {
+                    this.restarts.incrementAndGet();
+                    worker.start();
+                }
+                worker.evaluate(shard);
+                return;
+            } catch (EpanetException e) {
+                // it is a error of the problem, so it would happen again in other process
+                throw e;
+            } catch (IOException e) {
+                worker.kill();
+                if (attempt == MAX_ATTEMPTS) {
+                    throw new ApplicationException("The worker process " + worker.index + " failed "
+                            + MAX_ATTEMPTS + " times evaluating the solutions.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop the processes. The processes that don't finish in five seconds are killed.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+        for (WorkerProcess worker : this.workers) {
+            worker.stop();
+        }
+    }
+
+    /**
+     * Factory of the problems used by the processes of a {@link ProcessPoolSolutionEvaluator}. The implementations
+     * have to have a public constructor without parameters.
+     */
+    @FunctionalInterface
+    public interface ProcessProblemFactory {
+        /**
+         * Create the problem of a process.
+         *
+         * @param workerIndex the index of the process. It can be used to give a different report file to each
+         *                    process.
+         * @param arguments   the arguments given to the evaluator.
+         * @return the problem.
+         * @throws Exception if there is a error creating the problem.
+         */
+        Problem<IntegerSolution> create(int workerIndex, String[] arguments) throws Exception;
+    }
+
+    /**
+     * A process of the pool and its streams.
+     */
+    private class WorkerProcess {
+        private final int index;
+        private Process process;
+        private DataOutputStream output;
+        private DataInputStream input;
+        private int numberOfVariables;
+        private int numberOfObjectives;
+
+        WorkerProcess(int index) {
+            this.index = index;
+        }
+
+        /**
+         * Start the process and read the header sent by the worker.
+         *
+         * @throws IOException if the process can't be started or the header isn't valid.
+         */
+        void start() throws IOException {
+            List<String> workerCommand = new ArrayList<>(command);
+            workerCommand.set(workerIndexPosition, String.valueOf(this.index));
+            this.process = new ProcessBuilder(workerCommand)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            this.output = new DataOutputStream(new BufferedOutputStream(this.process.getOutputStream()));
+            this.input = new DataInputStream(new BufferedInputStream(this.process.getInputStream()));
+
+            int[] header = SolutionWireFormat.readHeader(this.input);
+            this.numberOfVariables = header[0];
+            this.numberOfObjectives = header[1];
+        }
+
+        boolean isAlive() {
+            return this.process != null && this.process.isAlive();
+        }
+
+        /**
+         * Send the solutions to the process and copy the results to the solutions.
+         *
+         * @param solutions the solutions.
+         * @throws EpanetException          if the problem of process throws a {@link EpanetException}.
+         * @throws IOException              if the communication with the process fails.
+         * @throws IllegalArgumentException if a solution hasn't the number of variables of the problem of process.
+         */
+        void evaluate(List<IntegerSolution> solutions) throws IOException {
+            SolutionWireFormat.writeRequest(this.output, solutions, this.numberOfVariables);
+            SolutionWireFormat.readResponse(this.input, solutions, this.numberOfObjectives);
+        }
+
+        /**
+         * Ask to the process to finish. If it doesn't finish in five seconds it is killed.
+         */
+        void stop() {
+            if (!isAlive()) {
+                return;
+            }
+            try {
+                this.output.writeInt(SolutionWireFormat.SHUTDOWN);
+                this.output.flush();
+                this.output.close();
+                if (!this.process.waitFor(5, TimeUnit.SECONDS)) {
+                    kill();
+                }
+            } catch (IOException e) {
+                kill();
+            } catch (InterruptedException e) {
+                kill();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Kill the process. The next call to {@link #isAlive()} returns false even if the process still is finishing.
+         */
+        void kill() {
+            if (this.process != null) {
+                this.process.destroyForcibly();
+                this.process = null;
+            }
+        }
+    }
+}
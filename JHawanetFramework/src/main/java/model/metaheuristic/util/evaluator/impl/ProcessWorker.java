@@ -0,0 +1,165 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker that evaluate the batches of solutions sent by {@link ProcessPoolSolutionEvaluator} or
+ * {@link RemoteSolutionEvaluator}. The format of messages is described in {@link SolutionWireFormat}.
+ * <p>
+ * The main method is used by the processes launched by {@link ProcessPoolSolutionEvaluator}. Its arguments are the
+ * name of a {@link ProcessPoolSolutionEvaluator.ProcessProblemFactory}, the index of the worker and the arguments
+ * of the factory. The worker read the batches of the standard input and write the results in the standard output.
+ * Because the standard output is used by the communication, the {@link System#out} of the worker is redirected to
+ * the standard error.
+ */
+public final class ProcessWorker {
+    @NotNull private final Problem<IntegerSolution> problem;
+    @NotNull private final DataInputStream input;
+    @NotNull private final DataOutputStream output;
+    private final long heartbeatInterval;
+
+    /**
+     * Constructor.
+     *
+     * @param problem           the problem used to evaluate.
+     * @param input             the stream where the requests are read.
+     * @param output            the stream where the responses are written.
+     * @param heartbeatInterval the milliseconds between the heartbeats sent while a batch is evaluated. 0 to don't
+     *                          send heartbeats.
+     * @throws NullPointerException     if problem, input or output is null.
+     * @throws IllegalArgumentException if heartbeatInterval is negative.
+     */
+    ProcessWorker(@NotNull Problem<IntegerSolution> problem, @NotNull DataInputStream input,
+                  @NotNull DataOutputStream output, long heartbeatInterval) {
+        this.problem = Objects.requireNonNull(problem);
+        this.input = Objects.requireNonNull(input);
+        this.output = Objects.requireNonNull(output);
+        if (heartbeatInterval < 0) {
+            throw new IllegalArgumentException("The heartbeat interval can't be negative.");
+        }
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    /**
+     * Write the header and answer the requests until the input is closed or a request to finish is received.
+     *
+     * @throws IOException if there is a error in the streams.
+     */
+    void serve() throws IOException {
+        ScheduledExecutorService heartbeats = null;
+        if (this.heartbeatInterval > 0) {
+            heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "worker-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        try {
+            SolutionWireFormat.writeHeader(this.output, this.problem);
+            List<IntegerSolution> batch = new ArrayList<>();
+            while (true) {
+                batch.clear();
+                if (!SolutionWireFormat.readRequest(this.input, this.problem, batch)) {
+                    return;
+                }
+                ScheduledFuture<?> heartbeat = null;
+                if (heartbeats != null) {
+                    heartbeat = heartbeats.scheduleAtFixedRate(this::sendHeartbeat, this.heartbeatInterval,
+                            this.heartbeatInterval, TimeUnit.MILLISECONDS);
+                }
+
+                Exception error = null;
+                try {
+                    this.problem.evaluateAll(batch);
+                } catch (Exception e) {
+                    error = e;
+                } finally {
+                    if (heartbeat != null) {
+                        heartbeat.cancel(false);
+                    }
+                }
+
+                synchronized (this.output) {
+                    if (error == null) {
+                        SolutionWireFormat.writeResults(this.output, batch);
+                    } else {
+                        SolutionWireFormat.writeError(this.output, error);
+                    }
+                }
+            }
+        } finally {
+            if (heartbeats != null) {
+                heartbeats.shutdownNow();
+            }
+        }
+    }
+
+    private void sendHeartbeat() {
+        synchronized (this.output) {
+            try {
+                SolutionWireFormat.writeHeartbeat(this.output);
+            } catch (IOException e) {
+                // the main thread will find the error when it writes the response
+            }
+        }
+    }
+
+    /**
+     * Start a worker that read of the standard input and write in the standard output.
+     *
+     * @param args the name of factory, the index of worker and the arguments of the factory.
+     * @throws Exception if the problem can't be created or there is a error in the communication.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: ProcessWorker <factory class> <worker index> [arguments]");
+            System.exit(2);
+        }
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        // the standard output is used by the communication
+        System.setOut(System.err);
+
+        Problem<IntegerSolution> problem = createProblem(args[0], Integer.parseInt(args[1]),
+                Arrays.copyOfRange(args, 2, args.length));
+        try {
+            new ProcessWorker(problem, input, output, 0).serve();
+        } finally {
+            problem.closeResources();
+        }
+    }
+
+    /**
+     * Create the problem of a worker.
+     *
+     * @param factoryName the name of a class that implements {@link ProcessPoolSolutionEvaluator.ProcessProblemFactory}.
+     * @param workerIndex the index of worker.
+     * @param arguments   the arguments of the factory.
+     * @return the problem.
+     * @throws Exception if the factory can't be created or it throws a exception.
+     */
+    static Problem<IntegerSolution> createProblem(String factoryName, int workerIndex, String[] arguments) throws Exception {
+        ProcessPoolSolutionEvaluator.ProcessProblemFactory factory = Class.forName(factoryName)
+                .asSubclass(ProcessPoolSolutionEvaluator.ProcessProblemFactory.class).getConstructor().newInstance();
+        return factory.create(workerIndex, arguments);
+    }
+}
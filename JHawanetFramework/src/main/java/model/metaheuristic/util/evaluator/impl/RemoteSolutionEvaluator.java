@@ -0,0 +1,424 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import epanet.core.EpanetException;
+import exception.ApplicationException;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.evaluator.AsynchronousSolutionEvaluator;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Evaluator that send the solutions to workers in other machines through TCP. The workers are started with
+ * {@link RemoteWorker} and they connect to the port of this evaluator, so workers can be added or removed while
+ * the experiment is running.
+ * <p>
+ * The solution list is split in chunks of a fixed size that are put in a shared queue. Each worker takes a chunk
+ * of the queue when it finishes the previous one, so the fast workers evaluate more chunks than the slow workers.
+ * The solutions sent with {@link #submit(IntegerSolution, Problem, Consumer)} are a chunk of one solution.
+ * The format of messages is described in {@link SolutionWireFormat}.
+ * <p>
+ * While a worker evaluate a chunk it sends heartbeats. If the evaluator doesn't receive a heartbeat or a response
+ * in the heartbeat timeout, or if the connection is lost, the worker is disconnected and its chunk returns to the
+ * queue to be evaluated by other worker. A chunk is tried {@value #MAX_ATTEMPTS} times before report a error. The
+ * errors throw by the problem of a worker aren't retried.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * All the workers have to build the same problem that the problem used by the algorithm (the same network and
+ * configuration). The evaluation waits while there aren't workers connected.
+ * <p>
+ * This evaluator has to be closed when it is not used anymore. The close method close the port and ask to the
+ * workers to finish.
+ */
+public class RemoteSolutionEvaluator implements AsynchronousSolutionEvaluator<IntegerSolution>, AutoCloseable {
+    private static final int MAX_ATTEMPTS = 3;
+
+    @NotNull private final ServerSocket serverSocket;
+    private final int chunkSize;
+    private final int heartbeatTimeout;
+    @NotNull private final BlockingDeque<Chunk> pendingChunks;
+    @NotNull private final Set<Connection> connections;
+    @NotNull private final AtomicInteger reassignments;
+    @NotNull private final Thread acceptThread;
+    private volatile boolean closed;
+
+    /**
+     * Constructor. The port is opened in all the interfaces of the machine.
+     *
+     * @param port             the port where the workers connect. 0 to use a free port (see {@link #getPort()}).
+     * @param chunkSize        the max number of solutions sent to a worker in each request.
+     * @param heartbeatTimeout the milliseconds that the evaluator waits a heartbeat or the response of a worker. It
+     *                         has to be greater than the heartbeat interval of the workers.
+     * @throws IllegalArgumentException if chunkSize or heartbeatTimeout is less than 1.
+     * @throws IOException              if the port can't be opened.
+     */
+    public RemoteSolutionEvaluator(int port, int chunkSize, int heartbeatTimeout) throws IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size has to be greater than 0.");
+        }
+        if (heartbeatTimeout < 1) {
+            throw new IllegalArgumentException("The heartbeat timeout has to be greater than 0.");
+        }
+        this.chunkSize = chunkSize;
+        this.heartbeatTimeout = heartbeatTimeout;
+        this.pendingChunks = new LinkedBlockingDeque<>();
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.reassignments = new AtomicInteger();
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(port));
+
+        this.acceptThread = new Thread(this::acceptWorkers, "remote-evaluator-accept");
+        this.acceptThread.setDaemon(true);
+        this.acceptThread.start();
+    }
+
+    /**
+     * Get the port where the workers connect.
+     *
+     * @return the port.
+     */
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * It is the number of workers connected, so it changes while the workers connect or disconnect.
+     */
+    @Override
+    public int getNumberOfWorkers() {
+        return this.connections.size();
+    }
+
+    /**
+     * Get the number of times that a chunk was returned to the queue because its worker was lost.
+     *
+     * @return the number of reassignments.
+     */
+    public int getReassignments() {
+        return this.reassignments.get();
+    }
+
+    /**
+     * Wait until a number of workers are connected.
+     *
+     * @param numberOfWorkers the number of workers.
+     * @param timeout         the max milliseconds to wait.
+     * @return true if the workers are connected, false if the time finished before.
+     * @throws InterruptedException if the thread is interrupted.
+     */
+    public boolean awaitWorkers(int numberOfWorkers, long timeout) throws InterruptedException {
+        long end = System.currentTimeMillis() + timeout;
+        synchronized (this.connections) {
+            while (this.connections.size() < numberOfWorkers) {
+                long remaining = end - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                this.connections.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The solutions are evaluated with the problems of the workers. The problem received is not used.
+     *
+     * @throws EpanetException      if the problem of a worker throws a {@link EpanetException}.
+     * @throws ApplicationException if the problem of a worker throws other exception, if a chunk is lost
+     *                              {@value #MAX_ATTEMPTS} times, if the evaluator is closed or if the thread is
+     *                              interrupted while wait the evaluation.
+     */
+    @Override
+    public List<IntegerSolution> evaluate(List<IntegerSolution> solutionList, Problem<IntegerSolution> problem)
+            throws EpanetException {
+        if (this.closed) {
+            throw new ApplicationException("The remote evaluator is closed.");
+        }
+        int numberOfChunks = (solutionList.size() + this.chunkSize - 1) / this.chunkSize;
+        Batch batch = new Batch(numberOfChunks, null);
+        for (int i = 0; i < numberOfChunks; i++) {
+            int from = i * this.chunkSize;
+            int to = Math.min(solutionList.size(), from + this.chunkSize);
+            this.pendingChunks.add(new Chunk(batch, solutionList.subList(from, to)));
+        }
+
+        try {
+            batch.latch.await();
+        } catch (InterruptedException e) {
+            batch.fail(e);
+            Thread.currentThread().interrupt();
+            throw new ApplicationException("The evaluation of the solutions was interrupted.", e);
+        }
+
+        Throwable error = batch.error;
+        if (error instanceof EpanetException) {
+            throw (EpanetException) error;
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error != null) {
+            throw new ApplicationException("There is a error in the evaluation of the solutions.", error);
+        }
+        return solutionList;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The solution is sent alone to the first worker that asks for a chunk. The problem received is not used. The
+     * errors are the same of {@link #evaluate(List, Problem)}.
+     *
+     * @throws ApplicationException if the evaluator is closed.
+     */
+    @Override
+    public Future<IntegerSolution> submit(IntegerSolution solution, Problem<IntegerSolution> problem,
+                                          Consumer<Future<IntegerSolution>> onCompletion) {
+        if (this.closed) {
+            throw new ApplicationException("The remote evaluator is closed.");
+        }
+        CompletableFuture<IntegerSolution> future = new CompletableFuture<>();
+        Batch batch = new Batch(1, finished -> {
+            if (finished.error == null) {
+                future.complete(solution);
+            } else {
+                future.completeExceptionally(finished.error);
+            }
+            onCompletion.accept(future);
+        });
+        this.pendingChunks.add(new Chunk(batch, Collections.singletonList(solution)));
+        return future;
+    }
+
+    /**
+     * Close the port and ask to the workers to finish. The evaluations waiting workers fail.
+     *
+     * @throws IOException if there is a error closing the port.
+     */
+    @Override
+    public void close() throws IOException {
+        this.closed = true;
+        this.acceptThread.interrupt();
+        try {
+            this.serverSocket.close();
+        } finally {
+            for (Connection connection : new ArrayList<>(this.connections)) {
+                connection.shutdown();
+            }
+            ApplicationException closedException = new ApplicationException("The remote evaluator was closed.");
+            Chunk chunk;
+            while ((chunk = this.pendingChunks.poll()) != null) {
+                chunk.batch.fail(closedException);
+                chunk.batch.finishChunk();
+            }
+        }
+    }
+
+    private void acceptWorkers() {
+        while (!this.closed) {
+            Socket socket;
+            try {
+                socket = this.serverSocket.accept();
+            } catch (IOException e) {
+                // the server socket was closed
+                return;
+            }
+            Connection connection = new Connection(socket);
+            Thread thread = new Thread(connection, "remote-evaluator-" + socket.getRemoteSocketAddress());
+            thread.setDaemon(true);
+            connection.thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * The solution list received by a call to {@link #evaluate(List, Problem)} or the solution received by a call to
+     * {@link #submit(IntegerSolution, Problem, Consumer)}.
+     */
+    private static class Batch {
+        private final CountDownLatch latch;
+        private final Consumer<Batch> onFinish;
+        private volatile Throwable error;
+
+        /**
+         * Constructor.
+         *
+         * @param numberOfChunks the number of chunks.
+         * @param onFinish       the action executed with the batch when all the chunks finish, successfully or not. It
+         *                       can be null.
+         */
+        Batch(int numberOfChunks, Consumer<Batch> onFinish) {
+            this.latch = new CountDownLatch(numberOfChunks);
+            this.onFinish = onFinish;
+        }
+
+        /**
+         * Mark a chunk as finished. The last chunk executes the action of finish in the current thread.
+         */
+        void finishChunk() {
+            boolean last;
+            synchronized (this) {
+                this.latch.countDown();
+                last = this.latch.getCount() == 0;
+            }
+            if (last && this.onFinish != null) {
+                this.onFinish.accept(this);
+            }
+        }
+
+        synchronized void fail(Throwable throwable) {
+            if (this.error == null) {
+                this.error = throwable;
+            }
+        }
+    }
+
+    /**
+     * A part of a batch sent to a worker.
+     */
+    private static class Chunk {
+        private final Batch batch;
+        private final List<IntegerSolution> solutions;
+        private int attempts;
+
+        Chunk(Batch batch, List<IntegerSolution> solutions) {
+            this.batch = batch;
+            this.solutions = solutions;
+        }
+    }
+
+    /**
+     * The connection with a worker. It takes chunks of the queue until the connection is lost.
+     */
+    private class Connection implements Runnable {
+        private final Socket socket;
+        private DataOutputStream output;
+        private DataInputStream input;
+        private volatile Thread thread;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            int numberOfVariables;
+            int numberOfObjectives;
+            try {
+                this.socket.setSoTimeout(heartbeatTimeout);
+                this.socket.setTcpNoDelay(true);
+                this.output = new DataOutputStream(new BufferedOutputStream(this.socket.getOutputStream()));
+                this.input = new DataInputStream(new BufferedInputStream(this.socket.getInputStream()));
+                int[] header = SolutionWireFormat.readHeader(this.input);
+                numberOfVariables = header[0];
+                numberOfObjectives = header[1];
+            } catch (IOException e) {
+                closeSocket();
+                return;
+            }
+            synchronized (connections) {
+                connections.add(this);
+                connections.notifyAll();
+            }
+
+            try {
+                while (!closed) {
+                    Chunk chunk = pendingChunks.take();
+                    if (chunk.batch.error != null) {
+                        chunk.batch.finishChunk();
+                        continue;
+                    }
+                    try {
+                        SolutionWireFormat.writeRequest(this.output, chunk.solutions, numberOfVariables);
+                        SolutionWireFormat.readResponse(this.input, chunk.solutions, numberOfObjectives);
+                    } catch (EpanetException | ApplicationException | IllegalArgumentException e) {
+                        // it is a error of the problem, so it would happen again in other worker
+                        chunk.batch.fail(e);
+                        chunk.batch.finishChunk();
+                        continue;
+                    } catch (IOException e) {
+                        // the worker is removed before the chunk is returned, so it isn't counted when the
+                        // evaluation finishes
+                        connections.remove(this);
+                        reassign(chunk, e);
+                        return;
+                    }
+                    chunk.batch.finishChunk();
+                }
+            } catch (InterruptedException e) {
+                // the evaluator was closed
+            } finally {
+                connections.remove(this);
+                closeSocket();
+            }
+        }
+
+        /**
+         * Return the chunk of a lost worker to the queue.
+         *
+         * @param chunk the chunk.
+         * @param cause the error of the connection.
+         */
+        private void reassign(Chunk chunk, IOException cause) {
+            chunk.attempts++;
+            if (chunk.attempts >= MAX_ATTEMPTS || closed) {
+                chunk.batch.fail(new ApplicationException("A chunk of solutions was lost " + chunk.attempts
+                        + " times.", cause));
+                chunk.batch.finishChunk();
+            } else {
+                reassignments.incrementAndGet();
+                pendingChunks.addFirst(chunk);
+            }
+        }
+
+        /**
+         * Ask to the worker to finish and close the connection.
+         */
+        void shutdown() {
+            if (this.thread != null) {
+                this.thread.interrupt();
+            }
+            try {
+                if (this.output != null) {
+                    this.output.writeInt(SolutionWireFormat.SHUTDOWN);
+                    this.output.flush();
+                }
+            } catch (IOException e) {
+                // the worker is already disconnected
+            } finally {
+                closeSocket();
+            }
+        }
+
+        private void closeSocket() {
+            try {
+                this.socket.close();
+            } catch (IOException e) {
+                // nothing to do
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Worker of a {@link RemoteSolutionEvaluator}. It connects to the evaluator and evaluate the solutions received
+ * until the evaluator ask to finish or the connection is closed.
+ * <p>
+ * The main method receives the host and port of the evaluator, the name of a
+ * {@link ProcessPoolSolutionEvaluator.ProcessProblemFactory}, the index of the worker and the arguments of the
+ * factory. For example, to evaluate the pipe optimizing problem with the library of epanet:
+ * <pre>
+ *     java -cp ... model.metaheuristic.util.evaluator.impl.RemoteWorker master-host 5000 \
+ *         registrable.utils.PipeOptimizingProcessFactory 1 epanet hanoi.inp hanoi.gama 30
+ * </pre>
+ * A heartbeat is sent each {@value #DEFAULT_HEARTBEAT_INTERVAL} milliseconds while a chunk is evaluated.
+ */
+public final class RemoteWorker {
+    /**
+     * The milliseconds between heartbeats used by the main method.
+     */
+    public static final long DEFAULT_HEARTBEAT_INTERVAL = 1000;
+
+    private RemoteWorker() {
+    }
+
+    /**
+     * Connect to a evaluator and evaluate the solutions received until the evaluator ask to finish or the connection
+     * is closed. The resources of the problem aren't closed.
+     *
+     * @param host              the host of evaluator.
+     * @param port              the port of evaluator.
+     * @param problem           the problem used to evaluate.
+     * @param heartbeatInterval the milliseconds between heartbeats. 0 to don't send heartbeats.
+     * @throws NullPointerException     if host or problem is null.
+     * @throws IllegalArgumentException if heartbeatInterval is negative.
+     * @throws IOException              if the connection fails.
+     */
+    public static void run(@NotNull String host, int port, @NotNull Problem<IntegerSolution> problem,
+                           long heartbeatInterval) throws IOException {
+        Objects.requireNonNull(host);
+        Objects.requireNonNull(problem);
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            new ProcessWorker(problem, input, output, heartbeatInterval).serve();
+        }
+    }
+
+    /**
+     * Start a worker.
+     *
+     * @param args the host and port of evaluator, the name of factory, the index of worker and the arguments of
+     *             the factory.
+     * @throws Exception if the problem can't be created or there is a error in the connection.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: RemoteWorker <host> <port> <factory class> <worker index> [arguments]");
+            System.exit(2);
+        }
+        Problem<IntegerSolution> problem = ProcessWorker.createProblem(args[2], Integer.parseInt(args[3]),
+                Arrays.copyOfRange(args, 4, args.length));
+        try {
+            run(args[0], Integer.parseInt(args[1]), problem, DEFAULT_HEARTBEAT_INTERVAL);
+        } finally {
+            problem.closeResources();
+        }
+    }
+}
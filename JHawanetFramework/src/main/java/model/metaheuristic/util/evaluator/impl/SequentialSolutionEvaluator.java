@@ -42,9 +42,7 @@ public class SequentialSolutionEvaluator<S extends Solution<?>> implements Solut
 
     @Override
     public List<S> evaluate(List<S> solutionList, Problem<S> problem) throws EpanetException {
-        for (S s : solutionList) {
-            problem.evaluate(s);
-        }
+        problem.evaluateAll(solutionList);
         return solutionList;
     }
 }
@@ -0,0 +1,251 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import epanet.core.EpanetException;
+import exception.ApplicationException;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import model.metaheuristic.util.solutionattribute.ViolationCutoff;
+import model.metaheuristic.util.solutionattribute.ViolationLowerBound;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Binary format of the messages between a evaluator and its workers. It is used by
+ * {@link ProcessPoolSolutionEvaluator} and {@link RemoteSolutionEvaluator}. All the numbers are written with
+ * {@link DataOutputStream}:
+ * <pre>
+ *     header:   int magic, int numberOfVariables, int numberOfObjectives
+ *     request:  int batchSize (-1 to finish), and by solution: int[numberOfVariables] variables, double cutoff
+ *     response: byte status (0 ok, 1 EpanetException, 2 other exception, 3 heartbeat), and
+ *               if status is 0, by solution: double[numberOfObjectives] objectives, double overallViolation,
+ *                   int numberOfViolatedConstraints, byte violationLowerBound
+ *               if status is 1 or 2, a UTF string with the message of exception
+ *               if status is 3, nothing. The worker is alive and the response comes after.
+ * </pre>
+ * The attributes that the solution hasn't are written as NaN or -1.
+ */
+final class SolutionWireFormat {
+    /**
+     * Number written by the worker at the beginning of the communication.
+     */
+    static final int MAGIC = 0x4A485057;
+    /**
+     * Size of batch used to ask to the worker to finish.
+     */
+    static final int SHUTDOWN = -1;
+    /**
+     * The batch was evaluated.
+     */
+    static final byte STATUS_OK = 0;
+    /**
+     * The problem throws a {@link EpanetException}.
+     */
+    static final byte STATUS_EPANET_ERROR = 1;
+    /**
+     * The problem throws other exception.
+     */
+    static final byte STATUS_ERROR = 2;
+    /**
+     * The worker still is evaluating the batch.
+     */
+    static final byte STATUS_HEARTBEAT = 3;
+    /**
+     * Value used to a attribute that the solution hasn't.
+     */
+    static final byte ABSENT = -1;
+
+    private static final OverallConstraintViolation<IntegerSolution> OVERALL_CONSTRAINT_VIOLATION = new OverallConstraintViolation<>();
+    private static final NumberOfViolatedConstraints<IntegerSolution> NUMBER_OF_VIOLATED_CONSTRAINTS = new NumberOfViolatedConstraints<>();
+    private static final ViolationLowerBound<IntegerSolution> VIOLATION_LOWER_BOUND = new ViolationLowerBound<>();
+    private static final ViolationCutoff<IntegerSolution> VIOLATION_CUTOFF = new ViolationCutoff<>();
+
+    private SolutionWireFormat() {
+    }
+
+    /**
+     * Write the header of the worker.
+     *
+     * @param output  the stream.
+     * @param problem the problem of worker.
+     * @throws IOException if there is a error writing.
+     */
+    static void writeHeader(DataOutputStream output, Problem<IntegerSolution> problem) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeInt(problem.getNumberOfVariables());
+        output.writeInt(problem.getNumberOfObjectives());
+        output.flush();
+    }
+
+    /**
+     * Read the header of a worker.
+     *
+     * @param input the stream.
+     * @return the number of variables and the number of objectives of the problem of worker.
+     * @throws IOException if there is a error reading or the header isn't valid.
+     */
+    static int[] readHeader(DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("The worker didn't send a valid header.");
+        }
+        return new int[]{input.readInt(), input.readInt()};
+    }
+
+    /**
+     * Write a batch of solutions.
+     *
+     * @param output            the stream.
+     * @param solutions         the solutions.
+     * @param numberOfVariables the number of variables of the problem of worker.
+     * @throws IOException              if there is a error writing.
+     * @throws IllegalArgumentException if a solution hasn't the number of variables of the problem of worker. In
+     *                                  this case nothing is written.
+     */
+    static void writeRequest(DataOutputStream output, List<IntegerSolution> solutions, int numberOfVariables)
+            throws IOException {
+        for (IntegerSolution solution : solutions) {
+            if (solution.getNumberOfVariables() != numberOfVariables) {
+                throw new IllegalArgumentException("The solution has " + solution.getNumberOfVariables()
+                        + " variables but the problem of worker has " + numberOfVariables);
+            }
+        }
+        output.writeInt(solutions.size());
+        for (IntegerSolution solution : solutions) {
+            for (int i = 0; i < numberOfVariables; i++) {
+                output.writeInt(solution.getInt(i));
+            }
+            Double cutoff = VIOLATION_CUTOFF.getAttribute(solution);
+            output.writeDouble(cutoff == null ? Double.NaN : cutoff);
+        }
+        output.flush();
+    }
+
+    /**
+     * Read a batch of solutions. The solutions are created with the problem.
+     *
+     * @param input     the stream.
+     * @param problem   the problem of worker.
+     * @param solutions the list where the solutions are added.
+     * @return false if the input was closed or the evaluator asked to finish, true in other case.
+     * @throws IOException if there is a error reading.
+     */
+    static boolean readRequest(DataInputStream input, Problem<IntegerSolution> problem, List<IntegerSolution> solutions)
+            throws IOException {
+        int size;
+        try {
+            size = input.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        if (size == SHUTDOWN) {
+            return false;
+        }
+        int numberOfVariables = problem.getNumberOfVariables();
+        for (int j = 0; j < size; j++) {
+            IntegerSolution solution = problem.createSolution();
+            for (int i = 0; i < numberOfVariables; i++) {
+                solution.setInt(i, input.readInt());
+            }
+            double cutoff = input.readDouble();
+            if (!Double.isNaN(cutoff)) {
+                VIOLATION_CUTOFF.setAttribute(solution, cutoff);
+            }
+            solutions.add(solution);
+        }
+        return true;
+    }
+
+    /**
+     * Write the results of a batch evaluated.
+     *
+     * @param output    the stream.
+     * @param solutions the solutions evaluated.
+     * @throws IOException if there is a error writing.
+     */
+    static void writeResults(DataOutputStream output, List<IntegerSolution> solutions) throws IOException {
+        output.writeByte(STATUS_OK);
+        for (IntegerSolution solution : solutions) {
+            for (int i = 0; i < solution.getNumberOfObjectives(); i++) {
+                output.writeDouble(solution.getObjective(i));
+            }
+            Double violation = OVERALL_CONSTRAINT_VIOLATION.getAttribute(solution);
+            output.writeDouble(violation == null ? Double.NaN : violation);
+            Integer violatedConstraints = NUMBER_OF_VIOLATED_CONSTRAINTS.getAttribute(solution);
+            output.writeInt(violatedConstraints == null ? ABSENT : violatedConstraints);
+            Boolean lowerBound = VIOLATION_LOWER_BOUND.getAttribute(solution);
+            output.writeByte(lowerBound == null ? ABSENT : (lowerBound ? 1 : 0));
+        }
+        output.flush();
+    }
+
+    /**
+     * Write the error of a batch.
+     *
+     * @param output the stream.
+     * @param error  the exception throws by the problem.
+     * @throws IOException if there is a error writing.
+     */
+    static void writeError(DataOutputStream output, Exception error) throws IOException {
+        output.writeByte(error instanceof EpanetException ? STATUS_EPANET_ERROR : STATUS_ERROR);
+        output.writeUTF(String.valueOf(error.getMessage()));
+        output.flush();
+    }
+
+    /**
+     * Write a heartbeat.
+     *
+     * @param output the stream.
+     * @throws IOException if there is a error writing.
+     */
+    static void writeHeartbeat(DataOutputStream output) throws IOException {
+        output.writeByte(STATUS_HEARTBEAT);
+        output.flush();
+    }
+
+    /**
+     * Read the response of a batch and copy the results to the solutions. The heartbeats are skipped.
+     *
+     * @param input              the stream.
+     * @param solutions          the solutions sent in the request.
+     * @param numberOfObjectives the number of objectives of the problem of worker.
+     * @throws EpanetException      if the problem of worker throws a {@link EpanetException}.
+     * @throws ApplicationException if the problem of worker throws other exception.
+     * @throws IOException          if there is a error reading or the response isn't valid.
+     */
+    static void readResponse(DataInputStream input, List<IntegerSolution> solutions, int numberOfObjectives)
+            throws IOException {
+        byte status = input.readByte();
+        while (status == STATUS_HEARTBEAT) {
+            status = input.readByte();
+        }
+        if (status == STATUS_EPANET_ERROR) {
+            throw new EpanetException(input.readUTF());
+        } else if (status == STATUS_ERROR) {
+            throw new ApplicationException(input.readUTF());
+        } else if (status != STATUS_OK) {
+            throw new IOException("The worker sent a invalid status " + status);
+        }
+        for (IntegerSolution solution : solutions) {
+            for (int i = 0; i < numberOfObjectives; i++) {
+                solution.setObjective(i, input.readDouble());
+            }
+            double violation = input.readDouble();
+            if (!Double.isNaN(violation)) {
+                OVERALL_CONSTRAINT_VIOLATION.setAttribute(solution, violation);
+            }
+            int violatedConstraints = input.readInt();
+            if (violatedConstraints != ABSENT) {
+                NUMBER_OF_VIOLATED_CONSTRAINTS.setAttribute(solution, violatedConstraints);
+            }
+            byte lowerBound = input.readByte();
+            if (lowerBound != ABSENT) {
+                VIOLATION_LOWER_BOUND.setAttribute(solution, lowerBound == 1);
+            }
+        }
+    }
+}
@@ -29,6 +29,7 @@
 package model.metaheuristic.util.io;
 
 import model.metaheuristic.solution.Solution;
+import model.metaheuristic.solution.impl.IntegerSolution;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
@@ -94,6 +95,15 @@ public class SolutionListOutput {
     private String formatVAR(Solution<?> solution) {
         StringBuilder text = new StringBuilder();
         int numberOfVariables = solution.getNumberOfVariables();
+        if (solution instanceof IntegerSolution) {
+            // the integers are added without create a string by variable
+            IntegerSolution integerSolution = (IntegerSolution) solution;
+            for (int i = 0; i < numberOfVariables - 1; i++) {
+                text.append(integerSolution.getInt(i)).append(this.separator);
+            }
+            text.append(integerSolution.getInt(numberOfVariables - 1));
+            return text.toString();
+        }
         for (int i = 0; i < numberOfVariables - 1; i++) {
             text.append(solution.getVariableAsString(i)).append(this.separator);
         }
@@ -1,38 +1,123 @@
 package model.metaheuristic.util.random;
 
-import java.util.Random;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * A class that use the singleton pattern. It class contains random method.
- *
+ * A stream of random numbers. It class contains random method.
+ * <p>
+ * {@link #getInstance()} returns the stream of the current thread, so the operators and the solutions that use it
+ * don't share a generator with the algorithms executed in other threads. The stream of a thread can be changed with
+ * {@link #setInstance(JavaRandom)}, so {@link model.metaheuristic.experiment.util.ExperimentAlgorithm} uses in each
+ * step the stream of its run, created with {@link #forRun(long, int)}. A run executed with the same experiment seed
+ * and run id generates the same numbers, independently of the runs executed at the same time.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * The numbers are generated with {@link SplittableRandom}, so a instance can't be used by several threads at the
+ * same time. A algorithm that uses several threads has to give to each thread its own stream, created with {@link
+ * #split()} from the thread that runs the algorithm.
  */
 public class JavaRandom {
-	private static JavaRandom instance;
-	
-	private final Random random;
-	
-	private JavaRandom() {
-		this.random = new Random(System.currentTimeMillis());
+	private static final AtomicLong SEED_UNIQUIFIER = new AtomicLong(System.currentTimeMillis());
+	private static final ThreadLocal<JavaRandom> CURRENT = ThreadLocal.withInitial(() -> new JavaRandom(createSeed()));
+	// the odd constant used by SplittableRandom to advance its state
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private SplittableRandom random;
+	private double nextNextGaussian;
+	private boolean haveNextNextGaussian;
+
+	/**
+	 * Constructor
+	 *
+	 * @param seed the seed of random generator
+	 */
+	public JavaRandom(long seed) {
+		this.random = new SplittableRandom(seed);
 	}
-	
+
+	private JavaRandom(SplittableRandom random) {
+		this.random = random;
+	}
+
+	/**
+	 * Get the stream of the current thread. If {@link #setInstance(JavaRandom)} wasn't called in this thread it is a
+	 * stream with a seed different in each thread.
+	 *
+	 * @return the stream of the current thread
+	 */
 	public static JavaRandom getInstance() {
-		if (instance == null) {
-			instance = new JavaRandom();
-		}
-		return instance;
+		return CURRENT.get();
+	}
+
+	/**
+	 * Set the stream returned by {@link #getInstance()} in the current thread.
+	 *
+	 * @param random the new stream
+	 * @return the previous stream of the thread, used to restore it
+	 * @throws NullPointerException if random is null
+	 */
+	public static JavaRandom setInstance(JavaRandom random) {
+		Objects.requireNonNull(random);
+		JavaRandom previous = CURRENT.get();
+		CURRENT.set(random);
+		return previous;
+	}
+
+	/**
+	 * Create the stream of a run of a experiment. The streams of different runs of a experiment are independent.
+	 *
+	 * @param experimentSeed the seed of the experiment
+	 * @param runId          the id of the run
+	 * @return the stream of the run
+	 */
+	public static JavaRandom forRun(long experimentSeed, int runId) {
+		return new JavaRandom(mix(mix(experimentSeed) + GOLDEN_GAMMA * (runId + 1L)));
+	}
+
+	/**
+	 * Create a seed different in each call, used when the seed of a experiment isn't given.
+	 *
+	 * @return a seed
+	 */
+	public static long createSeed() {
+		return mix(SEED_UNIQUIFIER.getAndAdd(GOLDEN_GAMMA));
+	}
+
+	/**
+	 * Create a new stream whose numbers are independent of the numbers of this stream. This stream advances, so
+	 * the streams created after the same calls are the same.
+	 *
+	 * @return the new stream
+	 * @see SplittableRandom#split()
+	 */
+	public JavaRandom split() {
+		return new JavaRandom(random.split());
+	}
+
+	/**
+	 * The mix function of the seeds of SplittableRandom (variant 13 of the MurmurHash3 finalizer).
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
 	}
 
 	/**
 	 * @param seed the seed of random generator
-	 * @see java.util.Random#setSeed(long)
+	 * @see java.util.SplittableRandom#SplittableRandom(long)
 	 */
 	public void setSeed(long seed) {
-		random.setSeed(seed);
+		random = new SplittableRandom(seed);
+		haveNextNextGaussian = false;
 	}
 
 	/**
 	 * @return a int
-	 * @see java.util.Random#nextInt()
+	 * @see java.util.SplittableRandom#nextInt()
 	 */
 	public int nextInt() {
 		return random.nextInt();
@@ -41,7 +126,7 @@ public class JavaRandom {
 	/**
 	 * @param bound the upper bound (exclusive). Must be positive
 	 * @return a int number
-	 * @see java.util.Random#nextInt(int)
+	 * @see java.util.SplittableRandom#nextInt(int)
 	 */
 	public int nextInt(int bound) {
 		return random.nextInt(bound);
@@ -59,7 +144,7 @@ public class JavaRandom {
 
 	/**
 	 * @return a long number
-	 * @see java.util.Random#nextLong()
+	 * @see java.util.SplittableRandom#nextLong()
 	 */
 	public long nextLong() {
 		return random.nextLong();
@@ -67,7 +152,7 @@ public class JavaRandom {
 
 	/**
 	 * @return a boolean
-	 * @see java.util.Random#nextBoolean()
+	 * @see java.util.SplittableRandom#nextBoolean()
 	 */
 	public boolean nextBoolean() {
 		return random.nextBoolean();
@@ -79,13 +164,13 @@ public class JavaRandom {
 	 * @see java.util.Random#nextFloat()
 	 */
 	public float nextFloat() {
-		return random.nextFloat();
+		return (random.nextInt() >>> 8) * 0x1.0p-24f;
 	}
 
 	/**
 	 * Returns the next pseudorandom, uniformly distributed double value between 0.0 and 1.0 from this random number generator's sequence.
 	 * @return a double number
-	 * @see java.util.Random#nextDouble()
+	 * @see java.util.SplittableRandom#nextDouble()
 	 */
 	public double nextDouble() {
 		return random.nextDouble();
@@ -106,9 +191,20 @@ public class JavaRandom {
 	 * @see java.util.Random#nextGaussian()
 	 */
 	public double nextGaussian() {
-		return random.nextGaussian();
+		// polar method, as java.util.Random
+		if (haveNextNextGaussian) {
+			haveNextNextGaussian = false;
+			return nextNextGaussian;
+		}
+		double v1, v2, s;
+		do {
+			v1 = 2 * random.nextDouble() - 1;
+			v2 = 2 * random.nextDouble() - 1;
+			s = v1 * v1 + v2 * v2;
+		} while (s >= 1 || s == 0);
+		double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+		nextNextGaussian = v2 * multiplier;
+		haveNextNextGaussian = true;
+		return v1 * multiplier;
 	}
-	
-	
-	
 }
@@ -0,0 +1,134 @@
+package model.metaheuristic.util.solutionattribute;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the attributes whose value is a primitive value. Each attribute identifier registered has a fixed
+ * index, so the solutions that use {@link model.metaheuristic.solution.impl.SolutionAttributeMap} keep its value in a
+ * array of primitive values in that index instead of keep it boxed in a hash map.
+ * <p>
+ * The attributes are registered by the constructors of {@link DoubleSolutionAttribute}, {@link
+ * IntegerSolutionAttribute} and {@link ViolationLowerBound}. There are until {@link #MAX_SLOTS} slots, the attributes
+ * registered after them are kept in the hash map.
+ */
+public final class AttributeSlot {
+    /**
+     * The max number of slots.
+     */
+    public static final int MAX_SLOTS = 64;
+
+    private static final Map<Object, AttributeSlot> SLOTS = new ConcurrentHashMap<>();
+    private static volatile AttributeSlot[] slotsByIndex = new AttributeSlot[0];
+
+    private final Object identifier;
+    private final Type type;
+    private final int index;
+
+    /**
+     * The type of the value of a slot.
+     */
+    public enum Type {
+        DOUBLE, INTEGER, BOOLEAN
+    }
+
+    private AttributeSlot(Object identifier, Type type, int index) {
+        this.identifier = identifier;
+        this.type = type;
+        this.index = index;
+    }
+
+    /**
+     * Get the slot of a attribute identifier, registering it if it isn't registered.
+     *
+     * @param identifier the attribute identifier.
+     * @param type       the type of the value of the attribute.
+     * @return the slot or null if there aren't more slots.
+     * @throws IllegalArgumentException if the identifier is registered with other type.
+     */
+    static synchronized @Nullable AttributeSlot register(Object identifier, Type type) {
+        AttributeSlot slot = SLOTS.get(identifier);
+        if (slot != null) {
+            if (slot.type != type) {
+                throw new IllegalArgumentException("The attribute " + identifier + " is registered with the type "
+                        + slot.type + " and not " + type + ".");
+            }
+            return slot;
+        }
+        AttributeSlot[] slots = slotsByIndex;
+        if (slots.length == MAX_SLOTS) {
+            return null;
+        }
+        slot = new AttributeSlot(identifier, type, slots.length);
+        AttributeSlot[] newSlots = new AttributeSlot[slots.length + 1];
+        System.arraycopy(slots, 0, newSlots, 0, slots.length);
+        newSlots[slots.length] = slot;
+        SLOTS.put(identifier, slot);
+        slotsByIndex = newSlots;
+        return slot;
+    }
+
+    /**
+     * Get the slot of a attribute identifier.
+     *
+     * @param identifier the attribute identifier.
+     * @return the slot or null if the identifier isn't registered.
+     */
+    public static @Nullable AttributeSlot find(Object identifier) {
+        return identifier == null ? null : SLOTS.get(identifier);
+    }
+
+    /**
+     * Get a slot by its index.
+     *
+     * @param index the index of the slot.
+     * @return the slot.
+     * @throws IndexOutOfBoundsException if there isn't a slot with this index.
+     */
+    public static AttributeSlot get(int index) {
+        return slotsByIndex[index];
+    }
+
+    /**
+     * Get the number of registered slots.
+     *
+     * @return the number of slots.
+     */
+    public static int getNumberOfSlots() {
+        return slotsByIndex.length;
+    }
+
+    /**
+     * Get the attribute identifier.
+     *
+     * @return the identifier.
+     */
+    public Object getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * Get the type of the value.
+     *
+     * @return the type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the index of the slot.
+     *
+     * @return a index between 0 and {@link #MAX_SLOTS} - 1.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "AttributeSlot{identifier=" + identifier + ", type=" + type + ", index=" + index + "}";
+    }
+}
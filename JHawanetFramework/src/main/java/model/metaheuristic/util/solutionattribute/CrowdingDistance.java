@@ -29,17 +29,38 @@
 package model.metaheuristic.util.solutionattribute;
 
 import model.metaheuristic.solution.Solution;
-import model.metaheuristic.util.comparator.ObjectiveComparator;
+import model.metaheuristic.util.sorting.PrimitiveSorting;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.IntStream;
 
 /**
  * This class implements the crowding distance
+ * <p>
+ * The objectives of the solutions are copied to a contiguous matrix and the distances are computed over arrays of
+ * indices, so the attributes of the solutions are only written at the end. The sorts of the objectives can be
+ * executed in parallel, what is useful with big fronts and several objectives.
  */
-public class CrowdingDistance<S extends Solution<?>> extends SolutionAttribute<S, Double> {
+public class CrowdingDistance<S extends Solution<?>> extends DoubleSolutionAttribute<S> {
+	private final boolean parallel;
+
+	/**
+	 * Constructor. The objectives are sorted one after other.
+	 */
+	public CrowdingDistance() {
+		this(false);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param parallel true to sort the objectives in parallel.
+	 */
+	public CrowdingDistance(boolean parallel) {
+		this.parallel = parallel;
+	}
 
 	/**
 	 * Assigns crowding distances to all solutions in a <code>SolutionSet</code>.
@@ -48,56 +69,90 @@ public class CrowdingDistance<S extends Solution<?>> extends SolutionAttribute<S
 	 * @throws NullPointerException if solutionList is null
 	 */
 	public void computeDensityEstimator(List<S> solutionList) {
+		computeCrowdingDistances(solutionList);
+	}
+
+	/**
+	 * Assigns crowding distances to all solutions of the list and return them.
+	 *
+	 * @param solutionList the solution list.
+	 * @return the crowding distances. The element i is the distance of the solution i of the list.
+	 * @throws NullPointerException if solutionList is null
+	 */
+	public double[] computeCrowdingDistances(List<S> solutionList) {
 		Objects.requireNonNull(solutionList);
 		int size = solutionList.size();
-
 		if (size == 0) {
-			return;
-		}
-
-		if (size == 1) {
-			solutionList.get(0).setAttribute(getAttributeIdentifier(), Double.POSITIVE_INFINITY);
-			return;
+			return new double[0];
 		}
 
-		if (size == 2) {
-			solutionList.get(0).setAttribute(getAttributeIdentifier(), Double.POSITIVE_INFINITY);
-			solutionList.get(1).setAttribute(getAttributeIdentifier(), Double.POSITIVE_INFINITY);
-
-			return;
+		// the objective m of the solution i is in objectives[m * size + i]
+		int numberOfObjectives = solutionList.get(0).getNumberOfObjectives();
+		double[] objectives = new double[numberOfObjectives * size];
+		for (int i = 0; i < size; i++) {
+			double[] solutionObjectives = solutionList.get(i).getObjectives();
+			for (int m = 0; m < numberOfObjectives; m++) {
+				objectives[m * size + i] = solutionObjectives[m];
+			}
 		}
 
-		// Use a new SolutionSet to avoid altering the original solutionSet
-		List<S> front = new ArrayList<>(size);
-		front.addAll(solutionList);
-
+		double[] distances = computeCrowdingDistances(objectives, size, numberOfObjectives, parallel);
 		for (int i = 0; i < size; i++) {
-			front.get(i).setAttribute(getAttributeIdentifier(), 0.0);
+			setDouble(solutionList.get(i), distances[i]);
 		}
+		return distances;
+	}
 
-		double objectiveMaxn;
-		double objectiveMinn;
-		double distance;
-
-		int numberOfObjectives = solutionList.get(0).getNumberOfObjectives();
-
-		for (int i = 0; i < numberOfObjectives; i++) {
-			// Sort the population by objective n
-			Collections.sort(front, new ObjectiveComparator<S>(i));
-			objectiveMinn = front.get(0).getObjective(i);
-			objectiveMaxn = front.get(front.size() - 1).getObjective(i);
-
-			// Set de crowding distance
-			front.get(0).setAttribute(getAttributeIdentifier(), Double.POSITIVE_INFINITY);
-			front.get(size - 1).setAttribute(getAttributeIdentifier(), Double.POSITIVE_INFINITY);
+	/**
+	 * Compute the crowding distances of a set of points. The points at the extremes of each objective have a
+	 * infinite distance. If several points have the same value in a objective they are sorted by its index.
+	 *
+	 * @param objectives         the objectives of the points, the objective m of the point i is in
+	 *                           objectives[m * numberOfPoints + i].
+	 * @param numberOfPoints     the number of points.
+	 * @param numberOfObjectives the number of objectives.
+	 * @param parallel           true to sort the objectives in parallel.
+	 * @return the crowding distances. The element i is the distance of the point i.
+	 * @throws NullPointerException     if objectives is null.
+	 * @throws IllegalArgumentException if the length of objectives isn't numberOfPoints * numberOfObjectives.
+	 */
+	public static double[] computeCrowdingDistances(double[] objectives, int numberOfPoints, int numberOfObjectives,
+			boolean parallel) {
+		Objects.requireNonNull(objectives);
+		if (numberOfPoints < 0 || numberOfObjectives < 0 || objectives.length != numberOfPoints * numberOfObjectives) {
+			throw new IllegalArgumentException("The matrix has " + objectives.length + " values to " + numberOfPoints
+					+ " points and " + numberOfObjectives + " objectives.");
+		}
+		double[] distances = new double[numberOfPoints];
+		if (numberOfPoints <= 2) {
+			Arrays.fill(distances, Double.POSITIVE_INFINITY);
+			return distances;
+		}
 
-			for (int j = 1; j < size - 1; j++) {
-				distance = front.get(j + 1).getObjective(i) - front.get(j - 1).getObjective(i);
-				distance = distance / (objectiveMaxn - objectiveMinn);
-				distance += (double) front.get(j).getAttribute(getAttributeIdentifier());
-				front.get(j).setAttribute(getAttributeIdentifier(), distance);
+		// sortedIndices[m] are the indices of the points sorted by the objective m
+		int[][] sortedIndices = new int[numberOfObjectives][];
+		IntStream objectiveStream = IntStream.range(0, numberOfObjectives);
+		if (parallel) {
+			objectiveStream = objectiveStream.parallel();
+		}
+		objectiveStream.forEach(m -> sortedIndices[m] = PrimitiveSorting.sortIndices(objectives, m * numberOfPoints,
+				numberOfPoints));
+
+		// the objectives are added in order, so the distances don't depend of the parallel sort
+		for (int m = 0; m < numberOfObjectives; m++) {
+			int offset = m * numberOfPoints;
+			int[] indices = sortedIndices[m];
+			double objectiveMin = objectives[offset + indices[0]];
+			double objectiveMax = objectives[offset + indices[numberOfPoints - 1]];
+
+			distances[indices[0]] = Double.POSITIVE_INFINITY;
+			distances[indices[numberOfPoints - 1]] = Double.POSITIVE_INFINITY;
+			for (int j = 1; j < numberOfPoints - 1; j++) {
+				double distance = objectives[offset + indices[j + 1]] - objectives[offset + indices[j - 1]];
+				distances[indices[j]] += distance / (objectiveMax - objectiveMin);
 			}
 		}
+		return distances;
 	}
 
 	/**
@@ -31,6 +31,9 @@ package model.metaheuristic.util.solutionattribute;
 import model.metaheuristic.solution.Solution;
 import model.metaheuristic.util.comparator.DominanceComparator;
 import model.metaheuristic.util.comparator.OverallConstraintViolationComparator;
+import model.metaheuristic.util.sorting.NonDominatedSorting;
+import model.metaheuristic.util.sorting.impl.BiObjectiveNonDominatedSorting;
+import model.metaheuristic.util.sorting.impl.EfficientNonDominatedSorting;
 
 import java.util.*;
 
@@ -42,12 +45,19 @@ import java.util.*;
  * subset 0 contains the non-dominated solutions, subset 1 contains the
  * non-dominated solutions after removing those belonging to subset 0, and so
  * on.
+ * <p>
+ * When the solutions are compared with the default {@link DominanceComparator} the ranking is computed by a
+ * {@link NonDominatedSorting} over the objectives of the solutions. By default
+ * {@link BiObjectiveNonDominatedSorting} is used with two objectives and {@link EfficientNonDominatedSorting} with
+ * other number of objectives. With other comparators all the pairs of solutions are compared.
  */
-public class DominanceRanking<S extends Solution<?>> extends SolutionAttribute<S, Integer> {
+public class DominanceRanking<S extends Solution<?>> extends IntegerSolutionAttribute<S> {
 	private Comparator<S> dominanceComparator;
 	private static final Comparator<Solution<?>> CONSTRAINT_VIOLATION_COMPARATOR = new OverallConstraintViolationComparator<Solution<?>>();
 
 	private List<ArrayList<S>> rankedSubPopulations;
+	private final OverallConstraintViolation<S> overallConstraintViolation = new OverallConstraintViolation<>();
+	private NonDominatedSorting nonDominatedSorting;
 
 	/**
 	 * Constructor
@@ -58,6 +68,18 @@ public class DominanceRanking<S extends Solution<?>> extends SolutionAttribute<S
 		rankedSubPopulations = new ArrayList<>();
 	}
 
+	/**
+	 * Constructor. The solutions are compared with {@link DominanceComparator} and the ranking is computed with the
+	 * sorting algorithm received.
+	 *
+	 * @param nonDominatedSorting the algorithm used to sort the objectives of the solutions.
+	 * @throws NullPointerException if nonDominatedSorting is null.
+	 */
+	public DominanceRanking(NonDominatedSorting nonDominatedSorting) {
+		this(new DominanceComparator<>());
+		this.nonDominatedSorting = Objects.requireNonNull(nonDominatedSorting);
+	}
+
 	/**
 	 * Constructor
 	 */
@@ -78,6 +100,9 @@ public class DominanceRanking<S extends Solution<?>> extends SolutionAttribute<S
 	 * @return Return this object that contains the solution set splited by ranking.
 	 */
 	public DominanceRanking<S> computeRanking(List<S> solutionSet) {
+		if (canUseNonDominatedSorting(solutionSet)) {
+			return computeRankingWithNonDominatedSorting(solutionSet);
+		}
 		List<S> population = solutionSet;
 
 		// dominateMe[i] contains the number of solutions dominating i
@@ -124,7 +149,7 @@ public class DominanceRanking<S extends Solution<?>> extends SolutionAttribute<S
 		for (int i = 0; i < population.size(); i++) {
 			if (dominateMe[i] == 0) {
 				front.get(0).add(i);
-				solutionSet.get(i).setAttribute(getAttributeIdentifier(), 0);
+				setInt(solutionSet.get(i), 0);
 			}
 		}
 
@@ -142,7 +167,7 @@ public class DominanceRanking<S extends Solution<?>> extends SolutionAttribute<S
 					if (dominateMe[index] == 0) {
 						front.get(i).add(index);
 						// RankingAndCrowdingAttr.getAttributes(solutionSet.get(index)).setRank(i);
-						solutionSet.get(index).setAttribute(getAttributeIdentifier(), i);
+						setInt(solutionSet.get(index), i);
 					}
 				}
 			}
@@ -161,6 +186,81 @@ public class DominanceRanking<S extends Solution<?>> extends SolutionAttribute<S
 		return this;
 	}
 
+	/**
+	 * Test if the ranking can be computed over the objectives. It is possible when the solutions are compared with
+	 * {@link DominanceComparator} and {@link OverallConstraintViolationComparator}, all solutions have the same number
+	 * of objectives without NaN and the overall constraint violation is in all solutions or in none.
+	 */
+	private boolean canUseNonDominatedSorting(List<S> solutionSet) {
+		if (solutionSet.isEmpty() || dominanceComparator == null
+				|| dominanceComparator.getClass() != DominanceComparator.class
+				|| ((DominanceComparator<?>) dominanceComparator).getConstraintViolationComparator()
+						.getClass() != OverallConstraintViolationComparator.class) {
+			return false;
+		}
+		int numberOfObjectives = solutionSet.get(0).getNumberOfObjectives();
+		boolean hasViolation = overallConstraintViolation.hasValue(solutionSet.get(0));
+		for (S solution : solutionSet) {
+			if (solution.getNumberOfObjectives() != numberOfObjectives
+					|| overallConstraintViolation.hasValue(solution) != hasViolation) {
+				return false;
+			}
+			for (double objective : solution.getObjectives()) {
+				if (Double.isNaN(objective)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private DominanceRanking<S> computeRankingWithNonDominatedSorting(List<S> solutionSet) {
+		int numberOfSolutions = solutionSet.size();
+		double[][] objectives = new double[numberOfSolutions][];
+		for (int i = 0; i < numberOfSolutions; i++) {
+			objectives[i] = solutionSet.get(i).getObjectives();
+		}
+
+		// the violations are replaced by its position in the order of the constraint comparator, so the violation
+		// lower bounds are taken into account as in the comparator.
+		double[] violations = null;
+		if (overallConstraintViolation.hasValue(solutionSet.get(0))) {
+			Integer[] order = new Integer[numberOfSolutions];
+			for (int i = 0; i < numberOfSolutions; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, (i, j) -> CONSTRAINT_VIOLATION_COMPARATOR.compare(solutionSet.get(i), solutionSet.get(j)));
+			violations = new double[numberOfSolutions];
+			int position = 0;
+			for (int i = 1; i < numberOfSolutions; i++) {
+				if (CONSTRAINT_VIOLATION_COMPARATOR.compare(solutionSet.get(order[i - 1]), solutionSet.get(order[i])) != 0) {
+					position++;
+				}
+				violations[order[i]] = position;
+			}
+			if (position == 0) {
+				violations = null;
+			}
+		}
+
+		NonDominatedSorting sorting = nonDominatedSorting;
+		if (sorting == null) {
+			sorting = objectives[0].length == 2 ? new BiObjectiveNonDominatedSorting()
+					: new EfficientNonDominatedSorting();
+		}
+		int[] ranks = sorting.computeRanking(objectives, violations);
+
+		rankedSubPopulations = new ArrayList<>();
+		for (int i = 0; i < numberOfSolutions; i++) {
+			while (rankedSubPopulations.size() <= ranks[i]) {
+				rankedSubPopulations.add(new ArrayList<>());
+			}
+			rankedSubPopulations.get(ranks[i]).add(solutionSet.get(i));
+			setInt(solutionSet.get(i), ranks[i]);
+		}
+		return this;
+	}
+
 	/**
 	 * Get the solutions contains in the front indicated by rank. <br>
 	 * <br>
@@ -0,0 +1,60 @@
+package model.metaheuristic.util.solutionattribute;
+
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.solution.impl.SolutionAttributeMap;
+
+/**
+ * Attribute whose value is a double. The value is kept in a slot of {@link AttributeSlot}, so it can be read and
+ * written without box it with {@link #getDouble(Solution, double)} and {@link #setDouble(Solution, double)}.
+ *
+ * @param <S> Type of solution
+ */
+public class DoubleSolutionAttribute<S extends Solution<?>> extends SolutionAttribute<S, Double> {
+
+    /**
+     * Constructor
+     */
+    public DoubleSolutionAttribute() {
+        super(AttributeSlot.Type.DOUBLE);
+    }
+
+    /**
+     * Constructor. The attribute hasn't a slot, so its value is boxed.
+     *
+     * @param id Attribute identifier
+     */
+    public DoubleSolutionAttribute(Object id) {
+        super(id);
+    }
+
+    /**
+     * Get the value of the attribute.
+     *
+     * @param solution     the solution
+     * @param defaultValue the value returned if the solution hasn't the attribute
+     * @return the value of the attribute or defaultValue
+     */
+    public double getDouble(S solution, double defaultValue) {
+        SolutionAttributeMap attributes = getAttributeMap(solution);
+        if (attributes != null) {
+            return attributes.getDouble(getSlot(), defaultValue);
+        }
+        Double value = getAttribute(solution);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Set the value of the attribute.
+     *
+     * @param solution the solution
+     * @param value    the value
+     */
+    public void setDouble(S solution, double value) {
+        SolutionAttributeMap attributes = getAttributeMap(solution);
+        if (attributes != null) {
+            attributes.setDouble(getSlot(), value);
+        } else {
+            setAttribute(solution, value);
+        }
+    }
+}
@@ -34,5 +34,5 @@ import model.metaheuristic.solution.Solution;
  * @author Antonio J. Nebro &lt;antonio@lcc.uma.es&gt;
  */
 public class HypervolumeContributionAttribute<S extends Solution<?>>
-    extends SolutionAttribute<S, Double>  {
+    extends DoubleSolutionAttribute<S>  {
 }
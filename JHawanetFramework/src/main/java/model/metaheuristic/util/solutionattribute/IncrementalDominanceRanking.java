@@ -0,0 +1,205 @@
+package model.metaheuristic.util.solutionattribute;
+
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.comparator.DominanceComparator;
+import model.metaheuristic.util.comparator.OverallConstraintViolationComparator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Ranking of a population that is updated when a solution is added or removed, so a steady state algorithm doesn't
+ * need to sort all the population after each evaluation.
+ * <p>
+ * When a solution is added it is put in the first front where there isn't a solution that dominates it. The
+ * solutions of this front dominated by the new solution move to the next front, and the solutions of the next front
+ * dominated by the moved solutions move again, until no solution is moved. Only the fronts changed are compared
+ * with the new solution.
+ * <p>
+ * The {@link DominanceRanking} and {@link CrowdingDistance} attributes of the solutions are kept updated, so the
+ * population can be used with {@link model.metaheuristic.util.comparator.RankingAndCrowdingDistanceComparator}.
+ * The crowding distance is only recalculated in the fronts that changed.
+ *
+ * @param <S> the type of solution
+ */
+public class IncrementalDominanceRanking<S extends Solution<?>> {
+    private static final Comparator<Solution<?>> CONSTRAINT_VIOLATION_COMPARATOR = new OverallConstraintViolationComparator<>();
+
+    private final Comparator<S> dominanceComparator;
+    private final DominanceRanking<S> rankingAttribute;
+    private final CrowdingDistance<S> crowdingDistance;
+    private final List<List<S>> fronts;
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param dominanceComparator the comparator used to compare the solutions.
+     * @throws NullPointerException if dominanceComparator is null.
+     */
+    public IncrementalDominanceRanking(Comparator<S> dominanceComparator) {
+        this.dominanceComparator = Objects.requireNonNull(dominanceComparator);
+        this.rankingAttribute = new DominanceRanking<>();
+        this.crowdingDistance = new CrowdingDistance<>();
+        this.fronts = new ArrayList<>();
+    }
+
+    /**
+     * Constructor. It uses a {@link DominanceComparator}.
+     */
+    public IncrementalDominanceRanking() {
+        this(new DominanceComparator<>());
+    }
+
+    /**
+     * Remove the solutions of the ranking and compute the ranking of a new population from scratch.
+     *
+     * @param population the population.
+     */
+    public void computeRanking(List<S> population) {
+        this.fronts.clear();
+        this.size = 0;
+        if (population.isEmpty()) {
+            return;
+        }
+        DominanceRanking<S> ranking = new DominanceRanking<>(this.dominanceComparator);
+        ranking.computeRanking(population);
+        for (int i = 0; i < ranking.getNumberOfSubfronts(); i++) {
+            List<S> front = new ArrayList<>(ranking.getSubfront(i));
+            this.fronts.add(front);
+            for (S solution : front) {
+                this.rankingAttribute.setAttribute(solution, i);
+            }
+            this.crowdingDistance.computeDensityEstimator(front);
+            this.size += front.size();
+        }
+    }
+
+    /**
+     * Add a solution to the ranking.
+     *
+     * @param solution the solution evaluated.
+     * @return the rank of the solution.
+     */
+    public int add(S solution) {
+        int rank = 0;
+        while (rank < this.fronts.size() && isDominated(solution, this.fronts.get(rank))) {
+            rank++;
+        }
+
+        // the solutions moved to the next front are the new dominators of that front
+        List<S> moved = new ArrayList<>(1);
+        moved.add(solution);
+        int current = rank;
+        while (!moved.isEmpty()) {
+            if (current == this.fronts.size()) {
+                this.fronts.add(new ArrayList<>());
+            }
+            List<S> front = this.fronts.get(current);
+            List<S> next = new ArrayList<>();
+            for (int i = front.size() - 1; i >= 0; i--) {
+                S member = front.get(i);
+                for (S dominator : moved) {
+                    if (dominates(dominator, member)) {
+                        next.add(member);
+                        front.set(i, front.get(front.size() - 1));
+                        front.remove(front.size() - 1);
+                        break;
+                    }
+                }
+            }
+            for (S member : moved) {
+                front.add(member);
+                this.rankingAttribute.setAttribute(member, current);
+            }
+            this.crowdingDistance.computeDensityEstimator(front);
+            moved = next;
+            current++;
+        }
+        this.size++;
+        return rank;
+    }
+
+    /**
+     * Remove the solution of the last front with the least crowding distance. The ranks of the other solutions
+     * don't change because they aren't dominated by a solution of the last front.
+     *
+     * @return the solution removed.
+     * @throws IllegalStateException if the ranking is empty.
+     */
+    public S removeWorst() {
+        if (this.size == 0) {
+            throw new IllegalStateException("The ranking is empty");
+        }
+        List<S> last = this.fronts.get(this.fronts.size() - 1);
+        int worst = 0;
+        for (int i = 1; i < last.size(); i++) {
+            if (this.crowdingDistance.getDouble(last.get(i), Double.NaN)
+                    < this.crowdingDistance.getDouble(last.get(worst), Double.NaN)) {
+                worst = i;
+            }
+        }
+        S solution = last.get(worst);
+        last.set(worst, last.get(last.size() - 1));
+        last.remove(last.size() - 1);
+        if (last.isEmpty()) {
+            this.fronts.remove(this.fronts.size() - 1);
+        } else {
+            this.crowdingDistance.computeDensityEstimator(last);
+        }
+        this.size--;
+        return solution;
+    }
+
+    /**
+     * Get the solutions of a front.
+     *
+     * @param rank the index of the front.
+     * @return the front. It can't be modified by the caller.
+     * @throws IllegalArgumentException if rank isn't a valid front.
+     */
+    public List<S> getSubfront(int rank) {
+        if (rank < 0 || rank >= this.fronts.size()) {
+            throw new IllegalArgumentException(
+                    "Invalid rank: " + rank + ". Max rank = " + (this.fronts.size() - 1));
+        }
+        return this.fronts.get(rank);
+    }
+
+    /**
+     * Get the number of fronts.
+     *
+     * @return the number of fronts.
+     */
+    public int getNumberOfSubfronts() {
+        return this.fronts.size();
+    }
+
+    /**
+     * Get the number of solutions of the ranking.
+     *
+     * @return the number of solutions.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    private boolean isDominated(S solution, List<S> front) {
+        for (S member : front) {
+            if (dominates(member, solution)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean dominates(S solution1, S solution2) {
+        int flag = CONSTRAINT_VIOLATION_COMPARATOR.compare(solution1, solution2);
+        if (flag == 0) {
+            flag = this.dominanceComparator.compare(solution1, solution2);
+        }
+        return flag == -1;
+    }
+}
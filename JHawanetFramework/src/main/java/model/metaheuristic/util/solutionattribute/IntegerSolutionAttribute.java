@@ -0,0 +1,60 @@
+package model.metaheuristic.util.solutionattribute;
+
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.solution.impl.SolutionAttributeMap;
+
+/**
+ * Attribute whose value is a integer. The value is kept in a slot of {@link AttributeSlot}, so it can be read and
+ * written without box it with {@link #getInt(Solution, int)} and {@link #setInt(Solution, int)}.
+ *
+ * @param <S> Type of solution
+ */
+public class IntegerSolutionAttribute<S extends Solution<?>> extends SolutionAttribute<S, Integer> {
+
+    /**
+     * Constructor
+     */
+    public IntegerSolutionAttribute() {
+        super(AttributeSlot.Type.INTEGER);
+    }
+
+    /**
+     * Constructor. The attribute hasn't a slot, so its value is boxed.
+     *
+     * @param id Attribute identifier
+     */
+    public IntegerSolutionAttribute(Object id) {
+        super(id);
+    }
+
+    /**
+     * Get the value of the attribute.
+     *
+     * @param solution     the solution
+     * @param defaultValue the value returned if the solution hasn't the attribute
+     * @return the value of the attribute or defaultValue
+     */
+    public int getInt(S solution, int defaultValue) {
+        SolutionAttributeMap attributes = getAttributeMap(solution);
+        if (attributes != null) {
+            return attributes.getInt(getSlot(), defaultValue);
+        }
+        Integer value = getAttribute(solution);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Set the value of the attribute.
+     *
+     * @param solution the solution
+     * @param value    the value
+     */
+    public void setInt(S solution, int value) {
+        SolutionAttributeMap attributes = getAttributeMap(solution);
+        if (attributes != null) {
+            attributes.setInt(getSlot(), value);
+        } else {
+            setAttribute(solution, value);
+        }
+    }
+}
@@ -39,11 +39,11 @@ import java.util.List;
  * @param <S> the type of solution
  */
 public class LocationAttribute <S extends Solution<?>>
-        extends SolutionAttribute<S, Integer> {
+        extends IntegerSolutionAttribute<S> {
 
     public LocationAttribute(List<S> solutionList) {
         int location = 0;
         for (S solution : solutionList)
-            solution.setAttribute(getAttributeIdentifier(), location++);
+            setInt(solution, location++);
     }
 }
\ No newline at end of file
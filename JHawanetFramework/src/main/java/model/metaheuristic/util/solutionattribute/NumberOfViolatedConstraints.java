@@ -2,6 +2,6 @@ package model.metaheuristic.util.solutionattribute;
 
 import model.metaheuristic.solution.Solution;
 
-public class NumberOfViolatedConstraints<S extends Solution<?>> extends SolutionAttribute<S, Integer> {
+public class NumberOfViolatedConstraints<S extends Solution<?>> extends IntegerSolutionAttribute<S> {
 
 }
@@ -12,6 +12,6 @@ import model.metaheuristic.solution.Solution;
  *
  * @param <S> Type of solution
  */
-public class OverallConstraintViolation<S extends Solution<?>> extends SolutionAttribute<S, Double> {
+public class OverallConstraintViolation<S extends Solution<?>> extends DoubleSolutionAttribute<S> {
 
 }
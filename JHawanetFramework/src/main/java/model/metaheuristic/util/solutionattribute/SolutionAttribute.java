@@ -29,20 +29,38 @@
 package model.metaheuristic.util.solutionattribute;
 
 import model.metaheuristic.solution.Solution;
+import model.metaheuristic.solution.impl.SolutionAttributeMap;
 
 /**
  * Generic class for implementing {@link SolutionAttribute} classes. By default,
  * the identifier of a {@link SolutionAttribute} is the class object, but it can
  * be set to a different value when constructing an instance.
+ * <p>
+ * The attributes whose value is a primitive value can register its class in
+ * {@link AttributeSlot}, so the value is kept without box it in the solutions
+ * whose attributes are a {@link SolutionAttributeMap}.
  */
 public class SolutionAttribute<S extends Solution<?>, V> {
 	private final Object identifier;
+	private final AttributeSlot slot;
 
 	/**
 	 * Constructor
 	 */
 	public SolutionAttribute() {
 		identifier = this.getClass();
+		slot = null;
+	}
+
+	/**
+	 * Constructor. The class of the attribute is registered as a slot of the
+	 * type received.
+	 * 
+	 * @param type the type of the value of the attribute
+	 */
+	protected SolutionAttribute(AttributeSlot.Type type) {
+		identifier = this.getClass();
+		slot = AttributeSlot.register(identifier, type);
 	}
 
 	/**
@@ -52,6 +70,7 @@ public class SolutionAttribute<S extends Solution<?>, V> {
 	 */
 	public SolutionAttribute(Object id) {
 		this.identifier = id;
+		this.slot = null;
 	}
 
 	/**
@@ -62,6 +81,10 @@ public class SolutionAttribute<S extends Solution<?>, V> {
 	 */
 	@SuppressWarnings("unchecked")
 	public V getAttribute(S solution) {
+		SolutionAttributeMap attributes = getAttributeMap(solution);
+		if (attributes != null) {
+			return (V) attributes.getValue(slot);
+		}
 		return (V) solution.getAttribute(getAttributeIdentifier());
 	}
 
@@ -72,7 +95,52 @@ public class SolutionAttribute<S extends Solution<?>, V> {
 	 * @param value    the value assigned to solution
 	 */
 	public void setAttribute(S solution, V value) {
-		solution.setAttribute(getAttributeIdentifier(), value);
+		SolutionAttributeMap attributes = getAttributeMap(solution);
+		if (attributes != null) {
+			attributes.setValue(slot, value);
+		} else {
+			solution.setAttribute(getAttributeIdentifier(), value);
+		}
+	}
+
+	/**
+	 * Check if the solution has a value of this attribute.
+	 * 
+	 * @param solution the solution
+	 * @return true if the attribute is present and it isn't null
+	 */
+	public boolean hasValue(S solution) {
+		SolutionAttributeMap attributes = getAttributeMap(solution);
+		if (attributes != null && attributes.contains(slot)) {
+			return true;
+		}
+		return getAttribute(solution) != null;
+	}
+
+	/**
+	 * Get the attributes of the solution if this attribute has a slot and the
+	 * solution keeps its attributes in a {@link SolutionAttributeMap}.
+	 * 
+	 * @param solution the solution
+	 * @return the attributes or null if the slot can't be used
+	 */
+	SolutionAttributeMap getAttributeMap(S solution) {
+		if (slot != null) {
+			Object attributes = solution.getAttributes();
+			if (attributes instanceof SolutionAttributeMap) {
+				return (SolutionAttributeMap) attributes;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the slot of the attribute
+	 * 
+	 * @return the slot or null if the attribute hasn't a slot
+	 */
+	AttributeSlot getSlot() {
+		return slot;
 	}
 
 	/**
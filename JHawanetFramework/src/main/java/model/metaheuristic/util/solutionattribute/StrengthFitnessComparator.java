@@ -47,16 +47,8 @@ public class StrengthFitnessComparator<S extends Solution<?>> implements Compara
         } else if (solution2 == null) {
             result = -1;
         } else {
-            double strengthFitness1 = Double.MIN_VALUE ;
-            double strengthFitness2 = Double.MIN_VALUE ;
-
-            if (fitnessValue.getAttribute(solution1) != null) {
-                strengthFitness1 = (double) fitnessValue.getAttribute(solution1);
-            }
-
-            if (fitnessValue.getAttribute(solution2) != null) {
-                strengthFitness2 = (double) fitnessValue.getAttribute(solution2);
-            }
+            double strengthFitness1 = fitnessValue.getDouble(solution1, Double.MIN_VALUE) ;
+            double strengthFitness2 = fitnessValue.getDouble(solution2, Double.MIN_VALUE) ;
 
             result = Double.compare(strengthFitness1, strengthFitness2);
         }
@@ -31,13 +31,21 @@ package model.metaheuristic.util.solutionattribute;
 import model.metaheuristic.solution.Solution;
 import model.metaheuristic.util.SolutionListUtils;
 import model.metaheuristic.util.comparator.DominanceComparator;
+import model.metaheuristic.util.sorting.PrimitiveSorting;
 
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
+/**
+ * Fitness of SPEA2. The fitness of a solution is its raw fitness (the sum of the strengths of the solutions that
+ * dominate it) plus a density, 1 / (d + 2) where d is the distance to the k-th nearest solution.
+ * <p>
+ * Each pair of solutions is compared only once and the solutions that dominate each solution are saved in a bit
+ * set. The k-th distance is found with a partial selection over a row of distances, so the matrix of distances
+ * isn't saved or sorted.
+ */
 public class StrengthRawFitness <S extends Solution<?>>
-        extends SolutionAttribute<S, Double>{
+        extends DoubleSolutionAttribute<S>{
     private static final Comparator<Solution<?>> DOMINANCE_COMPARATOR = new DominanceComparator<Solution<?>>();
 
     private final int k ; // k-th individual
@@ -51,26 +59,39 @@ public class StrengthRawFitness <S extends Solution<?>>
     }
 
     public void computeDensityEstimator(List<S> solutionSet) {
-        double [][] distance = SolutionListUtils.distanceMatrix(solutionSet);
-        double []   strength    = new double[solutionSet.size()];
-        double []   rawFitness  = new double[solutionSet.size()];
-        double kDistance                                          ;
+        int size = solutionSet.size();
+        if (size == 0) {
+            return;
+        }
+        double[] strength = new double[size];
+        double[] rawFitness = new double[size];
 
         // strength(i) = |{j | j <- SolutionSet and i dominate j}|
-        for (int i = 0; i < solutionSet.size(); i++) {
-            for (int j = 0; j < solutionSet.size();j++) {
-                if (DOMINANCE_COMPARATOR.compare(solutionSet.get(i), solutionSet.get(j)) < 0) {
+        // the bit j of the row i of dominators is 1 if j dominates i
+        int words = (size + 63) >>> 6;
+        long[] dominators = new long[size * words];
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                int result = DOMINANCE_COMPARATOR.compare(solutionSet.get(i), solutionSet.get(j));
+                if (result < 0) {
                     strength[i] += 1.0;
+                    dominators[j * words + (i >>> 6)] |= 1L << i;
+                } else if (result > 0) {
+                    strength[j] += 1.0;
+                    dominators[i * words + (j >>> 6)] |= 1L << j;
                 }
             }
         }
 
         //Calculate the raw fitness
         // rawFitness(i) = |{sum strenght(j) | j <- SolutionSet and j dominate i}|
-        for (int i = 0;i < solutionSet.size(); i++) {
-            for (int j = 0; j < solutionSet.size();j++) {
-                if (DOMINANCE_COMPARATOR.compare(solutionSet.get(i), solutionSet.get(j)) > 0) {
+        for (int i = 0; i < size; i++) {
+            for (int word = 0; word < words; word++) {
+                long bits = dominators[i * words + word];
+                while (bits != 0) {
+                    int j = (word << 6) + Long.numberOfTrailingZeros(bits);
                     rawFitness[i] += strength[j];
+                    bits &= bits - 1;
                 }
             }
         }
@@ -78,10 +99,17 @@ public class StrengthRawFitness <S extends Solution<?>>
         // Add the distance to the k-th individual. In the reference paper of SPEA2,
         // k = sqrt(population.size()), but a value of k = 1 is recommended. See
         // http://www.tik.ee.ethz.ch/pisa/selectors/spea2/spea2_documentation.txt
-        for (int i = 0; i < distance.length; i++) {
-            Arrays.sort(distance[i]);
-            kDistance = 1.0 / (distance[i][k] + 2.0);
-            solutionSet.get(i).setAttribute(getAttributeIdentifier(), rawFitness[i] + kDistance);
+        // The distance to the solution itself (0) is in the row, so it is the position k of the sorted row.
+        double[] objectives = SolutionListUtils.objectiveMatrix(solutionSet);
+        int numberOfObjectives = objectives.length / size;
+        int position = Math.min(k, size - 1);
+        double[] distance = new double[size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                distance[j] = SolutionListUtils.distanceBetweenObjectives(objectives, numberOfObjectives, i, j);
+            }
+            double kDistance = 1.0 / (PrimitiveSorting.select(distance, 0, size, position) + 2.0);
+            setDouble(solutionSet.get(i), rawFitness[i] + kDistance);
         }
     }
 
@@ -0,0 +1,18 @@
+package model.metaheuristic.util.solutionattribute;
+
+import model.metaheuristic.solution.Solution;
+
+/**
+ * Attribute set by the algorithms before the evaluation of a solution. It is the {@link OverallConstraintViolation}
+ * of the worst solution kept by the algorithm. The evaluators can use it to stop the simulation of a solution when
+ * its violation is worse than this value.
+ * <p>
+ * It is a heuristic, not a bound: the algorithm can keep a solution with a worse violation (for example when the
+ * other new solutions are worse). The solution whose simulation was stopped has a {@link ViolationLowerBound}, so it
+ * is ranked after the solutions evaluated completely and it is usually discarded.
+ *
+ * @param <S> Type of solution
+ */
+public class ViolationCutoff<S extends Solution<?>> extends DoubleSolutionAttribute<S> {
+
+}
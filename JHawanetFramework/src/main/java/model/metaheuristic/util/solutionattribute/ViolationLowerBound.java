@@ -0,0 +1,38 @@
+package model.metaheuristic.util.solutionattribute;
+
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.solution.impl.SolutionAttributeMap;
+
+/**
+ * Attribute that indicate if the {@link OverallConstraintViolation} and the {@link NumberOfViolatedConstraints} of
+ * a solution are only a bound because the simulation was stopped before the end. The real violation of the
+ * solution is equal or worse than the saved value.
+ * <p>
+ * It is used by {@link model.metaheuristic.util.comparator.OverallConstraintViolationComparator} to rank the
+ * solutions whose evaluation was stopped after the solutions evaluated completely.
+ *
+ * @param <S> Type of solution
+ */
+public class ViolationLowerBound<S extends Solution<?>> extends SolutionAttribute<S, Boolean> {
+
+    /**
+     * Constructor
+     */
+    public ViolationLowerBound() {
+        super(AttributeSlot.Type.BOOLEAN);
+    }
+
+    /**
+     * Check if the constraints of a solution are a bound.
+     *
+     * @param solution the solution
+     * @return true if the attribute is present and it is true, false in otherwise
+     */
+    public boolean isLowerBound(S solution) {
+        SolutionAttributeMap attributes = getAttributeMap(solution);
+        if (attributes != null) {
+            return attributes.getBoolean(getSlot(), false);
+        }
+        return Boolean.TRUE.equals(getAttribute(solution));
+    }
+}
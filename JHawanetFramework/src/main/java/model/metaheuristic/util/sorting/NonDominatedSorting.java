@@ -0,0 +1,30 @@
+package model.metaheuristic.util.sorting;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface of the algorithms that sort a set of points in non dominated fronts. The algorithms work with primitive
+ * arrays, so they don't use the solutions or the comparators.
+ * <p>
+ * All the objectives are minimized. A point dominates other point if it isn't worse in any objective and it is
+ * better in at least one objective, so two points with the same objectives don't dominate each other. If the points
+ * have a constraint violation, a point with a less violation dominates a point with a greater violation, and the
+ * dominance of the objectives is only used between points with the same violation, as {@link
+ * model.metaheuristic.util.solutionattribute.DominanceRanking} does.
+ */
+public interface NonDominatedSorting {
+    /**
+     * Compute the front of each point. The front 0 contains the non dominated points, the front 1 contains the non
+     * dominated points after remove the front 0, and so on.
+     *
+     * @param objectives the objectives of the points. objectives[i] are the objectives of the point i. All points
+     *                   have to have the same number of objectives and the objectives can't be NaN.
+     * @param violations the constraint violation of the points or null if the points haven't constraints.
+     *                   violations[i] is the violation of the point i, where a greater value is a worse violation.
+     * @return a array where the element i is the front of the point i.
+     * @throws NullPointerException     if objectives or some point is null.
+     * @throws IllegalArgumentException if the points have a different number of objectives or if the length of
+     *                                  violations isn't the number of points.
+     */
+    @NotNull int[] computeRanking(@NotNull double[][] objectives, double[] violations);
+}
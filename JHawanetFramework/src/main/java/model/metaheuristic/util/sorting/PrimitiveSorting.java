@@ -0,0 +1,131 @@
+package model.metaheuristic.util.sorting;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Sorts and selections over arrays of primitive values. They are used to sort the points of a front by a key without
+ * create a object by point.
+ */
+public final class PrimitiveSorting {
+
+    private PrimitiveSorting() {
+    }
+
+    /**
+     * Sort the indices 0, 1, ..., length - 1 by the keys keys[offset], keys[offset + 1], ..., keys[offset + length -
+     * 1]. The keys are compared with {@link Double#compare(double, double)} and the sort is stable, so the indices
+     * with the same key keep its order.
+     *
+     * @param keys   the keys.
+     * @param offset the position of the key of the index 0.
+     * @param length the number of indices.
+     * @return the sorted indices.
+     * @throws NullPointerException      if keys is null.
+     * @throws IndexOutOfBoundsException if the keys aren't in the array.
+     */
+    public static @NotNull int[] sortIndices(@NotNull double[] keys, int offset, int length) {
+        Objects.requireNonNull(keys);
+        if (offset < 0 || length < 0 || offset + length > keys.length) {
+            throw new IndexOutOfBoundsException("The keys " + offset + " to " + (offset + length - 1)
+                    + " aren't in a array of length " + keys.length + ".");
+        }
+        int[] indices = new int[length];
+        for (int i = 0; i < length; i++) {
+            indices[i] = i;
+        }
+        // bottom-up merge sort
+        int[] buffer = new int[length];
+        for (int width = 1; width < length; width *= 2) {
+            for (int low = 0; low < length - width; low += 2 * width) {
+                int middle = low + width;
+                int high = Math.min(low + 2 * width, length);
+                int i = low;
+                int j = middle;
+                int k = low;
+                while (i < middle && j < high) {
+                    if (Double.compare(keys[offset + indices[j]], keys[offset + indices[i]]) < 0) {
+                        buffer[k++] = indices[j++];
+                    } else {
+                        buffer[k++] = indices[i++];
+                    }
+                }
+                while (i < middle) {
+                    buffer[k++] = indices[i++];
+                }
+                while (j < high) {
+                    buffer[k++] = indices[j++];
+                }
+                System.arraycopy(buffer, low, indices, low, high - low);
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Find the k-th smallest value of values[from], ..., values[to - 1] without sort all the values (quickselect).
+     * The values are compared with {@link Double#compare(double, double)} and the values of the range are reordered.
+     *
+     * @param values the values.
+     * @param from   the first position of the range, inclusive.
+     * @param to     the last position of the range, exclusive.
+     * @param k      the position of the value in the sorted range, starting in 0.
+     * @return the value that would be in the position from + k if the range was sorted.
+     * @throws NullPointerException      if values is null.
+     * @throws IndexOutOfBoundsException if the range isn't in the array or k isn't in the range.
+     */
+    public static double select(@NotNull double[] values, int from, int to, int k) {
+        Objects.requireNonNull(values);
+        if (from < 0 || to > values.length || k < 0 || k >= to - from) {
+            throw new IndexOutOfBoundsException("The position " + k + " isn't in the range " + from + " to " + to + ".");
+        }
+        int low = from;
+        int high = to - 1;
+        int target = from + k;
+        while (low < high) {
+            // median of three as pivot
+            int middle = (low + high) >>> 1;
+            if (Double.compare(values[middle], values[low]) < 0) {
+                swap(values, low, middle);
+            }
+            if (Double.compare(values[high], values[low]) < 0) {
+                swap(values, low, high);
+            }
+            if (Double.compare(values[high], values[middle]) < 0) {
+                swap(values, middle, high);
+            }
+            double pivot = values[middle];
+
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (Double.compare(values[i], pivot) < 0) {
+                    i++;
+                }
+                while (Double.compare(values[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (target <= j) {
+                high = j;
+            } else if (target >= i) {
+                low = i;
+            } else {
+                return values[target];
+            }
+        }
+        return values[target];
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
@@ -0,0 +1,131 @@
+package model.metaheuristic.util.sorting.impl;
+
+import model.metaheuristic.util.sorting.NonDominatedSorting;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Base class of the non dominated sorting algorithms. It validates the points and divides them by constraint
+ * violation before sort the objectives.
+ * <p>
+ * The points with less violation dominate all the points with a greater violation, so the points are divided in
+ * groups with the same violation and each group is sorted alone. The fronts of a group are numbered after the
+ * fronts of the groups with a less violation.
+ */
+public abstract class AbstractNonDominatedSorting implements NonDominatedSorting {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull int[] computeRanking(@NotNull double[][] objectives, double[] violations) {
+        Objects.requireNonNull(objectives);
+        int numberOfPoints = objectives.length;
+        int[] ranks = new int[numberOfPoints];
+        if (numberOfPoints == 0) {
+            return ranks;
+        }
+        int numberOfObjectives = Objects.requireNonNull(objectives[0], "A point is null.").length;
+        for (double[] point : objectives) {
+            Objects.requireNonNull(point, "A point is null.");
+            if (point.length != numberOfObjectives) {
+                throw new IllegalArgumentException("All the points have to have " + numberOfObjectives + " objectives.");
+            }
+        }
+        if (violations != null && violations.length != numberOfPoints) {
+            throw new IllegalArgumentException("There are " + violations.length + " violations to " + numberOfPoints
+                    + " points.");
+        }
+
+        int[] indices = new int[numberOfPoints];
+        for (int i = 0; i < numberOfPoints; i++) {
+            indices[i] = i;
+        }
+        if (violations == null) {
+            computeRanking(objectives, indices, 0, numberOfPoints, ranks);
+            return ranks;
+        }
+
+        // sort the indices by violation and sort each group with the same violation
+        sortByViolation(indices, violations);
+        int numberOfFronts = 0;
+        int from = 0;
+        while (from < numberOfPoints) {
+            int to = from + 1;
+            while (to < numberOfPoints && violations[indices[to]] == violations[indices[from]]) {
+                to++;
+            }
+            int numberOfFrontsOfGroup = computeRanking(objectives, indices, from, to, ranks);
+            for (int i = from; i < to; i++) {
+                ranks[indices[i]] += numberOfFronts;
+            }
+            numberOfFronts += numberOfFrontsOfGroup;
+            from = to;
+        }
+        return ranks;
+    }
+
+    /**
+     * Sort the indices by violation. The position of each violation in the sorted violations and the index of the
+     * point are packed in a long, so the indices are sorted with a primitive sort.
+     */
+    private static void sortByViolation(int[] indices, double[] violations) {
+        long[] keys = new long[indices.length];
+        double[] sortedViolations = violations.clone();
+        Arrays.sort(sortedViolations);
+        for (int i = 0; i < indices.length; i++) {
+            long position = Arrays.binarySearch(sortedViolations, violations[i]);
+            keys[i] = (position << 32) | i;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = (int) keys[i];
+        }
+    }
+
+    /**
+     * Compute the fronts of a group of points without constraint violation. The points of the group are
+     * indices[from], ..., indices[to - 1] and this method can change their order in indices.
+     *
+     * @param objectives the objectives of all points.
+     * @param indices    the indices of the points.
+     * @param from       the first position of the group in indices, inclusive.
+     * @param to         the last position of the group in indices, exclusive.
+     * @param ranks      the array where the front of each point of the group is saved. The fronts start in 0.
+     * @return the number of fronts of the group.
+     */
+    protected abstract int computeRanking(double[][] objectives, int[] indices, int from, int to, int[] ranks);
+
+    /**
+     * Sort the positions from, ..., to - 1 of indices in lexicographic order of the objectives.
+     *
+     * @param objectives the objectives of the points.
+     * @param indices    the indices of the points.
+     * @param from       the first position to sort, inclusive.
+     * @param to         the last position to sort, exclusive.
+     */
+    protected static void sortLexicographically(double[][] objectives, int[] indices, int from, int to) {
+        Integer[] boxed = new Integer[to - from];
+        for (int i = from; i < to; i++) {
+            boxed[i - from] = indices[i];
+        }
+        Arrays.sort(boxed, (index1, index2) -> {
+            double[] point1 = objectives[index1];
+            double[] point2 = objectives[index2];
+            // the operators are used instead of Double.compare because -0.0 and 0.0 are equal to the dominance
+            for (int i = 0; i < point1.length; i++) {
+                if (point1[i] < point2[i]) {
+                    return -1;
+                } else if (point1[i] > point2[i]) {
+                    return 1;
+                }
+            }
+            return 0;
+        });
+        for (int i = from; i < to; i++) {
+            indices[i] = boxed[i - from];
+        }
+    }
+}
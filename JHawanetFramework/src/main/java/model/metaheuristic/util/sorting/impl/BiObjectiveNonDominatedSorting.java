@@ -0,0 +1,58 @@
+package model.metaheuristic.util.sorting.impl;
+
+/**
+ * Non dominated sorting of points with two objectives in O(N log N).
+ * <p>
+ * The points are sorted by the first objective and then by the second objective, so a point only can be dominated
+ * by the points before it. Each point is added to the first front whose last point doesn't dominate it. The last
+ * point of each front has the less second objective of the front and the fronts are sorted by it, so the front is
+ * found with a binary search.
+ * <p>
+ * This algorithm only works with two objectives. If the points have other number of objectives a {@link
+ * IllegalArgumentException} is thrown.
+ */
+public class BiObjectiveNonDominatedSorting extends AbstractNonDominatedSorting {
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the points haven't two objectives.
+     */
+    @Override
+    protected int computeRanking(double[][] objectives, int[] indices, int from, int to, int[] ranks) {
+        if (objectives[indices[from]].length != 2) {
+            throw new IllegalArgumentException("The points have to have two objectives but they have "
+                    + objectives[indices[from]].length + ".");
+        }
+        sortLexicographically(objectives, indices, from, to);
+
+        // the objectives of the last point added to each front
+        double[] lastFirstObjective = new double[to - from];
+        double[] lastSecondObjective = new double[to - from];
+        int numberOfFronts = 0;
+        for (int i = from; i < to; i++) {
+            double[] point = objectives[indices[i]];
+            // search the first front whose last point doesn't dominate the point
+            int low = 0;
+            int high = numberOfFronts;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                // the last point of the front isn't worse in the first objective because of the order
+                boolean dominated = lastSecondObjective[middle] < point[1]
+                        || (lastSecondObjective[middle] == point[1] && lastFirstObjective[middle] < point[0]);
+                if (dominated) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (low == numberOfFronts) {
+                numberOfFronts++;
+            }
+            lastFirstObjective[low] = point[0];
+            lastSecondObjective[low] = point[1];
+            ranks[indices[i]] = low;
+        }
+        return numberOfFronts;
+    }
+}
@@ -0,0 +1,75 @@
+package model.metaheuristic.util.sorting.impl;
+
+import java.util.Arrays;
+
+/**
+ * Efficient non dominated sorting with sequential search (ENS-SS) to points with any number of objectives.
+ * <p>
+ * The points are sorted in lexicographic order of its objectives, so a point only can be dominated by the points
+ * before it and it never dominates them. Each point is compared with the points of the front 0, then with the points
+ * of the front 1 and so on, until it finds a front without a point that dominates it. The points of a front are
+ * compared from the last to the first because the last points are the most similar.
+ * <p>
+ * Its worst case is O(M N^2) as the fast non dominated sorting of NSGA-II, but usually it does a lot less comparisons
+ * and it doesn't need the lists of dominated solutions.
+ * <p>
+ * Base on: Zhang, X., Tian, Y., Cheng, R., Jin, Y. (2015). An Efficient Approach to Nondominated Sorting for
+ * Evolutionary Multiobjective Optimization. IEEE Transactions on Evolutionary Computation, 19(2), 201-213.
+ */
+public class EfficientNonDominatedSorting extends AbstractNonDominatedSorting {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int computeRanking(double[][] objectives, int[] indices, int from, int to, int[] ranks) {
+        sortLexicographically(objectives, indices, from, to);
+
+        // fronts[k] contains the indices of the points of front k and frontSizes[k] is its number of points
+        int[][] fronts = new int[to - from][];
+        int[] frontSizes = new int[to - from];
+        int numberOfFronts = 0;
+        for (int i = from; i < to; i++) {
+            int index = indices[i];
+            double[] point = objectives[index];
+            int front = 0;
+            while (front < numberOfFronts && isDominatedByFront(objectives, point, fronts[front], frontSizes[front])) {
+                front++;
+            }
+            if (front == numberOfFronts) {
+                fronts[front] = new int[4];
+                numberOfFronts++;
+            } else if (frontSizes[front] == fronts[front].length) {
+                fronts[front] = Arrays.copyOf(fronts[front], frontSizes[front] * 2);
+            }
+            fronts[front][frontSizes[front]++] = index;
+            ranks[index] = front;
+        }
+        return numberOfFronts;
+    }
+
+    private static boolean isDominatedByFront(double[][] objectives, double[] point, int[] front, int size) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (dominates(objectives[front[i]], point)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Test if a point dominates other point that is after it in lexicographic order. The first point isn't worse in
+     * the first objective, so it dominates if it isn't worse in any objective and it isn't equal to the other point.
+     */
+    private static boolean dominates(double[] point1, double[] point2) {
+        boolean better = false;
+        for (int i = 0; i < point1.length; i++) {
+            if (point1[i] > point2[i]) {
+                return false;
+            } else if (point1[i] < point2[i]) {
+                better = true;
+            }
+        }
+        return better;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains the implementations of the non dominated sorting algorithms.
+ */
+package model.metaheuristic.util.sorting.impl;
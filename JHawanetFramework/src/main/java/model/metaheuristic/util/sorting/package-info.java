@@ -0,0 +1,5 @@
+/**
+ * This package contains the interface of the algorithms used to sort a set of points in non dominated fronts and the
+ * sorts over arrays of primitive values.
+ */
+package model.metaheuristic.util.sorting;
@@ -0,0 +1,258 @@
+package model.metaheuristic.util.surrogate;
+
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Surrogate model that predict the objectives and the {@link OverallConstraintViolation} of a solution using the
+ * k nearest neighbors of the solutions already evaluated.
+ * <p>
+ * The distance between solutions is the euclidean distance of the decision variables normalized with the bounds of
+ * problem. The prediction is the mean of the neighbors weighted by the inverse of distance and the deviation is the
+ * weighted standard deviation of the neighbors, so it is big in zones where the neighbors don't agree.
+ * <p>
+ * The model keep only the last solutions trained. When it is full the oldest solution is replaced.
+ * <p>
+ * <strong>Notes:</strong>
+ * <p>
+ * The decision variables have to be numbers. This class isn't thread safe.
+ *
+ * @param <S> the type of solution
+ */
+public class KNearestNeighborsSurrogate<S extends Solution<?>> {
+    private final int numberOfNeighbors;
+    private final int numberOfVariables;
+    private final int numberOfOutputs;
+    private final double[] lowerBounds;
+    private final double[] ranges;
+    private final double[][] inputs;
+    private final double[][] outputs;
+    private final OverallConstraintViolation<S> overallConstraintViolation;
+    private int size;
+    private int next;
+
+    // buffers reused in each prediction
+    private final double[] input;
+    private final double[] neighborDistances;
+    private final int[] neighborIndexes;
+
+    /**
+     * Constructor.
+     *
+     * @param problem           the problem. It is used to know the bounds and the number of objectives.
+     * @param numberOfNeighbors the number of neighbors used in each prediction.
+     * @param maxTrainingSize   the max number of solutions kept by the model.
+     * @throws NullPointerException     if problem is null.
+     * @throws IllegalArgumentException if numberOfNeighbors is less than 1 or maxTrainingSize is less than
+     *                                  numberOfNeighbors.
+     */
+    public KNearestNeighborsSurrogate(@NotNull Problem<S> problem, int numberOfNeighbors, int maxTrainingSize) {
+        Objects.requireNonNull(problem);
+        if (numberOfNeighbors < 1) {
+            throw new IllegalArgumentException("The number of neighbors has to be greater than 0.");
+        }
+        if (maxTrainingSize < numberOfNeighbors) {
+            throw new IllegalArgumentException("The max training size (" + maxTrainingSize
+                    + ") can't be less than the number of neighbors (" + numberOfNeighbors + ").");
+        }
+        this.numberOfNeighbors = numberOfNeighbors;
+        this.numberOfVariables = problem.getNumberOfVariables();
+        // the last output is the overall constraint violation
+        this.numberOfOutputs = problem.getNumberOfObjectives() + 1;
+        this.lowerBounds = new double[this.numberOfVariables];
+        this.ranges = new double[this.numberOfVariables];
+        for (int i = 0; i < this.numberOfVariables; i++) {
+            this.lowerBounds[i] = problem.getLowerBound(i);
+            double range = problem.getUpperBound(i) - problem.getLowerBound(i);
+            this.ranges[i] = range > 0 ? range : 1;
+        }
+        this.inputs = new double[maxTrainingSize][this.numberOfVariables];
+        this.outputs = new double[maxTrainingSize][this.numberOfOutputs];
+        this.overallConstraintViolation = new OverallConstraintViolation<>();
+        this.input = new double[this.numberOfVariables];
+        this.neighborDistances = new double[numberOfNeighbors];
+        this.neighborIndexes = new int[numberOfNeighbors];
+    }
+
+    /**
+     * Add a evaluated solution to the model.
+     *
+     * @param solution the solution. It has to be evaluated.
+     * @throws IllegalArgumentException if a decision variable isn't a number.
+     */
+    public void train(@NotNull S solution) {
+        normalize(solution, this.inputs[this.next]);
+        double[] output = this.outputs[this.next];
+        for (int i = 0; i < this.numberOfOutputs - 1; i++) {
+            output[i] = solution.getObjective(i);
+        }
+        Double violation = this.overallConstraintViolation.getAttribute(solution);
+        output[this.numberOfOutputs - 1] = violation == null ? 0 : violation;
+
+        this.next = (this.next + 1) % this.inputs.length;
+        this.size = Math.min(this.size + 1, this.inputs.length);
+    }
+
+    /**
+     * Predict the objectives and the overall constraint violation of a solution. The values are saved in the arrays
+     * received, the objectives first and the violation in the last position.
+     *
+     * @param solution   the solution.
+     * @param prediction the array where the predicted values are saved.
+     * @param deviation  the array where the deviation of predicted values are saved.
+     * @throws IllegalStateException    if the model has less solutions than the number of neighbors.
+     * @throws IllegalArgumentException if the arrays haven't a length equals to the number of objectives plus one or
+     *                                  if a decision variable isn't a number.
+     */
+    public void predict(@NotNull S solution, double @NotNull [] prediction, double @NotNull [] deviation) {
+        if (!isReady()) {
+            throw new IllegalStateException("The model needs at least " + this.numberOfNeighbors + " solutions.");
+        }
+        if (prediction.length != this.numberOfOutputs || deviation.length != this.numberOfOutputs) {
+            throw new IllegalArgumentException("The arrays have to have a length of " + this.numberOfOutputs);
+        }
+        normalize(solution, this.input);
+        int found = searchNeighbors();
+
+        // a solution already trained is predicted exactly
+        if (this.neighborDistances[0] == 0) {
+            System.arraycopy(this.outputs[this.neighborIndexes[0]], 0, prediction, 0, this.numberOfOutputs);
+            Arrays.fill(deviation, 0);
+            return;
+        }
+
+        double totalWeight = 0;
+        Arrays.fill(prediction, 0);
+        for (int j = 0; j < found; j++) {
+            double weight = 1 / this.neighborDistances[j];
+            double[] output = this.outputs[this.neighborIndexes[j]];
+            for (int i = 0; i < this.numberOfOutputs; i++) {
+                prediction[i] += weight * output[i];
+            }
+            totalWeight += weight;
+        }
+        for (int i = 0; i < this.numberOfOutputs; i++) {
+            prediction[i] /= totalWeight;
+        }
+
+        Arrays.fill(deviation, 0);
+        for (int j = 0; j < found; j++) {
+            double weight = 1 / this.neighborDistances[j];
+            double[] output = this.outputs[this.neighborIndexes[j]];
+            for (int i = 0; i < this.numberOfOutputs; i++) {
+                double difference = output[i] - prediction[i];
+                deviation[i] += weight * difference * difference;
+            }
+        }
+        for (int i = 0; i < this.numberOfOutputs; i++) {
+            deviation[i] = Math.sqrt(deviation[i] / totalWeight);
+        }
+    }
+
+    /**
+     * Indicate if the model has enough solutions to predict.
+     *
+     * @return true if the model can predict, false in other case.
+     */
+    public boolean isReady() {
+        return this.size >= this.numberOfNeighbors;
+    }
+
+    /**
+     * Get the number of solutions kept by the model.
+     *
+     * @return the number of solutions.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Get the number of values predicted. It is the number of objectives plus one (the overall constraint
+     * violation).
+     *
+     * @return the number of outputs.
+     */
+    public int getNumberOfOutputs() {
+        return this.numberOfOutputs;
+    }
+
+    /**
+     * Get the difference between the max and min value of a output in the solutions kept by the model.
+     *
+     * @param output the index of output.
+     * @return the range or 0 if the model is empty.
+     */
+    public double getOutputRange(int output) {
+        if (this.size == 0) {
+            return 0;
+        }
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int j = 0; j < this.size; j++) {
+            min = Math.min(min, this.outputs[j][output]);
+            max = Math.max(max, this.outputs[j][output]);
+        }
+        return max - min;
+    }
+
+    /**
+     * Search the nearest neighbors of {@link #input}. The neighbors are saved sorted by distance in
+     * {@link #neighborIndexes} and {@link #neighborDistances}.
+     *
+     * @return the number of neighbors found.
+     */
+    private int searchNeighbors() {
+        int found = 0;
+        for (int j = 0; j < this.size; j++) {
+            double[] trained = this.inputs[j];
+            double distance = 0;
+            for (int i = 0; i < this.numberOfVariables; i++) {
+                double difference = trained[i] - this.input[i];
+                distance += difference * difference;
+            }
+            distance = Math.sqrt(distance);
+
+            if (found == this.numberOfNeighbors && distance >= this.neighborDistances[found - 1]) {
+                continue;
+            }
+            // insertion in the sorted list of neighbors
+            int position = found == this.numberOfNeighbors ? found - 1 : found++;
+            while (position > 0 && this.neighborDistances[position - 1] > distance) {
+                this.neighborDistances[position] = this.neighborDistances[position - 1];
+                this.neighborIndexes[position] = this.neighborIndexes[position - 1];
+                position--;
+            }
+            this.neighborDistances[position] = distance;
+            this.neighborIndexes[position] = j;
+        }
+        return found;
+    }
+
+    /**
+     * Normalize the decision variables of solution to the range [0, 1].
+     *
+     * @param solution the solution.
+     * @param values   the array where the values are saved.
+     * @throws IllegalArgumentException if the solution hasn't the number of variables of the problem or if a
+     *                                  variable isn't a number.
+     */
+    private void normalize(S solution, double[] values) {
+        if (solution.getNumberOfVariables() != this.numberOfVariables) {
+            throw new IllegalArgumentException("The solution has " + solution.getNumberOfVariables()
+                    + " variables but the problem has " + this.numberOfVariables);
+        }
+        for (int i = 0; i < this.numberOfVariables; i++) {
+            Object variable = solution.getVariable(i);
+            if (!(variable instanceof Number)) {
+                throw new IllegalArgumentException("The variable " + i + " isn't a number");
+            }
+            values[i] = (((Number) variable).doubleValue() - this.lowerBounds[i]) / this.ranges[i];
+        }
+    }
+}
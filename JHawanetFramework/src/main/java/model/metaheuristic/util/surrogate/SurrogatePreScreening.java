@@ -0,0 +1,310 @@
+package model.metaheuristic.util.surrogate;
+
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Filter of the offspring before its evaluation. The objectives and the constraint violation of each offspring are
+ * predicted with a {@link KNearestNeighborsSurrogate} and the offspring that are dominated by a solution of the
+ * population with a high confidence aren't evaluated.
+ * <p>
+ * A offspring is confidently dominated if its optimistic prediction (the predicted value minus
+ * {@code confidence} times the deviation) is dominated by a solution of the population using the same rules of
+ * {@link model.metaheuristic.util.comparator.DominanceComparator}: the feasible solutions dominate the infeasible,
+ * between infeasible solutions the smaller violation dominates and between feasible solutions the objectives are
+ * compared.
+ * <p>
+ * The model is trained with the solutions evaluated, and the offspring evaluated are used to measure the error of
+ * the predictions. A {@link GenerationReport} is saved in each generation to verify that the filter doesn't
+ * distort the front.
+ * <p>
+ * The use is:
+ * <pre>
+ *     evaluator.evaluate(initialPopulation, problem);
+ *     preScreening.train(initialPopulation);
+ *     // in each generation
+ *     List&lt;S&gt; selected = preScreening.screen(offspring, population);
+ *     evaluator.evaluate(selected, problem);
+ *     preScreening.update(selected);
+ * </pre>
+ * <strong>Notes:</strong>
+ * <p>
+ * This class isn't thread safe. Each algorithm needs its own instance.
+ *
+ * @param <S> the type of solution
+ */
+public class SurrogatePreScreening<S extends Solution<?>> {
+    private final KNearestNeighborsSurrogate<S> model;
+    private final double confidence;
+    private final OverallConstraintViolation<S> overallConstraintViolation;
+    private final Map<S, double[]> predictions;
+    private final List<GenerationReport> reports;
+    private int offspringOfGeneration;
+    private int screenedOfGeneration;
+    private long totalScreened;
+    private long totalOffspring;
+
+    /**
+     * Constructor.
+     *
+     * @param model      the surrogate model.
+     * @param confidence the number of deviations subtracted to the prediction. A greater value discard less
+     *                   offspring.
+     * @throws NullPointerException     if model is null.
+     * @throws IllegalArgumentException if confidence is less than 0.
+     */
+    public SurrogatePreScreening(@NotNull KNearestNeighborsSurrogate<S> model, double confidence) {
+        this.model = Objects.requireNonNull(model);
+        if (!(confidence >= 0)) {
+            throw new IllegalArgumentException("The confidence can't be less than 0.");
+        }
+        this.confidence = confidence;
+        this.overallConstraintViolation = new OverallConstraintViolation<>();
+        this.predictions = new IdentityHashMap<>();
+        this.reports = new ArrayList<>();
+    }
+
+    /**
+     * Add evaluated solutions to the model.
+     *
+     * @param solutions the solutions. They have to be evaluated.
+     */
+    public void train(@NotNull List<S> solutions) {
+        for (S solution : solutions) {
+            this.model.train(solution);
+        }
+    }
+
+    /**
+     * Select the offspring that have to be evaluated. The others are confidently dominated by a solution of the
+     * population. If the model hasn't enough solutions all the offspring are selected.
+     *
+     * @param offspring  the offspring.
+     * @param population the population already evaluated.
+     * @return the offspring that have to be evaluated.
+     */
+    public @NotNull List<S> screen(@NotNull List<S> offspring, @NotNull List<S> population) {
+        this.predictions.clear();
+        this.offspringOfGeneration = offspring.size();
+        this.screenedOfGeneration = 0;
+        if (!this.model.isReady()) {
+            return offspring;
+        }
+
+        int outputs = this.model.getNumberOfOutputs();
+        double[] deviation = new double[outputs];
+        double[] optimistic = new double[outputs];
+        List<S> selected = new ArrayList<>(offspring.size());
+        for (S solution : offspring) {
+            double[] prediction = new double[outputs];
+            this.model.predict(solution, prediction, deviation);
+            for (int i = 0; i < outputs - 1; i++) {
+                optimistic[i] = prediction[i] - this.confidence * deviation[i];
+            }
+            // the violation is negative, so the optimistic value is greater
+            optimistic[outputs - 1] = Math.min(0, prediction[outputs - 1] + this.confidence * deviation[outputs - 1]);
+
+            if (isDominated(optimistic, population)) {
+                this.screenedOfGeneration++;
+            } else {
+                this.predictions.put(solution, prediction);
+                selected.add(solution);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Finish the generation. The error of the predictions of the offspring evaluated is saved in a
+     * {@link GenerationReport} and the offspring are added to the model.
+     *
+     * @param evaluated the offspring returned by {@link #screen(List, List)} after its evaluation.
+     */
+    public void update(@NotNull List<S> evaluated) {
+        int outputs = this.model.getNumberOfOutputs();
+        double objectiveError = 0;
+        double violationError = 0;
+        int predicted = 0;
+        // the error of objectives is relative to the range of values known by the model
+        double[] ranges = new double[outputs - 1];
+        for (int i = 0; i < outputs - 1; i++) {
+            double range = this.model.getOutputRange(i);
+            ranges[i] = range > 0 ? range : 1;
+        }
+        for (S solution : evaluated) {
+            double[] prediction = this.predictions.get(solution);
+            if (prediction == null) {
+                continue;
+            }
+            for (int i = 0; i < outputs - 1; i++) {
+                objectiveError += Math.abs(prediction[i] - solution.getObjective(i)) / ranges[i];
+            }
+            Double violation = this.overallConstraintViolation.getAttribute(solution);
+            violationError += Math.abs(prediction[outputs - 1] - (violation == null ? 0 : violation));
+            predicted++;
+        }
+        this.predictions.clear();
+
+        this.totalOffspring += this.offspringOfGeneration;
+        this.totalScreened += this.screenedOfGeneration;
+        this.reports.add(new GenerationReport(this.reports.size() + 1, this.offspringOfGeneration,
+                this.screenedOfGeneration,
+                predicted == 0 ? Double.NaN : objectiveError / (predicted * (outputs - 1)),
+                predicted == 0 ? Double.NaN : violationError / predicted));
+        train(evaluated);
+    }
+
+    /**
+     * Get the reports of generations.
+     *
+     * @return a unmodifiable list with a report by generation.
+     */
+    public @NotNull List<GenerationReport> getReports() {
+        return Collections.unmodifiableList(this.reports);
+    }
+
+    /**
+     * Get the number of offspring that weren't evaluated.
+     *
+     * @return the number of evaluations saved.
+     */
+    public long getSavedEvaluations() {
+        return this.totalScreened;
+    }
+
+    /**
+     * Get the number of offspring received by {@link #screen(List, List)} in all the generations.
+     *
+     * @return the number of offspring.
+     */
+    public long getTotalOffspring() {
+        return this.totalOffspring;
+    }
+
+    /**
+     * Indicate if the prediction is dominated by some solution of the population.
+     *
+     * @param prediction the optimistic prediction.
+     * @param population the population.
+     * @return true if it is dominated, false in other case.
+     */
+    private boolean isDominated(double[] prediction, List<S> population) {
+        int objectives = prediction.length - 1;
+        double predictedViolation = prediction[objectives];
+        for (S solution : population) {
+            Double value = this.overallConstraintViolation.getAttribute(solution);
+            double violation = value == null ? 0 : value;
+            if (predictedViolation < 0 || violation < 0) {
+                if (violation > predictedViolation) {
+                    return true;
+                }
+                continue;
+            }
+            boolean better = false;
+            boolean worse = false;
+            for (int i = 0; i < objectives && !worse; i++) {
+                double objective = solution.getObjective(i);
+                if (objective < prediction[i]) {
+                    better = true;
+                } else if (objective > prediction[i]) {
+                    worse = true;
+                }
+            }
+            if (better && !worse) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Summary of the pre screening of a generation.
+     */
+    public static class GenerationReport {
+        private final int generation;
+        private final int offspring;
+        private final int screened;
+        private final double objectiveError;
+        private final double violationError;
+
+        /**
+         * Constructor.
+         *
+         * @param generation     the number of generation (starting in 1).
+         * @param offspring      the number of offspring received.
+         * @param screened       the number of offspring that weren't evaluated.
+         * @param objectiveError the mean absolute error of the predicted objectives relative to the range of each
+         *                       objective.
+         * @param violationError the mean absolute error of the predicted overall constraint violation.
+         */
+        public GenerationReport(int generation, int offspring, int screened, double objectiveError,
+                                double violationError) {
+            this.generation = generation;
+            this.offspring = offspring;
+            this.screened = screened;
+            this.objectiveError = objectiveError;
+            this.violationError = violationError;
+        }
+
+        /**
+         * Get the number of generation.
+         *
+         * @return the generation.
+         */
+        public int getGeneration() {
+            return generation;
+        }
+
+        /**
+         * Get the number of offspring received.
+         *
+         * @return the number of offspring.
+         */
+        public int getOffspring() {
+            return offspring;
+        }
+
+        /**
+         * Get the number of offspring that weren't evaluated.
+         *
+         * @return the number of evaluations saved.
+         */
+        public int getScreened() {
+            return screened;
+        }
+
+        /**
+         * Get the mean absolute error of the objectives predicted to the evaluated offspring. The error of each
+         * objective is divided by the range of values of the objective.
+         *
+         * @return the error or NaN if no offspring was predicted.
+         */
+        public double getObjectiveError() {
+            return objectiveError;
+        }
+
+        /**
+         * Get the mean absolute error of the overall constraint violation predicted to the evaluated offspring.
+         *
+         * @return the error or NaN if no offspring was predicted.
+         */
+        public double getViolationError() {
+            return violationError;
+        }
+
+        @Override
+        public String toString() {
+            return "Generation " + generation + ": " + screened + " / " + offspring
+                    + " offspring not evaluated, objective error: " + objectiveError
+                    + ", violation error: " + violationError;
+        }
+    }
+}
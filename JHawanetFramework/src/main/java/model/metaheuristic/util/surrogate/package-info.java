@@ -0,0 +1,4 @@
+/**
+ * This package contains the surrogate models used to predict the evaluation of a solution without simulate it.
+ */
+package model.metaheuristic.util.surrogate;
@@ -1,10 +1,13 @@
 package registrable.multiobjective;
 
+import annotations.BooleanInput;
+import annotations.EnumInput;
 import annotations.NumberInput;
 import annotations.registrable.*;
 import model.io.JsonSimpleReader;
 import model.metaheuristic.algorithm.Algorithm;
 import model.metaheuristic.algorithm.multiobjective.nsga.NSGAII;
+import model.metaheuristic.algorithm.multiobjective.nsga.NSGAIIBuilder;
 import model.metaheuristic.experiment.Experiment;
 import model.metaheuristic.experiment.ExperimentBuilder;
 import model.metaheuristic.experiment.util.ExperimentAlgorithm;
@@ -22,12 +25,15 @@ import model.metaheuristic.problem.Problem;
 import model.metaheuristic.problem.impl.VanzylOriginal;
 import model.metaheuristic.solution.impl.IntegerSolution;
 import model.metaheuristic.util.comparator.DominanceComparator;
-import model.metaheuristic.util.evaluator.impl.SequentialSolutionEvaluator;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
+import model.metaheuristic.util.surrogate.KNearestNeighborsSurrogate;
+import model.metaheuristic.util.surrogate.SurrogatePreScreening;
 import registrable.MultiObjectiveRegistrable;
+import registrable.utils.ExperimentUtils;
+import registrable.utils.SimulationEngine;
+import registrable.utils.VanzylOriginalProcessFactory;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
@@ -37,9 +43,17 @@ public class PumpSchedulingNSGAIIRegister implements MultiObjectiveRegistrable {
     private final CrossoverOperator<IntegerSolution> crossover;
     private final MutationOperator<IntegerSolution> mutation;
     private final File json;
+    private final SimulationEngine simulationEngine;
+    private final boolean asynchronous;
     private final int independentRun;
     private final int maxEvaluation;
     private final int populationSize;
+    private final int evaluationProcesses;
+    private final int evaluationCacheSize;
+    private final int surrogateNeighbors;
+    private final int concurrentRuns;
+    private final int checkpointMemory;
+    private final int seed;
 
     @NewProblem(displayName = "Pumping Scheduling", algorithmName = "NSGA-II", description = "Solve the PumpScheduling Problem.\n" +
             "Objective1: energy cost\n" +
@@ -60,24 +74,45 @@ public class PumpSchedulingNSGAIIRegister implements MultiObjectiveRegistrable {
                     })
             }, //
             files = {@FileInput(displayName = "Configuration file (json) *")}, //
+            enums = {@EnumInput(displayName = "Hydraulic engine", enumClass = SimulationEngine.class, defaultValue = "EPANET")}, //
+            booleans = {@BooleanInput(displayName = "Asynchronous evaluation", defaultValue = false)}, //
             numbers = {@NumberInput(displayName = "Independent run", defaultValue = 10)
                     , @NumberInput(displayName = "Max number of evaluation", defaultValue = 25000)
                     , @NumberInput(displayName = "Population Size", defaultValue = 100)
+                    , @NumberInput(displayName = "Evaluation processes", defaultValue = 1)
+                    , @NumberInput(displayName = "Evaluation cache size", defaultValue = 10000)
+                    , @NumberInput(displayName = "Surrogate neighbors (0 to disable)", defaultValue = 0)
+                    , @NumberInput(displayName = "Concurrent runs", defaultValue = 1)
+                    , @NumberInput(displayName = "Checkpoint memory (MB)", defaultValue = 0)
+                    , @NumberInput(displayName = "Seed (0 for a random seed)", defaultValue = 0)
             }
     )
-    public PumpSchedulingNSGAIIRegister(Object selection, Object crossover, Object mutation, File json, int independentRun, int maxEvaluation, int populationSize) {
+    public PumpSchedulingNSGAIIRegister(Object selection, Object crossover, Object mutation, File json, SimulationEngine simulationEngine, boolean asynchronous, int independentRun, int maxEvaluation, int populationSize, int evaluationProcesses, int evaluationCacheSize, int surrogateNeighbors, int concurrentRuns, int checkpointMemory, int seed) {
         this.selection = (SelectionOperator<List<IntegerSolution>, IntegerSolution>) selection;
         this.crossover = (CrossoverOperator<IntegerSolution>) crossover;
         this.mutation = (MutationOperator<IntegerSolution>) mutation;
         this.json = Objects.requireNonNull(json, "The json configuration file was not indicated");
+        this.simulationEngine = simulationEngine;
+        this.asynchronous = asynchronous;
         this.independentRun = independentRun;
         this.maxEvaluation = maxEvaluation;
         this.populationSize = populationSize;
+        this.evaluationProcesses = evaluationProcesses;
+        this.evaluationCacheSize = evaluationCacheSize;
+        this.surrogateNeighbors = surrogateNeighbors;
+        this.concurrentRuns = concurrentRuns;
+        this.checkpointMemory = checkpointMemory;
+        this.seed = seed;
     }
 
     @Override
     public Experiment<?> build(String inpPath) throws Exception {
 
+        this.simulationEngine.checkCheckpointMemory(this.checkpointMemory);
+        if (this.asynchronous && this.surrogateNeighbors > 0) {
+            throw new IllegalArgumentException("The surrogate can't be used with the asynchronous evaluation.");
+        }
+
         /* *******************vanzylOriginal ***************************/
 
         String inpPathVanzyl = inpPath; // "src/resources/vanzylOriginal.inp";
@@ -99,7 +134,8 @@ public class PumpSchedulingNSGAIIRegister implements MultiObjectiveRegistrable {
 
         VanzylOriginal vanzylObj = new VanzylOriginal(numPumps, totalOptimizationTime, intervalOptimizationTime,
                 energyCostPerTime, maintenanceCost, minNodePressure, numConstraints, minTank, maxTank,
-                maxFlowrateEachPump, inpPathVanzyl);
+                maxFlowrateEachPump, this.simulationEngine.open(inpPathVanzyl, inpPathVanzyl + ".rpt"));
+        ExperimentUtils.enableCheckpoints(vanzylObj, this.checkpointMemory);
 
         // Ingreso de valores a traves de archivo PSE (comentar en caso de ingresar
         // manualmente)
@@ -107,42 +143,55 @@ public class PumpSchedulingNSGAIIRegister implements MultiObjectiveRegistrable {
         // PumpScheduling pumpScheduling = new PumpScheduling(psePath, inpPath);
 
         ExperimentProblem<IntegerSolution> experimentProblem = new ExperimentProblem<>(vanzylObj);
-
-        List<ExperimentAlgorithm<IntegerSolution>> algorithmList = configureAlgorithmList(experimentProblem);
+        SolutionListEvaluator<IntegerSolution> simulationEvaluator = ExperimentUtils.createProcessEvaluator(experimentProblem, this.simulationEngine,
+                this.evaluationProcesses, this.concurrentRuns, VanzylOriginalProcessFactory.class, inpPathVanzyl, json.getAbsolutePath(),
+                String.valueOf(this.checkpointMemory));
+        SolutionListEvaluator<IntegerSolution> evaluator = ExperimentUtils.addCache(simulationEvaluator, this.evaluationCacheSize);
+        List<Problem<IntegerSolution>> runProblems = ExperimentUtils.createRunProblems(experimentProblem, this.concurrentRuns, simulationEvaluator,
+                lane -> ExperimentUtils.enableCheckpoints(new VanzylOriginal(numPumps, totalOptimizationTime, intervalOptimizationTime,
+                        energyCostPerTime, maintenanceCost, minNodePressure, numConstraints, minTank, maxTank,
+                        maxFlowrateEachPump, this.simulationEngine.open(inpPathVanzyl, inpPathVanzyl + ".run" + (lane + 1) + ".rpt")), this.checkpointMemory));
+
+        List<ExperimentAlgorithm<IntegerSolution>> algorithmList = ExperimentUtils.configureAlgorithmList(experimentProblem, this.independentRun,
+                run -> createAlgorithm(runProblems.get(run % runProblems.size()), evaluator), ExperimentUtils.createExperimentSeed(this.seed));
 
         ExperimentBuilder<IntegerSolution> builder = new ExperimentBuilder<IntegerSolution>("PSMOStudy")
                 .setAlgorithmList(algorithmList)
                 .setProblem(experimentProblem)
-                .setIndependentRuns(independentRun);
+                .setIndependentRuns(independentRun)
+                .setNumberOfConcurrentRuns(this.concurrentRuns);
         Experiment<IntegerSolution> experiment = builder.build();
 
         return experiment;
     }
 
     /**
-     * The algorithm list is composed of pairs {@link Algorithm} + {@link Problem}
-     * which form part of a {@link ExperimentAlgorithm}, which is a decorator for
-     * class {@link Algorithm}. The {@link ExperimentAlgorithm} has an optional tag
-     * component, that can be set as it is shown in this example, where four
-     * variants of a same algorithm are defined.
+     * Create the NSGA-II of a run with the configuration of this register. With the asynchronous evaluation it is a
+     * {@link model.metaheuristic.algorithm.multiobjective.nsga.AsynchronousSteadyStateNSGAII}, which sends each
+     * offspring to the first worker of the evaluator that is idle.
+     *
+     * @param problem   the problem of the lane of the run (see {@link ExperimentUtils#createRunProblems}).
+     * @param evaluator the evaluator of the solutions
+     * @return the algorithm
      */
-    private List<ExperimentAlgorithm<IntegerSolution>> configureAlgorithmList(
-            ExperimentProblem<IntegerSolution> experimentProblem) {
-        List<ExperimentAlgorithm<IntegerSolution>> algorithms = new ArrayList<>();
-
-        Problem<IntegerSolution> problem = experimentProblem.getProblem();
-        for (int run = 0; run < independentRun; run++) {
-            SelectionOperator<List<IntegerSolution>, IntegerSolution> selection = this.selection;//new TournamentSelection<>(2);
-            CrossoverOperator<IntegerSolution> crossover = this.crossover;//new IntegerSBXCrossover(0.9, 20);
-            MutationOperator<IntegerSolution> mutation = this.mutation;//new IntegerPolynomialMutation(1.0 / problem.getNumberOfVariables(), 20);
-            Comparator<IntegerSolution> comparator = new DominanceComparator<>();
-
-            Algorithm<IntegerSolution> algorithm = new NSGAII<IntegerSolution>(problem, this.maxEvaluation, this.populationSize, this.populationSize, this.populationSize//(problem, 25000, 100, 100, 100
-                    , selection, crossover, mutation
-                    , comparator, new SequentialSolutionEvaluator<>());
-            algorithms.add(new ExperimentAlgorithm<>(algorithm, experimentProblem, run));
-
+    private Algorithm<IntegerSolution> createAlgorithm(Problem<IntegerSolution> problem, SolutionListEvaluator<IntegerSolution> evaluator) {
+        SelectionOperator<List<IntegerSolution>, IntegerSolution> selection = this.selection;//new TournamentSelection<>(2);
+        CrossoverOperator<IntegerSolution> crossover = this.crossover;//new IntegerSBXCrossover(0.9, 20);
+        MutationOperator<IntegerSolution> mutation = this.mutation;//new IntegerPolynomialMutation(1.0 / problem.getNumberOfVariables(), 20);
+
+        NSGAII<IntegerSolution> algorithm = new NSGAIIBuilder<IntegerSolution>(problem, crossover, mutation, this.populationSize)
+                .setMaxEvaluations(this.maxEvaluation)
+                .setSelectionOperator(selection)
+                .setDominanceComparator(new DominanceComparator<>())
+                .setEvaluator(evaluator)
+                .setAsynchronous(this.asynchronous)
+                .build();
+        if (this.surrogateNeighbors > 0) {
+            // each run trains its own model with the last ten populations evaluated
+            KNearestNeighborsSurrogate<IntegerSolution> model = new KNearestNeighborsSurrogate<>(problem,
+                    this.surrogateNeighbors, Math.max(this.surrogateNeighbors, 10 * this.populationSize));
+            algorithm.setSurrogate(new SurrogatePreScreening<>(model, 1.0));
         }
-        return algorithms;
+        return algorithm;
     }
 }
@@ -1,5 +1,6 @@
 package registrable.multiobjective;
 
+import annotations.EnumInput;
 import annotations.NumberInput;
 import annotations.registrable.*;
 import model.io.JsonSimpleReader;
@@ -13,11 +14,15 @@ import model.metaheuristic.operator.mutation.MutationOperator;
 import model.metaheuristic.operator.mutation.impl.IntegerPolynomialMutation;
 import model.metaheuristic.operator.mutation.impl.IntegerRangeRandomMutation;
 import model.metaheuristic.operator.mutation.impl.IntegerSimpleRandomMutation;
+import model.metaheuristic.problem.Problem;
 import model.metaheuristic.problem.impl.VanzylOriginal;
 import model.metaheuristic.solution.impl.IntegerSolution;
-import model.metaheuristic.util.archive.impl.CrowdingDistanceArchive;
+import model.metaheuristic.util.archive.impl.IncrementalCrowdingDistanceArchive;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
 import registrable.MultiObjectiveRegistrable;
 import registrable.utils.ExperimentUtils;
+import registrable.utils.SimulationEngine;
+import registrable.utils.VanzylOriginalProcessFactory;
 
 import java.io.File;
 import java.util.List;
@@ -28,9 +33,15 @@ public class PumpSchedulingSMPSORegister implements MultiObjectiveRegistrable {
     private VanzylOriginal problem;
     private final MutationOperator<IntegerSolution> mutation;
     private final File json;
+    private final SimulationEngine simulationEngine;
     private final int independentRun;
     private final int maxIterations;
     private final int swarmSize;
+    private final int evaluationProcesses;
+    private final int evaluationCacheSize;
+    private final int concurrentRuns;
+    private final int checkpointMemory;
+    private final int seed;
 
     @NewProblem(displayName = "Pumping Scheduling", algorithmName = "SMPSOInteger", description = "Solve the PumpScheduling Problem.\n" +
             "Objective1: energy cost\n" +
@@ -44,21 +55,35 @@ public class PumpSchedulingSMPSORegister implements MultiObjectiveRegistrable {
                     })
             }, //
             files = {@FileInput(displayName = "Configuration file (json) *")}, //
+            enums = {@EnumInput(displayName = "Hydraulic engine", enumClass = SimulationEngine.class, defaultValue = "EPANET")}, //
             numbers = {@NumberInput(displayName = "Independent run", defaultValue = 10)
                     , @NumberInput(displayName = "Max number of iteration", defaultValue = 250)
                     , @NumberInput(displayName = "Swarm Size", defaultValue = 100)
+                    , @NumberInput(displayName = "Evaluation processes", defaultValue = 1)
+                    , @NumberInput(displayName = "Evaluation cache size", defaultValue = 10000)
+                    , @NumberInput(displayName = "Concurrent runs", defaultValue = 1)
+                    , @NumberInput(displayName = "Checkpoint memory (MB)", defaultValue = 0)
+                    , @NumberInput(displayName = "Seed (0 for a random seed)", defaultValue = 0)
             }
     )
-    public PumpSchedulingSMPSORegister(Object mutation, File json, int independentRun, int maxIterations, int swarmSize) {
+    public PumpSchedulingSMPSORegister(Object mutation, File json, SimulationEngine simulationEngine, int independentRun, int maxIterations, int swarmSize, int evaluationProcesses, int evaluationCacheSize, int concurrentRuns, int checkpointMemory, int seed) {
         this.mutation = (MutationOperator<IntegerSolution>) mutation;
         this.json = Objects.requireNonNull(json, "The json configuration file was not indicated");
+        this.simulationEngine = simulationEngine;
         this.independentRun = independentRun;
         this.maxIterations = maxIterations;
         this.swarmSize = swarmSize;
+        this.evaluationProcesses = evaluationProcesses;
+        this.evaluationCacheSize = evaluationCacheSize;
+        this.concurrentRuns = concurrentRuns;
+        this.checkpointMemory = checkpointMemory;
+        this.seed = seed;
     }
 
     @Override
     public Experiment<?> build(String inpPath) throws Exception {
+        this.simulationEngine.checkCheckpointMemory(this.checkpointMemory);
+
         /* *******************vanzylOriginal ***************************/
 
         String inpPathVanzyl = inpPath; // "src/resources/vanzylOriginal.inp";
@@ -80,7 +105,8 @@ public class PumpSchedulingSMPSORegister implements MultiObjectiveRegistrable {
 
         VanzylOriginal vanzylObj = new VanzylOriginal(numPumps, totalOptimizationTime, intervalOptimizationTime,
                 energyCostPerTime, maintenanceCost, minNodePressure, numConstraints, minTank, maxTank,
-                maxFlowrateEachPump, inpPathVanzyl);
+                maxFlowrateEachPump, this.simulationEngine.open(inpPathVanzyl, inpPathVanzyl + ".rpt"));
+        ExperimentUtils.enableCheckpoints(vanzylObj, this.checkpointMemory);
 
         this.problem = vanzylObj;
 
@@ -90,21 +116,31 @@ public class PumpSchedulingSMPSORegister implements MultiObjectiveRegistrable {
         // PumpScheduling pumpScheduling = new PumpScheduling(psePath, inpPath);
 
         ExperimentProblem<IntegerSolution> problem = new ExperimentProblem<>(vanzylObj);
+        SolutionListEvaluator<IntegerSolution> simulationEvaluator = ExperimentUtils.createProcessEvaluator(problem, this.simulationEngine,
+                this.evaluationProcesses, this.concurrentRuns, VanzylOriginalProcessFactory.class, inpPathVanzyl, json.getAbsolutePath(),
+                String.valueOf(this.checkpointMemory));
+        SolutionListEvaluator<IntegerSolution> evaluator = ExperimentUtils.addCache(simulationEvaluator, this.evaluationCacheSize);
+        List<Problem<IntegerSolution>> runProblems = ExperimentUtils.createRunProblems(problem, this.concurrentRuns, simulationEvaluator,
+                lane -> ExperimentUtils.enableCheckpoints(new VanzylOriginal(numPumps, totalOptimizationTime, intervalOptimizationTime,
+                        energyCostPerTime, maintenanceCost, minNodePressure, numConstraints, minTank, maxTank,
+                        maxFlowrateEachPump, this.simulationEngine.open(inpPathVanzyl, inpPathVanzyl + ".run" + (lane + 1) + ".rpt")), this.checkpointMemory));
 
         // create so many algorithm as the number of independantRun indicated.
-        List<ExperimentAlgorithm<IntegerSolution>> algorithmList = ExperimentUtils.configureAlgorithmList(problem, independentRun, () -> {
-            Algorithm<IntegerSolution> algorithm = new SMPSOIntegerBuilder(this.problem, new CrowdingDistanceArchive<IntegerSolution>(100))
+        List<ExperimentAlgorithm<IntegerSolution>> algorithmList = ExperimentUtils.configureAlgorithmList(problem, independentRun, run -> {
+            Algorithm<IntegerSolution> algorithm = new SMPSOIntegerBuilder(runProblems.get(run % runProblems.size()), new IncrementalCrowdingDistanceArchive<IntegerSolution>(100))
                     .setMutationOperator(this.mutation)
                     .setMaxIterations(this.maxIterations)
                     .setSwarmSize(this.swarmSize)
+                    .setEvaluator(evaluator)
                     .build();
             return algorithm;
-        });
+        }, ExperimentUtils.createExperimentSeed(this.seed));
 
         ExperimentBuilder<IntegerSolution> builder = new ExperimentBuilder<IntegerSolution>("PSMOStudy")
                 .setAlgorithmList(algorithmList)
                 .setProblem(problem)
-                .setIndependentRuns(independentRun);
+                .setIndependentRuns(independentRun)
+                .setNumberOfConcurrentRuns(this.concurrentRuns);
         // if baseDirectory isn't null so add the output directory.
         Experiment<IntegerSolution> experiment = builder.build();
 
@@ -1,8 +1,9 @@
 package registrable.singleobjective;
 
+import annotations.EnumInput;
 import annotations.NumberInput;
 import annotations.registrable.*;
-import epanet.core.EpanetAPI;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
 import model.metaheuristic.algorithm.singleobjective.differentialevolution.IntegerDifferentialEvolution;
 import model.metaheuristic.algorithm.singleobjective.differentialevolution.IntegerDifferentialEvolutionBuilder;
 import model.metaheuristic.experiment.Experiment;
@@ -11,11 +12,15 @@ import model.metaheuristic.experiment.util.ExperimentAlgorithm;
 import model.metaheuristic.experiment.util.ExperimentProblem;
 import model.metaheuristic.operator.crossover.impl.IntegerDifferentialEvolutionCrossover;
 import model.metaheuristic.operator.selection.impl.IntegerDifferentialEvolutionSelection;
+import model.metaheuristic.problem.Problem;
 import model.metaheuristic.problem.impl.PipeOptimizing;
 import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
 import registrable.Registrable;
 import registrable.SingleObjectiveRegistrable;
 import registrable.utils.ExperimentUtils;
+import registrable.utils.PipeOptimizingProcessFactory;
+import registrable.utils.SimulationEngine;
 
 import java.io.File;
 import java.util.LinkedHashMap;
@@ -37,7 +42,12 @@ public final class PipeOptimizingDERegister implements SingleObjectiveRegistrabl
     private final int maxEvaluations;
     private final int independentRun;
     private final int populationSize;
+    private final int evaluationProcesses;
+    private final int evaluationCacheSize;
+    private final int concurrentRuns;
+    private final int seed;
     private final File gama;
+    private final SimulationEngine simulationEngine;
     private PipeOptimizing problem;
 
     /**
@@ -47,10 +57,15 @@ public final class PipeOptimizingDERegister implements SingleObjectiveRegistrabl
      * @param selectionOperator the selection operator
      * @param crossoverOperator the crossover operator
      * @param gama              the File object with the path to file configuration
+     * @param simulationEngine  the engine used to simulate the network
      * @param independentRun    the number of independent run.
      * @param minPressure       the min pressure of network
      * @param populationSize    the size of population
      * @param maxEvaluations    the max number of evaluation
+     * @param evaluationProcesses the number of processes used to evaluate the solutions of each concurrent run
+     * @param evaluationCacheSize the max number of evaluations saved in cache. 0 to don't use cache.
+     * @param concurrentRuns    the number of independent runs executed at the same time
+     * @param seed              the seed of the experiment. 0 to use a random seed.
      * @throws Exception A exception if there is some error in convert the
      *                   parameters.
      * @see Registrable
@@ -66,16 +81,22 @@ public final class PipeOptimizingDERegister implements SingleObjectiveRegistrabl
                     @OperatorOption(displayName = "Differential Evolution Crossover", value = IntegerDifferentialEvolutionCrossover.class),
             })},
             files = {@FileInput(displayName = "Gama *")}, //
+            enums = {@EnumInput(displayName = "Hydraulic engine", enumClass = SimulationEngine.class, defaultValue = "EPANET")}, //
             numbers = {@NumberInput(displayName = "Independent run", defaultValue = 5),
                     @NumberInput(displayName = "Min pressure", defaultValue = 30),
                     @NumberInput(displayName = "Population Size", defaultValue = 100),
-                    @NumberInput(displayName = "Max number of evaluation", defaultValue = 25000)
+                    @NumberInput(displayName = "Max number of evaluation", defaultValue = 25000),
+                    @NumberInput(displayName = "Evaluation processes", defaultValue = 1),
+                    @NumberInput(displayName = "Evaluation cache size", defaultValue = 10000),
+                    @NumberInput(displayName = "Concurrent runs", defaultValue = 1),
+                    @NumberInput(displayName = "Seed (0 for a random seed)", defaultValue = 0)
 
             })
     @SuppressWarnings("unchecked") // The object injected are indicated in operators elements. It guarantee its
     // types.
-    public PipeOptimizingDERegister(Object selectionOperator, Object crossoverOperator, File gama, int independentRun,
-                                    int minPressure, int populationSize, int maxEvaluations) throws Exception {
+    public PipeOptimizingDERegister(Object selectionOperator, Object crossoverOperator, File gama, SimulationEngine simulationEngine, int independentRun,
+                                    int minPressure, int populationSize, int maxEvaluations, int evaluationProcesses, int evaluationCacheSize,
+                                    int concurrentRuns, int seed) throws Exception {
 
         this.selection = (IntegerDifferentialEvolutionSelection) selectionOperator; // unchecked cast
         this.crossover = (IntegerDifferentialEvolutionCrossover) crossoverOperator; // unchecked cast
@@ -83,43 +104,71 @@ public final class PipeOptimizingDERegister implements SingleObjectiveRegistrabl
         this.minPressure = minPressure;
         this.populationSize = populationSize;
         this.maxEvaluations = maxEvaluations;
+        this.evaluationProcesses = evaluationProcesses;
+        this.evaluationCacheSize = evaluationCacheSize;
+        this.concurrentRuns = concurrentRuns;
+        this.seed = seed;
         this.gama = gama;
+        this.simulationEngine = simulationEngine;
     }
 
     /**
      * {@inheritDoc}
      *
-     * @throws IllegalArgumentException if inpPath is empty or null or if gama file is
-     *                                  null
+     * @throws IllegalArgumentException if inpPath is empty or null, if gama file is
+     *                                  null or if the number of concurrent runs is less than 1
      */
     @Override
     public Experiment<IntegerSolution> build(String inpPath) throws Exception {
         if (inpPath == null || inpPath.isEmpty()) {
             throw new IllegalArgumentException("There isn't a network opened");
         }
-        EpanetAPI epanet = new EpanetAPI();
-        epanet.ENopen(inpPath, "ejecucion.rpt", "");
+        HydraulicEngine engine = this.simulationEngine.open(inpPath, "ejecucion.rpt");
 
         if (this.gama == null) {
             throw new IllegalArgumentException("There isn't gama file");
         }
 
-        this.problem = new PipeOptimizing(epanet, this.gama.getAbsolutePath(), this.minPressure);
+        if (this.concurrentRuns < 1) {
+            throw new IllegalArgumentException("The number of concurrent runs has to be greater than 0.");
+        }
+
+        this.problem = new PipeOptimizing(engine, this.gama.getAbsolutePath(), this.minPressure);
 
         ExperimentProblem<IntegerSolution> experimentProblem = new ExperimentProblem<>(this.problem);
+        SolutionListEvaluator<IntegerSolution> simulationEvaluator = ExperimentUtils.createProcessEvaluator(experimentProblem, this.simulationEngine,
+                this.evaluationProcesses, this.concurrentRuns, PipeOptimizingProcessFactory.class, inpPath, this.gama.getAbsolutePath(),
+                String.valueOf(this.minPressure));
+        SolutionListEvaluator<IntegerSolution> evaluator = ExperimentUtils.addCache(simulationEvaluator, this.evaluationCacheSize);
+
+        List<Problem<IntegerSolution>> runProblems = ExperimentUtils.createRunProblems(experimentProblem, this.concurrentRuns, simulationEvaluator,
+                lane -> new PipeOptimizing(this.simulationEngine.open(inpPath, "ejecucion-run" + (lane + 1) + ".rpt"),
+                        this.gama.getAbsolutePath(), this.minPressure));
 
         List<ExperimentAlgorithm<IntegerSolution>> experimentAlgorithms = ExperimentUtils.configureAlgorithmList(experimentProblem, this.independentRun,
-                () -> {
-                    IntegerDifferentialEvolution algorithm = new IntegerDifferentialEvolutionBuilder(this.problem)
-                            .setCrossover(crossover)
-                            .setSelection(selection)
+                run -> {
+                    // the operators of differential evolution keep the current solution, so each run has its own
+                    // operators if the runs are executed at the same time.
+                    IntegerDifferentialEvolutionCrossover runCrossover = this.crossover;
+                    IntegerDifferentialEvolutionSelection runSelection = this.selection;
+                    if (this.concurrentRuns > 1) {
+                        runCrossover = new IntegerDifferentialEvolutionCrossover(this.crossover.getCr(), this.crossover.getF(),
+                                this.crossover.getVariant());
+                        runSelection = new IntegerDifferentialEvolutionSelection(this.selection.getNumberOfSolutionsToSelect(),
+                                this.selection.isSelectCurrentSolution());
+                    }
+                    IntegerDifferentialEvolution algorithm = new IntegerDifferentialEvolutionBuilder(runProblems.get(run % runProblems.size()))
+                            .setCrossover(runCrossover)
+                            .setSelection(runSelection)
                             .setMaxEvaluations(this.maxEvaluations)
+                            .setSolutionListEvaluator(evaluator)
                             .setPopulationSize(this.populationSize).build();
                     return algorithm;
-                });
+                }, ExperimentUtils.createExperimentSeed(this.seed));
 
         return new ExperimentBuilder<IntegerSolution>("PipeOptimizing")
                 .setIndependentRuns(this.independentRun)
+                .setNumberOfConcurrentRuns(this.concurrentRuns)
                 .setAlgorithmList(experimentAlgorithms)
                 .setProblem(experimentProblem)
                 .build();
@@ -132,9 +181,14 @@ public final class PipeOptimizingDERegister implements SingleObjectiveRegistrabl
     public Map<String, String> getParameters() {
         Map<String, String> map = new LinkedHashMap<>();
         map.put("Min Pressure", "" + this.minPressure);
+        map.put("Hydraulic engine", this.simulationEngine.getName());
         map.put("Population Size", "" + this.populationSize);
         // see if number without improvement was configure or not
         map.put("Number of max evaluations", "" + this.maxEvaluations);
+        map.put("Evaluation processes", "" + this.evaluationProcesses);
+        map.put("Evaluation cache size", "" + this.evaluationCacheSize);
+        map.put("Concurrent runs", "" + this.concurrentRuns);
+        map.put("Seed", this.seed == 0 ? "random" : "" + this.seed);
 
         // for selection
         map.put("Selection", "Differential Evolution Selection");
@@ -1,9 +1,12 @@
 package registrable.singleobjective;
 
+import annotations.EnumInput;
 import annotations.NumberInput;
 import annotations.registrable.*;
-import epanet.core.EpanetAPI;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.metaheuristic.algorithm.Algorithm;
 import model.metaheuristic.algorithm.singleobjective.geneticalgorithm.GeneticAlgorithm2;
+import model.metaheuristic.algorithm.singleobjective.island.IslandModel;
 import model.metaheuristic.experiment.Experiment;
 import model.metaheuristic.experiment.ExperimentBuilder;
 import model.metaheuristic.experiment.util.ExperimentAlgorithm;
@@ -17,14 +20,21 @@ import model.metaheuristic.operator.mutation.impl.IntegerRangeRandomMutation;
 import model.metaheuristic.operator.mutation.impl.IntegerSimpleRandomMutation;
 import model.metaheuristic.operator.selection.SelectionOperator;
 import model.metaheuristic.operator.selection.impl.UniformSelection;
+import model.metaheuristic.problem.Problem;
 import model.metaheuristic.problem.impl.PipeOptimizing;
 import model.metaheuristic.solution.impl.IntegerSolution;
-import model.metaheuristic.util.evaluator.impl.SequentialSolutionEvaluator;
+import model.metaheuristic.util.comparator.DominanceComparator;
+import model.metaheuristic.util.evaluator.EvaluationCache;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
+import model.metaheuristic.util.evaluator.impl.CachedSolutionEvaluator;
 import registrable.Registrable;
 import registrable.SingleObjectiveRegistrable;
 import registrable.utils.ExperimentUtils;
+import registrable.utils.PipeOptimizingProcessFactory;
+import registrable.utils.SimulationEngine;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,7 +56,16 @@ public final class PipeOptimizingGARegister implements SingleObjectiveRegistrabl
     private final int maxEvaluations;
     private final int independentRun;
     private final int populationSize;
+    private final int evaluationProcesses;
+    private final int evaluationCacheSize;
+    private final int earlyTerminationGrade;
+    private final int numberOfIslands;
+    private final int migrationInterval;
+    private final int numberOfMigrants;
+    private final int concurrentRuns;
+    private final int seed;
     private final File gama;
+    private final SimulationEngine simulationEngine;
     private PipeOptimizing problem;
 
     /**
@@ -57,9 +76,21 @@ public final class PipeOptimizingGARegister implements SingleObjectiveRegistrabl
      * @param crossoverOperator        the crossover operator
      * @param mutationOperator         the mutation operator
      * @param gama                     the File object with the path to file configuration
+     * @param simulationEngine         the engine used to simulate the network
      * @param independentRun           the number of independent run.
      * @param minPressure              the min pressure of network
      * @param populationSize           the size of population
+     * @param evaluationProcesses      the number of processes used to evaluate the solutions of each concurrent
+     *                                 run or island
+     * @param evaluationCacheSize      the max number of evaluations saved in cache. 0 to don't use cache.
+     * @param earlyTerminationGrade    the infactibility grade where the simulation of a solution is stopped. 0 to
+     *                                 always simulate until the end.
+     * @param numberOfIslands          the number of islands. 1 to don't use the island model.
+     * @param migrationInterval        the number of generations between the migrations of the island model.
+     * @param numberOfMigrants         the number of solutions received by each island in a migration.
+     * @param concurrentRuns           the number of independent runs executed at the same time. It isn't used
+     *                                 with the island model.
+     * @param seed                     the seed of the experiment. 0 to use a random seed.
      * @param maxEvaluations           the max number of evaluation
      * @param numberWithoutImprovement the number without improvement in the
      *                                 result
@@ -84,24 +115,43 @@ public final class PipeOptimizingGARegister implements SingleObjectiveRegistrabl
                     @OperatorOption(displayName = "Integer Range Random Mutation", value = IntegerRangeRandomMutation.class)
             })}, //
             files = {@FileInput(displayName = "Gama *")}, //
+            enums = {@EnumInput(displayName = "Hydraulic engine", enumClass = SimulationEngine.class, defaultValue = "EPANET")}, //
             numbers = {@NumberInput(displayName = "Independent run", defaultValue = 5),
                     @NumberInput(displayName = "Min pressure", defaultValue = 30),
-                    @NumberInput(displayName = "Population Size", defaultValue = 100)}, //
+                    @NumberInput(displayName = "Population Size", defaultValue = 100),
+                    @NumberInput(displayName = "Evaluation processes", defaultValue = 1),
+                    @NumberInput(displayName = "Evaluation cache size", defaultValue = 10000),
+                    @NumberInput(displayName = "Early termination grade", defaultValue = 0),
+                    @NumberInput(displayName = "Islands", defaultValue = 1),
+                    @NumberInput(displayName = "Migration interval", defaultValue = 10),
+                    @NumberInput(displayName = "Migrants", defaultValue = 2),
+                    @NumberInput(displayName = "Concurrent runs", defaultValue = 1),
+                    @NumberInput(displayName = "Seed (0 for a random seed)", defaultValue = 0)}, //
             numbersToggle = {
                     @NumberToggleInput(groupID = "Finish Condition", displayName = "Max number of evaluation", defaultValue = 25000),
                     @NumberToggleInput(groupID = "Finish Condition", displayName = "Number of iteration without improvement", defaultValue = 100)
             })
     @SuppressWarnings("unchecked") // The object injected are indicated in operators elements. It guarantee its
     // types.
-    public PipeOptimizingGARegister(Object selectionOperator, Object crossoverOperator, Object mutationOperator, File gama, int independentRun,
-                                    int minPressure, int populationSize, int maxEvaluations, int numberWithoutImprovement) throws Exception {
+    public PipeOptimizingGARegister(Object selectionOperator, Object crossoverOperator, Object mutationOperator, File gama, SimulationEngine simulationEngine, int independentRun,
+                                    int minPressure, int populationSize, int evaluationProcesses, int evaluationCacheSize, int earlyTerminationGrade,
+                                    int numberOfIslands, int migrationInterval, int numberOfMigrants, int concurrentRuns, int seed, int maxEvaluations, int numberWithoutImprovement) throws Exception {
         System.out.println("selectionOperator: " + selectionOperator);
         System.out.println("crossoverOperator: " + crossoverOperator);
         System.out.println("mutationOperator: " + mutationOperator);
         System.out.println("gama: " + gama);
+        System.out.println("simulationEngine: " + simulationEngine);
         System.out.println("independentRun: " + independentRun);
         System.out.println("minPressure: " + minPressure);
         System.out.println("populationSize: " + populationSize);
+        System.out.println("evaluationProcesses: " + evaluationProcesses);
+        System.out.println("evaluationCacheSize: " + evaluationCacheSize);
+        System.out.println("earlyTerminationGrade: " + earlyTerminationGrade);
+        System.out.println("numberOfIslands: " + numberOfIslands);
+        System.out.println("migrationInterval: " + migrationInterval);
+        System.out.println("numberOfMigrants: " + numberOfMigrants);
+        System.out.println("concurrentRuns: " + concurrentRuns);
+        System.out.println("seed: " + seed);
         System.out.println("numberWithoutImprovement: " + numberWithoutImprovement);
         System.out.println("maxEvaluations: " + maxEvaluations);
         this.selection = (SelectionOperator<List<IntegerSolution>, List<IntegerSolution>>) selectionOperator; // unchecked cast
@@ -110,43 +160,149 @@ public final class PipeOptimizingGARegister implements SingleObjectiveRegistrabl
         this.independentRun = independentRun;
         this.minPressure = minPressure;
         this.populationSize = populationSize;
+        this.evaluationProcesses = evaluationProcesses;
+        this.evaluationCacheSize = evaluationCacheSize;
+        this.earlyTerminationGrade = earlyTerminationGrade;
+        this.numberOfIslands = numberOfIslands;
+        this.migrationInterval = migrationInterval;
+        this.numberOfMigrants = numberOfMigrants;
+        this.concurrentRuns = concurrentRuns;
+        this.seed = seed;
         this.numberWithoutImprovement = numberWithoutImprovement;
         this.maxEvaluations = maxEvaluations;
         this.gama = gama;
+        this.simulationEngine = simulationEngine;
+    }
+
+    /**
+     * Create a problem that use the engine and the configuration of this register.
+     *
+     * @param engine the engine with the network opened
+     * @return the problem
+     * @throws Exception if there is a error reading the gama or the network
+     */
+    private PipeOptimizing createProblem(HydraulicEngine engine) throws Exception {
+        PipeOptimizing pipeOptimizing = new PipeOptimizing(engine, this.gama.getAbsolutePath(), this.minPressure);
+        if (this.earlyTerminationGrade > 0) {
+            pipeOptimizing.enableEarlyTermination(this.earlyTerminationGrade);
+        }
+        return pipeOptimizing;
     }
 
     /**
      * {@inheritDoc}
      *
-     * @throws IllegalArgumentException if inpPath is empty or null or if gama file is
-     *                              null
+     * @throws IllegalArgumentException if inpPath is empty or null, if gama file is
+     *                              null or if the number of islands or the number of concurrent runs is less than 1
      */
     @Override
     public Experiment<IntegerSolution> build(String inpPath) throws Exception {
         if (inpPath == null || inpPath.isEmpty()) {
             throw new IllegalArgumentException("There isn't a network opened");
         }
-        EpanetAPI epanet = new EpanetAPI();
-        epanet.ENopen(inpPath, "ejecucion.rpt", "");
+        HydraulicEngine engine = this.simulationEngine.open(inpPath, "ejecucion.rpt");
 
         if (this.gama == null) {
             throw new IllegalArgumentException("There isn't gama file");
         }
 
-        this.problem = new PipeOptimizing(epanet, this.gama.getAbsolutePath(), this.minPressure);
+        if (this.numberOfIslands < 1) {
+            throw new IllegalArgumentException("The number of islands has to be greater than 0.");
+        }
+        if (this.concurrentRuns < 1) {
+            throw new IllegalArgumentException("The number of concurrent runs has to be greater than 0.");
+        }
+
+        this.problem = createProblem(engine);
 
         ExperimentProblem<IntegerSolution> experimentProblem = new ExperimentProblem<>(this.problem);
+        if (this.numberOfIslands > 1) {
+            return buildIslandModel(inpPath, experimentProblem);
+        }
+        SolutionListEvaluator<IntegerSolution> simulationEvaluator = ExperimentUtils.createProcessEvaluator(experimentProblem, this.simulationEngine,
+                this.evaluationProcesses, this.concurrentRuns, PipeOptimizingProcessFactory.class, inpPath, this.gama.getAbsolutePath(),
+                String.valueOf(this.minPressure), String.valueOf(this.earlyTerminationGrade));
+        SolutionListEvaluator<IntegerSolution> sharedEvaluator = ExperimentUtils.addCache(simulationEvaluator, this.evaluationCacheSize);
+        List<Problem<IntegerSolution>> runProblems = ExperimentUtils.createRunProblems(experimentProblem, this.concurrentRuns, simulationEvaluator,
+                lane -> createProblem(this.simulationEngine.open(inpPath, "ejecucion-run" + (lane + 1) + ".rpt")));
 
+        List<ExperimentAlgorithm<IntegerSolution>> experimentAlgorithms = ExperimentUtils.configureAlgorithmList(experimentProblem, this.independentRun,
+                run -> {
+                    // with early termination a run finds in a shared cache the evaluations completed by other runs
+                    // or not, depending of the timing of the runs, so each run has its own cache to keep the
+                    // results reproducible with the same seed.
+                    SolutionListEvaluator<IntegerSolution> evaluator = this.earlyTerminationGrade > 0
+                            ? ExperimentUtils.addCache(simulationEvaluator, this.evaluationCacheSize) : sharedEvaluator;
+                    return createAlgorithm(runProblems.get(run % runProblems.size()), evaluator);
+                }, ExperimentUtils.createExperimentSeed(this.seed));
+
+        return new ExperimentBuilder<IntegerSolution>("PipeOptimizing")
+                .setIndependentRuns(this.independentRun)
+                .setNumberOfConcurrentRuns(this.concurrentRuns)
+                .setAlgorithmList(experimentAlgorithms)
+                .setProblem(experimentProblem)
+                .build();
+    }
+
+    /**
+     * Create a genetic algorithm with the configuration of this register.
+     *
+     * @param problem   the problem
+     * @param evaluator the evaluator of the solutions
+     * @return the algorithm
+     */
+    private GeneticAlgorithm2<IntegerSolution> createAlgorithm(Problem<IntegerSolution> problem, SolutionListEvaluator<IntegerSolution> evaluator) {
+        GeneticAlgorithm2<IntegerSolution> algorithm = new GeneticAlgorithm2<>(problem, populationSize, selection, crossover, mutation, evaluator);
+        if (this.numberWithoutImprovement != Integer.MIN_VALUE) {
+            algorithm.setMaxNumberOfIterationWithoutImprovement(this.numberWithoutImprovement);
+        } else {
+            algorithm.setMaxEvaluations(this.maxEvaluations);
+        }
+        return algorithm;
+    }
+
+    /**
+     * Build a experiment where each independent run is a {@link IslandModel} of genetic algorithms with a ring
+     * topology.
+     * <p>
+     * Each island runs in its own thread. With the java engine and one evaluation process each island has its own
+     * problem with its own engine and it simulates in its thread. In other case the islands share a process pool with
+     * so many processes by island as evaluation processes, so the islands that use epanet don't wait the simulations
+     * of the other islands. The problems of the islands are created once and they are used by all the independent
+     * runs. All islands share the same evaluation cache, except with early termination, where each island of each
+     * run has its own cache because the islands run at the same time (see {@link #build(String)}).
+     *
+     * @param inpPath           the path of the network
+     * @param experimentProblem the experiment problem. The problems and the processes of the islands are added as its
+     *                          resources.
+     * @return the experiment
+     * @throws Exception if there is a error creating the problems or the processes of the islands
+     */
+    private Experiment<IntegerSolution> buildIslandModel(String inpPath, ExperimentProblem<IntegerSolution> experimentProblem) throws Exception {
+        SolutionListEvaluator<IntegerSolution> simulationEvaluator = ExperimentUtils.createProcessEvaluator(experimentProblem, this.simulationEngine,
+                this.evaluationProcesses, this.numberOfIslands, PipeOptimizingProcessFactory.class, inpPath, this.gama.getAbsolutePath(),
+                String.valueOf(this.minPressure), String.valueOf(this.earlyTerminationGrade));
+        List<Problem<IntegerSolution>> islandProblems = ExperimentUtils.createRunProblems(experimentProblem, this.numberOfIslands, simulationEvaluator,
+                island -> createProblem(this.simulationEngine.open(inpPath, "island" + (island + 1) + ".rpt")));
+
+        EvaluationCache<IntegerSolution> sharedCache = this.evaluationCacheSize > 0 ? new EvaluationCache<>(this.evaluationCacheSize) : null;
         List<ExperimentAlgorithm<IntegerSolution>> experimentAlgorithms = ExperimentUtils.configureAlgorithmList(experimentProblem, this.independentRun,
                 () -> {
-                    GeneticAlgorithm2<IntegerSolution> algorithm = new GeneticAlgorithm2<>(this.problem, populationSize, selection, crossover, mutation, new SequentialSolutionEvaluator<>());
-                    if (this.numberWithoutImprovement != Integer.MIN_VALUE) {
-                        algorithm.setMaxNumberOfIterationWithoutImprovement(this.numberWithoutImprovement);
-                    } else {
-                        algorithm.setMaxEvaluations(this.maxEvaluations);
+                    List<GeneticAlgorithm2<IntegerSolution>> islands = new ArrayList<>(this.numberOfIslands);
+                    for (Problem<IntegerSolution> islandProblem : islandProblems) {
+                        SolutionListEvaluator<IntegerSolution> evaluator = simulationEvaluator;
+                        if (sharedCache != null) {
+                            EvaluationCache<IntegerSolution> cache = this.earlyTerminationGrade > 0
+                                    ? new EvaluationCache<>(this.evaluationCacheSize) : sharedCache;
+                            evaluator = new CachedSolutionEvaluator<>(evaluator, cache);
+                        }
+                        islands.add(createAlgorithm(islandProblem, evaluator));
                     }
+                    // the same comparator of the islands, so the feasible solutions are preferred to the cheap ones
+                    Algorithm<IntegerSolution> algorithm = new IslandModel<>(islands, new DominanceComparator<>(),
+                            this.migrationInterval, this.numberOfMigrants, IslandModel.Topology.RING);
                     return algorithm;
-                });
+                }, ExperimentUtils.createExperimentSeed(this.seed));
 
         return new ExperimentBuilder<IntegerSolution>("PipeOptimizing")
                 .setIndependentRuns(this.independentRun)
@@ -162,7 +318,19 @@ public final class PipeOptimizingGARegister implements SingleObjectiveRegistrabl
     public Map<String, String> getParameters() {
         Map<String, String> map = new LinkedHashMap<>();
         map.put("Min Pressure", "" + this.minPressure);
+        map.put("Hydraulic engine", this.simulationEngine.getName());
         map.put("Population Size", "" + this.populationSize);
+        map.put("Evaluation processes", "" + this.evaluationProcesses);
+        map.put("Evaluation cache size", "" + this.evaluationCacheSize);
+        map.put("Seed", this.seed == 0 ? "random" : "" + this.seed);
+        if (this.numberOfIslands > 1) {
+            map.put("Islands", "" + this.numberOfIslands);
+            map.put("Migration interval", "" + this.migrationInterval);
+            map.put("Migrants", "" + this.numberOfMigrants);
+            map.put("Topology", IslandModel.Topology.RING.toString());
+        } else {
+            map.put("Concurrent runs", "" + this.concurrentRuns);
+        }
         // see if number without improvement was configure or not
         if (this.numberWithoutImprovement != Integer.MIN_VALUE) {
             map.put("Number without improvement", "" + this.numberWithoutImprovement);
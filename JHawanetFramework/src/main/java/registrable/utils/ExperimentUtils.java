@@ -1,12 +1,30 @@
 package registrable.utils;
 
+import epanet.core.EpanetException;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.epanet.hydraulicsimulation.gga.GlobalGradientEngine;
+import model.epanet.hydraulicsimulation.impl.EpanetEngine;
 import model.metaheuristic.algorithm.Algorithm;
 import model.metaheuristic.experiment.util.ExperimentAlgorithm;
 import model.metaheuristic.experiment.util.ExperimentProblem;
+import model.metaheuristic.experiment.util.ExperimentRunExecutor;
 import model.metaheuristic.problem.Problem;
+import model.metaheuristic.problem.impl.VanzylOriginal;
 import model.metaheuristic.solution.Solution;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.evaluator.AsynchronousSolutionEvaluator;
+import model.metaheuristic.util.evaluator.EvaluationCache;
+import model.metaheuristic.util.evaluator.SolutionListEvaluator;
+import model.metaheuristic.util.evaluator.impl.AsynchronousCachedSolutionEvaluator;
+import model.metaheuristic.util.evaluator.impl.CachedSolutionEvaluator;
+import model.metaheuristic.util.evaluator.impl.ParallelSolutionEvaluator;
+import model.metaheuristic.util.evaluator.impl.ProcessPoolSolutionEvaluator;
+import model.metaheuristic.util.evaluator.impl.SequentialSolutionEvaluator;
+import model.metaheuristic.util.random.JavaRandom;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Supplier;
@@ -31,6 +49,8 @@ public final class ExperimentUtils {
      * class {@link Algorithm}. The {@link ExperimentAlgorithm} has an optional tag
      * component, that can be set as it is shown in this example, where four
      * variants of a same algorithm are defined.
+     * <p>
+     * All the runs use the same experiment seed, created in each call, so each run has its own random stream.
      *
      * @param experimentProblem the experiment problem
      * @param numberOfIndependentRun the number of independent run
@@ -42,16 +62,411 @@ public final class ExperimentUtils {
      */
     public static <S extends Solution<?>> List<ExperimentAlgorithm<S>> configureAlgorithmList(ExperimentProblem<S> experimentProblem,  int numberOfIndependentRun,
                                                                                               Supplier<Algorithm<S>> supplier) {
+        return configureAlgorithmList(experimentProblem, numberOfIndependentRun, supplier, JavaRandom.createSeed());
+    }
+
+    /**
+     * Create a list of experiments algorithms on the same problem where each run has a new algorithm created by the
+     * supplier. The random stream of each run is created with the experiment seed and the number of the run, so a
+     * experiment executed again with the same seed has the same results.
+     *
+     * @param experimentProblem      the experiment problem
+     * @param numberOfIndependentRun the number of independent run
+     * @param supplier               the supplier of algorithm
+     * @param experimentSeed         the seed of the experiment
+     * @param <S>                    the type of solution.
+     * @return a list with the experiment algorithm.
+     * @throws NullPointerException     if experimentProblem or supplier are null.
+     * @throws IllegalArgumentException if numberOfIndependentRun is negative.
+     */
+    public static <S extends Solution<?>> List<ExperimentAlgorithm<S>> configureAlgorithmList(ExperimentProblem<S> experimentProblem, int numberOfIndependentRun,
+                                                                                              Supplier<Algorithm<S>> supplier, long experimentSeed) {
         Objects.requireNonNull(experimentProblem);
         Objects.requireNonNull(supplier);
-        if (numberOfIndependentRun < 0){
-            throw new IllegalArgumentException("If numberOfIndependentRun is null.");
+        if (numberOfIndependentRun < 0) {
+            throw new IllegalArgumentException("The number of independent run can't be negative.");
+        }
+
+        List<ExperimentAlgorithm<S>> algorithms = new ArrayList<>(numberOfIndependentRun);
+        for (int run = 0; run < numberOfIndependentRun; run++) {
+            algorithms.add(new ExperimentAlgorithm<S>(supplier.get(), experimentProblem, run, experimentSeed));
+        }
+        return algorithms;
+    }
+
+    /**
+     * Create a list of experiments algorithms on the same problem where the algorithm of each run is created
+     * knowing the number of the run. It is used when the runs are executed at the same time, so each run can use
+     * the problem of its lane (see {@link #createRunProblems}). All the runs use the same experiment seed, created
+     * in each call.
+     *
+     * @param experimentProblem      the experiment problem
+     * @param numberOfIndependentRun the number of independent run
+     * @param factory                the factory of algorithm. It receives the number of the run.
+     * @param <S>                    the type of solution.
+     * @return a list with the experiment algorithm.
+     * @throws NullPointerException     if experimentProblem or factory are null.
+     * @throws IllegalArgumentException if numberOfIndependentRun is negative.
+     * @throws Exception                if there is a error creating a algorithm.
+     */
+    public static <S extends Solution<?>> List<ExperimentAlgorithm<S>> configureAlgorithmList(ExperimentProblem<S> experimentProblem, int numberOfIndependentRun,
+                                                                                              AlgorithmFactory<S> factory) throws Exception {
+        return configureAlgorithmList(experimentProblem, numberOfIndependentRun, factory, JavaRandom.createSeed());
+    }
+
+    /**
+     * Create a list of experiments algorithms on the same problem where the algorithm of each run is created
+     * knowing the number of the run. The random stream of each run is created with the experiment seed and the
+     * number of the run, so a experiment executed again with the same seed has the same results.
+     *
+     * @param experimentProblem      the experiment problem
+     * @param numberOfIndependentRun the number of independent run
+     * @param factory                the factory of algorithm. It receives the number of the run.
+     * @param experimentSeed         the seed of the experiment
+     * @param <S>                    the type of solution.
+     * @return a list with the experiment algorithm.
+     * @throws NullPointerException     if experimentProblem or factory are null.
+     * @throws IllegalArgumentException if numberOfIndependentRun is negative.
+     * @throws Exception                if there is a error creating a algorithm.
+     */
+    public static <S extends Solution<?>> List<ExperimentAlgorithm<S>> configureAlgorithmList(ExperimentProblem<S> experimentProblem, int numberOfIndependentRun,
+                                                                                              AlgorithmFactory<S> factory, long experimentSeed) throws Exception {
+        Objects.requireNonNull(experimentProblem);
+        Objects.requireNonNull(factory);
+        if (numberOfIndependentRun < 0) {
+            throw new IllegalArgumentException("The number of independent run can't be negative.");
         }
 
         List<ExperimentAlgorithm<S>> algorithms = new ArrayList<>(numberOfIndependentRun);
         for (int run = 0; run < numberOfIndependentRun; run++) {
-            algorithms.add(new ExperimentAlgorithm<S>(supplier.get(), experimentProblem, run));
+            algorithms.add(new ExperimentAlgorithm<S>(factory.create(run), experimentProblem, run, experimentSeed));
         }
         return algorithms;
     }
+
+    /**
+     * Get the seed of a experiment from the seed configured by the user.
+     *
+     * @param seed the seed configured. 0 to use a seed different in each call.
+     * @return the experiment seed.
+     */
+    public static long createExperimentSeed(long seed) {
+        return seed == 0 ? JavaRandom.createSeed() : seed;
+    }
+
+    /**
+     * Create the problems used by the runs executed at the same time. The run i is executed in the lane i %
+     * numberOfConcurrentRuns of the {@link ExperimentRunExecutor}, so it has to use the problem i %
+     * numberOfConcurrentRuns of the list returned.
+     * <p>
+     * The first problem is the problem of experimentProblem. The other problems are created with the factory and
+     * they are added as resources of experimentProblem, so they are closed when the experiment finish.
+     *
+     * @param experimentProblem      the experiment problem
+     * @param numberOfConcurrentRuns the number of runs executed at the same time
+     * @param factory                the factory of the problems. Each problem has to have its own simulator. It
+     *                               receives the index of the lane.
+     * @param <S>                    the type of solution.
+     * @return the problem of each lane.
+     * @throws NullPointerException     if experimentProblem or factory are null.
+     * @throws IllegalArgumentException if numberOfConcurrentRuns is less than 1.
+     * @throws Exception                if there is a error creating the problems.
+     */
+    public static <S extends Solution<?>> List<Problem<S>> createRunProblems(ExperimentProblem<S> experimentProblem, int numberOfConcurrentRuns,
+                                                                           WorkerProblemFactory<S> factory) throws Exception {
+        Objects.requireNonNull(experimentProblem);
+        Objects.requireNonNull(factory);
+        if (numberOfConcurrentRuns < 1) {
+            throw new IllegalArgumentException("The number of concurrent runs has to be greater than 0.");
+        }
+        List<Problem<S>> problems = new ArrayList<>(numberOfConcurrentRuns);
+        problems.add(experimentProblem.getProblem());
+        try {
+            for (int lane = 1; lane < numberOfConcurrentRuns; lane++) {
+                problems.add(factory.create(lane));
+            }
+        } catch (Exception e) {
+            for (Problem<S> problem : problems.subList(1, problems.size())) {
+                try {
+                    problem.closeResources();
+                } catch (Exception closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            throw e;
+        }
+        for (Problem<S> problem : problems.subList(1, problems.size())) {
+            experimentProblem.addResource(problem::closeResources);
+        }
+        return problems;
+    }
+
+    /**
+     * Create the problems used by the runs executed at the same time with a evaluator created by
+     * {@link #createProcessEvaluator(ExperimentProblem, SimulationEngine, int, int, Class, String...)}.
+     * <p>
+     * If the evaluator is a {@link SequentialSolutionEvaluator} the runs simulate with its problem, so the problems
+     * are created as in {@link #createRunProblems(ExperimentProblem, int, WorkerProblemFactory)}. In other case the
+     * simulations are made in the processes of the evaluator and the runs only use the problem to create solutions,
+     * so all the lanes use the problem of experimentProblem and the factory isn't called.
+     *
+     * @param experimentProblem      the experiment problem
+     * @param numberOfConcurrentRuns the number of runs executed at the same time
+     * @param evaluator              the evaluator of the simulations, without cache.
+     * @param factory                the factory of the problems. Each problem has to have its own simulator. It
+     *                               receives the index of the lane.
+     * @param <S>                    the type of solution.
+     * @return the problem of each lane.
+     * @throws NullPointerException     if experimentProblem, evaluator or factory are null.
+     * @throws IllegalArgumentException if numberOfConcurrentRuns is less than 1.
+     * @throws Exception                if there is a error creating the problems.
+     */
+    public static <S extends Solution<?>> List<Problem<S>> createRunProblems(ExperimentProblem<S> experimentProblem, int numberOfConcurrentRuns,
+                                                                           SolutionListEvaluator<S> evaluator, WorkerProblemFactory<S> factory) throws Exception {
+        Objects.requireNonNull(evaluator);
+        if (evaluator instanceof SequentialSolutionEvaluator) {
+            return createRunProblems(experimentProblem, numberOfConcurrentRuns, factory);
+        }
+        Objects.requireNonNull(experimentProblem);
+        Objects.requireNonNull(factory);
+        if (numberOfConcurrentRuns < 1) {
+            throw new IllegalArgumentException("The number of concurrent runs has to be greater than 0.");
+        }
+        return Collections.nCopies(numberOfConcurrentRuns, experimentProblem.getProblem());
+    }
+
+    /**
+     * Create the evaluator of solutions used by the algorithms of a experiment.
+     * <p>
+     * If numberOfThreads is 1 a {@link SequentialSolutionEvaluator} is returned. In other case a
+     * {@link ParallelSolutionEvaluator} with so many worker problems as threads is returned. Each worker problem
+     * is created with the factory and has to have its own simulator. The parallel evaluator is added as a
+     * resource of experimentProblem, so it is closed when the experiment finish.
+     * <p>
+     * The simulators of the worker problems can't share a global state, so only the engines written in java (as
+     * {@link GlobalGradientEngine}) can be used. The instances of {@link EpanetEngine}
+     * share the project of the library, so they aren't isolated and they simulate one at a time. The problems that
+     * use epanet have to be evaluated with {@link #createProcessEvaluator}.
+     *
+     * @param experimentProblem the experiment problem
+     * @param numberOfThreads   the number of threads used to evaluate
+     * @param factory           the factory of worker problems. It receives the index of the worker.
+     * @param <S>               the type of solution.
+     * @return the evaluator.
+     * @throws NullPointerException     if experimentProblem or factory are null.
+     * @throws IllegalArgumentException if numberOfThreads is less than 1.
+     * @throws Exception                if there is a error creating the worker problems.
+     */
+    public static <S extends Solution<?>> SolutionListEvaluator<S> createEvaluator(ExperimentProblem<S> experimentProblem, int numberOfThreads,
+                                                                                 WorkerProblemFactory<S> factory) throws Exception {
+        Objects.requireNonNull(experimentProblem);
+        Objects.requireNonNull(factory);
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("The number of evaluation threads has to be greater than 0.");
+        }
+        if (numberOfThreads == 1) {
+            return new SequentialSolutionEvaluator<>();
+        }
+
+        List<Problem<S>> workers = new ArrayList<>(numberOfThreads);
+        try {
+            for (int i = 0; i < numberOfThreads; i++) {
+                workers.add(factory.create(i));
+            }
+        } catch (Exception e) {
+            for (Problem<S> worker : workers) {
+                try {
+                    worker.closeResources();
+                } catch (Exception closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            throw e;
+        }
+        ParallelSolutionEvaluator<S> evaluator = new ParallelSolutionEvaluator<>(workers);
+        experimentProblem.addResource(evaluator);
+        return evaluator;
+    }
+
+    /**
+     * Create the evaluator of solutions used by the algorithms of a experiment whose problem use the library of
+     * epanet.
+     * <p>
+     * If numberOfProcesses is 1 a {@link SequentialSolutionEvaluator} is returned, so the problem of the experiment
+     * is used. In other case a {@link ProcessPoolSolutionEvaluator} is returned, where each process loads its own copy
+     * of the library and creates its problem with the factory. The evaluator is added as a resource of
+     * experimentProblem, so the processes are stopped when the experiment finish.
+     *
+     * @param experimentProblem the experiment problem
+     * @param numberOfProcesses the number of processes used to evaluate
+     * @param factory           the factory of the problems of the processes.
+     * @param arguments         the arguments received by the factory.
+     * @return the evaluator.
+     * @throws NullPointerException     if experimentProblem, factory or arguments are null.
+     * @throws IllegalArgumentException if numberOfProcesses is less than 1.
+     * @throws IOException              if a process can't be started.
+     */
+    public static SolutionListEvaluator<IntegerSolution> createProcessEvaluator(ExperimentProblem<IntegerSolution> experimentProblem, int numberOfProcesses,
+                                                                                Class<? extends ProcessPoolSolutionEvaluator.ProcessProblemFactory> factory,
+                                                                                String... arguments) throws IOException {
+        Objects.requireNonNull(experimentProblem);
+        Objects.requireNonNull(factory);
+        Objects.requireNonNull(arguments);
+        if (numberOfProcesses < 1) {
+            throw new IllegalArgumentException("The number of evaluation processes has to be greater than 0.");
+        }
+        if (numberOfProcesses == 1) {
+            return new SequentialSolutionEvaluator<>();
+        }
+        ProcessPoolSolutionEvaluator evaluator = new ProcessPoolSolutionEvaluator(numberOfProcesses, factory, arguments);
+        experimentProblem.addResource(evaluator);
+        return evaluator;
+    }
+
+    /**
+     * Create the evaluator of solutions shared by the runs of a experiment, where numberOfConcurrentRuns runs are
+     * executed at the same time.
+     * <p>
+     * If the engine is isolated (see {@link SimulationEngine#isIsolated()}) and numberOfProcesses is 1 a {@link
+     * SequentialSolutionEvaluator} is returned, so each run simulates in its thread with the problem of its lane. In
+     * other case a {@link ProcessPoolSolutionEvaluator} with numberOfProcesses * numberOfConcurrentRuns processes is
+     * returned (see {@link #createProcessEvaluator(ExperimentProblem, int, Class, String...)}), so the runs don't wait
+     * the simulations of the other runs. The problems of the runs have to be created with {@link
+     * #createRunProblems(ExperimentProblem, int, SolutionListEvaluator, WorkerProblemFactory)}.
+     *
+     * @param experimentProblem      the experiment problem
+     * @param engine                 the engine used by the problems.
+     * @param numberOfProcesses      the number of processes used to evaluate by each run
+     * @param numberOfConcurrentRuns the number of runs executed at the same time
+     * @param factory                the factory of the problems of the processes.
+     * @param arguments              the arguments received by the factory after the name of the engine.
+     * @return the evaluator.
+     * @throws NullPointerException     if experimentProblem, engine, factory or arguments are null.
+     * @throws IllegalArgumentException if numberOfProcesses or numberOfConcurrentRuns is less than 1.
+     * @throws IOException              if a process can't be started.
+     */
+    public static SolutionListEvaluator<IntegerSolution> createProcessEvaluator(ExperimentProblem<IntegerSolution> experimentProblem, SimulationEngine engine,
+                                                                                int numberOfProcesses, int numberOfConcurrentRuns,
+                                                                                Class<? extends ProcessPoolSolutionEvaluator.ProcessProblemFactory> factory,
+                                                                                String... arguments) throws IOException {
+        Objects.requireNonNull(engine);
+        Objects.requireNonNull(arguments);
+        if (numberOfProcesses < 1) {
+            throw new IllegalArgumentException("The number of evaluation processes has to be greater than 0.");
+        }
+        if (numberOfConcurrentRuns < 1) {
+            throw new IllegalArgumentException("The number of concurrent runs has to be greater than 0.");
+        }
+        String[] engineArguments = new String[arguments.length + 1];
+        engineArguments[0] = engine.getName();
+        System.arraycopy(arguments, 0, engineArguments, 1, arguments.length);
+        int numberOfPoolProcesses = engine.isIsolated() && numberOfProcesses == 1 ? 1 : numberOfProcesses * numberOfConcurrentRuns;
+        return createProcessEvaluator(experimentProblem, numberOfPoolProcesses, factory, engineArguments);
+    }
+
+    /**
+     * Add a {@link EvaluationCache} in front of a evaluator. The evaluator returned has to be shared by the
+     * algorithms of the experiment to share the evaluations between the independent runs.
+     *
+     * @param evaluator the evaluator of the solutions that aren't in the cache
+     * @param cacheSize the max number of evaluations stored. If it is 0 the cache isn't used.
+     * @param <S>       the type of solution.
+     * @return a {@link CachedSolutionEvaluator} or evaluator if cacheSize is 0. If evaluator is a {@link
+     * AsynchronousSolutionEvaluator} the cached evaluator is also asynchronous, so the asynchronous algorithms keep
+     * dispatching the solutions one by one.
+     * @throws NullPointerException     if evaluator is null.
+     * @throws IllegalArgumentException if cacheSize is negative.
+     */
+    public static <S extends Solution<?>> SolutionListEvaluator<S> addCache(SolutionListEvaluator<S> evaluator, int cacheSize) {
+        Objects.requireNonNull(evaluator);
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("The size of the evaluation cache can't be negative.");
+        }
+        if (cacheSize == 0) {
+            return evaluator;
+        }
+        if (evaluator instanceof AsynchronousSolutionEvaluator) {
+            return new AsynchronousCachedSolutionEvaluator<>((AsynchronousSolutionEvaluator<S>) evaluator,
+                    new EvaluationCache<>(cacheSize));
+        }
+        return new CachedSolutionEvaluator<>(evaluator, new EvaluationCache<>(cacheSize));
+    }
+
+    /**
+     * Enable the checkpoints of the simulations of a problem evaluated in the process of the experiment (see
+     * {@link VanzylOriginal#enableCheckpoints(long)}).
+     *
+     * @param problem          the problem.
+     * @param checkpointMemory the megabytes used by the checkpoints. 0 to don't use checkpoints.
+     * @return the problem.
+     * @throws UnsupportedOperationException if checkpointMemory is greater than 0 and the engine of the problem
+     *                                       can't save the state of a simulation (see
+     *                                       {@link SimulationEngine#checkCheckpointMemory(int)}).
+     */
+    public static VanzylOriginal enableCheckpoints(VanzylOriginal problem, int checkpointMemory) {
+        if (checkpointMemory > 0) {
+            problem.enableCheckpoints(checkpointMemory * 1024L * 1024L);
+        }
+        return problem;
+    }
+
+    /**
+     * Open a network with a engine chosen by its name. It is used by the factories of the problems of workers that
+     * receive the configuration as text.
+     *
+     * @param name    the name of engine: "epanet" ({@link EpanetEngine}) or "java" ({@link GlobalGradientEngine}).
+     * @param inpPath the path to inp file.
+     * @param rptPath the path to report file. It is only used by the epanet engine.
+     * @return the engine with the network opened.
+     * @throws NullPointerException     if some parameter is null.
+     * @throws IllegalArgumentException if the name isn't valid.
+     * @throws EpanetException          if there is a error opening the network.
+     */
+    public static HydraulicEngine openEngine(String name, String inpPath, String rptPath) throws EpanetException {
+        Objects.requireNonNull(name);
+        switch (name) {
+            case "epanet":
+                return new EpanetEngine(inpPath, rptPath);
+            case "java":
+                HydraulicEngine engine = new GlobalGradientEngine();
+                engine.open(inpPath, rptPath);
+                return engine;
+            default:
+                throw new IllegalArgumentException("The engine " + name + " isn't valid");
+        }
+    }
+
+    /**
+     * Factory of the algorithms of the independent runs.
+     *
+     * @param <S> the type of solution.
+     */
+    @FunctionalInterface
+    public interface AlgorithmFactory<S extends Solution<?>> {
+        /**
+         * Create the algorithm of a run.
+         *
+         * @param run the number of the run.
+         * @return the algorithm.
+         * @throws Exception if there is a error creating the algorithm.
+         */
+        Algorithm<S> create(int run) throws Exception;
+    }
+
+    /**
+     * Factory of the problems used by the threads of a {@link ParallelSolutionEvaluator}.
+     *
+     * @param <S> the type of solution.
+     */
+    @FunctionalInterface
+    public interface WorkerProblemFactory<S extends Solution<?>> {
+        /**
+         * Create a new problem with its own simulator.
+         *
+         * @param workerIndex the index of the worker.
+         * @return the problem.
+         * @throws Exception if there is a error creating the problem.
+         */
+        Problem<S> create(int workerIndex) throws Exception;
+    }
 }
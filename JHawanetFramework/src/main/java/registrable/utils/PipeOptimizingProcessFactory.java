@@ -0,0 +1,49 @@
+package registrable.utils;
+
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.problem.impl.PipeOptimizing;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.evaluator.impl.ProcessPoolSolutionEvaluator;
+
+/**
+ * Factory of the {@link PipeOptimizing} problems used by the processes of a {@link ProcessPoolSolutionEvaluator}.
+ * <p>
+ * The arguments are:
+ * <ol>
+ *     <li>the engine: "epanet" or "java" (see {@link ExperimentUtils#openEngine}).</li>
+ *     <li>the path to inp file.</li>
+ *     <li>the path to gama file.</li>
+ *     <li>the min pressure.</li>
+ *     <li>optional, the infactibility grade where the simulation is stopped. 0 to don't stop it.</li>
+ * </ol>
+ * The epanet engine of each process write its report in the inp path plus ".process{index}.rpt".
+ */
+public class PipeOptimizingProcessFactory implements ProcessPoolSolutionEvaluator.ProcessProblemFactory {
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the number of arguments or the engine aren't valid.
+     */
+    @Override
+    public Problem<IntegerSolution> create(int workerIndex, String[] arguments) throws Exception {
+        if (arguments.length != 4 && arguments.length != 5) {
+            throw new IllegalArgumentException("The arguments are: engine inpPath gamaPath minPressure [earlyTerminationGrade]");
+        }
+        String inpPath = arguments[1];
+        HydraulicEngine engine = ExperimentUtils.openEngine(arguments[0], inpPath, inpPath + ".process" + workerIndex + ".rpt");
+
+        PipeOptimizing problem;
+        try {
+            problem = new PipeOptimizing(engine, arguments[2], Integer.parseInt(arguments[3]));
+        } catch (Exception e) {
+            engine.close();
+            throw e;
+        }
+        if (arguments.length == 5 && Double.parseDouble(arguments[4]) > 0) {
+            problem.enableEarlyTermination(Double.parseDouble(arguments[4]));
+        }
+        return problem;
+    }
+}
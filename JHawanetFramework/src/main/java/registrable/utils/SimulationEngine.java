@@ -0,0 +1,84 @@
+package registrable.utils;
+
+import epanet.core.EpanetException;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.epanet.hydraulicsimulation.gga.GlobalGradientEngine;
+import model.epanet.hydraulicsimulation.impl.EpanetEngine;
+import model.metaheuristic.problem.impl.VanzylOriginal;
+
+/**
+ * The hydraulic engines that can be chosen in the registrables to simulate the network. Its name is the argument
+ * received by the factories of the worker processes (see {@link ExperimentUtils#openEngine}).
+ */
+public enum SimulationEngine {
+    /**
+     * The library of epanet ({@link EpanetEngine}). It keeps a only project by process, so the engines of a same
+     * process aren't independent.
+     */
+    EPANET("epanet", false, false),
+    /**
+     * The solver written in java ({@link GlobalGradientEngine}). It works in any operative system and each engine
+     * has its own network.
+     */
+    JAVA("java", true, true);
+
+    private final String name;
+    private final boolean isolated;
+    private final boolean checkpoints;
+
+    SimulationEngine(String name, boolean isolated, boolean checkpoints) {
+        this.name = name;
+        this.isolated = isolated;
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * Get the name of the engine used by {@link ExperimentUtils#openEngine} and the process factories.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Get if the engines created in a same process are isolated, so they can simulate at the same time in
+     * different threads.
+     *
+     * @return true if the engines are isolated, false if they have to be used in different processes.
+     */
+    public boolean isIsolated() {
+        return this.isolated;
+    }
+
+    /**
+     * Check that the checkpoints of the simulations (see {@link VanzylOriginal#enableCheckpoints(long)}) can be used
+     * with this engine. It is called before the problems are created, so the error isn't found by the worker
+     * processes.
+     *
+     * @param checkpointMemory the megabytes used by the checkpoints. 0 if they aren't used.
+     * @throws IllegalArgumentException if checkpointMemory is negative or if it is greater than 0 and the engine
+     *                                  can't save the state of a simulation.
+     */
+    public void checkCheckpointMemory(int checkpointMemory) {
+        if (checkpointMemory < 0) {
+            throw new IllegalArgumentException("The checkpoint memory can't be negative.");
+        }
+        if (checkpointMemory > 0 && !this.checkpoints) {
+            throw new IllegalArgumentException("The checkpoints of the simulations can't be used with the " + this.name
+                    + " engine. Choose the java engine or set the checkpoint memory to 0.");
+        }
+    }
+
+    /**
+     * Open a network with this engine.
+     *
+     * @param inpPath the path to inp file.
+     * @param rptPath the path to report file. It is only used by the epanet engine.
+     * @return the engine with the network opened.
+     * @throws EpanetException if there is a error opening the network.
+     */
+    public HydraulicEngine open(String inpPath, String rptPath) throws EpanetException {
+        return ExperimentUtils.openEngine(this.name, inpPath, rptPath);
+    }
+}
@@ -0,0 +1,66 @@
+package registrable.utils;
+
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.io.JsonSimpleReader;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.problem.impl.VanzylOriginal;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.evaluator.impl.ProcessPoolSolutionEvaluator;
+
+/**
+ * Factory of the {@link VanzylOriginal} problems used by the workers of a {@link ProcessPoolSolutionEvaluator} or a
+ * {@link model.metaheuristic.util.evaluator.impl.RemoteSolutionEvaluator}. The configuration is read of the same
+ * json file used by {@link registrable.multiobjective.PumpSchedulingNSGAIIRegister}.
+ * <p>
+ * The arguments are:
+ * <ol>
+ *     <li>the engine: "epanet" or "java" (see {@link ExperimentUtils#openEngine}).</li>
+ *     <li>the path to inp file.</li>
+ *     <li>the path to json configuration file.</li>
+ *     <li>optional, the megabytes used by the checkpoints of the simulations (see
+ *     {@link VanzylOriginal#enableCheckpoints(long)}). 0 to don't use checkpoints.</li>
+ * </ol>
+ * The epanet engine of each worker write its report in the inp path plus ".process{index}.rpt".
+ */
+public class VanzylOriginalProcessFactory implements ProcessPoolSolutionEvaluator.ProcessProblemFactory {
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException      if the number of arguments or the engine aren't valid.
+     * @throws UnsupportedOperationException if the checkpoints are used with the engine of epanet.
+     */
+    @Override
+    public Problem<IntegerSolution> create(int workerIndex, String[] arguments) throws Exception {
+        if (arguments.length != 3 && arguments.length != 4) {
+            throw new IllegalArgumentException("The arguments are: engine inpPath jsonPath [checkpointMegabytes]");
+        }
+        String inpPath = arguments[1];
+        JsonSimpleReader config = JsonSimpleReader.read(arguments[2]);
+        int numPumps = config.getInt("numPumps");
+        int totalOptimizationTime = config.getInt("totalOptimizationTime");
+        int intervalOptimizationTime = config.getInt("intervalOptimizationTime");
+        double[] energyCostPerTime = config.getDoubleArray("energyCostPerTime");
+        double maintenanceCost = config.getDouble("maintenanceCost");
+        int minNodePressure = config.getInt("minNodePressure");
+        int numConstraints = config.getInt("numConstraints");
+        double[] maxFlowrateEachPump = config.getDoubleArray("maxFlowrateEachPump");
+        double[] minTank = config.getDoubleArray("minTank");
+        double[] maxTank = config.getDoubleArray("maxTank");
+
+        HydraulicEngine engine = ExperimentUtils.openEngine(arguments[0], inpPath, inpPath + ".process" + workerIndex + ".rpt");
+
+        VanzylOriginal problem;
+        try {
+            problem = new VanzylOriginal(numPumps, totalOptimizationTime, intervalOptimizationTime, energyCostPerTime,
+                    maintenanceCost, minNodePressure, numConstraints, minTank, maxTank, maxFlowrateEachPump, engine);
+            if (arguments.length == 4 && Long.parseLong(arguments[3]) > 0) {
+                problem.enableCheckpoints(Long.parseLong(arguments[3]) * 1024 * 1024);
+            }
+        } catch (Exception e) {
+            engine.close();
+            throw e;
+        }
+        return problem;
+    }
+}
@@ -0,0 +1,322 @@
+package model.epanet.hydraulicsimulation.gga;
+
+import epanet.core.LinkParameters;
+import epanet.core.LinkTypes;
+import epanet.core.NodeParameters;
+import epanet.core.NodeTypes;
+import model.epanet.element.Network;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.epanet.hydraulicsimulation.impl.EpanetEngine;
+import model.epanet.io.InpParser;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalGradientSolverTest {
+    private static final String HANOI = "inp/hanoi-Frankenstein.INP";
+    private static final String VANZYL = "inp/vanzylOriginal.inp";
+
+    @Test
+    void shouldHaveTheSameHeadlossThanHazenWilliamsFormulaInAPipeToAReservoir() throws Exception {
+        GlobalGradientSolver solver = new GlobalGradientSolver(parse(singlePipe("")));
+        solver.init();
+        solver.run();
+
+        // h = 10.667 * L * Q^1.852 / (C^1.852 * D^4.871) in meters and m3/s
+        double expected = 10.666829 * 1000 * Math.pow(0.05, 1.852) / (Math.pow(100, 1.852) * Math.pow(0.3, 4.871));
+        int junction = solver.getNodeIndex("J1");
+        assertTrue(solver.isBalanced());
+        assertEquals(50, solver.getLinkFlow(solver.getLinkIndex("P1")), 1e-3);
+        assertEquals(expected, solver.getLinkHeadloss(solver.getLinkIndex("P1")), 1e-3);
+        assertEquals(100 - 10 - expected, solver.getNodePressure(junction), 1e-3);
+        assertEquals(0, solver.next());
+    }
+
+    @Test
+    void shouldBalanceTheFlowInEachJunctionOfHanoi() throws Exception {
+        GlobalGradientSolver solver = new GlobalGradientSolver(parse(HANOI));
+        solver.init();
+        solver.run();
+
+        assertTrue(solver.isBalanced());
+        assertEquals(32, solver.getNodeCount());
+        assertEquals(34, solver.getLinkCount());
+        assertMassBalance(solver);
+        for (int i = 0; i < solver.getLinkCount(); i++) {
+            assertHazenWilliams(solver, i, 130);
+        }
+        assertEquals(100, solver.getNodeHead(solver.getNodeIndex("P1")), 1e-6);
+        for (int i = 0; i < solver.getJunctionCount(); i++) {
+            assertTrue(solver.getNodePressure(i) > 0 && solver.getNodePressure(i) < 100);
+        }
+    }
+
+    @Test
+    void shouldReduceThePressureWhenTheDiameterIsReduced() throws Exception {
+        GlobalGradientSolver solver = new GlobalGradientSolver(parse(HANOI));
+        solver.init();
+        solver.run();
+        int node = solver.getNodeIndex("N13");
+        double pressure = solver.getNodePressure(node);
+
+        for (int i = 0; i < solver.getLinkCount(); i++) {
+            solver.setPipeDiameter(i, 304.8);
+        }
+        solver.init();
+        solver.run();
+        assertTrue(solver.isBalanced());
+        assertTrue(solver.getNodePressure(node) < pressure);
+        assertMassBalance(solver);
+        assertEquals(304.8, solver.getLinkDiameter(0), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> solver.setPipeDiameter(0, 0));
+    }
+
+    @Test
+    void shouldSimulateTheDayOfVanzylWithAScheduleOfPumps() throws Exception {
+        GlobalGradientSolver solver = new GlobalGradientSolver(parse(VANZYL));
+        int[] pumps = {solver.getLinkIndex("pmp1"), solver.getLinkIndex("pmp2"), solver.getLinkIndex("pmp6")};
+        int[] tanks = {solver.getNodeIndex("t6"), solver.getNodeIndex("t5")};
+        for (int index : pumps) {
+            assertEquals(LinkTypes.EN_PUMP, solver.getLinkType(index));
+        }
+        for (int index : tanks) {
+            assertEquals(NodeTypes.EN_TANK, solver.getNodeType(index));
+        }
+
+        solver.init();
+        double energy = 0;
+        int steps = 0;
+        long tstep;
+        do {
+            long time = solver.getTime();
+            if (time % 3600 == 0) {
+                // the pump 2 is a reserve of pump 1
+                solver.setLinkStatus(pumps[0], true);
+                solver.setLinkStatus(pumps[1], false);
+                solver.setLinkStatus(pumps[2], true);
+            }
+            solver.run();
+            assertTrue(solver.isBalanced(), "Unbalanced at time " + time);
+            assertMassBalance(solver);
+            assertTrue(solver.getTankLevel(tanks[0]) > 0 && solver.getTankLevel(tanks[0]) <= 10 + 1e-6);
+            assertTrue(solver.getTankLevel(tanks[1]) > 0 && solver.getTankLevel(tanks[1]) <= 5 + 1e-6);
+            assertEquals(0, solver.getPumpEnergy(pumps[1]));
+            energy += solver.getPumpEnergy(pumps[2]);
+            steps++;
+            tstep = solver.next();
+        } while (tstep > 0);
+
+        assertEquals(solver.getDuration(), solver.getTime());
+        assertTrue(steps >= 25);
+        assertTrue(energy > 0);
+        assertThrows(IllegalStateException.class, solver::next);
+    }
+
+    @Test
+    void shouldFollowTheCurveOfEpanetInAPumpOfOnePoint() throws Exception {
+        // epanet extends a curve of one point (q1, h1) to h = 4/3 * h1 - (h1 / 3) * (q / q1)^2
+        for (double demand : new double[]{50, 25, 70}) {
+            GlobalGradientSolver solver = new GlobalGradientSolver(parse(network(
+                    "[JUNCTIONS]", " J1 0 " + demand,
+                    "[RESERVOIRS]", " R1 0",
+                    "[PUMPS]", " PU1 R1 J1 HEAD C1",
+                    "[CURVES]", " C1 50 40",
+                    "[ENERGY]", " Global Efficiency 75")));
+            solver.init();
+            solver.run();
+
+            int pump = solver.getLinkIndex("PU1");
+            double expectedHead = 4.0 / 3 * 40 - 40.0 / 3 * Math.pow(demand / 50, 2);
+            assertTrue(solver.isBalanced());
+            assertEquals(demand, solver.getLinkFlow(pump), 1e-3);
+            assertEquals(expectedHead, solver.getNodeHead(solver.getNodeIndex("J1")), 1e-2);
+            // power (kW) = specific weight of water (kN/m3) * Q (m3/s) * H (m) / efficiency
+            assertEquals(9.81 * demand / 1000 * expectedHead / 0.75, solver.getPumpEnergy(pump), 0.05);
+        }
+    }
+
+    @Test
+    void shouldChangeTheLevelOfTankWithTheFlowOfTheStep() throws Exception {
+        GlobalGradientSolver solver = new GlobalGradientSolver(parse(network(
+                "[RESERVOIRS]", " R1 50",
+                "[TANKS]", " T1 0 10 0 40 10 0",
+                "[PIPES]", " P1 R1 T1 1000 300 100 0 Open",
+                "[TIMES]", " Duration 2:00", " Hydraulic Timestep 1:00")));
+        int tank = solver.getNodeIndex("T1");
+        int pipe = solver.getLinkIndex("P1");
+        double area = Math.PI * 10 * 10 / 4;
+
+        solver.init();
+        solver.run();
+        double level = solver.getTankLevel(tank);
+        assertEquals(10, level, 1e-9);
+        assertEquals(50 - 10, solver.getLinkHeadloss(pipe), 1e-3);
+        for (int i = 0; i < 2; i++) {
+            // the level of epanet is integrated with the flow at the start of step: dh = Q * dt / area
+            double flow = solver.getLinkFlow(pipe) / 1000;
+            long step = solver.next();
+            assertEquals(3600, step);
+            solver.run();
+            level += flow * step / area;
+            assertEquals(level, solver.getTankLevel(tank), 1e-6);
+            assertEquals(50 - level, solver.getLinkHeadloss(pipe), 1e-3);
+        }
+        assertEquals(0, solver.next());
+    }
+
+    @Test
+    void shouldHaveTheResultsOfEpanetInHanoi() throws Exception {
+        // the heads and flows of epanet are solved with an accuracy of 0.001 in the flows
+        assertSameResultsThanEpanet(HANOI, 0.05, 0.5, 0, 0);
+    }
+
+    @Test
+    void shouldHaveTheResultsOfEpanetInTheDayOfVanzyl() throws Exception {
+        assertSameResultsThanEpanet(VANZYL, 0.05, 0.5, 0.01, 0.01);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenTheNetworkHasUnsupportedFeatures() throws Exception {
+        Network network = parse(singlePipe("[EMITTERS]\n J1 0.5"));
+        assertThrows(IllegalArgumentException.class, () -> new GlobalGradientSolver(network));
+        assertThrows(NullPointerException.class, () -> new GlobalGradientSolver(null));
+    }
+
+    private static Network parse(String path) throws Exception {
+        Network network = new Network();
+        new InpParser().parse(network, path);
+        return network;
+    }
+
+    /**
+     * Simulate a network with the library of epanet and with the solver and compare the heads of nodes, the level
+     * of tanks, the flows of links and the energy of pumps in each hydraulic step. The test is skipped if the
+     * library of epanet can't be loaded in the current platform.
+     *
+     * @param path            the inp file
+     * @param headTolerance   the max difference of heads and levels of tanks (m)
+     * @param flowTolerance   the max difference of flows (LPS)
+     * @param energyTolerance the max relative difference of the energy of pumps
+     * @param levelTolerance  the max difference of the level of tanks at the end of the simulation (m)
+     */
+    private static void assertSameResultsThanEpanet(String path, double headTolerance, double flowTolerance,
+                                                    double energyTolerance, double levelTolerance) throws Exception {
+        HydraulicEngine epanet = openEpanet(path);
+        try (HydraulicEngine engine = new GlobalGradientEngine(parse(path))) {
+            assertEquals(epanet.getNodeCount(), engine.getNodeCount());
+            assertEquals(epanet.getLinkCount(), engine.getLinkCount());
+            epanet.init();
+            engine.init();
+            long step;
+            do {
+                long time = epanet.run();
+                assertEquals(time, engine.run());
+                for (int i = 0; i < engine.getNodeCount(); i++) {
+                    assertEquals(epanet.getNodeId(i), engine.getNodeId(i));
+                    assertEquals(epanet.getNodeValue(i, NodeParameters.EN_HEAD), engine.getNodeValue(i, NodeParameters.EN_HEAD),
+                            headTolerance, "Head of " + engine.getNodeId(i) + " at time " + time);
+                }
+                for (int i = 0; i < engine.getLinkCount(); i++) {
+                    assertEquals(epanet.getLinkId(i), engine.getLinkId(i));
+                    assertEquals(epanet.getLinkValue(i, LinkParameters.EN_FLOW), engine.getLinkValue(i, LinkParameters.EN_FLOW),
+                            flowTolerance, "Flow of " + engine.getLinkId(i) + " at time " + time);
+                    if (engine.getLinkType(i) == LinkTypes.EN_PUMP) {
+                        double expected = epanet.getLinkValue(i, LinkParameters.EN_ENERGY);
+                        assertEquals(expected, engine.getLinkValue(i, LinkParameters.EN_ENERGY),
+                                energyTolerance * Math.max(1, expected), "Energy of " + engine.getLinkId(i) + " at time " + time);
+                    }
+                }
+                step = epanet.next();
+                assertEquals(step, engine.next());
+            } while (step > 0);
+            // the level at the end of simulation accumulate the differences of all the steps
+            for (int i = 0; i < engine.getNodeCount(); i++) {
+                if (engine.getNodeType(i) == NodeTypes.EN_TANK) {
+                    assertEquals(epanet.getNodeValue(i, NodeParameters.EN_HEAD), engine.getNodeValue(i, NodeParameters.EN_HEAD),
+                            headTolerance + levelTolerance, "Level of " + engine.getNodeId(i));
+                }
+            }
+        } finally {
+            epanet.close();
+        }
+    }
+
+    private static HydraulicEngine openEpanet(String path) {
+        try {
+            return new EpanetEngine(path, "");
+        } catch (Exception | LinkageError e) {
+            Assumptions.assumeTrue(false, "The library of epanet isn't available: " + e.getClass().getSimpleName());
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Write a network in a temporal inp file. The units are LPS and the headloss is Hazen-Williams.
+     */
+    private static String network(String... lines) throws IOException {
+        File inp = File.createTempFile("network", ".inp");
+        inp.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(inp, StandardCharsets.UTF_8.name())) {
+            for (String line : lines) {
+                writer.println(line);
+            }
+            writer.println("[OPTIONS]");
+            writer.println(" Units LPS");
+            writer.println(" Headloss H-W");
+            writer.println("[END]");
+        }
+        return inp.getAbsolutePath();
+    }
+
+    /**
+     * Write a network with a reservoir and a junction of elevation 10 m and demand 50 LPS joined by a pipe of
+     * 1000 m, 300 mm and roughness 100.
+     */
+    private static String singlePipe(String extraSection) throws IOException {
+        File inp = File.createTempFile("single-pipe", ".inp");
+        inp.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(inp, StandardCharsets.UTF_8.name())) {
+            writer.println("[JUNCTIONS]");
+            writer.println(" J1 10 50");
+            writer.println("[RESERVOIRS]");
+            writer.println(" R1 100");
+            writer.println("[PIPES]");
+            writer.println(" P1 R1 J1 1000 300 100 0 Open");
+            writer.println(extraSection);
+            writer.println("[OPTIONS]");
+            writer.println(" Units LPS");
+            writer.println(" Headloss H-W");
+            writer.println("[END]");
+        }
+        return inp.getAbsolutePath();
+    }
+
+    /**
+     * The sum of the flows that enter to a junction has to be equal to its demand.
+     */
+    private static void assertMassBalance(GlobalGradientSolver solver) {
+        double[] balance = new double[solver.getNodeCount()];
+        for (int i = 0; i < solver.getLinkCount(); i++) {
+            double flow = solver.getLinkFlow(i);
+            balance[solver.getLinkNode1(i)] -= flow;
+            balance[solver.getLinkNode2(i)] += flow;
+        }
+        for (int i = 0; i < solver.getJunctionCount(); i++) {
+            assertEquals(solver.getNodeDemand(i), balance[i], 1e-2, "Mass balance of " + solver.getNodeId(i));
+        }
+    }
+
+    private static void assertHazenWilliams(GlobalGradientSolver solver, int index, double roughness) {
+        double flow = Math.abs(solver.getLinkFlow(index)) / 1000;
+        double diameter = solver.getLinkDiameter(index) / 1000;
+        double expected = 10.666829 * solver.getLinkLength(index) * Math.pow(flow, 1.852)
+                / (Math.pow(roughness, 1.852) * Math.pow(diameter, 4.871));
+        assertEquals(expected, solver.getLinkHeadloss(index), 1e-3 * Math.max(1, expected), "Headloss of " + solver.getLinkId(index));
+    }
+}
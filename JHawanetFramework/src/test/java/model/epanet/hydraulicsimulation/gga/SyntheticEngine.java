@@ -0,0 +1,521 @@
+package model.epanet.hydraulicsimulation.gga;
+
+import epanet.core.*;
+import exception.InputException;
+import model.epanet.element.Network;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.epanet.io.InpParser;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static model.epanet.hydraulicsimulation.gga.HydraulicNetwork.*;
+
+/**
+ * Deterministic and cheap engine that approximate the hydraulic of a network without solve the system of
+ * equations. It is used by the tests and the benchmarks of the algorithms in any operative system without the
+ * library of epanet, it isn't a engine to solve real problems. The results aren't the same that the results of epanet, but they depend of the diameters, the status
+ * of links, the demands and the level of tanks like in a real network.
+ * <p>
+ * In each time the network is traversed from the reservoirs and tanks (a spanning tree of open links), the flow
+ * of each link of the tree is the demand of the nodes supplied by it and the headloss of pipes is calculated with
+ * the formula of Hazen-Williams (the roughness is used as the coefficient C). The pumps only can be traversed
+ * from its start node and they add the head of its curve (0 in the pumps of constant power). The open pumps that
+ * aren't in the tree (as the pumps that fill a tank) give its design flow. The valves don't have headloss. The
+ * junctions that aren't supplied have a pressure of 0. The level of tanks with diameter is updated with the
+ * flows in each step and the controls are ignored.
+ * <p>
+ * The engine count the simulations and the values changed, so the tests can check how the engine is used. The
+ * state of a simulation (the time, the head of tanks and the status of links) can be saved and restored.
+ */
+public class SyntheticEngine implements HydraulicEngine {
+    private HydraulicNetwork network;
+
+    private double[] diameter;
+    private boolean[] open;
+    private double[] head;
+    private double[] demand;
+    private double[] flow;
+    private double[] gain; // head added by the pumps
+    private double[] supplied; // demand supplied through each node
+    private int[] order; // nodes in the order that they are reached
+    private int[] parentLink;
+    private int[] adjacencyStart; // the links of node i are adjacency[adjacencyStart[i]..adjacencyStart[i + 1])
+    private int[] adjacency;
+    private long time;
+    private boolean initialized;
+    private boolean solved;
+
+    private int simulationCount;
+    private int changeCount;
+
+    /**
+     * Constructor. The network has to be opened with {@link #open(String, String)}.
+     */
+    public SyntheticEngine() {
+    }
+
+    /**
+     * Constructor that use a network already parsed. The network isn't modified.
+     *
+     * @param network the network
+     * @throws NullPointerException     if network is null
+     * @throws IllegalArgumentException if the network has invalid data or features that can't be read.
+     */
+    public SyntheticEngine(@NotNull Network network) {
+        load(network);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The report file isn't used.
+     *
+     * @throws IllegalStateException    if a network is already opened.
+     * @throws IllegalArgumentException if the network has invalid data or features that can't be read.
+     */
+    @Override
+    public void open(@NotNull String inpPath, @NotNull String rptPath) throws EpanetException {
+        Objects.requireNonNull(inpPath);
+        Objects.requireNonNull(rptPath);
+        if (this.network != null) {
+            throw new IllegalStateException("The engine already has a opened network");
+        }
+        Network network = new Network();
+        try {
+            new InpParser().parse(network, inpPath);
+        } catch (IOException | InputException e) {
+            throw new EpanetException(e);
+        }
+        load(network);
+    }
+
+    private void load(Network network) {
+        HydraulicNetwork net = new HydraulicNetwork(network);
+        this.diameter = net.diameter.clone();
+        this.open = new boolean[net.linkCount];
+        this.head = new double[net.nodeCount];
+        this.demand = new double[net.nodeCount];
+        this.flow = new double[net.linkCount];
+        this.gain = new double[net.linkCount];
+        this.supplied = new double[net.nodeCount];
+        this.order = new int[net.nodeCount];
+        this.parentLink = new int[net.nodeCount];
+        this.adjacencyStart = new int[net.nodeCount + 1];
+        this.adjacency = new int[2 * net.linkCount];
+        for (int k = 0; k < net.linkCount; k++) {
+            this.adjacencyStart[net.node1[k] + 1]++;
+            this.adjacencyStart[net.node2[k] + 1]++;
+        }
+        for (int i = 0; i < net.nodeCount; i++) {
+            this.adjacencyStart[i + 1] += this.adjacencyStart[i];
+        }
+        int[] position = Arrays.copyOf(this.adjacencyStart, net.nodeCount);
+        for (int k = 0; k < net.linkCount; k++) {
+            this.adjacency[position[net.node1[k]]++] = k;
+            this.adjacency[position[net.node2[k]]++] = k;
+        }
+        this.network = net;
+    }
+
+    @Override
+    public void init() {
+        HydraulicNetwork net = getNetwork();
+        this.time = 0;
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            this.head[i] = net.nodeTypes[i] == NodeTypes.EN_TANK ? net.tankInitialHead[i] : net.reservoirHead[i];
+        }
+        for (int k = 0; k < net.linkCount; k++) {
+            this.open[k] = net.initialStatus[k] == OPEN;
+        }
+        this.initialized = true;
+        this.solved = false;
+        this.simulationCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if {@link #init()} wasn't called after the end of last simulation.
+     */
+    @Override
+    public long run() {
+        HydraulicNetwork net = getNetwork();
+        if (!this.initialized) {
+            throw new IllegalStateException("The engine has to be initialized before run the simulation");
+        }
+        updateDemands(net);
+
+        // the sources are the first nodes of the tree
+        int size = 0;
+        Arrays.fill(this.parentLink, -2);
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            if (net.reservoirPattern[i] >= 0) {
+                this.head[i] = net.reservoirHead[i] * patternFactor(net, net.reservoirPattern[i]);
+            }
+            this.parentLink[i] = -1;
+            this.order[size++] = i;
+        }
+        // breadth first search through the open links
+        for (int position = 0; position < size; position++) {
+            int node = this.order[position];
+            for (int j = this.adjacencyStart[node]; j < this.adjacencyStart[node + 1]; j++) {
+                int k = this.adjacency[j];
+                if (!this.open[k]) {
+                    continue;
+                }
+                int next;
+                if (net.node1[k] == node) {
+                    next = net.node2[k];
+                } else if (net.node2[k] == node && net.linkTypes[k] != LinkTypes.EN_PUMP) {
+                    next = net.node1[k];
+                } else {
+                    continue;
+                }
+                if (this.parentLink[next] == -2) {
+                    this.parentLink[next] = k;
+                    this.order[size++] = next;
+                }
+            }
+        }
+
+        // the flow of each link is the demand of the nodes below it
+        Arrays.fill(this.flow, 0);
+        Arrays.fill(this.gain, 0);
+        double[] supplied = this.supplied;
+        for (int i = 0; i < net.nodeCount; i++) {
+            supplied[i] = i < net.junctionCount ? this.demand[i] : 0;
+        }
+        // the open pumps that aren't used to supply a node (as the pumps that fill a tank) give its design flow
+        for (int k = 0; k < net.linkCount; k++) {
+            if (this.open[k] && net.linkTypes[k] == LinkTypes.EN_PUMP && this.parentLink[net.node2[k]] != k) {
+                double q = net.pumpDesignFlow[k];
+                this.flow[k] = q;
+                this.gain[k] = pumpHead(net, k, q);
+                supplied[net.node1[k]] += q;
+                supplied[net.node2[k]] -= q;
+            }
+        }
+        for (int position = size - 1; position >= 0; position--) {
+            int node = this.order[position];
+            int k = this.parentLink[node];
+            if (k < 0) {
+                continue;
+            }
+            int parent = net.node1[k] == node ? net.node2[k] : net.node1[k];
+            this.flow[k] = net.node2[k] == node ? supplied[node] : -supplied[node];
+            supplied[parent] += supplied[node];
+        }
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            this.demand[i] = -supplied[i];
+        }
+
+        // the heads are calculated from the sources
+        for (int i = 0; i < net.junctionCount; i++) {
+            this.head[i] = net.elevation[i];
+        }
+        for (int position = 0; position < size; position++) {
+            int node = this.order[position];
+            int k = this.parentLink[node];
+            if (k < 0) {
+                continue;
+            }
+            int parent = net.node1[k] == node ? net.node2[k] : net.node1[k];
+            double q = Math.abs(this.flow[k]);
+            double dh = 0;
+            if (net.linkTypes[k] == LinkTypes.EN_PUMP) {
+                this.gain[k] = pumpHead(net, k, q);
+                dh = -this.gain[k];
+            } else if (net.linkTypes[k] == LinkTypes.EN_PIPE || net.linkTypes[k] == LinkTypes.EN_CVPIPE) {
+                dh = HAZEN_WILLIAMS_COEFFICIENT * net.length[k] * Math.pow(q, 1.852)
+                        / (Math.pow(net.roughness[k], 1.852) * Math.pow(this.diameter[k], 4.871));
+            }
+            this.head[node] = this.head[parent] - dh;
+        }
+        this.solved = true;
+        return this.time;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if {@link #run()} wasn't called in the current time.
+     */
+    @Override
+    public long next() {
+        HydraulicNetwork net = getNetwork();
+        if (!this.solved) {
+            throw new IllegalStateException("The hydraulic of the current time has to be solved before advance");
+        }
+        this.solved = false;
+        if (this.time >= net.duration) {
+            this.initialized = false;
+            return 0;
+        }
+        long step = Math.min(net.hydraulicStep - this.time % net.hydraulicStep, net.duration - this.time);
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            if (net.nodeTypes[i] == NodeTypes.EN_TANK && net.tankVolumeCurveLevel[i] == null) {
+                double level = this.head[i] + this.demand[i] * step / net.tankArea[i];
+                this.head[i] = Math.max(net.tankMinimumHead[i], Math.min(net.tankMaximumHead[i], level));
+            }
+        }
+        this.time += step;
+        return step;
+    }
+
+    @Override
+    public void close() {
+        this.network = null;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return getNetwork().nodeCount;
+    }
+
+    @Override
+    public int getLinkCount() {
+        return getNetwork().linkCount;
+    }
+
+    @Override
+    public @NotNull String getNodeId(int index) {
+        return getNetwork().nodeIds[index];
+    }
+
+    @Override
+    public @NotNull String getLinkId(int index) {
+        return getNetwork().linkIds[index];
+    }
+
+    @Override
+    public @NotNull NodeTypes getNodeType(int index) {
+        return getNetwork().nodeTypes[index];
+    }
+
+    @Override
+    public @NotNull LinkTypes getLinkType(int index) {
+        return getNetwork().linkTypes[index];
+    }
+
+    @Override
+    public long getTimeParameter(@NotNull TimeParameterCodes code) {
+        HydraulicNetwork net = getNetwork();
+        switch (code) {
+            case DURATION:
+                return net.duration;
+            case HYDSTEP:
+                return net.hydraulicStep;
+            case PATTERNSTEP:
+                return net.patternStep;
+            case PATTERNSTART:
+                return net.patternStart;
+            case REPORTSTEP:
+                return net.reportStep;
+            case REPORTSTART:
+                return net.reportStart;
+            case STARTCLOCKTIME:
+                return net.startClockTime;
+            default:
+                throw new IllegalArgumentException("The time parameter " + code + " isn't supported");
+        }
+    }
+
+    @Override
+    public double getNodeValue(int index, @NotNull NodeParameters parameter) {
+        HydraulicNetwork net = getNetwork();
+        switch (parameter) {
+            case EN_ELEVATION:
+                return net.elevation[index] / net.lengthFactor;
+            case EN_BASEDEMAND:
+                double sum = 0;
+                if (index < net.junctionCount) {
+                    for (double value : net.baseDemand[index]) {
+                        sum += value;
+                    }
+                }
+                return sum / net.flowFactor;
+            case EN_TANKLEVEL:
+                return (this.head[index] - net.elevation[index]) / net.lengthFactor;
+            case EN_DEMAND:
+                return this.demand[index] / net.flowFactor;
+            case EN_HEAD:
+                return this.head[index] / net.lengthFactor;
+            case EN_PRESSURE:
+                return (this.head[index] - net.elevation[index]) * net.pressureFactor;
+            case EN_QUALITY:
+                return 0;
+            default:
+                throw new IllegalArgumentException("The node parameter " + parameter + " isn't supported");
+        }
+    }
+
+    @Override
+    public double getLinkValue(int index, @NotNull LinkParameters parameter) {
+        HydraulicNetwork net = getNetwork();
+        switch (parameter) {
+            case EN_DIAMETER:
+                return this.diameter[index] / net.diameterFactor;
+            case EN_LENGTH:
+                return net.length[index] / net.lengthFactor;
+            case EN_FLOW:
+                return this.flow[index] / net.flowFactor;
+            case EN_VELOCITY:
+                if (net.linkTypes[index] == LinkTypes.EN_PUMP || this.diameter[index] <= 0) {
+                    return 0;
+                }
+                double d = this.diameter[index];
+                return Math.abs(this.flow[index]) / (Math.PI * d * d / 4) / net.lengthFactor;
+            case EN_HEADLOSS:
+                if (!this.open[index]) {
+                    return 0;
+                }
+                double h = this.head[net.node1[index]] - this.head[net.node2[index]];
+                return (net.linkTypes[index] == LinkTypes.EN_PUMP ? h : Math.abs(h)) / net.lengthFactor;
+            case EN_STATUS:
+                return this.open[index] ? 1 : 0;
+            case EN_ENERGY:
+                if (net.linkTypes[index] != LinkTypes.EN_PUMP || !this.open[index]) {
+                    return 0;
+                }
+                double efficiency = Math.max(1, Math.min(100, net.globalEfficiency)) / 100;
+                return KW_COEFFICIENT * this.gain[index] * Math.abs(this.flow[index]) * net.specificGravity
+                        / efficiency;
+            default:
+                throw new IllegalArgumentException("The link parameter " + parameter + " isn't supported");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the parameter isn't EN_DIAMETER or EN_STATUS or if the diameter isn't
+     *                                  positive.
+     */
+    @Override
+    public void setLinkValue(int index, @NotNull LinkParameters parameter, double value) {
+        HydraulicNetwork net = getNetwork();
+        switch (parameter) {
+            case EN_DIAMETER:
+                if (value <= 0) {
+                    throw new IllegalArgumentException("The diameter has to be positive");
+                }
+                this.diameter[index] = value * net.diameterFactor;
+                break;
+            case EN_STATUS:
+                this.open[index] = value != 0;
+                break;
+            default:
+                throw new IllegalArgumentException("The link parameter " + parameter + " can't be changed");
+        }
+        this.changeCount++;
+    }
+
+    @Override
+    public int getStateSize() {
+        HydraulicNetwork net = getNetwork();
+        return 1 + (net.nodeCount - net.junctionCount) + net.linkCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The state is the time, the head of tanks and reservoirs and the status of links.
+     */
+    @Override
+    public void saveState(double @NotNull [] state) {
+        HydraulicNetwork net = getNetwork();
+        checkStateLength(state);
+        if (!this.initialized || this.solved) {
+            throw new IllegalStateException("The state only can be saved after advance to the next step");
+        }
+        int position = 0;
+        state[position++] = this.time;
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            state[position++] = this.head[i];
+        }
+        for (int k = 0; k < net.linkCount; k++) {
+            state[position++] = this.open[k] ? 1 : 0;
+        }
+    }
+
+    @Override
+    public void restoreState(double @NotNull [] state) {
+        HydraulicNetwork net = getNetwork();
+        checkStateLength(state);
+        int position = 0;
+        this.time = (long) state[position++];
+        for (int i = net.junctionCount; i < net.nodeCount; i++) {
+            this.head[i] = state[position++];
+        }
+        for (int k = 0; k < net.linkCount; k++) {
+            this.open[k] = state[position++] != 0;
+        }
+        this.initialized = true;
+        this.solved = false;
+    }
+
+    private void checkStateLength(double[] state) {
+        if (state.length != getStateSize()) {
+            throw new IllegalArgumentException("The state has to have " + getStateSize() + " values");
+        }
+    }
+
+    /**
+     * Get the number of simulations started with {@link #init()}.
+     *
+     * @return the number of simulations
+     */
+    public int getSimulationCount() {
+        return this.simulationCount;
+    }
+
+    /**
+     * Get the number of values changed with {@link #setLinkValue(int, LinkParameters, double)} (the bulk setter
+     * change a value for each index).
+     *
+     * @return the number of values changed
+     */
+    public int getChangeCount() {
+        return this.changeCount;
+    }
+
+    private void updateDemands(HydraulicNetwork net) {
+        for (int i = 0; i < net.junctionCount; i++) {
+            double sum = 0;
+            for (int j = 0; j < net.baseDemand[i].length; j++) {
+                sum += net.baseDemand[i][j] * patternFactor(net, net.demandPattern[i][j]);
+            }
+            this.demand[i] = sum;
+        }
+    }
+
+    private double patternFactor(HydraulicNetwork net, int pattern) {
+        if (pattern < 0) {
+            return 1;
+        }
+        double[] multipliers = net.patterns[pattern];
+        int period = (int) (((this.time + net.patternStart) / net.patternStep) % multipliers.length);
+        return multipliers[period];
+    }
+
+    private static double pumpHead(HydraulicNetwork net, int k, double q) {
+        switch (net.pumpType[k]) {
+            case POWER_FUNCTION:
+                return Math.max(0, net.pumpMaximumHead[k] - net.pumpR[k] * Math.pow(q, net.pumpN[k]));
+            case CUSTOM:
+                return Math.max(0, interpolate(net.pumpCurveFlow[k], net.pumpCurveHead[k], q));
+            default:
+                return 0;
+        }
+    }
+
+    private HydraulicNetwork getNetwork() {
+        if (this.network == null) {
+            throw new IllegalStateException("The network wasn't opened");
+        }
+        return this.network;
+    }
+}
@@ -0,0 +1,103 @@
+package model.epanet.hydraulicsimulation.gga;
+
+import epanet.core.LinkParameters;
+import epanet.core.LinkTypes;
+import epanet.core.NodeParameters;
+import epanet.core.TimeParameterCodes;
+import model.metaheuristic.problem.impl.PipeOptimizing;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticEngineTest {
+    private static final String HANOI = "inp/hanoi-Frankenstein.INP";
+    private static final String HANOI_GAMA = "inp/hanoiHW.Gama";
+    private static final String VANZYL = "inp/vanzylOriginal.inp";
+
+    @Test
+    void shouldReduceThePressureWhenTheDiametersAreReduced() throws Exception {
+        SyntheticEngine engine = new SyntheticEngine();
+        engine.open(HANOI, "");
+        int[] pipes = new int[engine.getLinkCount()];
+        int[] nodes = new int[engine.getNodeCount()];
+        Arrays.setAll(pipes, i -> i);
+        Arrays.setAll(nodes, i -> i);
+        double[] before = simulate(engine, nodes);
+        assertArrayEquals(before, simulate(engine, nodes));
+
+        double[] diameters = new double[pipes.length];
+        Arrays.fill(diameters, 304.8);
+        engine.setLinkValues(pipes, LinkParameters.EN_DIAMETER, diameters);
+        double[] after = simulate(engine, nodes);
+        for (int i = 0; i < nodes.length; i++) {
+            assertTrue(after[i] <= before[i] + 1e-9, "Pressure of " + engine.getNodeId(i));
+        }
+        assertTrue(after[engine.getNodeCount() - 2] < before[engine.getNodeCount() - 2]);
+        assertEquals(304.8, engine.getLinkValue(0, LinkParameters.EN_DIAMETER), 1e-9);
+        assertEquals(pipes.length, engine.getChangeCount());
+        assertEquals(3, engine.getSimulationCount());
+        assertThrows(IllegalArgumentException.class, () -> engine.setLinkValues(pipes, LinkParameters.EN_DIAMETER, new double[1]));
+        engine.close();
+        assertThrows(IllegalStateException.class, engine::init);
+    }
+
+    @Test
+    void shouldEvaluateThePipeOptimizingProblem() throws Exception {
+        SyntheticEngine engine = new SyntheticEngine();
+        engine.open(HANOI, "");
+        PipeOptimizing problem = new PipeOptimizing(engine, HANOI_GAMA, 30);
+        NumberOfViolatedConstraints<IntegerSolution> violated = new NumberOfViolatedConstraints<>();
+
+        IntegerSolution big = problem.createSolution();
+        IntegerSolution small = problem.createSolution();
+        for (int i = 0; i < problem.getNumberOfVariables(); i++) {
+            big.setVariable(i, (int) problem.getUpperBound(i));
+            small.setVariable(i, (int) problem.getLowerBound(i));
+        }
+        problem.evaluate(big);
+        problem.evaluate(small);
+        assertTrue(big.getObjective(0) > small.getObjective(0));
+        assertTrue(violated.getAttribute(big) < violated.getAttribute(small));
+        assertEquals(2, engine.getSimulationCount());
+        problem.closeResources();
+    }
+
+    @Test
+    void shouldSimulateTheDayOfVanzyl() throws Exception {
+        SyntheticEngine engine = new SyntheticEngine();
+        engine.open(VANZYL, "");
+        int pump = -1;
+        for (int i = 0; i < engine.getLinkCount(); i++) {
+            if (engine.getLinkType(i) == LinkTypes.EN_PUMP) {
+                pump = i;
+            }
+        }
+        engine.init();
+        double energy = 0;
+        long time;
+        long tstep;
+        do {
+            engine.setLinkValue(pump, LinkParameters.EN_STATUS, 1);
+            time = engine.run();
+            energy += engine.getLinkValue(pump, LinkParameters.EN_ENERGY);
+            tstep = engine.next();
+        } while (tstep > 0);
+        assertEquals(engine.getTimeParameter(TimeParameterCodes.DURATION), time);
+        assertTrue(energy > 0);
+    }
+
+    private static double[] simulate(SyntheticEngine engine, int[] nodes) throws Exception {
+        double[] pressures = new double[nodes.length];
+        engine.init();
+        engine.run();
+        engine.getNodeValues(nodes, NodeParameters.EN_PRESSURE, pressures);
+        while (engine.next() > 0) {
+            engine.run();
+        }
+        return pressures;
+    }
+}
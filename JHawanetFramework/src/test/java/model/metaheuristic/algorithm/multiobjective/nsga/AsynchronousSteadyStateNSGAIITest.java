@@ -0,0 +1,194 @@
+package model.metaheuristic.algorithm.multiobjective.nsga;
+
+import model.metaheuristic.operator.crossover.impl.IntegerSBXCrossover;
+import model.metaheuristic.operator.mutation.impl.IntegerPolynomialMutation;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.evaluator.EvaluationCache;
+import model.metaheuristic.util.evaluator.impl.AsynchronousCachedSolutionEvaluator;
+import model.metaheuristic.util.evaluator.impl.ParallelSolutionEvaluator;
+import model.metaheuristic.util.surrogate.KNearestNeighborsSurrogate;
+import model.metaheuristic.util.surrogate.SurrogatePreScreening;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsynchronousSteadyStateNSGAIITest {
+
+    @Test
+    void shouldKeepAllTheWorkersBusy() throws Exception {
+        AtomicInteger evaluations = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<MockProblem> workers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            workers.add(new MockProblem(evaluations, running, maxRunning, 2));
+        }
+        MockProblem problem = new MockProblem(new AtomicInteger(), new AtomicInteger(), new AtomicInteger(), 0);
+
+        try (ParallelSolutionEvaluator<IntegerSolution> evaluator = new ParallelSolutionEvaluator<>(workers)) {
+            NSGAII<IntegerSolution> algorithm = new NSGAIIBuilder<>(problem, new IntegerSBXCrossover(0.9, 20),
+                    new IntegerPolynomialMutation(0.5, 20), 20)
+                    .setMaxEvaluations(200)
+                    .setEvaluator(evaluator)
+                    .setAsynchronous(true)
+                    .build();
+            assertTrue(algorithm instanceof AsynchronousSteadyStateNSGAII);
+
+            int steps = 0;
+            while (!algorithm.isStoppingConditionReached()) {
+                algorithm.runSingleStep();
+                steps++;
+                assertEquals(20, algorithm.getPopulation().size());
+            }
+
+            assertEquals(1 + 180, steps);
+            // the duplicates of the initial population are evaluated only once
+            assertEquals(200, evaluations.get() + algorithm.getDuplicateElimination().getTotalDuplicates());
+            assertEquals(4, maxRunning.get());
+            assertEquals(0, ((AsynchronousSteadyStateNSGAII<IntegerSolution>) algorithm).getNumberOfPendingEvaluations());
+            assertFalse(algorithm.getResult().isEmpty());
+        }
+    }
+
+    @Test
+    void shouldKeepAllTheWorkersBusyWithACache() throws Exception {
+        AtomicInteger evaluations = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<MockProblem> workers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            workers.add(new MockProblem(evaluations, running, maxRunning, 2));
+        }
+        MockProblem problem = new MockProblem(new AtomicInteger(), new AtomicInteger(), new AtomicInteger(), 0);
+
+        try (ParallelSolutionEvaluator<IntegerSolution> parallelEvaluator = new ParallelSolutionEvaluator<>(workers)) {
+            AsynchronousCachedSolutionEvaluator<IntegerSolution> evaluator =
+                    new AsynchronousCachedSolutionEvaluator<>(parallelEvaluator, new EvaluationCache<>(1000));
+            NSGAII<IntegerSolution> algorithm = new NSGAIIBuilder<>(problem, new IntegerSBXCrossover(0.9, 20),
+                    new IntegerPolynomialMutation(0.5, 20), 20)
+                    .setMaxEvaluations(200)
+                    .setEvaluator(evaluator)
+                    .setAsynchronous(true)
+                    .build();
+
+            // the initial population is evaluated as a list, so only the steps after it are measured
+            algorithm.runSingleStep();
+            maxRunning.set(0);
+            while (!algorithm.isStoppingConditionReached()) {
+                algorithm.runSingleStep();
+            }
+
+            // the offspring are dispatched one by one to the workers, not evaluated in the thread of the algorithm
+            assertEquals(4, maxRunning.get());
+            // each offspring is simulated or restored from the cache
+            assertEquals(200, evaluations.get() + evaluator.getCache().getHits()
+                    + algorithm.getDuplicateElimination().getTotalDuplicates());
+            assertEquals(0, ((AsynchronousSteadyStateNSGAII<IntegerSolution>) algorithm).getNumberOfPendingEvaluations());
+        }
+    }
+
+    @Test
+    void shouldEvaluateAOffspringByStepWithASequentialEvaluator() throws Exception {
+        AtomicInteger evaluations = new AtomicInteger();
+        MockProblem problem = new MockProblem(evaluations, new AtomicInteger(), new AtomicInteger(), 0);
+        NSGAII<IntegerSolution> algorithm = new NSGAIIBuilder<>(problem, new IntegerSBXCrossover(0.9, 20),
+                new IntegerPolynomialMutation(0.5, 20), 10)
+                .setMaxEvaluations(50)
+                .setAsynchronous(true)
+                .build();
+
+        algorithm.runSingleStep();
+        assertEquals(10, evaluations.get() + algorithm.getDuplicateElimination().getTotalDuplicates());
+        while (!algorithm.isStoppingConditionReached()) {
+            int before = evaluations.get();
+            algorithm.runSingleStep();
+            assertTrue(evaluations.get() - before <= 1);
+        }
+        assertEquals(50, evaluations.get() + algorithm.getDuplicateElimination().getTotalDuplicates());
+        assertTrue(algorithm.getStatusOfExecution().startsWith("Number of evaluations: 50 / 50"));
+    }
+
+    @Test
+    void shouldNotSupportASurrogate() {
+        MockProblem problem = new MockProblem(new AtomicInteger(), new AtomicInteger(), new AtomicInteger(), 0);
+        NSGAIIBuilder<IntegerSolution> builder = new NSGAIIBuilder<>(problem, new IntegerSBXCrossover(0.9, 20),
+                new IntegerPolynomialMutation(0.5, 20), 10)
+                .setAsynchronous(true)
+                .setSurrogate(new SurrogatePreScreening<>(new KNearestNeighborsSurrogate<>(problem, 3, 100), 1.0));
+        assertThrows(UnsupportedOperationException.class, builder::build);
+    }
+
+    /**
+     * Problem with the front in second = 0 that counts the evaluations running at the same time.
+     */
+    private static class MockProblem implements Problem<IntegerSolution> {
+        private final AtomicInteger evaluations;
+        private final AtomicInteger running;
+        private final AtomicInteger maxRunning;
+        private final long delay;
+
+        MockProblem(AtomicInteger evaluations, AtomicInteger running, AtomicInteger maxRunning, long delay) {
+            this.evaluations = evaluations;
+            this.running = running;
+            this.maxRunning = maxRunning;
+            this.delay = delay;
+        }
+
+        @Override
+        public int getNumberOfVariables() {
+            return 2;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return 2;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return 0;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) {
+            this.maxRunning.accumulateAndGet(this.running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(this.delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int first = solution.getVariable(0);
+            int second = solution.getVariable(1);
+            solution.setObjective(0, first + second);
+            solution.setObjective(1, 10 - first + second);
+            this.evaluations.incrementAndGet();
+            this.running.decrementAndGet();
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return 0;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 10;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "test class";
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package model.metaheuristic.algorithm.multiobjective.smpso;
+
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.archive.impl.IncrementalCrowdingDistanceArchive;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measure the iterations per second of SMPSOInteger with a problem whose evaluation costs almost nothing, so the
+ * time is the time of the updates of the swarm and of the leaders.
+ * <p>
+ * It is disabled and it is executed manually.
+ */
+class SMPSOIntegerBenchmark {
+    private static final int[] NUMBER_OF_VARIABLES = {24, 96, 384};
+
+    @Test
+    @Disabled("Benchmark executed manually")
+    void measureTheIterationsPerSecond() throws Exception {
+        for (int numberOfVariables : NUMBER_OF_VARIABLES) {
+            int iterations = 2000;
+            SMPSOInteger algorithm = new SMPSOIntegerBuilder(new SMPSOIntegerTest.CheapProblem(numberOfVariables),
+                    new IncrementalCrowdingDistanceArchive<IntegerSolution>(100))
+                    .setSwarmSize(100)
+                    .setMaxIterations(2 * iterations + 1)
+                    .build();
+            // warm up
+            for (int i = 0; i < iterations; i++) {
+                algorithm.runSingleStep();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                algorithm.runSingleStep();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("variables: %3d, iterations per second: %8.1f%n", numberOfVariables,
+                    iterations / seconds);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package model.metaheuristic.algorithm.multiobjective.smpso;
+
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.archive.impl.CrowdingDistanceArchive;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SMPSOIntegerTest {
+
+    @Test
+    void shouldKeepTheParticlesInsideTheBounds() throws Exception {
+        CheapProblem problem = new CheapProblem(10);
+        SMPSOInteger algorithm = new SMPSOIntegerBuilder(problem, new CrowdingDistanceArchive<IntegerSolution>(20))
+                .setSwarmSize(30)
+                .setMaxIterations(50)
+                .build();
+
+        while (!algorithm.isStoppingConditionReached()) {
+            algorithm.runSingleStep();
+            for (IntegerSolution particle : algorithm.getSwarm()) {
+                for (int j = 0; j < problem.getNumberOfVariables(); j++) {
+                    assertTrue(particle.getVariable(j) >= problem.getLowerBound(j));
+                    assertTrue(particle.getVariable(j) <= problem.getUpperBound(j));
+                }
+            }
+        }
+
+        List<IntegerSolution> result = algorithm.getResult();
+        assertFalse(result.isEmpty());
+        assertTrue(result.size() <= 20);
+    }
+
+    /**
+     * A problem with two objectives, the sum of the variables and the sum of the distances to the upper bound.
+     */
+    static class CheapProblem implements Problem<IntegerSolution> {
+        private final int numberOfVariables;
+
+        CheapProblem(int numberOfVariables) {
+            this.numberOfVariables = numberOfVariables;
+        }
+
+        @Override
+        public int getNumberOfVariables() {
+            return numberOfVariables;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return 2;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return 0;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) {
+            double first = 0;
+            double second = 0;
+            for (int i = 0; i < numberOfVariables; i++) {
+                int value = solution.getVariable(i);
+                first += value * (i % 2 == 0 ? 1 : 0.5);
+                second += (getUpperBound(i) - value) * (i % 2 == 0 ? 0.5 : 1);
+            }
+            solution.setObjective(0, first);
+            solution.setObjective(1, second);
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return 0;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 200;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "cheap problem";
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package model.metaheuristic.algorithm.multiobjective.spa2.utils;
+
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.SolutionListUtils;
+import model.metaheuristic.util.comparator.DominanceComparator;
+import model.metaheuristic.util.solutionattribute.StrengthRawFitness;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnvironmentalSelectionTest {
+
+    @Test
+    void shouldComputeTheSameFitnessThatTheComparisonOfAllPairs() {
+        Random random = new Random(4);
+        for (int test = 0; test < 20; test++) {
+            List<IntegerSolution> union = createUnion(random, 60, 8);
+            int k = 1 + random.nextInt(3);
+            StrengthRawFitness<IntegerSolution> fitness = new StrengthRawFitness<>(k);
+
+            fitness.computeDensityEstimator(union);
+
+            double[] expected = referenceFitness(union, k);
+            for (int i = 0; i < union.size(); i++) {
+                assertEquals(expected[i], (double) fitness.getAttribute(union.get(i)));
+            }
+        }
+    }
+
+    @Test
+    void shouldTruncateAsTheRemovalOfTheNearestSolutions() {
+        Random random = new Random(8);
+        for (int test = 0; test < 20; test++) {
+            // a lot of non dominated solutions with repeated distances, so the archive is truncated
+            List<IntegerSolution> union = createUnion(random, 80, 30);
+            new StrengthRawFitness<IntegerSolution>().computeDensityEstimator(union);
+
+            List<IntegerSolution> selected = new EnvironmentalSelection<IntegerSolution>(10).execute(union);
+
+            List<IntegerSolution> nonDominated = new ArrayList<>();
+            for (IntegerSolution solution : union) {
+                if (new StrengthRawFitness<IntegerSolution>().getAttribute(solution) < 1.0) {
+                    nonDominated.add(solution);
+                }
+            }
+            assertTrue(nonDominated.size() > 10);
+            List<IntegerSolution> expected = referenceTruncation(nonDominated, 10);
+            assertEquals(expected.size(), selected.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSame(expected.get(i), selected.get(i));
+            }
+        }
+    }
+
+    @Test
+    void shouldAddTheBestDominatedSolutions() {
+        List<IntegerSolution> union = createUnion(new Random(2), 40, 4);
+        new StrengthRawFitness<IntegerSolution>().computeDensityEstimator(union);
+
+        List<IntegerSolution> selected = new EnvironmentalSelection<IntegerSolution>(30).execute(union);
+
+        assertEquals(30, selected.size());
+        assertEquals(union.size(), new EnvironmentalSelection<IntegerSolution>(50).execute(union).size());
+    }
+
+    /**
+     * Create solutions in a front of two objectives where the first objective plus the second objective is between
+     * width and width + 3.
+     */
+    private static List<IntegerSolution> createUnion(Random random, int size, int width) {
+        MockProblem problem = new MockProblem();
+        List<IntegerSolution> union = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            IntegerSolution solution = problem.createSolution();
+            int first = random.nextInt(width + 1);
+            solution.setObjective(0, first);
+            solution.setObjective(1, width - first + random.nextInt(4));
+            union.add(solution);
+        }
+        return union;
+    }
+
+    /**
+     * The fitness computed with the distance matrix and two comparisons of each pair.
+     */
+    private static double[] referenceFitness(List<IntegerSolution> union, int k) {
+        DominanceComparator<IntegerSolution> comparator = new DominanceComparator<>();
+        double[][] distance = SolutionListUtils.distanceMatrix(union);
+        double[] strength = new double[union.size()];
+        double[] fitness = new double[union.size()];
+        for (int i = 0; i < union.size(); i++) {
+            for (int j = 0; j < union.size(); j++) {
+                if (comparator.compare(union.get(i), union.get(j)) < 0) {
+                    strength[i] += 1.0;
+                }
+            }
+        }
+        for (int i = 0; i < union.size(); i++) {
+            for (int j = 0; j < union.size(); j++) {
+                if (comparator.compare(union.get(i), union.get(j)) > 0) {
+                    fitness[i] += strength[j];
+                }
+            }
+            Arrays.sort(distance[i]);
+            fitness[i] += 1.0 / (distance[i][k] + 2.0);
+        }
+        return fitness;
+    }
+
+    /**
+     * The truncation removing each time the solution with the lexicographically smallest distances and removing it
+     * from the sorted distances of the other solutions.
+     */
+    private static List<IntegerSolution> referenceTruncation(List<IntegerSolution> solutions, int size) {
+        List<IntegerSolution> aux = new ArrayList<>(solutions);
+        double[][] distance = SolutionListUtils.distanceMatrix(aux);
+        List<Integer> ids = new ArrayList<>();
+        List<List<double[]>> distanceList = new ArrayList<>();
+        for (int pos = 0; pos < aux.size(); pos++) {
+            ids.add(pos);
+            List<double[]> nodes = new ArrayList<>();
+            for (int ref = 0; ref < aux.size(); ref++) {
+                if (pos != ref) {
+                    nodes.add(new double[]{ref, distance[pos][ref]});
+                }
+            }
+            nodes.sort((node1, node2) -> Double.compare(node1[1], node2[1]));
+            distanceList.add(nodes);
+        }
+        while (aux.size() > size) {
+            int toRemove = 0;
+            for (int i = 1; i < distanceList.size(); i++) {
+                List<double[]> nodes = distanceList.get(i);
+                List<double[]> best = distanceList.get(toRemove);
+                int k = 0;
+                while (k < nodes.size() - 1 && nodes.get(k)[1] == best.get(k)[1]) {
+                    k++;
+                }
+                if (nodes.get(k)[1] < best.get(k)[1]) {
+                    toRemove = i;
+                }
+            }
+            int id = ids.remove(toRemove);
+            aux.remove(toRemove);
+            distanceList.remove(toRemove);
+            for (List<double[]> nodes : distanceList) {
+                nodes.removeIf(node -> node[0] == id);
+            }
+        }
+        return aux;
+    }
+
+    private static class MockProblem implements Problem<IntegerSolution> {
+        @Override
+        public int getNumberOfVariables() {
+            return 1;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return 2;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return 0;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) {
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return 0;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 10;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "test class";
+        }
+    }
+}
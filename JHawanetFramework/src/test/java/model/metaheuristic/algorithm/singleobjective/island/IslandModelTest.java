@@ -0,0 +1,227 @@
+package model.metaheuristic.algorithm.singleobjective.island;
+
+import model.metaheuristic.algorithm.AbstractEvolutionaryAlgorithm;
+import model.metaheuristic.algorithm.singleobjective.differentialevolution.IntegerDifferentialEvolution;
+import model.metaheuristic.algorithm.singleobjective.differentialevolution.IntegerDifferentialEvolutionBuilder;
+import model.metaheuristic.algorithm.singleobjective.geneticalgorithm.GeneticAlgorithm2;
+import model.metaheuristic.operator.crossover.impl.IntegerSinglePointCrossover;
+import model.metaheuristic.operator.mutation.impl.IntegerSimpleRandomMutation;
+import model.metaheuristic.operator.selection.impl.UniformSelection;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.comparator.DominanceComparator;
+import model.metaheuristic.util.comparator.ObjectiveComparator;
+import model.metaheuristic.util.evaluator.impl.SequentialSolutionEvaluator;
+import model.metaheuristic.util.random.JavaRandom;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IslandModelTest {
+
+    @Test
+    void shouldSendTheBestSolutionsToTheOtherIslands() throws Exception {
+        List<GeneticAlgorithm2<IntegerSolution>> islands = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            GeneticAlgorithm2<IntegerSolution> island = new GeneticAlgorithm2<>(new MockProblem(false), 10,
+                    new UniformSelection<>(1.5), new IntegerSinglePointCrossover(0.9),
+                    new IntegerSimpleRandomMutation(0.2), new SequentialSolutionEvaluator<>());
+            island.setMaxEvaluations(1000);
+            islands.add(island);
+        }
+        IslandModel<IntegerSolution> algorithm = new IslandModel<>(islands, new ObjectiveComparator<>(0), 2, 1,
+                IslandModel.Topology.FULLY_CONNECTED);
+
+        algorithm.runSingleStep();
+
+        assertEquals(1, algorithm.getNumberOfMigrations());
+        double best = algorithm.getResult().get(0).getObjective(0);
+        for (int i = 0; i < islands.size(); i++) {
+            assertEquals(2, algorithm.getGenerations(i));
+            assertEquals(10, islands.get(i).getPopulation().size());
+            double islandBest = Double.MAX_VALUE;
+            for (IntegerSolution solution : islands.get(i).getPopulation()) {
+                islandBest = Math.min(islandBest, solution.getObjective(0));
+            }
+            assertEquals(best, islandBest);
+        }
+    }
+
+    @Test
+    void shouldPreferTheFeasibleSolutionsWhenTheProblemHasConstraints() throws Exception {
+        JavaRandom previous = JavaRandom.setInstance(new JavaRandom(11));
+        try {
+            List<GeneticAlgorithm2<IntegerSolution>> islands = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                GeneticAlgorithm2<IntegerSolution> island = new GeneticAlgorithm2<>(new MockProblem(false, 60), 10,
+                        new UniformSelection<>(1.5), new IntegerSinglePointCrossover(0.9),
+                        new IntegerSimpleRandomMutation(0.2), new SequentialSolutionEvaluator<>());
+                island.setMaxEvaluations(500);
+                islands.add(island);
+            }
+            // most of the population is replaced in each migration
+            IslandModel<IntegerSolution> algorithm = new IslandModel<>(islands, new DominanceComparator<>(), 1, 8,
+                    IslandModel.Topology.FULLY_CONNECTED);
+            OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+
+            while (!algorithm.isStoppingConditionReached()) {
+                algorithm.runSingleStep();
+                // the migrants replace the infeasible solutions, so each island keeps its feasible solutions
+                for (GeneticAlgorithm2<IntegerSolution> island : islands) {
+                    assertEquals(0.0, violation.getAttribute(island.getResult().get(0)));
+                }
+            }
+
+            // the cheapest solutions are infeasible, but the result is the best feasible solution
+            IntegerSolution result = algorithm.getResult().get(0);
+            assertEquals(0.0, violation.getAttribute(result));
+            for (GeneticAlgorithm2<IntegerSolution> island : islands) {
+                for (IntegerSolution solution : island.getPopulation()) {
+                    if (violation.getAttribute(solution) == 0) {
+                        assertTrue(result.getObjective(0) <= solution.getObjective(0));
+                    }
+                }
+            }
+        } finally {
+            JavaRandom.setInstance(previous);
+        }
+    }
+
+    @Test
+    void shouldRunAllTheIslandsUntilTheyStop() throws Exception {
+        List<IntegerDifferentialEvolution> islands = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            // the operators of differential evolution keep state, so each island has its own operators
+            islands.add(new IntegerDifferentialEvolutionBuilder(new MockProblem(false))
+                    .setPopulationSize(10)
+                    .setMaxEvaluations(100)
+                    .build());
+        }
+        IslandModel<IntegerSolution> algorithm = new IslandModel<>(islands, new ObjectiveComparator<>(0), 3, 2,
+                IslandModel.Topology.RING);
+
+        int steps = 0;
+        while (!algorithm.isStoppingConditionReached()) {
+            algorithm.runSingleStep();
+            steps++;
+        }
+
+        // the first step of each island also evaluates the initial population, so each island needs 9 steps
+        assertEquals(3, steps);
+        assertEquals(2, algorithm.getNumberOfMigrations());
+        String status = algorithm.getStatusOfExecution();
+        assertTrue(status.startsWith("Migrations: 2"));
+        assertTrue(status.contains("Island 1 (generation 9)"));
+        assertTrue(status.contains("Island 2 (generation 9), best: "));
+        assertTrue(status.contains("Evaluations: 100/100"));
+
+        double best = Math.min(islands.get(0).getResult().get(0).getObjective(0),
+                islands.get(1).getResult().get(0).getObjective(0));
+        assertEquals(best, algorithm.getResult().get(0).getObjective(0));
+        assertEquals("Island DE", algorithm.getName());
+    }
+
+    @Test
+    void shouldThrowTheExceptionOfAIsland() {
+        List<IntegerDifferentialEvolution> islands = new ArrayList<>();
+        islands.add(new IntegerDifferentialEvolutionBuilder(new MockProblem(false)).setPopulationSize(10).build());
+        islands.add(new IntegerDifferentialEvolutionBuilder(new MockProblem(true)).setPopulationSize(10).build());
+        IslandModel<IntegerSolution> algorithm = new IslandModel<>(islands, new ObjectiveComparator<>(0), 3, 2,
+                IslandModel.Topology.RANDOM);
+
+        assertThrows(IllegalStateException.class, algorithm::runSingleStep);
+    }
+
+    @Test
+    void shouldValidateTheParameters() {
+        List<IntegerDifferentialEvolution> islands = Collections.singletonList(
+                new IntegerDifferentialEvolutionBuilder(new MockProblem(false)).build());
+        ObjectiveComparator<IntegerSolution> comparator = new ObjectiveComparator<>(0);
+
+        assertThrows(IllegalArgumentException.class, () -> new IslandModel<>(
+                Collections.<AbstractEvolutionaryAlgorithm<IntegerSolution>>emptyList(), comparator, 1, 1,
+                IslandModel.Topology.RING));
+        assertThrows(IllegalArgumentException.class, () -> new IslandModel<>(islands, comparator, 0, 1,
+                IslandModel.Topology.RING));
+        assertThrows(IllegalArgumentException.class, () -> new IslandModel<>(islands, comparator, 1, -1,
+                IslandModel.Topology.RING));
+        assertThrows(NullPointerException.class, () -> new IslandModel<>(islands, comparator, 1, 1, null));
+    }
+
+    /**
+     * Problem where the best solution has all its variables in 7. If it has a minimum sum, the solutions whose
+     * variables sum less than it are infeasible, so the best solution isn't feasible.
+     */
+    private static class MockProblem implements Problem<IntegerSolution> {
+        private final boolean fail;
+        private final int minimumSum;
+
+        MockProblem(boolean fail) {
+            this(fail, 0);
+        }
+
+        MockProblem(boolean fail, int minimumSum) {
+            this.fail = fail;
+            this.minimumSum = minimumSum;
+        }
+
+        @Override
+        public int getNumberOfVariables() {
+            return 5;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return 1;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return this.minimumSum > 0 ? 1 : 0;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) {
+            if (this.fail) {
+                throw new IllegalStateException("The simulation failed");
+            }
+            int distance = 0;
+            int sum = 0;
+            for (int i = 0; i < solution.getNumberOfVariables(); i++) {
+                distance += Math.abs(solution.getVariable(i) - 7);
+                sum += solution.getVariable(i);
+            }
+            solution.setObjective(0, distance);
+            if (this.minimumSum > 0) {
+                new OverallConstraintViolation<IntegerSolution>().setAttribute(solution,
+                        sum < this.minimumSum ? (double) (sum - this.minimumSum) : 0.0);
+            }
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return 0;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 20;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "test class";
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package model.metaheuristic.experiment.util;
+
+import model.metaheuristic.algorithm.Algorithm;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.random.JavaRandom;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExperimentRunExecutorTest {
+
+    @Test
+    void shouldExecuteTheRunsOfEachLaneOneAfterOther() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<ExperimentAlgorithm<IntegerSolution>> algorithms = createAlgorithms(7, running, maxRunning, -1);
+        Map<Integer, String> threads = new ConcurrentHashMap<>();
+        Map<Integer, Integer> generations = new ConcurrentHashMap<>();
+        AtomicInteger steps = new AtomicInteger();
+
+        ExperimentRunExecutor executor = new ExperimentRunExecutor(3);
+        executor.run(algorithms, () -> false, new ExperimentRunExecutor.Listener() {
+            @Override
+            public void onStart(@NotNull ExperimentAlgorithm<?> algorithm) {
+                threads.put(algorithm.getRunId(), Thread.currentThread().getName());
+            }
+
+            @Override
+            public void onStep(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) {
+                assertTrue(executor.getRunningAlgorithms().contains(algorithm));
+                steps.incrementAndGet();
+            }
+
+            @Override
+            public void onFinish(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) {
+                generations.put(algorithm.getRunId(), numberOfGenerations);
+            }
+        });
+
+        assertEquals(3, maxRunning.get());
+        assertEquals(7 * 5, steps.get());
+        assertEquals(7, generations.size());
+        for (int run = 0; run < 7; run++) {
+            assertEquals(5, (int) generations.get(run));
+            // the run i and the run i + 3 use the same lane
+            assertEquals(threads.get(run % 3), threads.get(run));
+        }
+        assertTrue(executor.getRunningAlgorithms().isEmpty());
+        assertEquals("", executor.getStatusOfExecution());
+    }
+
+    @Test
+    void shouldExecuteTheRunsInTheCallerThreadIfThereIsOneLane() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<ExperimentAlgorithm<IntegerSolution>> algorithms = createAlgorithms(3, running, maxRunning, -1);
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        Thread caller = Thread.currentThread();
+
+        ExperimentRunExecutor executor = new ExperimentRunExecutor(1);
+        executor.run(algorithms, () -> false, new MockListener() {
+            @Override
+            public void onStep(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) {
+                assertSame(caller, Thread.currentThread());
+                messages.add(executor.getStatusOfExecution());
+            }
+        });
+
+        assertEquals(1, maxRunning.get());
+        assertEquals("Progress of current algorithm:\nStep 1 / 5", messages.get(0));
+    }
+
+    @Test
+    void shouldStopAllTheLanesWhenTheExecutionIsCancelled() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<ExperimentAlgorithm<IntegerSolution>> algorithms = createAlgorithms(6, running, maxRunning, -1);
+        AtomicInteger steps = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        AtomicInteger finished = new AtomicInteger();
+
+        new ExperimentRunExecutor(2).run(algorithms, cancelled::get, new MockListener() {
+            @Override
+            public void onStep(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) {
+                if (steps.incrementAndGet() == 3) {
+                    cancelled.set(true);
+                }
+            }
+
+            @Override
+            public void onFinish(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) {
+                finished.incrementAndGet();
+            }
+        });
+
+        assertEquals(0, finished.get());
+        // when the method returns there isn't a step running
+        assertEquals(0, MockAlgorithm.STEPS_RUNNING.get());
+        assertTrue(steps.get() <= 4);
+    }
+
+    @Test
+    void shouldThrowTheExceptionOfARun() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<ExperimentAlgorithm<IntegerSolution>> algorithms = createAlgorithms(6, running, maxRunning, 1);
+        AtomicInteger finished = new AtomicInteger();
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                new ExperimentRunExecutor(3).run(algorithms, () -> false, new MockListener() {
+                    @Override
+                    public void onFinish(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) {
+                        finished.incrementAndGet();
+                    }
+                }));
+
+        assertEquals("Simulation error in run 1", exception.getMessage());
+        assertEquals(0, MockAlgorithm.STEPS_RUNNING.get());
+        // the runs of the next round aren't started
+        assertTrue(finished.get() <= 2);
+    }
+
+    @Test
+    void shouldGenerateTheSameRandomNumbersWithConcurrentRuns() throws Exception {
+        List<ExperimentAlgorithm<IntegerSolution>> sequential = createAlgorithms(6, new AtomicInteger(),
+                new AtomicInteger(), -1);
+        List<ExperimentAlgorithm<IntegerSolution>> concurrent = createAlgorithms(6, new AtomicInteger(),
+                new AtomicInteger(), -1);
+        JavaRandom callerRandom = JavaRandom.getInstance();
+
+        new ExperimentRunExecutor(1).run(sequential, () -> false, new MockListener());
+        new ExperimentRunExecutor(3).run(concurrent, () -> false, new MockListener());
+
+        // the stream of the caller is restored after each step
+        assertSame(callerRandom, JavaRandom.getInstance());
+        for (int run = 0; run < 6; run++) {
+            List<Long> numbers = ((MockAlgorithm) sequential.get(run).getAlgorithm()).numbers;
+            assertEquals(5, numbers.size());
+            assertEquals(numbers, ((MockAlgorithm) concurrent.get(run).getAlgorithm()).numbers);
+            if (run > 0) {
+                assertNotEquals(((MockAlgorithm) sequential.get(run - 1).getAlgorithm()).numbers, numbers);
+            }
+        }
+    }
+
+    @Test
+    void shouldValidateTheNumberOfConcurrentRuns() {
+        assertThrows(IllegalArgumentException.class, () -> new ExperimentRunExecutor(0));
+    }
+
+    private List<ExperimentAlgorithm<IntegerSolution>> createAlgorithms(int numberOfRuns, AtomicInteger running,
+                                                                        AtomicInteger maxRunning, int failedRun) {
+        ExperimentProblem<IntegerSolution> problem = new ExperimentProblem<>(new MockProblem());
+        List<ExperimentAlgorithm<IntegerSolution>> algorithms = new ArrayList<>();
+        for (int run = 0; run < numberOfRuns; run++) {
+            algorithms.add(new ExperimentAlgorithm<>(new MockAlgorithm(run, running, maxRunning, run == failedRun),
+                    problem, run, 42));
+        }
+        return algorithms;
+    }
+
+    private static class MockListener implements ExperimentRunExecutor.Listener {
+        @Override
+        public void onStart(@NotNull ExperimentAlgorithm<?> algorithm) {
+        }
+
+        @Override
+        public void onStep(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) {
+        }
+
+        @Override
+        public void onFinish(@NotNull ExperimentAlgorithm<?> algorithm, int numberOfGenerations) {
+        }
+    }
+
+    /**
+     * Algorithm of five steps that counts the algorithms running at the same time and saves a random number in each
+     * step.
+     */
+    private static class MockAlgorithm implements Algorithm<IntegerSolution> {
+        private static final AtomicInteger STEPS_RUNNING = new AtomicInteger();
+        private final int run;
+        private final AtomicInteger running;
+        private final AtomicInteger maxRunning;
+        private final boolean fail;
+        private final List<Long> numbers = Collections.synchronizedList(new ArrayList<>());
+        private int step;
+
+        MockAlgorithm(int run, AtomicInteger running, AtomicInteger maxRunning, boolean fail) {
+            this.run = run;
+            this.running = running;
+            this.maxRunning = maxRunning;
+            this.fail = fail;
+        }
+
+        @Override
+        public void runSingleStep() throws InterruptedException {
+            STEPS_RUNNING.incrementAndGet();
+            try {
+                if (this.step == 0) {
+                    this.maxRunning.accumulateAndGet(this.running.incrementAndGet(), Math::max);
+                }
+                Thread.sleep(5);
+                this.numbers.add(JavaRandom.getInstance().nextLong());
+                this.step++;
+                if (this.fail) {
+                    throw new IllegalStateException("Simulation error in run " + this.run);
+                }
+                if (this.step == 5) {
+                    this.running.decrementAndGet();
+                }
+            } finally {
+                STEPS_RUNNING.decrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean isStoppingConditionReached() {
+            return this.step >= 5;
+        }
+
+        @Override
+        public @NotNull String getStatusOfExecution() {
+            return "Step " + this.step + " / 5";
+        }
+
+        @Override
+        public @NotNull List<IntegerSolution> getResult() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "Mock";
+        }
+    }
+
+    private static class MockProblem implements Problem<IntegerSolution> {
+        @Override
+        public int getNumberOfVariables() {
+            return 1;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return 1;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return 0;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) {
+            solution.setObjective(0, solution.getVariable(0));
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return 0;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 10;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "test class";
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package model.metaheuristic.problem.evaluator;
+
+import epanet.core.EpanetException;
+import epanet.core.LinkParameters;
+import epanet.core.LinkTypes;
+import epanet.core.NodeParameters;
+import epanet.core.NodeTypes;
+import epanet.core.TimeParameterCodes;
+import model.epanet.element.Gama;
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.epanet.hydraulicsimulation.gga.SyntheticEngine;
+import model.io.GamaParser;
+import model.metaheuristic.problem.impl.PipeOptimizing;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.comparator.OverallConstraintViolationComparator;
+import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import model.metaheuristic.util.solutionattribute.ViolationCutoff;
+import model.metaheuristic.util.solutionattribute.ViolationLowerBound;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipeOptimizingSolutionEvaluatorTest {
+    private static final String NY = "inp/ny.inp";
+    private static final String NY_GAMA = "inp/NY-HW.Gama";
+    private static final String HANOI = "inp/hanoi-Frankenstein.INP";
+    private static final String HANOI_GAMA = "inp/hanoiHW.Gama";
+
+    @Test
+    void shouldOnlyChangeTheDiametersOfThePipesModifiedSinceTheLastEvaluation() throws Exception {
+        SyntheticEngine engine = new SyntheticEngine();
+        engine.open(NY, "");
+        PipeOptimizing problem = new PipeOptimizing(engine, NY_GAMA, 76);
+        List<Gama> gamas = new GamaParser().parser(new File(NY_GAMA));
+        PipeOptimizingSolutionEvaluator evaluator = new PipeOptimizingSolutionEvaluator(76);
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+
+        IntegerSolution solution = problem.createSolution();
+        for (int i = 0; i < solution.getNumberOfVariables(); i++) {
+            solution.setVariable(i, 1);
+        }
+        evaluator.evaluate(solution, gamas, engine);
+        assertEquals(solution.getNumberOfVariables(), engine.getChangeCount());
+        Double firstViolation = violation.getAttribute(solution);
+
+        IntegerSolution mutated = (IntegerSolution) solution.copy();
+        mutated.setVariable(3, 2);
+        mutated.setVariable(7, gamas.size());
+        evaluator.evaluate(mutated, gamas, engine);
+        assertEquals(solution.getNumberOfVariables() + 2, engine.getChangeCount());
+
+        // the result is the same that the result of the first evaluation
+        evaluator.evaluate(solution, gamas, engine);
+        assertEquals(solution.getNumberOfVariables() + 4, engine.getChangeCount());
+        assertEquals(firstViolation, violation.getAttribute(solution));
+
+        evaluator.evaluate(solution, gamas, engine);
+        assertEquals(solution.getNumberOfVariables() + 4, engine.getChangeCount());
+        assertEquals(4, engine.getSimulationCount());
+        problem.closeResources();
+    }
+
+    @Test
+    void shouldApplyAllTheDiametersWhenOtherEngineWithTheSameLockChangedThem() throws Exception {
+        // two engines that share the network, as the instances of EpanetEngine
+        SyntheticEngine network = new SyntheticEngine();
+        network.open(NY, "");
+        HydraulicEngine first = new SharedEngine(network);
+        HydraulicEngine second = new SharedEngine(network);
+        PipeOptimizing problem = new PipeOptimizing(first, NY_GAMA, 76);
+        List<Gama> gamas = new GamaParser().parser(new File(NY_GAMA));
+        PipeOptimizingSolutionEvaluator firstEvaluator = new PipeOptimizingSolutionEvaluator(76);
+        PipeOptimizingSolutionEvaluator secondEvaluator = new PipeOptimizingSolutionEvaluator(76);
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+
+        IntegerSolution small = problem.createSolution();
+        IntegerSolution large = problem.createSolution();
+        for (int i = 0; i < small.getNumberOfVariables(); i++) {
+            small.setVariable(i, 1);
+            large.setVariable(i, gamas.size());
+        }
+        firstEvaluator.evaluate(small, gamas, first);
+        Double smallViolation = violation.getAttribute(small);
+        secondEvaluator.evaluate(large, gamas, second);
+        assertNotEquals(smallViolation, violation.getAttribute(large));
+        assertEquals(2 * small.getNumberOfVariables(), network.getChangeCount());
+
+        // the diameters of the second engine are replaced although the first engine applied them before
+        IntegerSolution again = (IntegerSolution) small.copy();
+        firstEvaluator.evaluate(again, gamas, first);
+        assertEquals(3 * small.getNumberOfVariables(), network.getChangeCount());
+        assertEquals(smallViolation, violation.getAttribute(again));
+
+        firstEvaluator.evaluate(again, gamas, first);
+        assertEquals(3 * small.getNumberOfVariables(), network.getChangeCount());
+        problem.closeResources();
+    }
+
+    @Test
+    void shouldStopTheSimulationWhenTheInfactibilityGradeIsReached() throws Exception {
+        SyntheticEngine engine = new SyntheticEngine();
+        engine.open(hanoiOfOneDay(), "");
+        List<Gama> gamas = new GamaParser().parser(new File(HANOI_GAMA));
+        PipeOptimizing problem = new PipeOptimizing(engine, HANOI_GAMA, 30);
+        NumberOfViolatedConstraints<IntegerSolution> violated = new NumberOfViolatedConstraints<>();
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+        ViolationLowerBound<IntegerSolution> lowerBound = new ViolationLowerBound<>();
+
+        IntegerSolution complete = problem.createSolution();
+        for (int i = 0; i < complete.getNumberOfVariables(); i++) {
+            complete.setVariable(i, 1);
+        }
+        IntegerSolution stopped = (IntegerSolution) complete.copy();
+        PipeOptimizingSolutionEvaluator evaluator = new PipeOptimizingSolutionEvaluator(30);
+        evaluator.evaluate(complete, gamas, engine);
+        assertFalse(lowerBound.isLowerBound(complete));
+
+        evaluator.setEarlyTermination(true);
+        evaluator.setMaxInfactibilityGrade(1);
+        evaluator.evaluate(stopped, gamas, engine);
+        assertTrue(lowerBound.isLowerBound(stopped));
+        assertTrue(violated.getAttribute(stopped) < violated.getAttribute(complete));
+        assertTrue(violation.getAttribute(stopped) > violation.getAttribute(complete));
+        // the solution evaluated completely is better although its violation is worse
+        assertTrue(new OverallConstraintViolationComparator<IntegerSolution>().compare(complete, stopped) < 0);
+
+        // the cutoff of algorithm is used when the max grade isn't reached
+        IntegerSolution cut = (IntegerSolution) complete.copy();
+        evaluator.setMaxInfactibilityGrade(Double.POSITIVE_INFINITY);
+        evaluator.evaluate(cut, gamas, engine);
+        assertFalse(lowerBound.isLowerBound(cut));
+        new ViolationCutoff<IntegerSolution>().setAttribute(cut, -1.0);
+        evaluator.evaluate(cut, gamas, engine);
+        assertTrue(lowerBound.isLowerBound(cut));
+        assertThrows(IllegalArgumentException.class, () -> evaluator.setMaxInfactibilityGrade(0));
+        problem.closeResources();
+    }
+
+    /**
+     * Write the network of hanoi with a duration of 24 hours.
+     */
+    private static String hanoiOfOneDay() throws Exception {
+        String inp = new String(Files.readAllBytes(Paths.get(HANOI)), StandardCharsets.UTF_8)
+                .replaceFirst("(?m)^\\s*Duration\\s+0\\s*$", " Duration 24:00");
+        File file = File.createTempFile("hanoi-day", ".inp");
+        file.deleteOnExit();
+        Files.write(file.toPath(), inp.getBytes(StandardCharsets.UTF_8));
+        return file.getAbsolutePath();
+    }
+
+    /**
+     * Engine that simulates a network shared with other instances, so all of them use the same simulation lock.
+     */
+    private static final class SharedEngine implements HydraulicEngine {
+        private final SyntheticEngine network;
+
+        SharedEngine(SyntheticEngine network) {
+            this.network = network;
+        }
+
+        @Override
+        public void open(@NotNull String inpPath, @NotNull String rptPath) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void init() {
+            this.network.init();
+        }
+
+        @Override
+        public long run() {
+            return this.network.run();
+        }
+
+        @Override
+        public long next() {
+            return this.network.next();
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public @NotNull Object getSimulationLock() {
+            return this.network;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return this.network.getNodeCount();
+        }
+
+        @Override
+        public int getLinkCount() {
+            return this.network.getLinkCount();
+        }
+
+        @Override
+        public @NotNull String getNodeId(int index) {
+            return this.network.getNodeId(index);
+        }
+
+        @Override
+        public @NotNull String getLinkId(int index) {
+            return this.network.getLinkId(index);
+        }
+
+        @Override
+        public @NotNull NodeTypes getNodeType(int index) {
+            return this.network.getNodeType(index);
+        }
+
+        @Override
+        public @NotNull LinkTypes getLinkType(int index) {
+            return this.network.getLinkType(index);
+        }
+
+        @Override
+        public long getTimeParameter(@NotNull TimeParameterCodes code) {
+            return this.network.getTimeParameter(code);
+        }
+
+        @Override
+        public double getNodeValue(int index, @NotNull NodeParameters parameter) {
+            return this.network.getNodeValue(index, parameter);
+        }
+
+        @Override
+        public double getLinkValue(int index, @NotNull LinkParameters parameter) {
+            return this.network.getLinkValue(index, parameter);
+        }
+
+        @Override
+        public void setLinkValue(int index, @NotNull LinkParameters parameter, double value) throws EpanetException {
+            this.network.setLinkValue(index, parameter, value);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package model.metaheuristic.problem.impl;
+
+import model.epanet.hydraulicsimulation.gga.SyntheticEngine;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compare the time of the evaluation of a population in a call to evaluateAll and in a call to evaluate by solution.
+ * The population is the same used by {@link PipeOptimizingTest}.
+ * <p>
+ * It is disabled and it is executed manually.
+ */
+class PipeOptimizingBenchmark {
+    private static final int SIZE = 200;
+
+    @Test
+    @Disabled("Benchmark executed manually")
+    void compareEvaluateAllWithEvaluate() throws Exception {
+        SyntheticEngine engine = new SyntheticEngine();
+        SyntheticEngine batchEngine = new SyntheticEngine();
+        PipeOptimizing problem = PipeOptimizingTest.createProblem(engine);
+        PipeOptimizing batchProblem = PipeOptimizingTest.createProblem(batchEngine);
+        List<IntegerSolution> solutions = PipeOptimizingTest.createSimilarSolutions(problem, SIZE);
+
+        int repetitions = 20;
+        long time = 0;
+        long batchTime = 0;
+        int changes = 0;
+        int batchChanges = 0;
+        for (int repetition = 0; repetition < 2 * repetitions; repetition++) {
+            List<IntegerSolution> copies = new ArrayList<>();
+            List<IntegerSolution> batchCopies = new ArrayList<>();
+            for (IntegerSolution solution : solutions) {
+                copies.add((IntegerSolution) solution.copy());
+                batchCopies.add((IntegerSolution) solution.copy());
+            }
+            // the first repetitions are the warm up
+            boolean measured = repetition >= repetitions;
+
+            int changesBefore = engine.getChangeCount();
+            long start = System.nanoTime();
+            for (IntegerSolution solution : copies) {
+                problem.evaluate(solution);
+            }
+            if (measured) {
+                time += System.nanoTime() - start;
+                changes += engine.getChangeCount() - changesBefore;
+            }
+
+            int batchChangesBefore = batchEngine.getChangeCount();
+            start = System.nanoTime();
+            batchProblem.evaluateAll(batchCopies);
+            if (measured) {
+                batchTime += System.nanoTime() - start;
+                batchChanges += batchEngine.getChangeCount() - batchChangesBefore;
+            }
+        }
+
+        System.out.printf("evaluate: %d diameters changed in %.3f ms, evaluateAll: %d diameters changed in %.3f ms%n",
+                changes / repetitions, time / 1e6 / repetitions, batchChanges / repetitions,
+                batchTime / 1e6 / repetitions);
+        problem.closeResources();
+        batchProblem.closeResources();
+    }
+}
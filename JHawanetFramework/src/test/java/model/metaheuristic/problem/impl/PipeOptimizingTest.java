@@ -0,0 +1,83 @@
+package model.metaheuristic.problem.impl;
+
+import model.epanet.hydraulicsimulation.gga.SyntheticEngine;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipeOptimizingTest {
+    private static final String HANOI = "inp/hanoi-Frankenstein.INP";
+    private static final String HANOI_GAMA = "inp/hanoiHW.Gama";
+
+    /**
+     * The evaluation of a population in a call to evaluateAll against a call to evaluate by solution. The population
+     * has groups of similar solutions, like a population after some generations, in a random order. The times are
+     * measured in {@link PipeOptimizingBenchmark}.
+     */
+    @Test
+    void shouldChangeLessDiametersWhenTheSolutionsAreEvaluatedTogether() throws Exception {
+        SyntheticEngine engine = new SyntheticEngine();
+        SyntheticEngine batchEngine = new SyntheticEngine();
+        PipeOptimizing problem = createProblem(engine);
+        PipeOptimizing batchProblem = createProblem(batchEngine);
+        List<IntegerSolution> solutions = createSimilarSolutions(problem, 200);
+        List<IntegerSolution> copies = new ArrayList<>();
+        for (IntegerSolution solution : solutions) {
+            copies.add((IntegerSolution) solution.copy());
+        }
+
+        int changesBefore = engine.getChangeCount();
+        for (IntegerSolution solution : solutions) {
+            problem.evaluate(solution);
+        }
+        int changes = engine.getChangeCount() - changesBefore;
+
+        int batchChangesBefore = batchEngine.getChangeCount();
+        batchProblem.evaluateAll(copies);
+        int batchChanges = batchEngine.getChangeCount() - batchChangesBefore;
+
+        assertTrue(batchChanges < changes / 2);
+
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+        for (int i = 0; i < solutions.size(); i++) {
+            assertEquals(solutions.get(i).getObjective(0), copies.get(i).getObjective(0));
+            assertEquals(violation.getAttribute(solutions.get(i)), violation.getAttribute(copies.get(i)));
+            assertArrayEquals(solutions.get(i).getVariables().toArray(), copies.get(i).getVariables().toArray());
+        }
+        problem.closeResources();
+        batchProblem.closeResources();
+    }
+
+    /**
+     * Create groups of solutions with a few variables changed from the first of the group and shuffle them.
+     */
+    static List<IntegerSolution> createSimilarSolutions(PipeOptimizing problem, int size) {
+        Random random = new Random(12);
+        List<IntegerSolution> solutions = new ArrayList<>();
+        while (solutions.size() < size) {
+            IntegerSolution base = problem.createSolution();
+            for (int i = 0; i < 10 && solutions.size() < size; i++) {
+                IntegerSolution solution = (IntegerSolution) base.copy();
+                for (int j = 0; j < 2; j++) {
+                    solution.setVariable(random.nextInt(problem.getNumberOfVariables()),
+                            (int) problem.getLowerBound(0) + random.nextInt((int) (problem.getUpperBound(0) - problem.getLowerBound(0)) + 1));
+                }
+                solutions.add(solution);
+            }
+        }
+        Collections.shuffle(solutions, random);
+        return solutions;
+    }
+
+    static PipeOptimizing createProblem(SyntheticEngine engine) throws Exception {
+        engine.open(HANOI, "");
+        return new PipeOptimizing(engine, HANOI_GAMA, 30);
+    }
+}
@@ -0,0 +1,198 @@
+package model.metaheuristic.problem.impl;
+
+import model.epanet.hydraulicsimulation.HydraulicEngine;
+import model.epanet.hydraulicsimulation.gga.GlobalGradientEngine;
+import model.epanet.hydraulicsimulation.gga.SyntheticEngine;
+import model.metaheuristic.problem.evaluator.ScheduleCheckpointTrie;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VanzylOriginalTest {
+    private static final String VANZYL = "inp/vanzylOriginal.inp";
+
+    @Test
+    void shouldGiveTheSameResultWhenTheBuffersAreReused() throws Exception {
+        VanzylOriginal problem = createProblem();
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+        NumberOfViolatedConstraints<IntegerSolution> violated = new NumberOfViolatedConstraints<>();
+
+        IntegerSolution off = problem.createSolution();
+        IntegerSolution on = problem.createSolution();
+        for (int i = 0; i < problem.getNumberOfVariables(); i++) {
+            off.setVariable(i, 0);
+            on.setVariable(i, i % 2 == 0 ? 7 : 0);
+        }
+
+        problem.evaluate(on);
+        IntegerSolution first = (IntegerSolution) on.copy();
+        problem.evaluate(off);
+        problem.evaluate(on);
+
+        assertEquals(0, off.getObjective(0));
+        assertEquals(0, off.getObjective(1));
+        assertTrue(on.getObjective(0) > 0);
+        assertEquals(3 * 11, on.getObjective(1)); // the start in the first hour is not counted
+        assertArrayEquals(first.getObjectives(), on.getObjectives());
+        assertEquals(violation.getAttribute(first), violation.getAttribute(on));
+        assertEquals(violated.getAttribute(first), violated.getAttribute(on));
+        problem.closeResources();
+    }
+
+    @Test
+    void shouldNotCreateGarbageInTheEvaluation() throws Exception {
+        VanzylOriginal problem = createProblem();
+        IntegerSolution solution = problem.createSolution();
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        // warm up, so the code is compiled
+        for (int i = 0; i < 2000; i++) {
+            problem.evaluate(solution);
+        }
+
+        int evaluations = 1000;
+        long before = bean.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < evaluations; i++) {
+            problem.evaluate(solution);
+        }
+        long allocated = bean.getThreadAllocatedBytes(thread) - before;
+
+        // only the values of the violation attributes are boxed (a Double and a Integer)
+        assertTrue(allocated <= 32L * evaluations, "Bytes allocated per evaluation: " + allocated / evaluations);
+        problem.closeResources();
+    }
+
+    @Test
+    void shouldGiveTheSameResultWithCheckpoints() throws Exception {
+        for (HydraulicEngine engine : new HydraulicEngine[]{new SyntheticEngine(), new GlobalGradientEngine()}) {
+            VanzylOriginal problem = createProblem(engine);
+            HydraulicEngine otherEngine = engine instanceof SyntheticEngine ? new SyntheticEngine() : new GlobalGradientEngine();
+            VanzylOriginal withCheckpoints = createProblem(otherEngine);
+            withCheckpoints.enableCheckpoints(64 * 1024 * 1024);
+
+            List<IntegerSolution> solutions = createSchedulesWithCommonPrefixes(problem, 60);
+            assertSameEvaluation(problem, withCheckpoints, solutions);
+
+            ScheduleCheckpointTrie trie = withCheckpoints.getCheckpoints();
+            assertEquals(solutions.size(), trie.getLookups());
+            assertTrue(trie.getHits() > 0);
+            assertTrue(trie.getAverageHitDepth() > 1);
+            assertEquals(trie.getLookups(), Arrays.stream(trie.getHitDepthHistogram()).sum());
+            assertEquals(0, trie.getEvictions());
+            problem.closeResources();
+            withCheckpoints.closeResources();
+        }
+    }
+
+    @Test
+    void shouldRemoveTheLeastRecentlyUsedCheckpoints() throws Exception {
+        VanzylOriginal problem = createProblem(new GlobalGradientEngine());
+        VanzylOriginal withCheckpoints = createProblem(new GlobalGradientEngine());
+        long maxMemory = 64 * 1024;
+        withCheckpoints.enableCheckpoints(maxMemory);
+
+        assertSameEvaluation(problem, withCheckpoints, createSchedulesWithCommonPrefixes(problem, 60));
+
+        ScheduleCheckpointTrie trie = withCheckpoints.getCheckpoints();
+        assertTrue(trie.getEvictions() > 0);
+        assertTrue(trie.getMemoryUsed() <= maxMemory);
+        assertTrue(trie.getSize() > 0);
+        assertTrue(trie.getHits() > 0);
+        problem.closeResources();
+        withCheckpoints.closeResources();
+    }
+
+    @Test
+    void shouldUseDeeperCheckpointsWhenTheSolutionsAreEvaluatedTogether() throws Exception {
+        VanzylOriginal problem = createProblem(new GlobalGradientEngine());
+        VanzylOriginal batchProblem = createProblem(new GlobalGradientEngine());
+        long maxMemory = 64 * 1024;
+        problem.enableCheckpoints(maxMemory);
+        batchProblem.enableCheckpoints(maxMemory);
+
+        List<IntegerSolution> solutions = createSchedulesWithCommonPrefixes(problem, 200);
+        Collections.shuffle(solutions, new Random(12));
+        List<IntegerSolution> copies = new ArrayList<>();
+        for (IntegerSolution solution : solutions) {
+            copies.add((IntegerSolution) solution.copy());
+        }
+
+        long start = System.nanoTime();
+        for (IntegerSolution solution : solutions) {
+            problem.evaluate(solution);
+        }
+        long time = System.nanoTime() - start;
+        start = System.nanoTime();
+        batchProblem.evaluateAll(copies);
+        long batchTime = System.nanoTime() - start;
+
+        ScheduleCheckpointTrie trie = problem.getCheckpoints();
+        ScheduleCheckpointTrie batchTrie = batchProblem.getCheckpoints();
+        System.out.printf("evaluate: %s in %.1f ms%nevaluateAll: %s in %.1f ms%n", trie, time / 1e6, batchTrie,
+                batchTime / 1e6);
+        assertTrue(batchTrie.getAverageHitDepth() > trie.getAverageHitDepth());
+
+        for (int i = 0; i < solutions.size(); i++) {
+            assertArrayEquals(solutions.get(i).getObjectives(), copies.get(i).getObjectives());
+        }
+        problem.closeResources();
+        batchProblem.closeResources();
+    }
+
+    private static void assertSameEvaluation(VanzylOriginal problem, VanzylOriginal withCheckpoints,
+                                             List<IntegerSolution> solutions) {
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+        NumberOfViolatedConstraints<IntegerSolution> violated = new NumberOfViolatedConstraints<>();
+        for (IntegerSolution solution : solutions) {
+            IntegerSolution copy = (IntegerSolution) solution.copy();
+            problem.evaluate(solution);
+            withCheckpoints.evaluate(copy);
+            assertArrayEquals(solution.getObjectives(), copy.getObjectives());
+            assertEquals(violation.getAttribute(solution), violation.getAttribute(copy));
+            assertEquals(violated.getAttribute(solution), violated.getAttribute(copy));
+        }
+    }
+
+    /**
+     * Create schedules where each one is a copy of a previous schedule with the hours after a random hour changed,
+     * like the offspring of a crossover.
+     */
+    private static List<IntegerSolution> createSchedulesWithCommonPrefixes(VanzylOriginal problem, int size) {
+        Random random = new Random(4);
+        List<IntegerSolution> solutions = new ArrayList<>();
+        solutions.add(problem.createSolution());
+        while (solutions.size() < size) {
+            IntegerSolution parent = solutions.get(random.nextInt(solutions.size()));
+            IntegerSolution child = (IntegerSolution) parent.copy();
+            for (int i = random.nextInt(problem.getNumberOfVariables()); i < problem.getNumberOfVariables(); i++) {
+                child.setVariable(i, random.nextInt(8));
+            }
+            solutions.add(child);
+        }
+        return solutions;
+    }
+
+    private static VanzylOriginal createProblem() throws Exception {
+        return createProblem(new SyntheticEngine());
+    }
+
+    private static VanzylOriginal createProblem(HydraulicEngine engine) throws Exception {
+        engine.open(VANZYL, "");
+        double[] energyCostPerTime = new double[24];
+        Arrays.fill(energyCostPerTime, 0, 7, 0.0244);
+        Arrays.fill(energyCostPerTime, 7, 24, 0.1194);
+        return new VanzylOriginal(3, 86400, 3600, energyCostPerTime, 1, 15, 218, new double[]{0, 0},
+                new double[]{10, 5}, new double[]{300, 300, 150}, engine);
+    }
+}
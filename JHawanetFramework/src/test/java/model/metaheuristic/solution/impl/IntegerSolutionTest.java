@@ -0,0 +1,106 @@
+package model.metaheuristic.solution.impl;
+
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.util.random.JavaRandom;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntegerSolutionTest {
+
+    @Test
+    void shouldKeepTheVariablesInsideTheBounds() {
+        MockProblem problem = new MockProblem();
+        for (int test = 0; test < 100; test++) {
+            IntegerSolution solution = problem.createSolution();
+            for (int i = 0; i < problem.getNumberOfVariables(); i++) {
+                assertTrue(solution.getInt(i) >= problem.getLowerBound(i));
+                assertTrue(solution.getInt(i) <= problem.getUpperBound(i));
+            }
+        }
+    }
+
+    @Test
+    void shouldShowTheSameVariablesWithBoxedAndPrimitiveAccessors() {
+        IntegerSolution solution = new MockProblem().createSolution();
+
+        solution.setInt(0, 7);
+        solution.setVariable(1, 9);
+        solution.getVariables().set(2, 4);
+
+        assertEquals(7, (int) solution.getVariable(0));
+        assertEquals(9, solution.getInt(1));
+        assertEquals(4, solution.getInt(2));
+        assertEquals(Arrays.asList(7, 9, 4, solution.getInt(3)), solution.getVariables());
+        assertEquals("9", solution.getVariableAsString(1));
+        assertThrows(NullPointerException.class, () -> solution.setVariable(0, null));
+    }
+
+    @Test
+    void shouldCopyWithoutUseTheRandomGenerator() {
+        MockProblem problem = new MockProblem();
+        IntegerSolution solution = problem.createSolution();
+        solution.setObjective(0, 2.5);
+        solution.setAttribute("key", "value");
+
+        JavaRandom.getInstance().setSeed(10);
+        IntegerSolution copy = (IntegerSolution) solution.copy();
+        int next = JavaRandom.getInstance().nextInt();
+        JavaRandom.getInstance().setSeed(10);
+        assertEquals(JavaRandom.getInstance().nextInt(), next);
+
+        assertEquals(solution, copy);
+        assertEquals(solution.hashCode(), copy.hashCode());
+        assertEquals("value", copy.getAttribute("key"));
+
+        // the copy doesn't share the variables and the objectives
+        copy.setInt(0, solution.getInt(0) + 1);
+        copy.setObjective(0, 1.0);
+        assertNotEquals(solution.getInt(0), copy.getInt(0));
+        assertEquals(2.5, solution.getObjective(0));
+    }
+
+    private static class MockProblem implements Problem<IntegerSolution> {
+        @Override
+        public int getNumberOfVariables() {
+            return 4;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return 1;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return 0;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) {
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return index;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 10 + index;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "test class";
+        }
+    }
+}
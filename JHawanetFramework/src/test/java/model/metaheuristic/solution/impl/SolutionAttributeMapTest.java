@@ -0,0 +1,125 @@
+package model.metaheuristic.solution.impl;
+
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.util.solutionattribute.AttributeSlot;
+import model.metaheuristic.util.solutionattribute.CrowdingDistance;
+import model.metaheuristic.util.solutionattribute.DominanceRanking;
+import model.metaheuristic.util.solutionattribute.ViolationLowerBound;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionAttributeMapTest {
+
+    @Test
+    void shouldShowTheSameAttributesWithTypedAndMapAccessors() {
+        CrowdingDistance<Solution<?>> distance = new CrowdingDistance<>();
+        DominanceRanking<Solution<?>> ranking = new DominanceRanking<>();
+        ViolationLowerBound<Solution<?>> bound = new ViolationLowerBound<>();
+        AttributeSlot distanceSlot = AttributeSlot.find(CrowdingDistance.class);
+        AttributeSlot rankingSlot = AttributeSlot.find(DominanceRanking.class);
+        AttributeSlot boundSlot = AttributeSlot.find(ViolationLowerBound.class);
+        assertNotNull(distanceSlot);
+        assertNotNull(rankingSlot);
+        assertNotNull(boundSlot);
+
+        SolutionAttributeMap map = new SolutionAttributeMap();
+        assertEquals(-1.0, map.getDouble(distanceSlot, -1.0));
+        assertNull(map.get(CrowdingDistance.class));
+
+        map.setDouble(distanceSlot, 2.5);
+        map.put(DominanceRanking.class, 3);
+        map.setBoolean(boundSlot, true);
+        map.put("key", "value");
+
+        assertEquals(2.5, map.get(CrowdingDistance.class));
+        assertEquals(3, map.getInt(rankingSlot, -1));
+        assertEquals(Boolean.TRUE, map.get(ViolationLowerBound.class));
+        assertEquals(4, map.size());
+
+        Map<Object, Object> expected = new HashMap<>();
+        expected.put(CrowdingDistance.class, 2.5);
+        expected.put(DominanceRanking.class, 3);
+        expected.put(ViolationLowerBound.class, true);
+        expected.put("key", "value");
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+
+        assertEquals(3, map.remove(DominanceRanking.class));
+        assertFalse(map.containsKey(DominanceRanking.class));
+        assertEquals(Integer.MAX_VALUE, map.getInt(rankingSlot, Integer.MAX_VALUE));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void shouldKeepTheValuesWithOtherTypeInTheHashMap() {
+        new CrowdingDistance<>();
+        AttributeSlot slot = AttributeSlot.find(CrowdingDistance.class);
+        SolutionAttributeMap map = new SolutionAttributeMap();
+
+        map.setDouble(slot, 1.0);
+        assertEquals(1.0, map.put(CrowdingDistance.class, "text"));
+        assertEquals("text", map.get(CrowdingDistance.class));
+        assertFalse(map.contains(slot));
+        assertEquals(5.0, map.getDouble(slot, 5.0));
+        assertEquals(1, map.size());
+
+        map.put(CrowdingDistance.class, null);
+        assertTrue(map.containsKey(CrowdingDistance.class));
+        assertNull(map.get(CrowdingDistance.class));
+
+        map.setDouble(slot, 2.0);
+        assertEquals(1, map.size());
+        assertEquals(2.0, map.get(CrowdingDistance.class));
+    }
+
+    @Test
+    void shouldCopyWithoutShareTheValues() {
+        new DominanceRanking<>();
+        AttributeSlot slot = AttributeSlot.find(DominanceRanking.class);
+        SolutionAttributeMap map = new SolutionAttributeMap();
+        map.setInt(slot, 1);
+        map.put("key", "value");
+
+        SolutionAttributeMap copy = new SolutionAttributeMap(map);
+        assertEquals(map, copy);
+        copy.setInt(slot, 2);
+        copy.put("key", "other");
+        assertEquals(1, map.getInt(slot, -1));
+        assertEquals("value", map.get("key"));
+
+        SolutionAttributeMap fromHashMap = new SolutionAttributeMap(new HashMap<>(map));
+        assertTrue(fromHashMap.contains(slot));
+        assertEquals(map, fromHashMap);
+    }
+
+    @Test
+    void shouldRemoveTheEntriesWithTheIterator() {
+        new CrowdingDistance<>();
+        AttributeSlot slot = AttributeSlot.find(CrowdingDistance.class);
+        SolutionAttributeMap map = new SolutionAttributeMap();
+        map.setDouble(slot, 1.0);
+        map.put("key", "value");
+
+        Iterator<Map.Entry<Object, Object>> iterator = map.entrySet().iterator();
+        int entries = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<Object, Object> entry = iterator.next();
+            if (entry.getKey() == CrowdingDistance.class) {
+                entry.setValue(3.0);
+                assertEquals(3.0, map.getDouble(slot, -1.0));
+                iterator.remove();
+            }
+            entries++;
+        }
+        assertEquals(2, entries);
+        assertEquals(1, map.size());
+        assertFalse(map.contains(slot));
+        assertEquals("value", map.get("key"));
+    }
+}
@@ -0,0 +1,67 @@
+package model.metaheuristic.util.archive.impl;
+
+import model.metaheuristic.util.point.PointSolution;
+import model.metaheuristic.util.solutionattribute.CrowdingDistance;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalCrowdingDistanceArchiveTest {
+
+    @Test
+    void shouldRemoveTheSameSolutionsThatTheCrowdingDistanceArchive() {
+        Random random = new Random(6);
+        for (int test = 0; test < 60; test++) {
+            int numberOfObjectives = 2 + random.nextInt(3);
+            int numberOfValues = 2 + random.nextInt(20);
+            int maxSize = 1 + random.nextInt(12);
+            CrowdingDistanceArchive<PointSolution> expected = new CrowdingDistanceArchive<>(maxSize);
+            IncrementalCrowdingDistanceArchive<PointSolution> archive = new IncrementalCrowdingDistanceArchive<>(maxSize);
+
+            for (int i = 0; i < 400; i++) {
+                PointSolution solution = new PointSolution(numberOfObjectives);
+                for (int j = 0; j < numberOfObjectives; j++) {
+                    solution.setObjective(j, random.nextInt(numberOfValues));
+                }
+                assertEquals(expected.add(solution), archive.add(solution));
+                assertSameSolutions(expected.getSolutionList(), archive.getSolutionList());
+
+                if (i % 50 == 0) {
+                    assertSameDistances(expected, archive);
+                    expected.sortByDensityEstimator();
+                    archive.sortByDensityEstimator();
+                    assertSameSolutions(expected.getSolutionList(), archive.getSolutionList());
+                }
+            }
+            assertSameDistances(expected, archive);
+        }
+    }
+
+    private static void assertSameSolutions(List<PointSolution> expected, List<PointSolution> solutions) {
+        assertEquals(expected.size(), solutions.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), solutions.get(i));
+        }
+    }
+
+    /**
+     * Check that both archives give the same crowding distance to its solutions.
+     */
+    private static void assertSameDistances(CrowdingDistanceArchive<PointSolution> expected,
+                                            IncrementalCrowdingDistanceArchive<PointSolution> archive) {
+        CrowdingDistance<PointSolution> crowdingDistance = new CrowdingDistance<>();
+        List<PointSolution> solutions = expected.getSolutionList();
+        expected.computeDensityEstimator();
+        double[] distances = new double[solutions.size()];
+        for (int i = 0; i < solutions.size(); i++) {
+            distances[i] = crowdingDistance.getAttribute(solutions.get(i));
+        }
+        archive.computeDensityEstimator();
+        for (int i = 0; i < solutions.size(); i++) {
+            assertEquals(distances[i], (double) crowdingDistance.getAttribute(solutions.get(i)));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package model.metaheuristic.util.archive.impl;
+
+import model.metaheuristic.util.archive.Archive;
+import model.metaheuristic.util.point.PointSolution;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NonDominatedArchiveTest {
+
+    @Test
+    void shouldKeepTheSameSolutionsThatTheListArchiveWithTwoObjectives() {
+        Random random = new Random(3);
+        for (int test = 0; test < 50; test++) {
+            assertSameArchive(random, 2, 1 + random.nextInt(30), new BiObjectiveNonDominatedArchive<>());
+            assertSameArchive(random, 2, 1 + random.nextInt(30), new NDTreeArchive<>(2, 2));
+        }
+    }
+
+    @Test
+    void shouldKeepTheSameSolutionsThatTheListArchiveWithMoreObjectives() {
+        Random random = new Random(5);
+        for (int test = 0; test < 50; test++) {
+            int numberOfObjectives = 3 + random.nextInt(2);
+            assertSameArchive(random, numberOfObjectives, 1 + random.nextInt(30), new NDTreeArchive<>());
+            assertSameArchive(random, numberOfObjectives, 1 + random.nextInt(30), new NDTreeArchive<>(3, 2));
+        }
+    }
+
+    @Test
+    void shouldRejectSolutionsWithOtherNumberOfObjectives() {
+        Archive<PointSolution> archive = new NDTreeArchive<>();
+        archive.add(new PointSolution(3));
+        assertThrows(IllegalArgumentException.class, () -> archive.add(new PointSolution(2)));
+        assertThrows(IllegalArgumentException.class, () -> new BiObjectiveNonDominatedArchive<PointSolution>()
+                .add(new PointSolution(3)));
+    }
+
+    /**
+     * Add random points to both archives and check that each insertion gives the same result and the archives have
+     * the same solutions in the same order.
+     */
+    private static void assertSameArchive(Random random, int numberOfObjectives, int numberOfValues,
+                                          Archive<PointSolution> archive) {
+        NonDominatedSolutionListArchive<PointSolution> expected = new NonDominatedSolutionListArchive<>();
+        for (int i = 0; i < 300; i++) {
+            PointSolution solution = new PointSolution(numberOfObjectives);
+            for (int j = 0; j < numberOfObjectives; j++) {
+                solution.setObjective(j, random.nextInt(numberOfValues));
+            }
+            assertEquals(expected.add(solution), archive.add(solution));
+            assertEquals(expected.size(), archive.size());
+        }
+        List<PointSolution> solutions = archive.getSolutionList();
+        assertEquals(expected.size(), solutions.size());
+        for (int i = 0; i < solutions.size(); i++) {
+            assertSame(expected.get(i), solutions.get(i));
+            assertSame(expected.get(i), archive.get(i));
+        }
+    }
+}
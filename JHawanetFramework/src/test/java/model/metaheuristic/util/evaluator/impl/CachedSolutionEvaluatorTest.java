@@ -0,0 +1,172 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import epanet.core.EpanetException;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.evaluator.EvaluationCache;
+import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import model.metaheuristic.util.solutionattribute.ViolationLowerBound;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedSolutionEvaluatorTest {
+
+    @Test
+    void shouldCacheConstructorThrowExceptionWhenSizeIsLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache<IntegerSolution>(0));
+    }
+
+    @Test
+    void shouldEvaluateOnlyOnceTheSameDecisionVariables() throws EpanetException {
+        MockProblem problem = new MockProblem();
+        EvaluationCache<IntegerSolution> cache = new EvaluationCache<>(10);
+        CachedSolutionEvaluator<IntegerSolution> evaluator = new CachedSolutionEvaluator<>(new SequentialSolutionEvaluator<>(), cache);
+
+        List<IntegerSolution> population = Arrays.asList(solution(problem, 1, 2), solution(problem, 3, 4), solution(problem, 1, 2));
+        evaluator.evaluate(population, problem);
+        assertEquals(2, problem.evaluations);
+        assertEquals(3, population.get(2).getObjective(0));
+
+        List<IntegerSolution> offspring = Arrays.asList(solution(problem, 3, 4), solution(problem, 5, 6));
+        evaluator.evaluate(offspring, problem);
+        assertEquals(3, problem.evaluations);
+        assertEquals(7, offspring.get(0).getObjective(0));
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void shouldRestoreTheConstraintAttributes() throws EpanetException {
+        MockProblem problem = new MockProblem();
+        CachedSolutionEvaluator<IntegerSolution> evaluator = new CachedSolutionEvaluator<>(new SequentialSolutionEvaluator<>(),
+                new EvaluationCache<>(10));
+        evaluator.evaluate(Arrays.asList(solution(problem, 10, 4)), problem);
+
+        IntegerSolution solution = solution(problem, 10, 4);
+        evaluator.evaluate(Arrays.asList(solution), problem);
+        assertEquals(1, problem.evaluations);
+        assertEquals(-14.0, (double) new OverallConstraintViolation<IntegerSolution>().getAttribute(solution));
+        assertEquals(1, (int) new NumberOfViolatedConstraints<IntegerSolution>().getAttribute(solution));
+    }
+
+    @Test
+    void shouldOnlyStoreTheEvaluationsThatWereComplete() throws EpanetException {
+        MockProblem problem = new MockProblem();
+        EvaluationCache<IntegerSolution> cache = new EvaluationCache<>(10);
+        CachedSolutionEvaluator<IntegerSolution> evaluator = new CachedSolutionEvaluator<>(new SequentialSolutionEvaluator<>(), cache);
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+        ViolationLowerBound<IntegerSolution> lowerBound = new ViolationLowerBound<>();
+
+        // the simulation is stopped, so the violation is only a bound
+        problem.earlyTermination = true;
+        IntegerSolution stopped = solution(problem, 10, 4);
+        evaluator.evaluate(Arrays.asList(stopped), problem);
+        assertTrue(lowerBound.isLowerBound(stopped));
+        assertEquals(0, cache.size());
+
+        problem.earlyTermination = false;
+        IntegerSolution complete = solution(problem, 10, 4);
+        evaluator.evaluate(Arrays.asList(complete), problem);
+        assertEquals(2, problem.evaluations);
+        assertFalse(lowerBound.isLowerBound(complete));
+        assertEquals(1, cache.size());
+
+        // the copy of the stopped solution keeps its flag until the complete evaluation is restored
+        IntegerSolution copy = (IntegerSolution) stopped.copy();
+        assertTrue(lowerBound.isLowerBound(copy));
+        problem.earlyTermination = true;
+        evaluator.evaluate(Arrays.asList(copy), problem);
+        assertEquals(2, problem.evaluations);
+        assertFalse(lowerBound.isLowerBound(copy));
+        assertEquals(-14.0, (double) violation.getAttribute(copy));
+    }
+
+    @Test
+    void shouldRemoveTheLeastRecentlyUsedEvaluationWhenCacheIsFull() throws EpanetException {
+        MockProblem problem = new MockProblem();
+        EvaluationCache<IntegerSolution> cache = new EvaluationCache<>(2);
+        CachedSolutionEvaluator<IntegerSolution> evaluator = new CachedSolutionEvaluator<>(new SequentialSolutionEvaluator<>(), cache);
+
+        evaluator.evaluate(Arrays.asList(solution(problem, 1, 1), solution(problem, 2, 2)), problem);
+        evaluator.evaluate(Arrays.asList(solution(problem, 1, 1)), problem);
+        evaluator.evaluate(Arrays.asList(solution(problem, 3, 3)), problem);
+        assertEquals(1, cache.getEvictions());
+
+        evaluator.evaluate(Arrays.asList(solution(problem, 1, 1)), problem);
+        assertEquals(3, problem.evaluations);
+        evaluator.evaluate(Arrays.asList(solution(problem, 2, 2)), problem);
+        assertEquals(4, problem.evaluations);
+    }
+
+    private static IntegerSolution solution(MockProblem problem, int first, int second) {
+        IntegerSolution solution = problem.createSolution();
+        solution.setVariable(0, first);
+        solution.setVariable(1, second);
+        return solution;
+    }
+
+    /**
+     * Problem whose solutions are infeasible when the sum of its variables is greater than 10. With early
+     * termination only the half of the violation is computed.
+     */
+    private static class MockProblem implements Problem<IntegerSolution> {
+        private int evaluations;
+        private boolean earlyTermination;
+
+        @Override
+        public int getNumberOfVariables() {
+            return 2;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return 1;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return 1;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) {
+            evaluations++;
+            int sum = solution.getVariable(0) + solution.getVariable(1);
+            solution.setObjective(0, sum);
+            boolean stopped = this.earlyTermination && sum > 10;
+            double violation = sum > 10 ? -sum : 0.0;
+            new OverallConstraintViolation<IntegerSolution>().setAttribute(solution, stopped ? violation / 2 : violation);
+            new NumberOfViolatedConstraints<IntegerSolution>().setAttribute(solution, sum > 10 ? 1 : 0);
+            if (this.earlyTermination) {
+                new ViolationLowerBound<IntegerSolution>().setAttribute(solution, stopped);
+            }
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return 0;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 10;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "test class";
+        }
+    }
+}
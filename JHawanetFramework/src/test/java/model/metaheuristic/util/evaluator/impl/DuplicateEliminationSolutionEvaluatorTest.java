@@ -0,0 +1,144 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import model.metaheuristic.util.solutionattribute.ViolationLowerBound;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateEliminationSolutionEvaluatorTest {
+
+    @Test
+    void shouldEvaluateOnlyOneSolutionOfEachGroup() throws Exception {
+        MockProblem problem = new MockProblem();
+        DuplicateEliminationSolutionEvaluator<IntegerSolution> evaluator =
+                new DuplicateEliminationSolutionEvaluator<>(new SequentialSolutionEvaluator<>());
+
+        List<IntegerSolution> population = Arrays.asList(solution(problem, 10, 4), solution(problem, 1, 2),
+                solution(problem, 10, 4), solution(problem, 10, 4), solution(problem, 1, 3));
+        assertSame(population, evaluator.evaluate(population, problem));
+        assertEquals(3, problem.evaluations);
+        assertEquals(2, evaluator.getLastDuplicates());
+        assertEquals(0.4, evaluator.getLastDuplicateRatio());
+
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+        NumberOfViolatedConstraints<IntegerSolution> violated = new NumberOfViolatedConstraints<>();
+        for (int i : new int[]{2, 3}) {
+            assertEquals(14, population.get(i).getObjective(0));
+            assertEquals(-14.0, (double) violation.getAttribute(population.get(i)));
+            assertEquals(1, (int) violated.getAttribute(population.get(i)));
+        }
+        assertEquals(4, population.get(4).getObjective(0));
+    }
+
+    @Test
+    void shouldCopyTheLowerBoundOfTheRepresentative() throws Exception {
+        MockProblem problem = new MockProblem();
+        DuplicateEliminationSolutionEvaluator<IntegerSolution> evaluator =
+                new DuplicateEliminationSolutionEvaluator<>(new SequentialSolutionEvaluator<>());
+        ViolationLowerBound<IntegerSolution> lowerBound = new ViolationLowerBound<>();
+
+        // the simulation of the representative is stopped
+        problem.earlyTermination = true;
+        List<IntegerSolution> stopped = Arrays.asList(solution(problem, 10, 4), solution(problem, 10, 4));
+        evaluator.evaluate(stopped, problem);
+        assertTrue(lowerBound.isLowerBound(stopped.get(0)));
+        assertTrue(lowerBound.isLowerBound(stopped.get(1)));
+        assertEquals(-7.0, (double) new OverallConstraintViolation<IntegerSolution>().getAttribute(stopped.get(1)));
+
+        // the twin copied from a stopped solution doesn't keep its flag when the representative is complete
+        problem.earlyTermination = false;
+        IntegerSolution twin = (IntegerSolution) stopped.get(1).copy();
+        List<IntegerSolution> complete = Arrays.asList(solution(problem, 10, 4), twin);
+        evaluator.evaluate(complete, problem);
+        assertEquals(2, problem.evaluations);
+        assertFalse(lowerBound.isLowerBound(twin));
+        assertEquals(-14.0, (double) new OverallConstraintViolation<IntegerSolution>().getAttribute(twin));
+    }
+
+    @Test
+    void shouldNotKeepTheEvaluationsBetweenCalls() throws Exception {
+        MockProblem problem = new MockProblem();
+        DuplicateEliminationSolutionEvaluator<IntegerSolution> evaluator =
+                new DuplicateEliminationSolutionEvaluator<>(new SequentialSolutionEvaluator<>());
+
+        evaluator.evaluate(Arrays.asList(solution(problem, 1, 1), solution(problem, 1, 1)), problem);
+        evaluator.evaluate(Arrays.asList(solution(problem, 1, 1), solution(problem, 2, 2)), problem);
+        assertEquals(3, problem.evaluations);
+        assertEquals(0, evaluator.getLastDuplicateRatio());
+        assertEquals(1, evaluator.getTotalDuplicates());
+        assertEquals(4, evaluator.getTotalSolutions());
+    }
+
+    private static IntegerSolution solution(MockProblem problem, int first, int second) {
+        IntegerSolution solution = problem.createSolution();
+        solution.setVariable(0, first);
+        solution.setVariable(1, second);
+        return solution;
+    }
+
+    /**
+     * Problem whose solutions are infeasible when the sum of its variables is greater than 10. With early
+     * termination only the half of the violation is computed.
+     */
+    private static class MockProblem implements Problem<IntegerSolution> {
+        private int evaluations;
+        private boolean earlyTermination;
+
+        @Override
+        public int getNumberOfVariables() {
+            return 2;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return 1;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return 1;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) {
+            evaluations++;
+            int sum = solution.getVariable(0) + solution.getVariable(1);
+            solution.setObjective(0, sum);
+            boolean stopped = this.earlyTermination && sum > 10;
+            double violation = sum > 10 ? -sum : 0.0;
+            new OverallConstraintViolation<IntegerSolution>().setAttribute(solution, stopped ? violation / 2 : violation);
+            new NumberOfViolatedConstraints<IntegerSolution>().setAttribute(solution, sum > 10 ? 1 : 0);
+            if (this.earlyTermination) {
+                new ViolationLowerBound<IntegerSolution>().setAttribute(solution, stopped);
+            }
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return 0;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 10;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "test class";
+        }
+    }
+}
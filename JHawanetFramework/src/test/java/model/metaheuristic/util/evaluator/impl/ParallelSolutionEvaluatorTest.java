@@ -0,0 +1,152 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import epanet.core.EpanetException;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelSolutionEvaluatorTest {
+
+    @Test
+    void shouldConstructorThrowExceptionWhenThereIsNotWorkers() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSolutionEvaluator<IntegerSolution>(Collections.emptyList()));
+    }
+
+    @Test
+    void shouldEvaluateAllSolutionsOfTheList() throws Exception {
+        List<MockProblem> workers = Arrays.asList(new MockProblem(), new MockProblem(), new MockProblem());
+        MockProblem problem = new MockProblem();
+        List<IntegerSolution> solutions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            IntegerSolution solution = problem.createSolution();
+            solution.setVariable(0, i);
+            solution.setVariable(1, 2 * i);
+            solutions.add(solution);
+        }
+
+        try (ParallelSolutionEvaluator<IntegerSolution> evaluator = new ParallelSolutionEvaluator<>(workers)) {
+            List<IntegerSolution> result = evaluator.evaluate(solutions, problem);
+            assertSame(solutions, result);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(3 * i, solutions.get(i).getObjective(0));
+        }
+        assertEquals(0, problem.evaluations);
+        assertEquals(10, workers.stream().mapToInt(worker -> worker.evaluations).sum());
+    }
+
+    @Test
+    void shouldNotUseAWorkerInTwoThreadsAtTheSameTime() throws Exception {
+        List<MockProblem> workers = Arrays.asList(new MockProblem(), new MockProblem());
+        MockProblem problem = new MockProblem();
+        List<IntegerSolution> solutions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            solutions.add(problem.createSolution());
+        }
+
+        try (ParallelSolutionEvaluator<IntegerSolution> evaluator = new ParallelSolutionEvaluator<>(workers)) {
+            for (int i = 0; i < 5; i++) {
+                evaluator.evaluate(solutions, problem);
+            }
+        }
+        for (MockProblem worker : workers) {
+            assertFalse(worker.concurrentUse.get());
+        }
+    }
+
+    @Test
+    void shouldThrowTheEpanetExceptionOfTheWorker() throws Exception {
+        MockProblem worker = new MockProblem();
+        worker.fail = true;
+        MockProblem problem = new MockProblem();
+        List<IntegerSolution> solutions = Arrays.asList(problem.createSolution(), problem.createSolution());
+
+        try (ParallelSolutionEvaluator<IntegerSolution> evaluator = new ParallelSolutionEvaluator<>(Arrays.asList(worker, new MockProblem()))) {
+            assertThrows(EpanetException.class, () -> evaluator.evaluate(solutions, problem));
+        }
+    }
+
+    @Test
+    void shouldCloseTheResourcesOfTheWorkers() throws Exception {
+        List<MockProblem> workers = Arrays.asList(new MockProblem(), new MockProblem());
+        ParallelSolutionEvaluator<IntegerSolution> evaluator = new ParallelSolutionEvaluator<>(workers);
+        evaluator.close();
+        for (MockProblem worker : workers) {
+            assertTrue(worker.closed);
+        }
+    }
+
+    private static class MockProblem implements Problem<IntegerSolution> {
+        private final AtomicBoolean inUse = new AtomicBoolean(false);
+        private final AtomicBoolean concurrentUse = new AtomicBoolean(false);
+        private volatile int evaluations;
+        private volatile boolean closed;
+        private boolean fail;
+
+        @Override
+        public int getNumberOfVariables() {
+            return 2;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return 1;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return 0;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) throws EpanetException {
+            if (!inUse.compareAndSet(false, true)) {
+                concurrentUse.set(true);
+            }
+            try {
+                if (fail) {
+                    throw new EpanetException("Simulation error");
+                }
+                Thread.yield();
+                solution.setObjective(0, solution.getVariable(0) + solution.getVariable(1));
+                evaluations++;
+            } finally {
+                inUse.set(false);
+            }
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return 0;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 100;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "test class";
+        }
+
+        @Override
+        public void closeResources() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import epanet.core.EpanetException;
+import model.epanet.hydraulicsimulation.gga.GlobalGradientEngine;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.problem.impl.PipeOptimizing;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.solutionattribute.NumberOfViolatedConstraints;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import registrable.utils.PipeOptimizingProcessFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessPoolSolutionEvaluatorTest {
+    private static final String HANOI = "inp/hanoi-Frankenstein.INP";
+    private static final String HANOI_GAMA = "inp/hanoiHW.Gama";
+
+    @Test
+    void shouldEvaluateLikeTheProblemInTheCurrentProcess() throws Exception {
+        GlobalGradientEngine engine = new GlobalGradientEngine();
+        engine.open(HANOI, "");
+        PipeOptimizing problem = new PipeOptimizing(engine, HANOI_GAMA, 30);
+        List<IntegerSolution> solutions = createSolutions(problem, 10);
+
+        try (ProcessPoolSolutionEvaluator evaluator = new ProcessPoolSolutionEvaluator(2,
+                PipeOptimizingProcessFactory.class, "java", HANOI, HANOI_GAMA, "30")) {
+            assertEquals(2, evaluator.getNumberOfWorkers());
+            evaluator.evaluate(solutions, problem);
+            assertEquals(0, evaluator.getRestarts());
+        }
+
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+        NumberOfViolatedConstraints<IntegerSolution> violated = new NumberOfViolatedConstraints<>();
+        for (IntegerSolution solution : solutions) {
+            IntegerSolution expected = (IntegerSolution) solution.copy();
+            problem.evaluate(expected);
+            assertEquals(expected.getObjective(0), solution.getObjective(0));
+            assertEquals(violation.getAttribute(expected), violation.getAttribute(solution));
+            assertEquals(violated.getAttribute(expected), violated.getAttribute(solution));
+        }
+        problem.closeResources();
+    }
+
+    @Test
+    void shouldEvaluateTheSolutionsSubmittedInTheIdleProcesses() throws Exception {
+        GlobalGradientEngine engine = new GlobalGradientEngine();
+        engine.open(HANOI, "");
+        PipeOptimizing problem = new PipeOptimizing(engine, HANOI_GAMA, 30);
+        List<IntegerSolution> solutions = createSolutions(problem, 6);
+        BlockingQueue<Future<IntegerSolution>> completionQueue = new LinkedBlockingQueue<>();
+
+        try (ProcessPoolSolutionEvaluator evaluator = new ProcessPoolSolutionEvaluator(2,
+                PipeOptimizingProcessFactory.class, "java", HANOI, HANOI_GAMA, "30")) {
+            for (IntegerSolution solution : solutions) {
+                evaluator.submit(solution, problem, completionQueue::add);
+            }
+            Set<IntegerSolution> evaluated = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int i = 0; i < solutions.size(); i++) {
+                Future<IntegerSolution> future = completionQueue.poll(30, TimeUnit.SECONDS);
+                assertNotNull(future);
+                assertTrue(future.isDone());
+                evaluated.add(future.get());
+            }
+            assertEquals(solutions.size(), evaluated.size());
+            assertTrue(completionQueue.isEmpty());
+        }
+
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+        for (IntegerSolution solution : solutions) {
+            IntegerSolution expected = (IntegerSolution) solution.copy();
+            problem.evaluate(expected);
+            assertEquals(expected.getObjective(0), solution.getObjective(0));
+            assertEquals(violation.getAttribute(expected), violation.getAttribute(solution));
+        }
+        problem.closeResources();
+    }
+
+    @Test
+    void shouldRestartTheWorkerThatCrashes() throws Exception {
+        Path marker = Files.createTempFile("crash", ".marker");
+        GlobalGradientEngine engine = new GlobalGradientEngine();
+        engine.open(HANOI, "");
+        PipeOptimizing problem = new PipeOptimizing(engine, HANOI_GAMA, 30);
+        List<IntegerSolution> solutions = createSolutions(problem, 6);
+
+        try (ProcessPoolSolutionEvaluator evaluator = new ProcessPoolSolutionEvaluator(2,
+                FailingProblemFactory.class, "crash", marker.toString())) {
+            evaluator.evaluate(solutions, problem);
+            assertEquals(1, evaluator.getRestarts());
+            assertFalse(Files.exists(marker));
+        }
+        for (IntegerSolution solution : solutions) {
+            IntegerSolution expected = (IntegerSolution) solution.copy();
+            problem.evaluate(expected);
+            assertEquals(expected.getObjective(0), solution.getObjective(0));
+        }
+        problem.closeResources();
+    }
+
+    @Test
+    void shouldThrowTheErrorOfTheProblem() throws Exception {
+        GlobalGradientEngine engine = new GlobalGradientEngine();
+        engine.open(HANOI, "");
+        PipeOptimizing problem = new PipeOptimizing(engine, HANOI_GAMA, 30);
+        List<IntegerSolution> solutions = createSolutions(problem, 2);
+
+        try (ProcessPoolSolutionEvaluator evaluator = new ProcessPoolSolutionEvaluator(1,
+                FailingProblemFactory.class, "error", "")) {
+            EpanetException exception = assertThrows(EpanetException.class, () -> evaluator.evaluate(solutions, problem));
+            assertEquals("error of test", exception.getMessage());
+            // the submitted solutions report the error in its future
+            BlockingQueue<Future<IntegerSolution>> completionQueue = new LinkedBlockingQueue<>();
+            evaluator.submit(solutions.get(0), problem, completionQueue::add);
+            ExecutionException executionException = assertThrows(ExecutionException.class,
+                    () -> completionQueue.take().get());
+            assertTrue(executionException.getCause() instanceof EpanetException);
+            // the worker still works after a error
+            assertThrows(EpanetException.class, () -> evaluator.evaluate(solutions, problem));
+            assertEquals(0, evaluator.getRestarts());
+        }
+        problem.closeResources();
+    }
+
+    private static List<IntegerSolution> createSolutions(Problem<IntegerSolution> problem, int size) {
+        List<IntegerSolution> solutions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            solutions.add(problem.createSolution());
+        }
+        return solutions;
+    }
+
+    /**
+     * Factory used by the worker processes of tests. With "crash" the process dies in the first evaluation if the
+     * marker file exists (the file is deleted, so it happens only once). With "error" the problem always throws a
+     * {@link EpanetException}.
+     */
+    public static class FailingProblemFactory implements ProcessPoolSolutionEvaluator.ProcessProblemFactory {
+
+        @Override
+        public Problem<IntegerSolution> create(int workerIndex, String[] arguments) throws Exception {
+            Problem<IntegerSolution> problem = new PipeOptimizingProcessFactory().create(workerIndex,
+                    new String[]{"java", HANOI, HANOI_GAMA, "30"});
+            Path marker = Paths.get(arguments[1]);
+            boolean crash = arguments[0].equals("crash");
+            return new Problem<IntegerSolution>() {
+                @Override
+                public void evaluate(IntegerSolution solution) throws EpanetException {
+                    if (!crash) {
+                        throw new EpanetException("error of test");
+                    }
+                    try {
+                        if (Files.deleteIfExists(marker)) {
+                            Runtime.getRuntime().halt(3);
+                        }
+                    } catch (IOException e) {
+                        throw new EpanetException(e);
+                    }
+                    problem.evaluate(solution);
+                }
+
+                @Override
+                public int getNumberOfVariables() {
+                    return problem.getNumberOfVariables();
+                }
+
+                @Override
+                public int getNumberOfObjectives() {
+                    return problem.getNumberOfObjectives();
+                }
+
+                @Override
+                public int getNumberOfConstraints() {
+                    return problem.getNumberOfConstraints();
+                }
+
+                @Override
+                public @NotNull IntegerSolution createSolution() {
+                    return problem.createSolution();
+                }
+
+                @Override
+                public double getLowerBound(int index) {
+                    return problem.getLowerBound(index);
+                }
+
+                @Override
+                public double getUpperBound(int index) {
+                    return problem.getUpperBound(index);
+                }
+
+                @Override
+                public @NotNull String getName() {
+                    return problem.getName();
+                }
+
+                @Override
+                public void closeResources() throws Exception {
+                    problem.closeResources();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package model.metaheuristic.util.evaluator.impl;
+
+import epanet.core.EpanetException;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import registrable.utils.PipeOptimizingProcessFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RemoteSolutionEvaluatorTest {
+    private static final String HANOI = "inp/hanoi-Frankenstein.INP";
+    private static final String HANOI_GAMA = "inp/hanoiHW.Gama";
+
+    @Test
+    void shouldEvaluateWithSeveralWorkers() throws Exception {
+        Problem<IntegerSolution> problem = createProblem(0);
+        List<IntegerSolution> solutions = createSolutions(problem, 20);
+
+        try (RemoteSolutionEvaluator evaluator = new RemoteSolutionEvaluator(0, 3, 2000)) {
+            for (int i = 0; i < 3; i++) {
+                startWorker(evaluator, createProblem(i + 1), 100);
+            }
+            assertTrue(evaluator.awaitWorkers(3, 5000));
+            evaluator.evaluate(solutions, problem);
+            assertEquals(0, evaluator.getReassignments());
+        }
+        assertEvaluated(problem, solutions);
+    }
+
+    @Test
+    void shouldEvaluateTheSolutionsSubmitted() throws Exception {
+        Problem<IntegerSolution> problem = createProblem(0);
+        List<IntegerSolution> solutions = createSolutions(problem, 6);
+        BlockingQueue<Future<IntegerSolution>> completionQueue = new LinkedBlockingQueue<>();
+
+        try (RemoteSolutionEvaluator evaluator = new RemoteSolutionEvaluator(0, 3, 2000)) {
+            // the solutions wait in the queue until a worker is connected
+            for (IntegerSolution solution : solutions) {
+                evaluator.submit(solution, problem, completionQueue::add);
+            }
+            for (int i = 0; i < 2; i++) {
+                startWorker(evaluator, createProblem(i + 1), 100);
+            }
+            Set<IntegerSolution> evaluated = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int i = 0; i < solutions.size(); i++) {
+                Future<IntegerSolution> future = completionQueue.poll(30, TimeUnit.SECONDS);
+                assertNotNull(future);
+                assertTrue(future.isDone());
+                evaluated.add(future.get());
+            }
+            assertEquals(solutions.size(), evaluated.size());
+            assertTrue(completionQueue.isEmpty());
+        }
+        assertEvaluated(problem, solutions);
+    }
+
+    @Test
+    void shouldReassignTheChunkOfALostWorker() throws Exception {
+        Problem<IntegerSolution> problem = createProblem(0);
+        List<IntegerSolution> solutions = createSolutions(problem, 10);
+
+        try (RemoteSolutionEvaluator evaluator = new RemoteSolutionEvaluator(0, 2, 2000)) {
+            startWorker(evaluator, new FailingProblem(createProblem(1), 0, true), 100);
+            assertTrue(evaluator.awaitWorkers(1, 5000));
+            startWorker(evaluator, createProblem(2), 100);
+            assertTrue(evaluator.awaitWorkers(2, 5000));
+
+            evaluator.evaluate(solutions, problem);
+            assertEquals(1, evaluator.getReassignments());
+            assertEquals(1, evaluator.getNumberOfWorkers());
+        }
+        assertEvaluated(problem, solutions);
+    }
+
+    @Test
+    void shouldReassignTheChunkOfAWorkerWithoutHeartbeats() throws Exception {
+        Problem<IntegerSolution> problem = createProblem(0);
+        List<IntegerSolution> solutions = createSolutions(problem, 4);
+
+        try (RemoteSolutionEvaluator evaluator = new RemoteSolutionEvaluator(0, 2, 300)) {
+            // the slow worker sends heartbeats so it isn't disconnected
+            startWorker(evaluator, new FailingProblem(createProblem(1), 500, false), 50);
+            assertTrue(evaluator.awaitWorkers(1, 5000));
+            evaluator.evaluate(solutions, problem);
+            assertEquals(0, evaluator.getReassignments());
+
+            // the hung worker doesn't send heartbeats
+            startWorker(evaluator, new FailingProblem(createProblem(2), 5000, false), 0);
+            assertTrue(evaluator.awaitWorkers(2, 5000));
+            evaluator.evaluate(createSolutions(problem, 4), problem);
+            assertTrue(evaluator.getReassignments() >= 1);
+            assertEquals(1, evaluator.getNumberOfWorkers());
+        }
+        assertEvaluated(problem, solutions);
+    }
+
+    @Test
+    void shouldThrowTheErrorOfTheProblem() throws Exception {
+        Problem<IntegerSolution> problem = createProblem(0);
+        try (RemoteSolutionEvaluator evaluator = new RemoteSolutionEvaluator(0, 2, 2000)) {
+            startWorker(evaluator, new Problem<IntegerSolution>() {
+                @Override
+                public void evaluate(IntegerSolution solution) throws EpanetException {
+                    throw new EpanetException("error of test");
+                }
+
+                @Override
+                public int getNumberOfVariables() {
+                    return problem.getNumberOfVariables();
+                }
+
+                @Override
+                public int getNumberOfObjectives() {
+                    return 1;
+                }
+
+                @Override
+                public int getNumberOfConstraints() {
+                    return 1;
+                }
+
+                @Override
+                public @NotNull IntegerSolution createSolution() {
+                    return problem.createSolution();
+                }
+
+                @Override
+                public double getLowerBound(int index) {
+                    return problem.getLowerBound(index);
+                }
+
+                @Override
+                public double getUpperBound(int index) {
+                    return problem.getUpperBound(index);
+                }
+
+                @Override
+                public @NotNull String getName() {
+                    return "test class";
+                }
+            }, 100);
+            assertTrue(evaluator.awaitWorkers(1, 5000));
+            EpanetException exception = assertThrows(EpanetException.class, () -> evaluator.evaluate(createSolutions(problem, 5), problem));
+            assertEquals("error of test", exception.getMessage());
+            assertEquals(1, evaluator.getNumberOfWorkers());
+        }
+    }
+
+    private static Problem<IntegerSolution> createProblem(int workerIndex) throws Exception {
+        return new PipeOptimizingProcessFactory().create(workerIndex, new String[]{"java", HANOI, HANOI_GAMA, "30"});
+    }
+
+    private static void startWorker(RemoteSolutionEvaluator evaluator, Problem<IntegerSolution> problem, long heartbeatInterval) {
+        Thread thread = new Thread(() -> {
+            try {
+                RemoteWorker.run("localhost", evaluator.getPort(), problem, heartbeatInterval);
+            } catch (Exception | WorkerCrash e) {
+                // the worker finished
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static List<IntegerSolution> createSolutions(Problem<IntegerSolution> problem, int size) {
+        List<IntegerSolution> solutions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            solutions.add(problem.createSolution());
+        }
+        return solutions;
+    }
+
+    private static void assertEvaluated(Problem<IntegerSolution> problem, List<IntegerSolution> solutions) throws EpanetException {
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+        for (IntegerSolution solution : solutions) {
+            IntegerSolution expected = (IntegerSolution) solution.copy();
+            problem.evaluate(expected);
+            assertEquals(expected.getObjective(0), solution.getObjective(0));
+            assertEquals(violation.getAttribute(expected), violation.getAttribute(solution));
+        }
+    }
+
+    /**
+     * Error used to simulate that a worker dies.
+     */
+    private static class WorkerCrash extends Error {
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * Problem that wait before each evaluation. If crash is true the first evaluation kills the worker.
+     */
+    private static class FailingProblem implements Problem<IntegerSolution> {
+        private final Problem<IntegerSolution> problem;
+        private final long delay;
+        private boolean crash;
+
+        FailingProblem(Problem<IntegerSolution> problem, long delay, boolean crash) {
+            this.problem = problem;
+            this.delay = delay;
+            this.crash = crash;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) throws EpanetException {
+            if (this.crash) {
+                this.crash = false;
+                throw new WorkerCrash();
+            }
+            try {
+                Thread.sleep(this.delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.problem.evaluate(solution);
+        }
+
+        @Override
+        public int getNumberOfVariables() {
+            return this.problem.getNumberOfVariables();
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return this.problem.getNumberOfObjectives();
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return this.problem.getNumberOfConstraints();
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return this.problem.createSolution();
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return this.problem.getLowerBound(index);
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return this.problem.getUpperBound(index);
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return this.problem.getName();
+        }
+    }
+}
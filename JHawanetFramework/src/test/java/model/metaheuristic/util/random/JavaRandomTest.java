@@ -0,0 +1,69 @@
+package model.metaheuristic.util.random;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaRandomTest {
+
+    @Test
+    void shouldCreateTheSameStreamForTheSameRun() {
+        JavaRandom random1 = JavaRandom.forRun(7, 3);
+        JavaRandom random2 = JavaRandom.forRun(7, 3);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(random1.nextLong(), random2.nextLong());
+            assertEquals(random1.nextGaussian(), random2.nextGaussian());
+        }
+        assertNotEquals(JavaRandom.forRun(7, 3).nextLong(), JavaRandom.forRun(7, 4).nextLong());
+        assertNotEquals(JavaRandom.forRun(7, 3).nextLong(), JavaRandom.forRun(8, 3).nextLong());
+    }
+
+    @Test
+    void shouldSplitTheSameStreamsAfterTheSameCalls() {
+        JavaRandom random1 = new JavaRandom(11);
+        JavaRandom random2 = new JavaRandom(11);
+        random1.nextInt();
+        random2.nextInt();
+
+        JavaRandom split1 = random1.split();
+        JavaRandom split2 = random2.split();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(split1.nextDouble(), split2.nextDouble());
+        }
+        assertEquals(random1.nextLong(), random2.nextLong());
+    }
+
+    @Test
+    void shouldUseTheStreamOfEachThread() throws InterruptedException {
+        JavaRandom random = new JavaRandom(5);
+        JavaRandom previous = JavaRandom.setInstance(random);
+        try {
+            assertSame(random, JavaRandom.getInstance());
+            AtomicReference<JavaRandom> other = new AtomicReference<>();
+            Thread thread = new Thread(() -> other.set(JavaRandom.getInstance()));
+            thread.start();
+            thread.join();
+            assertNotNull(other.get());
+            assertNotSame(random, other.get());
+        } finally {
+            JavaRandom.setInstance(previous);
+        }
+        assertSame(previous, JavaRandom.getInstance());
+        assertThrows(NullPointerException.class, () -> JavaRandom.setInstance(null));
+    }
+
+    @Test
+    void shouldGenerateTheValuesInsideTheBounds() {
+        JavaRandom random = new JavaRandom(3);
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(-2, 5);
+            assertTrue(value >= -2 && value < 5);
+            float number = random.nextFloat();
+            assertTrue(number >= 0.0f && number < 1.0f);
+            double bounded = random.nextDouble(1.5, 2.5);
+            assertTrue(bounded >= 1.5 && bounded <= 2.5);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package model.metaheuristic.util.solutionattribute;
+
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.archive.impl.CrowdingDistanceArchive;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrowdingDistanceTest {
+
+    @Test
+    void shouldComputeTheDistancesAndSetTheAttributes() {
+        List<IntegerSolution> front = DominanceRankingTest.createPopulation(new Random(1), 2, 4, 1, false);
+        double[][] objectives = {{1, 5}, {2, 3}, {4, 2}, {5, 1}};
+        for (int i = 0; i < front.size(); i++) {
+            front.get(i).setObjective(0, objectives[i][0]);
+            front.get(i).setObjective(1, objectives[i][1]);
+        }
+        CrowdingDistance<IntegerSolution> crowdingDistance = new CrowdingDistance<>();
+
+        double[] distances = crowdingDistance.computeCrowdingDistances(front);
+
+        assertArrayEquals(new double[]{Double.POSITIVE_INFINITY, 1.5, 1.25, Double.POSITIVE_INFINITY}, distances);
+        for (int i = 0; i < front.size(); i++) {
+            assertEquals(distances[i], (double) crowdingDistance.getAttribute(front.get(i)));
+        }
+
+        // the archive removes the solution with the less distance
+        CrowdingDistanceArchive<IntegerSolution> archive = new CrowdingDistanceArchive<>(3);
+        for (IntegerSolution solution : front) {
+            archive.add(solution);
+        }
+        assertEquals(3, archive.size());
+        assertFalse(archive.getSolutionList().stream().anyMatch(solution -> solution == front.get(2)));
+    }
+
+    @Test
+    void shouldGiveTheSameDistancesWithParallelSorts() {
+        Random random = new Random(9);
+        int numberOfPoints = 500;
+        int numberOfObjectives = 4;
+        double[] objectives = new double[numberOfPoints * numberOfObjectives];
+        for (int i = 0; i < objectives.length; i++) {
+            objectives[i] = random.nextInt(50);
+        }
+
+        assertArrayEquals(CrowdingDistance.computeCrowdingDistances(objectives, numberOfPoints, numberOfObjectives, false),
+                CrowdingDistance.computeCrowdingDistances(objectives, numberOfPoints, numberOfObjectives, true));
+    }
+
+    @Test
+    void shouldGiveInfiniteDistanceToSmallFronts() {
+        assertArrayEquals(new double[]{Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY},
+                CrowdingDistance.computeCrowdingDistances(new double[]{1, 2, 3, 4}, 2, 2, false));
+        assertEquals(0, new CrowdingDistance<IntegerSolution>().computeCrowdingDistances(
+                DominanceRankingTest.createPopulation(new Random(1), 2, 0, 1, false)).length);
+        assertThrows(IllegalArgumentException.class, () -> CrowdingDistance.computeCrowdingDistances(new double[3], 2,
+                2, false));
+    }
+}
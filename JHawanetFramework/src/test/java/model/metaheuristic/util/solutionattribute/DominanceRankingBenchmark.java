@@ -0,0 +1,123 @@
+package model.metaheuristic.util.solutionattribute;
+
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.comparator.DominanceComparator;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compare the time of the ranking computed with the non dominated sorting algorithms against the time of the
+ * comparison of all pairs of solutions, with populations of 100 to 10000 solutions.
+ * <p>
+ * Each measure is executed in {@link #FORKS} new JVMs, so the compilation of a algorithm doesn't change the time of
+ * the other. Each fork executes {@link #WARMUP_ITERATIONS} iterations that aren't measured and then
+ * {@link #MEASUREMENT_ITERATIONS} iterations. The result is the mean and the standard deviation of the iterations
+ * of all forks.
+ * <p>
+ * It takes some minutes and the comparison of all pairs needs a lot of memory with 10000 solutions (the forks use
+ * -Xmx4g), so it is disabled and it is executed manually.
+ */
+class DominanceRankingBenchmark {
+    private static final int[] SIZES = {100, 200, 500, 1000, 2000, 5000, 10000};
+    private static final int FORKS = 3;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final String SORTING = "sorting";
+    private static final String ALL_PAIRS = "pairs";
+
+    @Test
+    @Disabled("Benchmark executed manually")
+    void compareTheRankingAlgorithms() throws Exception {
+        for (int numberOfObjectives = 2; numberOfObjectives <= 3; numberOfObjectives++) {
+            for (int size : SIZES) {
+                double[] sorting = fork(SORTING, numberOfObjectives, size);
+                double[] allPairs = fork(ALL_PAIRS, numberOfObjectives, size);
+                System.out.printf("objectives: %d, size: %5d, sorting: %9.3f ± %7.3f ms, all pairs: %10.3f ± %8.3f ms, speedup: %6.1f%n",
+                        numberOfObjectives, size, mean(sorting), deviation(sorting), mean(allPairs), deviation(allPairs),
+                        mean(allPairs) / mean(sorting));
+            }
+        }
+    }
+
+    /**
+     * Execute the iterations of a algorithm in new JVMs.
+     *
+     * @return the time in milliseconds of the measured iterations of all forks.
+     */
+    private static double[] fork(String algorithm, int numberOfObjectives, int size) throws IOException, InterruptedException {
+        List<String> command = Arrays.asList(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-Xmx4g", "-cp", System.getProperty("java.class.path"), DominanceRankingBenchmark.class.getName(),
+                algorithm, String.valueOf(numberOfObjectives), String.valueOf(size));
+        double[] times = new double[FORKS * MEASUREMENT_ITERATIONS];
+        int count = 0;
+        for (int i = 0; i < FORKS; i++) {
+            Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    times[count++] = Double.parseDouble(line);
+                }
+            }
+            assertEquals(0, process.waitFor(), "The fork of " + algorithm + " failed");
+        }
+        assertEquals(times.length, count);
+        return times;
+    }
+
+    /**
+     * Entry point of the forks. It writes in the standard output the time in milliseconds of each measured
+     * iteration.
+     *
+     * @param args the algorithm ("sorting" or "pairs"), the number of objectives and the size of population.
+     */
+    public static void main(String[] args) {
+        int numberOfObjectives = Integer.parseInt(args[1]);
+        int size = Integer.parseInt(args[2]);
+        List<IntegerSolution> population = DominanceRankingTest.createPopulation(new Random(size),
+                numberOfObjectives, size, 1000000, true);
+        DominanceComparator<IntegerSolution> dominanceComparator = new DominanceComparator<>();
+        Comparator<IntegerSolution> pairByPair = dominanceComparator::compare;
+        Runnable ranking = args[0].equals(SORTING)
+                ? () -> new DominanceRanking<IntegerSolution>().computeRanking(population)
+                : () -> new DominanceRanking<>(pairByPair).computeRanking(population);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            ranking.run();
+        }
+        List<Double> times = new ArrayList<>();
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            ranking.run();
+            times.add((System.nanoTime() - start) / 1e6);
+        }
+        times.forEach(System.out::println);
+    }
+
+    private static double mean(double[] values) {
+        return Arrays.stream(values).average().orElse(0);
+    }
+
+    private static double deviation(double[] values) {
+        double mean = mean(values);
+        double sum = 0;
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(sum / (values.length - 1));
+    }
+}
@@ -0,0 +1,133 @@
+package model.metaheuristic.util.solutionattribute;
+
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.comparator.DominanceComparator;
+import model.metaheuristic.util.sorting.NonDominatedSorting;
+import model.metaheuristic.util.sorting.impl.EfficientNonDominatedSorting;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DominanceRankingTest {
+
+    @Test
+    void shouldGiveTheSameRanksThatTheComparisonOfAllPairs() {
+        Random random = new Random(3);
+        for (int test = 0; test < 100; test++) {
+            List<IntegerSolution> population = createPopulation(random, 2 + random.nextInt(2), 80, 8,
+                    random.nextBoolean());
+
+            // a comparator that isn't a DominanceComparator is compared pair by pair
+            DominanceComparator<IntegerSolution> dominanceComparator = new DominanceComparator<>();
+            Comparator<IntegerSolution> comparator = dominanceComparator::compare;
+            DominanceRanking<IntegerSolution> pairByPair = new DominanceRanking<>(comparator).computeRanking(population);
+            List<Integer> expected = new ArrayList<>();
+            for (IntegerSolution solution : population) {
+                expected.add(pairByPair.getAttribute(solution));
+            }
+
+            DominanceRanking<IntegerSolution> ranking = new DominanceRanking<IntegerSolution>().computeRanking(population);
+            assertEquals(pairByPair.getNumberOfSubfronts(), ranking.getNumberOfSubfronts());
+            for (int i = 0; i < population.size(); i++) {
+                assertEquals(expected.get(i), ranking.getAttribute(population.get(i)));
+            }
+            for (int rank = 0; rank < ranking.getNumberOfSubfronts(); rank++) {
+                assertEquals(pairByPair.getSubfront(rank).size(), ranking.getSubfront(rank).size());
+            }
+        }
+    }
+
+    @Test
+    void shouldUseTheSortingAlgorithmReceived() {
+        List<IntegerSolution> population = createPopulation(new Random(5), 2, 50, 8, false);
+
+        DominanceRanking<IntegerSolution> ranking = new DominanceRanking<IntegerSolution>(
+                new EfficientNonDominatedSorting()).computeRanking(population);
+        DominanceRanking<IntegerSolution> biObjective = new DominanceRanking<IntegerSolution>().computeRanking(population);
+
+        assertEquals(biObjective.getNumberOfSubfronts(), ranking.getNumberOfSubfronts());
+        assertThrows(NullPointerException.class, () -> new DominanceRanking<IntegerSolution>(
+                (NonDominatedSorting) null));
+    }
+
+    /**
+     * Create solutions with objectives between 0 and numberOfValues - 1. If there are constraints a third of the
+     * solutions is infeasible and some of them only have a lower bound of its violation.
+     */
+    static List<IntegerSolution> createPopulation(Random random, int numberOfObjectives, int size, int numberOfValues,
+                                                  boolean constrained) {
+        MockProblem problem = new MockProblem(numberOfObjectives);
+        OverallConstraintViolation<IntegerSolution> violation = new OverallConstraintViolation<>();
+        ViolationLowerBound<IntegerSolution> lowerBound = new ViolationLowerBound<>();
+        List<IntegerSolution> population = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            IntegerSolution solution = problem.createSolution();
+            for (int j = 0; j < numberOfObjectives; j++) {
+                solution.setObjective(j, random.nextInt(numberOfValues));
+            }
+            if (constrained) {
+                boolean infeasible = random.nextInt(3) == 0;
+                violation.setAttribute(solution, infeasible ? -1.0 - random.nextInt(3) : 0.0);
+                if (infeasible && random.nextBoolean()) {
+                    lowerBound.setAttribute(solution, true);
+                }
+            }
+            population.add(solution);
+        }
+        return population;
+    }
+
+    private static class MockProblem implements Problem<IntegerSolution> {
+        private final int numberOfObjectives;
+
+        MockProblem(int numberOfObjectives) {
+            this.numberOfObjectives = numberOfObjectives;
+        }
+
+        @Override
+        public int getNumberOfVariables() {
+            return 1;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return this.numberOfObjectives;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return 0;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) {
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return 0;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 10;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "test class";
+        }
+    }
+}
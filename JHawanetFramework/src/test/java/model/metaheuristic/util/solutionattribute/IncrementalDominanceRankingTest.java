@@ -0,0 +1,157 @@
+package model.metaheuristic.util.solutionattribute;
+
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalDominanceRankingTest {
+
+    @Test
+    void shouldGiveTheSameRanksThatTheCompleteRanking() {
+        MockProblem problem = new MockProblem();
+        Random random = new Random(14);
+        List<IntegerSolution> population = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            population.add(solution(problem, random));
+        }
+        IncrementalDominanceRanking<IntegerSolution> ranking = new IncrementalDominanceRanking<>();
+        ranking.computeRanking(population);
+
+        DominanceRanking<IntegerSolution> rankingAttribute = new DominanceRanking<>();
+        CrowdingDistance<IntegerSolution> crowdingDistance = new CrowdingDistance<>();
+        for (int i = 0; i < 80; i++) {
+            IntegerSolution solution = solution(problem, random);
+            ranking.add(solution);
+            population.add(solution);
+            IntegerSolution worst = ranking.removeWorst();
+            population.removeIf(s -> s == worst);
+            assertEquals(30, ranking.size());
+
+            // the ranks and the crowding distances are the same that compute them from scratch
+            Map<IntegerSolution, Integer> ranks = new IdentityHashMap<>();
+            Map<IntegerSolution, Double> distances = new IdentityHashMap<>();
+            for (IntegerSolution s : population) {
+                ranks.put(s, rankingAttribute.getAttribute(s));
+                distances.put(s, crowdingDistance.getAttribute(s));
+            }
+            DominanceRanking<IntegerSolution> complete = new DominanceRanking<IntegerSolution>().computeRanking(population);
+            assertEquals(complete.getNumberOfSubfronts(), ranking.getNumberOfSubfronts());
+            for (int rank = 0; rank < complete.getNumberOfSubfronts(); rank++) {
+                assertEquals(complete.getSubfront(rank).size(), ranking.getSubfront(rank).size());
+                crowdingDistance.computeDensityEstimator(complete.getSubfront(rank));
+            }
+            for (IntegerSolution s : population) {
+                assertEquals(rankingAttribute.getAttribute(s), ranks.get(s));
+                assertEquals(crowdingDistance.getAttribute(s), distances.get(s), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void shouldMoveTheSolutionsDominatedByTheNewSolution() {
+        MockProblem problem = new MockProblem();
+        IncrementalDominanceRanking<IntegerSolution> ranking = new IncrementalDominanceRanking<>();
+        List<IntegerSolution> population = new ArrayList<>();
+        population.add(solution(problem, 0, 0));
+        population.add(solution(problem, 4, 0));
+        population.add(solution(problem, 8, 0));
+        population.add(solution(problem, 2, 3));
+        IntegerSolution moved = solution(problem, 6, 3);
+        population.add(moved);
+        ranking.computeRanking(population);
+        assertEquals(2, ranking.getNumberOfSubfronts());
+
+        IntegerSolution dominated = solution(problem, 4, 6);
+        assertEquals(2, ranking.add(dominated));
+        assertSame(dominated, ranking.removeWorst());
+
+        // (6, 2) dominates (6, 3), so it moves to a new front and it is the worst solution
+        assertEquals(1, ranking.add(solution(problem, 6, 2)));
+        assertEquals(3, ranking.getNumberOfSubfronts());
+        assertEquals(2, (int) new DominanceRanking<IntegerSolution>().getAttribute(moved));
+        assertSame(moved, ranking.removeWorst());
+        assertEquals(5, ranking.size());
+        assertThrows(IllegalArgumentException.class, () -> ranking.getSubfront(2));
+    }
+
+    /**
+     * Create a solution with a different position of the previous ones, so the crowding distance doesn't depend of
+     * the order of the solutions with the same objectives.
+     */
+    private static IntegerSolution solution(MockProblem problem, Random random) {
+        int position;
+        do {
+            position = random.nextInt(121);
+        } while (!problem.positions.add(position));
+        return solution(problem, position / 11, position % 11);
+    }
+
+    private static IntegerSolution solution(MockProblem problem, int first, int second) {
+        IntegerSolution solution = problem.createSolution();
+        solution.setVariable(0, first);
+        solution.setVariable(1, second);
+        problem.evaluate(solution);
+        return solution;
+    }
+
+    /**
+     * Problem with the front in second = 0. The second variable increases both objectives.
+     */
+    private static class MockProblem implements Problem<IntegerSolution> {
+        private final Set<Integer> positions = new HashSet<>();
+
+        @Override
+        public int getNumberOfVariables() {
+            return 2;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return 2;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return 0;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) {
+            int first = solution.getVariable(0);
+            int second = solution.getVariable(1);
+            solution.setObjective(0, first + second);
+            solution.setObjective(1, 10 - first + second);
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return 0;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 10;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "test class";
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package model.metaheuristic.util.solutionattribute;
+
+import model.metaheuristic.solution.Solution;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.comparator.DominanceComparator;
+import model.metaheuristic.util.comparator.OverallConstraintViolationComparator;
+import model.metaheuristic.util.comparator.RankingAndCrowdingDistanceComparator;
+import model.metaheuristic.util.point.PointSolution;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compare the time of the comparators that read attributes of the solutions when the attributes are in the slots of
+ * {@link IntegerSolution} and when they are in the map of {@link PointSolution}.
+ * <p>
+ * It is disabled and it is executed manually.
+ */
+class SolutionAttributeBenchmark {
+    private static final int SIZE = 2000;
+
+    @Test
+    @Disabled("Benchmark executed manually")
+    void compareTheComparatorsWithSlotsAndWithMap() {
+        List<IntegerSolution> population = DominanceRankingTest.createPopulation(new Random(1), 2, SIZE, 1000, true);
+        new DominanceRanking<IntegerSolution>().computeRanking(population);
+        new CrowdingDistance<IntegerSolution>().computeDensityEstimator(population);
+        List<PointSolution> points = new ArrayList<>();
+        for (IntegerSolution solution : population) {
+            PointSolution point = new PointSolution(solution.getNumberOfObjectives());
+            for (int i = 0; i < solution.getNumberOfObjectives(); i++) {
+                point.setObjective(i, solution.getObjective(i));
+            }
+            for (Map.Entry<Object, Object> attribute : solution.getAttributes().entrySet()) {
+                point.setAttribute(attribute.getKey(), attribute.getValue());
+            }
+            points.add(point);
+        }
+
+        compare("dominance", population, points, new DominanceComparator<>(), new DominanceComparator<>());
+        compare("constraint violation", population, points, new OverallConstraintViolationComparator<>(),
+                new OverallConstraintViolationComparator<>());
+        compare("ranking and crowding", population, points, new RankingAndCrowdingDistanceComparator<>(),
+                new RankingAndCrowdingDistanceComparator<>());
+    }
+
+    private static void compare(String name, List<IntegerSolution> population, List<PointSolution> points,
+                                Comparator<IntegerSolution> solutionComparator,
+                                Comparator<PointSolution> pointComparator) {
+        double slots = measure(population, solutionComparator);
+        double map = measure(points, pointComparator);
+        System.out.printf("%-22s slots: %8.3f ms, map: %8.3f ms, speedup: %5.2f%n", name, slots, map, map / slots);
+    }
+
+    /**
+     * Get the mean time in milliseconds of the comparison of all the pairs of solutions after a warm up.
+     */
+    private static <S extends Solution<?>> double measure(List<S> solutions, Comparator<S> comparator) {
+        int repetitions = 20;
+        long checksum = 0;
+        long start = 0;
+        for (int repetition = 0; repetition < 2 * repetitions; repetition++) {
+            if (repetition == repetitions) {
+                start = System.nanoTime();
+            }
+            for (S solution1 : solutions) {
+                for (S solution2 : solutions) {
+                    checksum += comparator.compare(solution1, solution2);
+                }
+            }
+        }
+        double time = (System.nanoTime() - start) / 1e6 / repetitions;
+        if (checksum == 42) {
+            System.out.println();
+        }
+        return time;
+    }
+}
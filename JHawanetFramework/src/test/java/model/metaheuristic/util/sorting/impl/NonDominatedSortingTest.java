@@ -0,0 +1,123 @@
+package model.metaheuristic.util.sorting.impl;
+
+import model.metaheuristic.util.sorting.NonDominatedSorting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NonDominatedSortingTest {
+
+    @Test
+    void shouldGiveTheSameRanksThatTheComparisonOfAllPairs() {
+        Random random = new Random(17);
+        for (int test = 0; test < 200; test++) {
+            int numberOfObjectives = 1 + random.nextInt(4);
+            // few different values, so there are a lot of repeated objectives and repeated points
+            double[][] objectives = randomPoints(random, 1 + random.nextInt(60), numberOfObjectives, 6);
+            double[] violations = random.nextBoolean() ? null : randomViolations(random, objectives.length);
+
+            int[] expected = bruteForce(objectives, violations);
+            assertArrayEquals(expected, new EfficientNonDominatedSorting().computeRanking(objectives, violations));
+            if (numberOfObjectives == 2) {
+                assertArrayEquals(expected, new BiObjectiveNonDominatedSorting().computeRanking(objectives, violations));
+            }
+        }
+    }
+
+    @Test
+    void shouldSortBiObjectivePoints() {
+        double[][] objectives = {{3, 3}, {1, 5}, {2, 2}, {5, 1}, {2, 2}, {4, 4}, {0.0, 6}, {-0.0, 7}};
+        int[] expected = {1, 0, 0, 0, 0, 2, 0, 1};
+
+        assertArrayEquals(expected, new BiObjectiveNonDominatedSorting().computeRanking(objectives, null));
+        assertArrayEquals(expected, new EfficientNonDominatedSorting().computeRanking(objectives, null));
+    }
+
+    @Test
+    void shouldPutThePointsWithLessViolationInTheFirstFronts() {
+        double[][] objectives = {{1, 1}, {0, 0}, {0, 2}, {2, 0}, {3, 3}};
+        double[] violations = {0, 2, 1, 1, 0};
+
+        // the feasible points use the fronts 0 and 1, the next group the front 2 and the worst violation the front 3
+        int[] expected = {0, 3, 2, 2, 1};
+        assertArrayEquals(expected, new BiObjectiveNonDominatedSorting().computeRanking(objectives, violations));
+        assertArrayEquals(expected, new EfficientNonDominatedSorting().computeRanking(objectives, violations));
+    }
+
+    @Test
+    void shouldValidateThePoints() {
+        NonDominatedSorting sorting = new EfficientNonDominatedSorting();
+
+        assertEquals(0, sorting.computeRanking(new double[0][], null).length);
+        assertThrows(NullPointerException.class, () -> sorting.computeRanking(null, null));
+        assertThrows(IllegalArgumentException.class, () -> sorting.computeRanking(new double[][]{{1, 2}, {1}}, null));
+        assertThrows(IllegalArgumentException.class, () -> sorting.computeRanking(new double[][]{{1, 2}}, new double[2]));
+        assertThrows(IllegalArgumentException.class, () -> new BiObjectiveNonDominatedSorting()
+                .computeRanking(new double[][]{{1, 2, 3}}, null));
+    }
+
+    private static double[][] randomPoints(Random random, int numberOfPoints, int numberOfObjectives, int numberOfValues) {
+        double[][] objectives = new double[numberOfPoints][numberOfObjectives];
+        for (double[] point : objectives) {
+            for (int j = 0; j < numberOfObjectives; j++) {
+                point[j] = random.nextInt(numberOfValues);
+            }
+        }
+        return objectives;
+    }
+
+    private static double[] randomViolations(Random random, int numberOfPoints) {
+        double[] violations = new double[numberOfPoints];
+        for (int i = 0; i < numberOfPoints; i++) {
+            violations[i] = random.nextInt(3) == 0 ? random.nextInt(3) : 0;
+        }
+        return violations;
+    }
+
+    /**
+     * Compute the fronts removing the non dominated points until there isn't points.
+     */
+    private static int[] bruteForce(double[][] objectives, double[] violations) {
+        int[] ranks = new int[objectives.length];
+        boolean[] assigned = new boolean[objectives.length];
+        int remaining = objectives.length;
+        for (int front = 0; remaining > 0; front++) {
+            boolean[] dominated = new boolean[objectives.length];
+            for (int i = 0; i < objectives.length; i++) {
+                for (int j = 0; j < objectives.length && !assigned[i]; j++) {
+                    if (!assigned[j] && dominates(objectives, violations, j, i)) {
+                        dominated[i] = true;
+                        break;
+                    }
+                }
+            }
+            for (int i = 0; i < objectives.length; i++) {
+                if (!assigned[i] && !dominated[i]) {
+                    ranks[i] = front;
+                    remaining--;
+                }
+            }
+            for (int i = 0; i < objectives.length; i++) {
+                assigned[i] |= !dominated[i];
+            }
+        }
+        return ranks;
+    }
+
+    private static boolean dominates(double[][] objectives, double[] violations, int i, int j) {
+        if (violations != null && violations[i] != violations[j]) {
+            return violations[i] < violations[j];
+        }
+        boolean better = false;
+        for (int k = 0; k < objectives[i].length; k++) {
+            if (objectives[i][k] > objectives[j][k]) {
+                return false;
+            } else if (objectives[i][k] < objectives[j][k]) {
+                better = true;
+            }
+        }
+        return better;
+    }
+}
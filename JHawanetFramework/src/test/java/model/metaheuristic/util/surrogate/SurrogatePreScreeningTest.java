@@ -0,0 +1,167 @@
+package model.metaheuristic.util.surrogate;
+
+import model.metaheuristic.algorithm.multiobjective.nsga.NSGAII;
+import model.metaheuristic.operator.crossover.impl.IntegerSBXCrossover;
+import model.metaheuristic.operator.mutation.impl.IntegerPolynomialMutation;
+import model.metaheuristic.operator.selection.impl.TournamentSelection;
+import model.metaheuristic.problem.Problem;
+import model.metaheuristic.solution.impl.IntegerSolution;
+import model.metaheuristic.util.comparator.DominanceComparator;
+import model.metaheuristic.util.evaluator.impl.SequentialSolutionEvaluator;
+import model.metaheuristic.util.solutionattribute.OverallConstraintViolation;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SurrogatePreScreeningTest {
+
+    @Test
+    void shouldPredictTheNeighbors() {
+        MockProblem problem = new MockProblem();
+        KNearestNeighborsSurrogate<IntegerSolution> model = new KNearestNeighborsSurrogate<>(problem, 2, 3);
+        double[] prediction = new double[3];
+        double[] deviation = new double[3];
+        assertThrows(IllegalStateException.class, () -> model.predict(solution(problem, 0, 0), prediction, deviation));
+
+        model.train(evaluated(problem, 0, 0));
+        model.train(evaluated(problem, 2, 0));
+        model.predict(solution(problem, 1, 0), prediction, deviation);
+        assertArrayEquals(new double[]{1, 9, 0}, prediction, 1e-9);
+        assertEquals(1, deviation[0], 1e-9);
+
+        model.predict(solution(problem, 2, 0), prediction, deviation);
+        assertArrayEquals(new double[]{2, 8, 0}, prediction, 1e-9);
+        assertArrayEquals(new double[3], deviation, 1e-9);
+
+        // the oldest solution is replaced when the model is full
+        model.train(evaluated(problem, 4, 0));
+        model.train(evaluated(problem, 6, 0));
+        assertEquals(3, model.getSize());
+        assertEquals(4, model.getOutputRange(0), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> model.predict(solution(problem, 1, 0), new double[2], deviation));
+    }
+
+    @Test
+    void shouldNotEvaluateTheOffspringDominatedByThePopulation() {
+        MockProblem problem = new MockProblem();
+        SurrogatePreScreening<IntegerSolution> preScreening = new SurrogatePreScreening<>(
+                new KNearestNeighborsSurrogate<>(problem, 3, 100), 1.0);
+        List<IntegerSolution> population = new ArrayList<>();
+        for (int x = 0; x <= 10; x += 2) {
+            population.add(evaluated(problem, x, 0));
+        }
+        List<IntegerSolution> known = new ArrayList<>(population);
+        for (int x = 0; x <= 10; x += 2) {
+            known.add(evaluated(problem, x, 10));
+        }
+        preScreening.train(known);
+
+        IntegerSolution good = solution(problem, 5, 0);
+        IntegerSolution bad = solution(problem, 5, 10);
+        List<IntegerSolution> selected = preScreening.screen(Arrays.asList(good, bad), population);
+        assertEquals(1, selected.size());
+        assertSame(good, selected.get(0));
+
+        problem.evaluate(good);
+        preScreening.update(selected);
+        SurrogatePreScreening.GenerationReport report = preScreening.getReports().get(0);
+        assertEquals(2, report.getOffspring());
+        assertEquals(1, report.getScreened());
+        assertTrue(report.getObjectiveError() < 0.05);
+        assertEquals(0, report.getViolationError(), 1e-9);
+        assertEquals(1, preScreening.getSavedEvaluations());
+    }
+
+    @Test
+    void shouldReduceTheEvaluationsOfNSGAII() throws Exception {
+        MockProblem problem = new MockProblem();
+        SurrogatePreScreening<IntegerSolution> preScreening = new SurrogatePreScreening<>(
+                new KNearestNeighborsSurrogate<>(problem, 5, 200), 1.0);
+        NSGAII<IntegerSolution> algorithm = new NSGAII<>(problem, 400, 20, 20, 20,
+                new TournamentSelection<>(2), new IntegerSBXCrossover(0.9, 20),
+                new IntegerPolynomialMutation(0.5, 20), new DominanceComparator<>(),
+                new SequentialSolutionEvaluator<>());
+        algorithm.setSurrogate(preScreening);
+        while (!algorithm.isStoppingConditionReached()) {
+            algorithm.runSingleStep();
+        }
+
+        assertFalse(algorithm.getResult().isEmpty());
+        assertEquals(19, preScreening.getReports().size());
+        assertTrue(preScreening.getSavedEvaluations() > 0);
+        // the duplicated decision variables of each generation are evaluated only once
+        assertEquals(20 + 19 * 20 - preScreening.getSavedEvaluations()
+                - algorithm.getDuplicateElimination().getTotalDuplicates(), problem.evaluations);
+        assertTrue(algorithm.getStatusOfExecution().contains("Evaluations saved by surrogate"));
+    }
+
+    private static IntegerSolution solution(MockProblem problem, int first, int second) {
+        IntegerSolution solution = problem.createSolution();
+        solution.setVariable(0, first);
+        solution.setVariable(1, second);
+        return solution;
+    }
+
+    private static IntegerSolution evaluated(MockProblem problem, int first, int second) {
+        IntegerSolution solution = solution(problem, first, second);
+        problem.evaluate(solution);
+        return solution;
+    }
+
+    /**
+     * Problem with the front in second = 0. The second variable increases both objectives.
+     */
+    private static class MockProblem implements Problem<IntegerSolution> {
+        private int evaluations;
+
+        @Override
+        public int getNumberOfVariables() {
+            return 2;
+        }
+
+        @Override
+        public int getNumberOfObjectives() {
+            return 2;
+        }
+
+        @Override
+        public int getNumberOfConstraints() {
+            return 0;
+        }
+
+        @Override
+        public void evaluate(IntegerSolution solution) {
+            evaluations++;
+            int first = solution.getVariable(0);
+            int second = solution.getVariable(1);
+            solution.setObjective(0, first + second);
+            solution.setObjective(1, 10 - first + second);
+            new OverallConstraintViolation<IntegerSolution>().setAttribute(solution, 0.0);
+        }
+
+        @Override
+        public @NotNull IntegerSolution createSolution() {
+            return new IntegerSolution(this);
+        }
+
+        @Override
+        public double getLowerBound(int index) {
+            return 0;
+        }
+
+        @Override
+        public double getUpperBound(int index) {
+            return 10;
+        }
+
+        @Override
+        public @NotNull String getName() {
+            return "test class";
+        }
+    }
+}